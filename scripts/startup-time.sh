@@ -0,0 +1,26 @@
+#!/usr/bin/env bash
+# Starts the app once and prints the time from launch to the first successful GET /api/items, and the resident
+# memory right after it. Run from the directory that holds the jar, e.g. target/cds after mvn -Pcds package:
+#   ../../scripts/startup-time.sh management-stock-0.0.1-SNAPSHOT.jar -Xshare:on -XX:SharedArchiveFile=application.jsa
+set -euo pipefail
+
+jar="$1"
+shift
+port="${PORT:-18080}"
+
+start=$(date +%s%N)
+java "$@" -jar "$jar" --server.port="$port" > startup-time.log 2>&1 &
+pid=$!
+trap 'kill $pid 2>/dev/null; wait $pid 2>/dev/null || true' EXIT
+
+until curl -sf -o /dev/null "http://localhost:$port/api/items"; do
+    if ! kill -0 "$pid" 2>/dev/null; then
+        echo "application exited, see startup-time.log" >&2
+        exit 1
+    fi
+    sleep 0.01
+done
+end=$(date +%s%N)
+
+rss_kb=$(awk '/VmRSS/ {print $2}' "/proc/$pid/status")
+echo "first request after $(( (end - start) / 1000000 )) ms, RSS $(( rss_kb / 1024 )) MB"
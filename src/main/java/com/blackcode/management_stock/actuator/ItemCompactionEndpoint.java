@@ -0,0 +1,29 @@
+package com.blackcode.management_stock.actuator;
+
+import com.blackcode.management_stock.dto.ItemCompactionReport;
+import com.blackcode.management_stock.job.ItemCompactionJob;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+@Component
+@Endpoint(id = "itemcompaction")
+public class ItemCompactionEndpoint {
+
+    private final ItemCompactionJob itemCompactionJob;
+
+    public ItemCompactionEndpoint(ItemCompactionJob itemCompactionJob) {
+        this.itemCompactionJob = itemCompactionJob;
+    }
+
+    @ReadOperation
+    public ItemCompactionReport report() {
+        return itemCompactionJob.run(false);
+    }
+
+    @WriteOperation
+    public ItemCompactionReport purge() {
+        return itemCompactionJob.run(true);
+    }
+}
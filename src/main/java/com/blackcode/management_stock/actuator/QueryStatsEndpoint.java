@@ -0,0 +1,53 @@
+package com.blackcode.management_stock.actuator;
+
+import com.blackcode.management_stock.dto.QueryStatsReport;
+import com.blackcode.management_stock.dto.StatementStats;
+import com.blackcode.management_stock.querystats.QueryStatsRecorder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+@Component
+@Endpoint(id = "querystats")
+public class QueryStatsEndpoint {
+
+    private final QueryStatsRecorder queryStatsRecorder;
+
+    private final Statistics statistics;
+
+    public QueryStatsEndpoint(QueryStatsRecorder queryStatsRecorder, EntityManagerFactory entityManagerFactory) {
+        this.queryStatsRecorder = queryStatsRecorder;
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @ReadOperation
+    public QueryStatsReport report() {
+        QueryStatsReport report = queryStatsRecorder.report();
+        // HQL as Hibernate sees it, only filled in while hibernate.generate_statistics is on.
+        report.setHqlQueries(Arrays.stream(statistics.getQueries())
+                .map(hql -> toStats(hql, statistics.getQueryStatistics(hql)))
+                .sorted(Comparator.comparingLong(StatementStats::getTotalMillis).reversed())
+                .limit(queryStatsRecorder.getTopN())
+                .toList());
+        return report;
+    }
+
+    @DeleteOperation
+    public void reset() {
+        queryStatsRecorder.reset();
+        statistics.clear();
+    }
+
+    private static StatementStats toStats(String hql, QueryStatistics queryStatistics) {
+        return new StatementStats(hql, queryStatistics.getExecutionCount(), queryStatistics.getExecutionTotalTime(),
+                queryStatistics.getExecutionMaxTime(), queryStatistics.getExecutionRowCount());
+    }
+}
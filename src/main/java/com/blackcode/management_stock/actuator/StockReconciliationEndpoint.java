@@ -0,0 +1,29 @@
+package com.blackcode.management_stock.actuator;
+
+import com.blackcode.management_stock.dto.StockReconciliationReport;
+import com.blackcode.management_stock.job.StockReconciliationJob;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+@Component
+@Endpoint(id = "stockreconciliation")
+public class StockReconciliationEndpoint {
+
+    private final StockReconciliationJob stockReconciliationJob;
+
+    public StockReconciliationEndpoint(StockReconciliationJob stockReconciliationJob) {
+        this.stockReconciliationJob = stockReconciliationJob;
+    }
+
+    @ReadOperation
+    public StockReconciliationReport report() {
+        return stockReconciliationJob.run(false);
+    }
+
+    @WriteOperation
+    public StockReconciliationReport repair() {
+        return stockReconciliationJob.run(true);
+    }
+}
@@ -0,0 +1,110 @@
+package com.blackcode.management_stock.admission;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Caps how many mutations run at once and moves the cap with their latency (AIMD). Mutations spend nearly all of
+// their time in the database, so their latency is the database's: once per window, if the average is well above
+// the best window seen, the limit is cut; if the limit was reached and latency stayed normal, it grows by one.
+@Component
+public class AdaptiveConcurrencyLimiter {
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final LongAdder windowLatencyNanos = new LongAdder();
+
+    private final LongAdder windowSamples = new LongAdder();
+
+    private final AtomicLong windowEnd;
+
+    private final long windowNanos;
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final double latencyTolerance;
+
+    private final double backoffRatio;
+
+    private volatile int limit;
+
+    private volatile boolean limitReached;
+
+    private volatile long baselineNanos = Long.MAX_VALUE;
+
+    public AdaptiveConcurrencyLimiter(@Value("${stock.admission.concurrency.initial-limit:20}") int initialLimit,
+                                      @Value("${stock.admission.concurrency.min-limit:2}") int minLimit,
+                                      @Value("${stock.admission.concurrency.max-limit:200}") int maxLimit,
+                                      @Value("${stock.admission.concurrency.latency-tolerance:2.0}") double latencyTolerance,
+                                      @Value("${stock.admission.concurrency.backoff-ratio:0.9}") double backoffRatio,
+                                      @Value("${stock.admission.concurrency.window-millis:1000}") long windowMillis) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyTolerance = latencyTolerance;
+        this.backoffRatio = backoffRatio;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+        this.windowEnd = new AtomicLong(System.nanoTime() + windowNanos);
+    }
+
+    public boolean tryAcquire() {
+        int running = inFlight.incrementAndGet();
+        if (running > limit) {
+            inFlight.decrementAndGet();
+            limitReached = true;
+            return false;
+        }
+        if (running == limit) {
+            limitReached = true;
+        }
+        return true;
+    }
+
+    public void release(long latencyNanos) {
+        inFlight.decrementAndGet();
+        windowLatencyNanos.add(latencyNanos);
+        windowSamples.increment();
+        long now = System.nanoTime();
+        long end = windowEnd.get();
+        // Only the thread that closes the window adjusts the limit.
+        if (now - end >= 0 && windowEnd.compareAndSet(end, now + windowNanos)) {
+            adjust();
+        }
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private void adjust() {
+        long samples = windowSamples.sumThenReset();
+        long total = windowLatencyNanos.sumThenReset();
+        if (samples == 0) {
+            return;
+        }
+        long average = total / samples;
+        long baseline = baselineNanos;
+        if (average < baseline) {
+            baselineNanos = average;
+        } else {
+            // Drift up slowly so the baseline follows lasting changes such as a bigger table.
+            baselineNanos = baseline + (average - baseline) / 100;
+        }
+        if (baseline != Long.MAX_VALUE && average > baseline * latencyTolerance) {
+            limit = Math.max(minLimit, (int) (limit * backoffRatio));
+        } else if (limitReached) {
+            limit = Math.min(maxLimit, limit + 1);
+        }
+        limitReached = false;
+    }
+}
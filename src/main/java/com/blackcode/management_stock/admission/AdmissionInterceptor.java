@@ -0,0 +1,100 @@
+package com.blackcode.management_stock.admission;
+
+import com.blackcode.management_stock.exception.AdmissionRejectedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.concurrent.TimeUnit;
+
+// Admission for mutating requests: the client's token bucket first (429), then the adaptive concurrency limit
+// (503). Reads are never held back here.
+@Component
+public class AdmissionInterceptor implements HandlerInterceptor {
+
+    private static final String STARTED_ATTRIBUTE = AdmissionInterceptor.class.getName() + ".STARTED";
+
+    private final TokenBucketRateLimiter rateLimiter;
+
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+
+    private final String clientHeader;
+
+    private final Counter admitted;
+
+    private final Counter rateLimited;
+
+    private final Counter shed;
+
+    public AdmissionInterceptor(TokenBucketRateLimiter rateLimiter, AdaptiveConcurrencyLimiter concurrencyLimiter,
+                                MeterRegistry meterRegistry,
+                                @Value("${stock.admission.client-header:X-Client-Id}") String clientHeader) {
+        this.rateLimiter = rateLimiter;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.clientHeader = clientHeader;
+        this.admitted = outcome(meterRegistry, "admitted");
+        this.rateLimited = outcome(meterRegistry, "rate_limited");
+        this.shed = outcome(meterRegistry, "shed");
+        Gauge.builder("stock.admission.limit", concurrencyLimiter, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current concurrency limit for mutating requests")
+                .register(meterRegistry);
+        Gauge.builder("stock.admission.in_flight", concurrencyLimiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("Mutating requests currently running")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!isMutation(request)) {
+            return true;
+        }
+        long waitNanos = rateLimiter.tryAcquire(clientId(request));
+        if (waitNanos > 0) {
+            rateLimited.increment();
+            throw new AdmissionRejectedException("Terlalu banyak permintaan, silakan coba lagi nanti",
+                    HttpStatus.TOO_MANY_REQUESTS, Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999)));
+        }
+        if (!concurrencyLimiter.tryAcquire()) {
+            shed.increment();
+            throw new AdmissionRejectedException("Server sedang sibuk, silakan coba lagi",
+                    HttpStatus.SERVICE_UNAVAILABLE, 1);
+        }
+        admitted.increment();
+        request.setAttribute(STARTED_ATTRIBUTE, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Object started = request.getAttribute(STARTED_ATTRIBUTE);
+        if (started != null) {
+            request.removeAttribute(STARTED_ATTRIBUTE);
+            concurrencyLimiter.release(System.nanoTime() - (Long) started);
+        }
+    }
+
+    private boolean isMutation(HttpServletRequest request) {
+        String method = request.getMethod();
+        return !HttpMethod.GET.matches(method) && !HttpMethod.HEAD.matches(method) && !HttpMethod.OPTIONS.matches(method);
+    }
+
+    // Integrations identify themselves with the client header; anything else is limited per remote address.
+    private String clientId(HttpServletRequest request) {
+        String clientId = request.getHeader(clientHeader);
+        return clientId == null || clientId.isBlank() ? request.getRemoteAddr() : clientId;
+    }
+
+    private static Counter outcome(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("stock.admission.requests")
+                .description("Mutating requests by admission outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
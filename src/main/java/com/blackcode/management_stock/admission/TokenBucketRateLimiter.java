@@ -0,0 +1,58 @@
+package com.blackcode.management_stock.admission;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// A token bucket per client, kept as a single "theoretical arrival time" per client (GCRA): each request pushes it
+// one refill interval further, and a request is refused when that would put it more than a full bucket ahead of
+// now. One compare-and-set per request, no locks and no background refill.
+@Component
+public class TokenBucketRateLimiter {
+
+    private final ConcurrentMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    private final long intervalNanos;
+
+    private final long capacityNanos;
+
+    private final int maxClients;
+
+    public TokenBucketRateLimiter(@Value("${stock.admission.rate-limit.burst:20}") int burst,
+                                  @Value("${stock.admission.rate-limit.refill-per-second:10}") double refillPerSecond,
+                                  @Value("${stock.admission.rate-limit.max-clients:10000}") int maxClients) {
+        this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / refillPerSecond);
+        this.capacityNanos = intervalNanos * burst;
+        this.maxClients = maxClients;
+    }
+
+    // 0 when the request may go ahead, otherwise how long the client has to wait for its next token.
+    public long tryAcquire(String clientId) {
+        long now = System.nanoTime();
+        if (buckets.size() > maxClients) {
+            evictFull(now);
+        }
+        AtomicLong arrival = buckets.computeIfAbsent(clientId, key -> new AtomicLong(now));
+        while (true) {
+            long current = arrival.get();
+            long next = Math.max(current, now) + intervalNanos;
+            long wait = next - now - capacityNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (arrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    // A bucket whose arrival time has passed is full again, the same as a new one, so it can go. A request racing
+    // the removal at worst gets one token for free.
+    private void evictFull(long now) {
+        buckets.values().removeIf(arrival -> arrival.get() <= now);
+    }
+}
@@ -0,0 +1,42 @@
+package com.blackcode.management_stock.cache;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Hibernate keeps cached items and listings in step with writes made through this instance. Catalog writes from
+// other instances only show up in the catalog stamp, so a stamp that moved since the last look drops the cached
+// listings before the next one is served. Cached items stay: the listing query reloads the rows it returns and
+// replaces every cached item whose version moved, so only the changed items are refreshed. Stock-only writes leave
+// the catalog stamp alone and never trigger this.
+@Component
+public class ItemCacheSync {
+
+    private final TableStamps tableStamps;
+
+    private final SessionFactory sessionFactory;
+
+    private final boolean queryCacheEnabled;
+
+    private final AtomicLong lastStamp = new AtomicLong(-1);
+
+    public ItemCacheSync(TableStamps tableStamps, EntityManagerFactory entityManagerFactory) {
+        this.tableStamps = tableStamps;
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.queryCacheEnabled = Boolean.parseBoolean(
+                String.valueOf(sessionFactory.getProperties().get(AvailableSettings.USE_QUERY_CACHE)));
+    }
+
+    public void evictIfChanged() {
+        if (!queryCacheEnabled) {
+            return;
+        }
+        long stamp = tableStamps.read(TableStamps.ITEM_CATALOG);
+        if (lastStamp.getAndSet(stamp) != stamp) {
+            sessionFactory.getCache().evictQueryRegions();
+        }
+    }
+}
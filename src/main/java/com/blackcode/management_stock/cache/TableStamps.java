@@ -0,0 +1,181 @@
+package com.blackcode.management_stock.cache;
+
+import com.blackcode.management_stock.datasource.ShardRouter;
+import com.blackcode.management_stock.model.Item;
+import com.blackcode.management_stock.model.ItemStockSlot;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+// A change counter per table in tb_table_stamp, split over STRIPES rows on every shard and summed on read. A
+// transaction that changes a tracked table bumps one stripe picked at random, once, on its own connection after the
+// final flush and right before the commit, so the new stamp becomes visible together with the data and the row lock
+// is only held for the commit itself. Concurrent orders mostly bump different stripes instead of queueing on one row.
+// Entity writes are picked up from Hibernate events; native updates have to call touch().
+@Component
+public class TableStamps {
+
+    // Every item or stock slot change: listings show stock, so this is the list ETag.
+    public static final String ITEMS = "tb_item";
+
+    // Item changes other than stock (inserts, deletes, names, prices, tombstones): what cached listings depend on.
+    public static final String ITEM_CATALOG = "tb_item_catalog";
+
+    private static final List<String> TRACKED = List.of(ITEMS, ITEM_CATALOG);
+
+    // Item columns an order or stock change writes; an update of nothing else is not a catalog change.
+    private static final Set<String> STOCK_PROPERTIES = Set.of("itemStock", "openingStock", "stockShards", "version");
+
+    static final int STRIPES = 16;
+
+    private static final String CREATE_SQL =
+            "CREATE TABLE IF NOT EXISTS tb_table_stamp (table_name VARCHAR(64) NOT NULL, stripe INT NOT NULL, " +
+            "stamp BIGINT NOT NULL, PRIMARY KEY (table_name, stripe))";
+
+    private static final String SEED_SQL =
+            "INSERT INTO tb_table_stamp (table_name, stripe, stamp) SELECT ?, ?, 0 " +
+            "WHERE NOT EXISTS (SELECT 1 FROM tb_table_stamp WHERE table_name = ? AND stripe = ?)";
+
+    private static final String BUMP_SQL =
+            "UPDATE tb_table_stamp SET stamp = stamp + 1 WHERE table_name = ? AND stripe = ?";
+
+    private static final String READ_SQL = "SELECT SUM(stamp) FROM tb_table_stamp WHERE table_name = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final EntityManager entityManager;
+
+    private final ShardRouter shardRouter;
+
+    public TableStamps(DataSource dataSource, EntityManagerFactory entityManagerFactory, EntityManager entityManager,
+                       ShardRouter shardRouter) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.entityManager = entityManager;
+        this.shardRouter = shardRouter;
+        for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+            shardRouter.withShard(shard, () -> {
+                jdbcTemplate.execute(CREATE_SQL);
+                for (String table : TRACKED) {
+                    for (int stripe = 0; stripe < STRIPES; stripe++) {
+                        jdbcTemplate.update(SEED_SQL, table, stripe, table, stripe);
+                    }
+                }
+                return null;
+            });
+        }
+        register(entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class));
+    }
+
+    // Stripes only ever grow, so their sum over all shards changes whenever any of them does.
+    public long read(String table) {
+        return shardRouter.scatter(shard -> jdbcTemplate.queryForObject(READ_SQL, Long.class, table))
+                .stream().mapToLong(Long::longValue).sum();
+    }
+
+    public void touch(String table) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            jdbcTemplate.update(BUMP_SQL, table, randomStripe());
+            return;
+        }
+        touch(entityManager.unwrap(SessionImplementor.class), table);
+    }
+
+    private void touch(SessionImplementor session, String table) {
+        // One bump per table and transaction, however many rows it wrote.
+        Pending pending = new Pending(session, table);
+        if (TransactionSynchronizationManager.hasResource(pending)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(pending, Boolean.TRUE);
+        session.getActionQueue().registerProcess((BeforeTransactionCompletionProcess) s ->
+                s.doWork(connection -> {
+                    try (PreparedStatement statement = connection.prepareStatement(BUMP_SQL)) {
+                        statement.setString(1, table);
+                        statement.setInt(2, randomStripe());
+                        statement.executeUpdate();
+                    }
+                }));
+        session.getActionQueue().registerProcess((AfterTransactionCompletionProcess) (success, s) ->
+                TransactionSynchronizationManager.unbindResourceIfPossible(pending));
+    }
+
+    private static int randomStripe() {
+        return ThreadLocalRandom.current().nextInt(STRIPES);
+    }
+
+    private void register(EventListenerRegistry registry) {
+        ItemChangeListener listener = new ItemChangeListener();
+        registry.appendListeners(EventType.POST_INSERT, listener);
+        registry.appendListeners(EventType.POST_UPDATE, listener);
+        registry.appendListeners(EventType.POST_DELETE, listener);
+    }
+
+    private void touchIfTracked(SessionImplementor session, Object entity, boolean catalogChanged) {
+        // Slot rows carry the stock of sharded items, so they count as item changes.
+        if (entity instanceof Item || entity instanceof ItemStockSlot) {
+            touch(session, ITEMS);
+        }
+        if (entity instanceof Item && catalogChanged) {
+            touch(session, ITEM_CATALOG);
+        }
+    }
+
+    private static boolean stockOnly(PostUpdateEvent event) {
+        int[] dirty = event.getDirtyProperties();
+        if (dirty == null) {
+            return false;
+        }
+        String[] names = event.getPersister().getPropertyNames();
+        return Arrays.stream(dirty).allMatch(property -> STOCK_PROPERTIES.contains(names[property]));
+    }
+
+    private record Pending(SessionImplementor session, String table) {
+    }
+
+    private class ItemChangeListener
+            implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+        @Override
+        public void onPostInsert(PostInsertEvent event) {
+            touchIfTracked(event.getSession(), event.getEntity(), true);
+        }
+
+        @Override
+        public void onPostUpdate(PostUpdateEvent event) {
+            touchIfTracked(event.getSession(), event.getEntity(), !stockOnly(event));
+        }
+
+        @Override
+        public void onPostDelete(PostDeleteEvent event) {
+            touchIfTracked(event.getSession(), event.getEntity(), true);
+        }
+
+        @Override
+        public boolean requiresPostCommitHandling(EntityPersister persister) {
+            return false;
+        }
+    }
+}
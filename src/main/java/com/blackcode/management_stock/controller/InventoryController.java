@@ -1,16 +1,26 @@
 package com.blackcode.management_stock.controller;
 
+import com.blackcode.management_stock.dto.InventoryPatchReq;
 import com.blackcode.management_stock.dto.InventoryReq;
 import com.blackcode.management_stock.dto.InventoryRes;
+import com.blackcode.management_stock.dto.PageRes;
 import com.blackcode.management_stock.service.InventoryService;
 import com.blackcode.management_stock.utils.ApiResponse;
+import com.blackcode.management_stock.utils.ExportFormat;
+import com.blackcode.management_stock.web.WireFormat;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
 import java.util.Map;
 
 @RestController
@@ -20,16 +30,37 @@ public class InventoryController {
 
     private final InventoryService inventoryService;
 
-    public InventoryController(InventoryService inventoryService) {
+    private final int streamThreshold;
+
+    public InventoryController(InventoryService inventoryService,
+                               @Value("${stock.listing.stream-threshold:500}") int streamThreshold) {
         this.inventoryService = inventoryService;
+        this.streamThreshold = streamThreshold;
     }
 
     @GetMapping
-    public ResponseEntity<ApiResponse<Page<InventoryRes>>> getInventoryListAll(
+    public ResponseEntity<ApiResponse<PageRes<InventoryRes>>> getInventoryListAll(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size){
+            @RequestParam(defaultValue = "10") int size,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            HttpServletResponse response) throws IOException {
+        // Large JSON pages are written row by row straight from the result set instead of being built first.
+        if (size >= streamThreshold && WireFormat.negotiate(accept) == WireFormat.JSON) {
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            inventoryService.writeInventoryPage(page, size, response.getOutputStream());
+            return null;
+        }
         Page<InventoryRes> inventoryRes = inventoryService.getAllInventory(page, size);
-        return ResponseEntity.ok(ApiResponse.success("Inventory retrieved successfully", 200, inventoryRes));
+        return ResponseEntity.ok(ApiResponse.success("Inventory retrieved successfully", 200, PageRes.of(inventoryRes)));
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportInventory(@RequestParam(defaultValue = "CSV") ExportFormat format){
+        StreamingResponseBody body = outputStream -> inventoryService.exportInventory(format, outputStream);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"inventory." + format.getExtension() + "\"")
+                .body(body);
     }
 
     @GetMapping("/{id}")
@@ -50,6 +81,12 @@ public class InventoryController {
         return ResponseEntity.ok(ApiResponse.success("Inventory updated successfully", 200, inventoryRes));
     }
 
+    @PatchMapping("/{id}")
+    public ResponseEntity<ApiResponse<InventoryRes>> patchInventory(@PathVariable("id") Long id, @Valid @RequestBody InventoryPatchReq inventoryPatchReq){
+        InventoryRes inventoryRes = inventoryService.patchInventory(id, inventoryPatchReq);
+        return ResponseEntity.ok(ApiResponse.success("Inventory updated successfully", 200, inventoryRes));
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<ApiResponse<Map<String, Object>>> deleteInventoryById(@PathVariable("id") Long id){
         Map<String, Object> rtn = inventoryService.deleteInventory(id);
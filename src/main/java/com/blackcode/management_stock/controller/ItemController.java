@@ -1,16 +1,26 @@
 package com.blackcode.management_stock.controller;
 
+import com.blackcode.management_stock.dto.CatalogSyncReport;
+import com.blackcode.management_stock.dto.ItemPatchReq;
 import com.blackcode.management_stock.dto.ItemReq;
 import com.blackcode.management_stock.dto.ItemRes;
+import com.blackcode.management_stock.dto.ItemShardReq;
+import com.blackcode.management_stock.dto.PageRes;
+import com.blackcode.management_stock.service.CatalogSyncService;
 import com.blackcode.management_stock.service.ItemService;
 import com.blackcode.management_stock.utils.ApiResponse;
+import com.blackcode.management_stock.web.WireFormat;
 import jakarta.validation.Valid;
 import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.InputStream;
 import java.util.Map;
 
 @RestController
@@ -20,22 +30,36 @@ public class ItemController {
 
     private final ItemService itemService;
 
-    public ItemController(ItemService itemService) {
+    private final CatalogSyncService catalogSyncService;
+
+    public ItemController(ItemService itemService, CatalogSyncService catalogSyncService) {
         this.itemService = itemService;
+        this.catalogSyncService = catalogSyncService;
     }
 
     @GetMapping
-    public ResponseEntity<ApiResponse<Page<ItemRes>>> getItemListAll(
+    public ResponseEntity<ApiResponse<PageRes<ItemRes>>> getItemListAll(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size){
+            @RequestParam(defaultValue = "10") int size,
+            WebRequest request){
+        // The stamp is read before the page, so a change committed in between can only make the ETag too old.
+        String eTag = eTag("items-" + itemService.getItemsVersion(), request);
+        if (request.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).varyBy(HttpHeaders.ACCEPT).build();
+        }
         Page<ItemRes> itemResList = itemService.getAllItems(page, size);
-        return ResponseEntity.ok(ApiResponse.success("Item retrieved successfully", 200, itemResList));
+        return ResponseEntity.ok().eTag(eTag).varyBy(HttpHeaders.ACCEPT).body(ApiResponse.success("Item retrieved successfully", 200, PageRes.of(itemResList)));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse<ItemRes>> getItemFindById(@PathVariable("id") Long id){
+    public ResponseEntity<ApiResponse<ItemRes>> getItemFindById(@PathVariable("id") Long id, WebRequest request){
         ItemRes itemRes = itemService.getItemById(id);
-        return ResponseEntity.ok(ApiResponse.success("Item found",200, itemRes));
+        // Stock of a sharded item lives in slot rows that do not bump the item's version, hence the stock suffix.
+        String eTag = eTag(itemRes.getItemId() + "-" + itemRes.getVersion() + "-" + itemRes.getItemStock(), request);
+        if (request.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).varyBy(HttpHeaders.ACCEPT).build();
+        }
+        return ResponseEntity.ok().eTag(eTag).varyBy(HttpHeaders.ACCEPT).body(ApiResponse.success("Item found",200, itemRes));
     }
 
     @PostMapping
@@ -44,16 +68,41 @@ public class ItemController {
         return ResponseEntity.status(HttpStatus.CREATED).body(ApiResponse.success("Item created successfully", 201, itemRes));
     }
 
+    // The body is read as a stream, so a full catalog is never held in memory as one list.
+    @PutMapping(value = "/catalog", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<ApiResponse<CatalogSyncReport>> syncCatalog(InputStream catalog){
+        CatalogSyncReport report = catalogSyncService.syncCatalog(catalog);
+        return ResponseEntity.ok(ApiResponse.success("Catalog synced successfully", 200, report));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<ApiResponse<ItemRes>> updateItem(@PathVariable("id") Long id, @Valid @RequestBody ItemReq itemReq){
         ItemRes itemRes = itemService.updateItem(id, itemReq);
         return ResponseEntity.ok(ApiResponse.success("Item updated successfully", 200, itemRes));
     }
 
+    @PatchMapping("/{id}")
+    public ResponseEntity<ApiResponse<ItemRes>> patchItem(@PathVariable("id") Long id, @Valid @RequestBody ItemPatchReq itemPatchReq){
+        ItemRes itemRes = itemService.patchItem(id, itemPatchReq);
+        return ResponseEntity.ok(ApiResponse.success("Item updated successfully", 200, itemRes));
+    }
+
+    @PutMapping("/{id}/shards")
+    public ResponseEntity<ApiResponse<ItemRes>> updateStockShards(@PathVariable("id") Long id, @Valid @RequestBody ItemShardReq itemShardReq){
+        ItemRes itemRes = itemService.updateStockShards(id, itemShardReq);
+        return ResponseEntity.ok(ApiResponse.success("Item stock shards updated successfully", 200, itemRes));
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<ApiResponse<Map<String, Object>>> deleteItemById(@PathVariable("id") Long id){
         Map<String, Object> rtn = itemService.deleteItem(id);
         return ResponseEntity.ok(ApiResponse.success("Item deleted successfully", 200, rtn));
     }
 
+    // JSON, CBOR and protobuf are different representations of the same item, so each gets its own strong tag.
+    private String eTag(String version, WebRequest request) {
+        String format = WireFormat.negotiate(request.getHeader(HttpHeaders.ACCEPT)).tag();
+        return "\"" + version + (format.isEmpty() ? "" : "." + format) + "\"";
+    }
+
 }
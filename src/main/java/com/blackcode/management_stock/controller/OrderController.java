@@ -1,16 +1,27 @@
 package com.blackcode.management_stock.controller;
 
+import com.blackcode.management_stock.dto.OrderBasketReq;
+import com.blackcode.management_stock.dto.OrderBasketRes;
 import com.blackcode.management_stock.dto.OrderReq;
 import com.blackcode.management_stock.dto.OrderRes;
+import com.blackcode.management_stock.dto.PageRes;
 import com.blackcode.management_stock.service.OrderService;
 import com.blackcode.management_stock.utils.ApiResponse;
+import com.blackcode.management_stock.utils.ExportFormat;
+import com.blackcode.management_stock.web.WireFormat;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
 import java.util.Map;
 
 @RestController
@@ -20,16 +31,37 @@ public class OrderController {
 
     private final OrderService orderService;
 
-    public OrderController(OrderService orderService) {
+    private final int streamThreshold;
+
+    public OrderController(OrderService orderService,
+                           @Value("${stock.listing.stream-threshold:500}") int streamThreshold) {
         this.orderService = orderService;
+        this.streamThreshold = streamThreshold;
     }
 
     @GetMapping
-    public ResponseEntity<ApiResponse<Page<OrderRes>>> getOrderListAll(
+    public ResponseEntity<ApiResponse<PageRes<OrderRes>>> getOrderListAll(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size){
+            @RequestParam(defaultValue = "10") int size,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            HttpServletResponse response) throws IOException {
+        // Large JSON pages are written row by row straight from the result set instead of being built first.
+        if (size >= streamThreshold && WireFormat.negotiate(accept) == WireFormat.JSON) {
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            orderService.writeOrderPage(page, size, response.getOutputStream());
+            return null;
+        }
         Page<OrderRes> orderResList = orderService.getAllOrders(page, size);
-        return ResponseEntity.ok(ApiResponse.success("Order retrieved successfully", 200, orderResList));
+        return ResponseEntity.ok(ApiResponse.success("Order retrieved successfully", 200, PageRes.of(orderResList)));
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportOrders(@RequestParam(defaultValue = "CSV") ExportFormat format){
+        StreamingResponseBody body = outputStream -> orderService.exportOrders(format, outputStream);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"orders." + format.getExtension() + "\"")
+                .body(body);
     }
 
     @GetMapping("/{id}")
@@ -44,6 +76,18 @@ public class OrderController {
         return ResponseEntity.status(HttpStatus.CREATED).body(ApiResponse.success("Order created successfully", 201, orderRes));
     }
 
+    @PostMapping("/basket")
+    public ResponseEntity<ApiResponse<OrderBasketRes>> addBasketOrder(@Valid @RequestBody OrderBasketReq orderBasketReq){
+        OrderBasketRes orderBasketRes = orderService.createBasketOrder(orderBasketReq);
+        return ResponseEntity.status(HttpStatus.CREATED).body(ApiResponse.success("Order created successfully", 201, orderBasketRes));
+    }
+
+    @GetMapping("/basket/{id}")
+    public ResponseEntity<ApiResponse<OrderBasketRes>> getBasketOrderFindById(@PathVariable("id") String id){
+        OrderBasketRes orderBasketRes = orderService.getBasketOrderById(id);
+        return ResponseEntity.ok(ApiResponse.success("Order found",200, orderBasketRes));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<ApiResponse<OrderRes>> updateOrder(@PathVariable("id") String id, @Valid @RequestBody OrderReq orderReq){
         OrderRes orderRes = orderService.updateOrder(id, orderReq);
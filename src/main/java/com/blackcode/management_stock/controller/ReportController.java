@@ -0,0 +1,45 @@
+package com.blackcode.management_stock.controller;
+
+import com.blackcode.management_stock.dto.SalesRollupRes;
+import com.blackcode.management_stock.dto.SalesSummaryRes;
+import com.blackcode.management_stock.model.RollupGranularity;
+import com.blackcode.management_stock.service.SalesReportService;
+import com.blackcode.management_stock.utils.ApiResponse;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/reports")
+@Validated
+public class ReportController {
+
+    private final SalesReportService salesReportService;
+
+    public ReportController(SalesReportService salesReportService) {
+        this.salesReportService = salesReportService;
+    }
+
+    @GetMapping("/sales")
+    public ResponseEntity<ApiResponse<List<SalesRollupRes>>> getSalesRollups(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "DAY") RollupGranularity granularity,
+            @RequestParam(required = false) Long itemId){
+        List<SalesRollupRes> rollups = salesReportService.getSalesRollups(granularity, from, to, itemId);
+        return ResponseEntity.ok(ApiResponse.success("Sales report retrieved successfully", 200, rollups));
+    }
+
+    @GetMapping("/sales/summary")
+    public ResponseEntity<ApiResponse<List<SalesSummaryRes>>> getSalesSummary(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Long itemId){
+        List<SalesSummaryRes> summary = salesReportService.getSalesSummary(from, to, itemId);
+        return ResponseEntity.ok(ApiResponse.success("Sales summary retrieved successfully", 200, summary));
+    }
+}
@@ -0,0 +1,77 @@
+package com.blackcode.management_stock.controller;
+
+import com.blackcode.management_stock.dto.InventoryRes;
+import com.blackcode.management_stock.dto.ItemRes;
+import com.blackcode.management_stock.dto.OrderBasketReq;
+import com.blackcode.management_stock.dto.OrderBasketRes;
+import com.blackcode.management_stock.dto.OrderReq;
+import com.blackcode.management_stock.dto.OrderRes;
+import com.blackcode.management_stock.dto.PageRes;
+import com.blackcode.management_stock.dto.StockReservationReq;
+import com.blackcode.management_stock.dto.StockReservationRes;
+import com.blackcode.management_stock.exception.DataNotFoundException;
+import com.blackcode.management_stock.utils.ApiResponse;
+import com.blackcode.management_stock.web.JacksonProtobufHttpMessageConverter;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.lang.reflect.Type;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// The .proto definitions behind application/x-protobuf, generated from the same DTO classes the endpoints use.
+@RestController
+@RequestMapping("/api/schemas")
+public class SchemaController {
+
+    private static final Map<String, Type> MESSAGES = new LinkedHashMap<>();
+
+    static {
+        MESSAGES.put("item", response(ItemRes.class));
+        MESSAGES.put("item-page", page(ItemRes.class));
+        MESSAGES.put("inventory", response(InventoryRes.class));
+        MESSAGES.put("inventory-page", page(InventoryRes.class));
+        MESSAGES.put("order", response(OrderRes.class));
+        MESSAGES.put("order-page", page(OrderRes.class));
+        MESSAGES.put("order-basket", response(OrderBasketRes.class));
+        MESSAGES.put("reservation", response(StockReservationRes.class));
+        MESSAGES.put("order-request", OrderReq.class);
+        MESSAGES.put("order-basket-request", OrderBasketReq.class);
+        MESSAGES.put("reservation-request", StockReservationReq.class);
+    }
+
+    private final JacksonProtobufHttpMessageConverter converter = new JacksonProtobufHttpMessageConverter();
+
+    @GetMapping
+    public ResponseEntity<ApiResponse<Map<String, String>>> getSchemaNames() {
+        Map<String, String> names = new LinkedHashMap<>();
+        MESSAGES.forEach((name, type) -> names.put(name, type.getTypeName()));
+        return ResponseEntity.ok(ApiResponse.success("Schemas retrieved successfully", 200, names));
+    }
+
+    @GetMapping(value = "/{name}", produces = MediaType.TEXT_PLAIN_VALUE)
+    public String getSchema(@PathVariable("name") String name) {
+        Type type = MESSAGES.get(name);
+        if (type == null) {
+            throw new DataNotFoundException("Schema not found: " + name);
+        }
+        return converter.schemaFor(type)
+                .orElseThrow(() -> new DataNotFoundException("Schema not found: " + name))
+                .getSource()
+                .toString();
+    }
+
+    private static Type response(Class<?> data) {
+        return ResolvableType.forClassWithGenerics(ApiResponse.class, data).getType();
+    }
+
+    private static Type page(Class<?> content) {
+        return ResolvableType.forClassWithGenerics(ApiResponse.class,
+                ResolvableType.forClassWithGenerics(PageRes.class, content)).getType();
+    }
+}
@@ -0,0 +1,44 @@
+package com.blackcode.management_stock.controller;
+
+import com.blackcode.management_stock.dto.LocationStockRes;
+import com.blackcode.management_stock.dto.StockLocationReq;
+import com.blackcode.management_stock.dto.StockLocationRes;
+import com.blackcode.management_stock.service.StockLocationService;
+import com.blackcode.management_stock.utils.ApiResponse;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/locations")
+@Validated
+public class StockLocationController {
+
+    private final StockLocationService stockLocationService;
+
+    public StockLocationController(StockLocationService stockLocationService) {
+        this.stockLocationService = stockLocationService;
+    }
+
+    @GetMapping
+    public ResponseEntity<ApiResponse<List<StockLocationRes>>> getLocationListAll(){
+        List<StockLocationRes> locations = stockLocationService.getAllLocations();
+        return ResponseEntity.ok(ApiResponse.success("Location retrieved successfully", 200, locations));
+    }
+
+    @PostMapping
+    public ResponseEntity<ApiResponse<StockLocationRes>> addLocation(@Valid @RequestBody StockLocationReq stockLocationReq){
+        StockLocationRes stockLocationRes = stockLocationService.createLocation(stockLocationReq);
+        return ResponseEntity.status(HttpStatus.CREATED).body(ApiResponse.success("Location created successfully", 201, stockLocationRes));
+    }
+
+    @GetMapping("/stock/{itemId}")
+    public ResponseEntity<ApiResponse<List<LocationStockRes>>> getItemStockByLocation(@PathVariable("itemId") Long itemId){
+        List<LocationStockRes> stock = stockLocationService.getItemStockByLocation(itemId);
+        return ResponseEntity.ok(ApiResponse.success("Location stock retrieved successfully", 200, stock));
+    }
+}
@@ -0,0 +1,53 @@
+package com.blackcode.management_stock.controller;
+
+import com.blackcode.management_stock.dto.OrderRes;
+import com.blackcode.management_stock.dto.ReservationConfirmReq;
+import com.blackcode.management_stock.dto.StockReservationReq;
+import com.blackcode.management_stock.dto.StockReservationRes;
+import com.blackcode.management_stock.service.OrderService;
+import com.blackcode.management_stock.service.StockReservationService;
+import com.blackcode.management_stock.utils.ApiResponse;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/reservations")
+@Validated
+public class StockReservationController {
+
+    private final StockReservationService stockReservationService;
+
+    private final OrderService orderService;
+
+    public StockReservationController(StockReservationService stockReservationService, OrderService orderService) {
+        this.stockReservationService = stockReservationService;
+        this.orderService = orderService;
+    }
+
+    @PostMapping
+    public ResponseEntity<ApiResponse<StockReservationRes>> holdStock(@Valid @RequestBody StockReservationReq stockReservationReq){
+        StockReservationRes stockReservationRes = stockReservationService.holdStock(stockReservationReq);
+        return ResponseEntity.status(HttpStatus.CREATED).body(ApiResponse.success("Stock reserved successfully", 201, stockReservationRes));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ApiResponse<StockReservationRes>> getReservationFindById(@PathVariable("id") Long id){
+        StockReservationRes stockReservationRes = stockReservationService.getReservationById(id);
+        return ResponseEntity.ok(ApiResponse.success("Reservation found", 200, stockReservationRes));
+    }
+
+    @PostMapping("/{id}/confirm")
+    public ResponseEntity<ApiResponse<OrderRes>> confirmReservation(@PathVariable("id") Long id, @Valid @RequestBody ReservationConfirmReq reservationConfirmReq){
+        OrderRes orderRes = orderService.confirmReservation(id, reservationConfirmReq);
+        return ResponseEntity.status(HttpStatus.CREATED).body(ApiResponse.success("Order created successfully", 201, orderRes));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<ApiResponse<StockReservationRes>> releaseReservation(@PathVariable("id") Long id){
+        StockReservationRes stockReservationRes = stockReservationService.releaseReservation(id);
+        return ResponseEntity.ok(ApiResponse.success("Reservation released successfully", 200, stockReservationRes));
+    }
+}
@@ -0,0 +1,6 @@
+package com.blackcode.management_stock.datasource;
+
+public enum DataSourceRoute {
+    PRIMARY,
+    REPLICA
+}
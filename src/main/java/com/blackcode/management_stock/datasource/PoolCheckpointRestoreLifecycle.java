@@ -0,0 +1,38 @@
+package com.blackcode.management_stock.datasource;
+
+import org.springframework.boot.jdbc.HikariCheckpointRestoreLifecycle;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.Lifecycle;
+
+import javax.sql.DataSource;
+import java.util.Collection;
+import java.util.List;
+
+// Spring Boot only covers the pool it auto-configures. The replica and shard pools are built here by hand, so they
+// get the same treatment: suspended and drained before a CRaC checkpoint, resumed after restore.
+public class PoolCheckpointRestoreLifecycle implements Lifecycle {
+
+    private final List<HikariCheckpointRestoreLifecycle> pools;
+
+    public PoolCheckpointRestoreLifecycle(Collection<? extends DataSource> dataSources,
+                                          ConfigurableApplicationContext applicationContext) {
+        this.pools = dataSources.stream()
+                .map(dataSource -> new HikariCheckpointRestoreLifecycle(dataSource, applicationContext))
+                .toList();
+    }
+
+    @Override
+    public void start() {
+        pools.forEach(HikariCheckpointRestoreLifecycle::start);
+    }
+
+    @Override
+    public void stop() {
+        pools.forEach(HikariCheckpointRestoreLifecycle::stop);
+    }
+
+    @Override
+    public boolean isRunning() {
+        return pools.stream().anyMatch(HikariCheckpointRestoreLifecycle::isRunning);
+    }
+}
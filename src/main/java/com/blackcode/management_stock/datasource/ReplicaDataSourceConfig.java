@@ -0,0 +1,72 @@
+package com.blackcode.management_stock.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+// Active only when stock.datasource.replica.url is set; otherwise Spring Boot's single datasource is used as before.
+@Configuration
+@ConditionalOnProperty(prefix = "stock.datasource.replica", name = "url")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("stock.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(@Value("${stock.datasource.replica.url}") String url,
+                                              @Value("${stock.datasource.replica.username:${spring.datasource.username:sa}}") String username,
+                                              @Value("${stock.datasource.replica.password:${spring.datasource.password:}}") String password) {
+        HikariDataSource dataSource = DataSourceBuilder.create().type(HikariDataSource.class)
+                .url(url).username(username).password(password).build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                               @Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                               @Value("${stock.datasource.replica.max-lag-millis:2000}") long maxLagMillis,
+                                               @Value("${stock.datasource.replica.check-interval-millis:1000}") long checkIntervalMillis) {
+        return new ReplicaLagMonitor(primaryDataSource, replicaDataSource, maxLagMillis, checkIntervalMillis);
+    }
+
+    @Bean
+    public PoolCheckpointRestoreLifecycle poolCheckpointRestoreLifecycle(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                                                         @Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                                                         ConfigurableApplicationContext applicationContext) {
+        return new PoolCheckpointRestoreLifecycle(List.of(primaryDataSource, replicaDataSource), applicationContext);
+    }
+
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(@Value("${stock.datasource.replica.sticky-millis:2000}") long stickyMillis) {
+        return new ReadYourWritesTracker(stickyMillis);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                 @Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                 ReplicaLagMonitor replicaLagMonitor, ReadYourWritesTracker readYourWritesTracker) {
+        return new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(primaryDataSource, replicaDataSource,
+                replicaLagMonitor, readYourWritesTracker));
+    }
+}
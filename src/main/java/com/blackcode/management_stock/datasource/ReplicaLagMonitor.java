@@ -0,0 +1,113 @@
+package com.blackcode.management_stock.datasource;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.Lifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+public class ReplicaLagMonitor implements Lifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private static final String CREATE_SQL =
+            "CREATE TABLE IF NOT EXISTS tb_replica_heartbeat (heartbeat_id INT PRIMARY KEY, beat_millis BIGINT NOT NULL)";
+
+    private static final String SELECT_SQL = "SELECT beat_millis FROM tb_replica_heartbeat WHERE heartbeat_id = 1";
+
+    private final JdbcTemplate primaryJdbcTemplate;
+
+    private final JdbcTemplate replicaJdbcTemplate;
+
+    private final long maxLagMillis;
+
+    private final ScheduledExecutorService executor;
+
+    private volatile boolean replicaUsable;
+
+    private volatile long lastLagMillis = -1;
+
+    private volatile boolean running = true;
+
+    public ReplicaLagMonitor(DataSource primaryDataSource, DataSource replicaDataSource,
+                             long maxLagMillis, long checkIntervalMillis) {
+        this.primaryJdbcTemplate = new JdbcTemplate(primaryDataSource);
+        this.replicaJdbcTemplate = new JdbcTemplate(replicaDataSource);
+        this.maxLagMillis = maxLagMillis;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-lag-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.scheduleWithFixedDelay(this::check, 0, checkIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+
+    public long getLastLagMillis() {
+        return lastLagMillis;
+    }
+
+    // The primary heartbeat row is rewritten on every check. Lag is how far the replica's copy of that row trails
+    // the primary's before this check writes a new value, so a replica that keeps up reports zero.
+    public synchronized void check() {
+        boolean usable = false;
+        lastLagMillis = -1;
+        try {
+            primaryJdbcTemplate.execute(CREATE_SQL);
+            List<Long> primaryBeat = primaryJdbcTemplate.queryForList(SELECT_SQL, Long.class);
+            try {
+                List<Long> replicaBeat = replicaJdbcTemplate.queryForList(SELECT_SQL, Long.class);
+                if (!primaryBeat.isEmpty() && !replicaBeat.isEmpty()) {
+                    lastLagMillis = Math.max(0, primaryBeat.get(0) - replicaBeat.get(0));
+                    usable = lastLagMillis <= maxLagMillis;
+                }
+            } catch (RuntimeException e) {
+                log.debug("Replica heartbeat read failed: {}", e.getMessage());
+            }
+            long now = System.currentTimeMillis();
+            if (primaryJdbcTemplate.update("UPDATE tb_replica_heartbeat SET beat_millis = ? WHERE heartbeat_id = 1", now) == 0) {
+                primaryJdbcTemplate.update("INSERT INTO tb_replica_heartbeat (heartbeat_id, beat_millis) VALUES (1, ?)", now);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Replica heartbeat write to primary failed: {}", e.getMessage());
+        }
+        usable = usable && running;
+        if (usable != replicaUsable) {
+            log.info("Replica reads {}. Lag: {} ms, max allowed: {} ms",
+                    usable ? "enabled" : "disabled, falling back to primary", lastLagMillis, maxLagMillis);
+        }
+        replicaUsable = usable;
+    }
+
+    // Stopped before a CRaC checkpoint. A restored image may face a replica that moved on or fell behind while the
+    // image sat on disk, so reads stay on the primary until the first check after restore says otherwise.
+    @Override
+    public void stop() {
+        running = false;
+        replicaUsable = false;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @PreDestroy
+    public void close() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,68 @@
+package com.blackcode.management_stock.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+// Active only when stock.sharding.urls lists the extra shards; spring.datasource.url is shard 0.
+@Configuration
+@ConditionalOnProperty(prefix = "stock.sharding", name = "urls")
+public class ShardDataSourceConfig {
+
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceProperties dataSourceProperties,
+                                 @Value("${stock.sharding.urls}") List<String> shardUrls) {
+        List<DataSource> shards = new ArrayList<>();
+        HikariDataSource shardZero = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        shardZero.setPoolName("shard-0");
+        shards.add(shardZero);
+        for (String url : shardUrls) {
+            if (url.isBlank()) {
+                continue;
+            }
+            HikariDataSource shard = DataSourceBuilder.create().type(HikariDataSource.class).url(url.trim())
+                    .username(dataSourceProperties.determineUsername())
+                    .password(dataSourceProperties.determinePassword()).build();
+            shard.setPoolName("shard-" + shards.size());
+            shards.add(shard);
+        }
+        return new LazyConnectionDataSourceProxy(new ShardRoutingDataSource(shards));
+    }
+
+    @Bean
+    public PoolCheckpointRestoreLifecycle poolCheckpointRestoreLifecycle(DataSource dataSource,
+                                                                         ConfigurableApplicationContext applicationContext) throws SQLException {
+        return new PoolCheckpointRestoreLifecycle(
+                dataSource.unwrap(ShardRoutingDataSource.class).getResolvedDataSources().values(), applicationContext);
+    }
+
+    @Bean
+    public ShardSchemaInitializer shardSchemaInitializer(ObjectProvider<EntityManagerFactory> entityManagerFactory,
+                                                         ObjectProvider<ShardRouter> shardRouter,
+                                                         ObjectProvider<DataSource> dataSource) {
+        return new ShardSchemaInitializer(entityManagerFactory, shardRouter, dataSource);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer shardSchemaIntegrator(ShardSchemaInitializer shardSchemaInitializer) {
+        return properties -> properties.put("hibernate.integrator_provider",
+                (IntegratorProvider) () -> List.of(shardSchemaInitializer));
+    }
+}
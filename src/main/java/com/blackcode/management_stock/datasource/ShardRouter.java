@@ -0,0 +1,229 @@
+package com.blackcode.management_stock.datasource;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+// Every row that belongs to an item (the item itself, its orders, inventory, reservations, slots and rollups) lives
+// on the item's shard, so a single-item operation is a plain local transaction on one datasource. Shard k hands
+// out item, inventory, reservation and order line ids from [k << 40, (k + 1) << 40), which lets an id name its
+// own shard.
+// With no stock.sharding.urls configured there is one shard and every method here is a pass-through.
+@Component
+public class ShardRouter {
+
+    public static final int SHARD_ID_SHIFT = 40;
+
+    private static final ThreadLocal<Integer> CURRENT_SHARD = new ThreadLocal<>();
+
+    private final int shardCount;
+
+    private final TransactionTemplate readTemplate;
+
+    private final TransactionTemplate writeTemplate;
+
+    private final ExecutorService scatterExecutor;
+
+    private final AtomicInteger nextShard = new AtomicInteger();
+
+    public ShardRouter(@Value("${stock.sharding.urls:}") List<String> shardUrls,
+                       PlatformTransactionManager transactionManager) {
+        this.shardCount = 1 + (int) shardUrls.stream().filter(url -> !url.isBlank()).count();
+        this.writeTemplate = new TransactionTemplate(transactionManager);
+        this.writeTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTemplate = new TransactionTemplate(transactionManager);
+        this.readTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTemplate.setReadOnly(true);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.scatterExecutor = shardCount == 1 ? null : Executors.newFixedThreadPool(shardCount, runnable -> {
+            Thread thread = new Thread(runnable, "shard-scatter-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static ShardRouter singleShard() {
+        return new ShardRouter(List.of(), null);
+    }
+
+    static int currentShardKey() {
+        Integer shard = CURRENT_SHARD.get();
+        return shard == null ? 0 : shard;
+    }
+
+    public int shardCount() {
+        return shardCount;
+    }
+
+    public boolean isSharded() {
+        return shardCount > 1;
+    }
+
+    public int currentShard() {
+        return currentShardKey();
+    }
+
+    public int shardOf(Long id) {
+        if (!isSharded() || id == null) {
+            return 0;
+        }
+        long shard = id >>> SHARD_ID_SHIFT;
+        return shard < shardCount ? (int) shard : 0;
+    }
+
+    // Sharded order numbers end in "-<shard>"; anything else is looked up on shard 0.
+    public int shardOfOrder(String orderNo) {
+        if (!isSharded() || orderNo == null) {
+            return 0;
+        }
+        int dash = orderNo.lastIndexOf('-');
+        try {
+            int shard = dash < 0 ? 0 : Integer.parseInt(orderNo.substring(dash + 1));
+            return shard < shardCount ? shard : 0;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    public int nextShard() {
+        return Math.floorMod(nextShard.getAndIncrement(), shardCount);
+    }
+
+    public void bindItem(Long itemId) {
+        bind(shardOf(itemId));
+    }
+
+    // Must be the first thing a @Transactional method does: the connection is only taken from the pool on the
+    // first statement, and it comes from whichever shard is bound at that moment.
+    public void bind(int shard) {
+        if (!isSharded()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Shard binding requires an active transaction");
+        }
+        Integer bound = CURRENT_SHARD.get();
+        if (bound != null) {
+            if (bound != shard) {
+                throw new IllegalStateException("Transaction is already bound to shard " + bound + ", not " + shard);
+            }
+            return;
+        }
+        CURRENT_SHARD.set(shard);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                CURRENT_SHARD.remove();
+            }
+        });
+    }
+
+    // Runs outside any transaction with the given shard bound, e.g. for plain JdbcTemplate work.
+    public <T> T withShard(int shard, Supplier<T> work) {
+        if (!isSharded()) {
+            return work.get();
+        }
+        Integer previous = CURRENT_SHARD.get();
+        CURRENT_SHARD.set(shard);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                CURRENT_SHARD.remove();
+            } else {
+                CURRENT_SHARD.set(previous);
+            }
+        }
+    }
+
+    public <T> T inShard(int shard, boolean readOnly, Supplier<T> work) {
+        if (!isSharded()) {
+            return work.get();
+        }
+        TransactionTemplate template = readOnly ? readTemplate : writeTemplate;
+        return withShard(shard, () -> template.execute(status -> work.get()));
+    }
+
+    // Calls the function once per shard, in parallel, each in its own read-only transaction.
+    public <T> List<T> scatter(IntFunction<T> perShard) {
+        if (!isSharded()) {
+            return List.of(perShard.apply(0));
+        }
+        List<CompletableFuture<T>> futures = new ArrayList<>(shardCount);
+        for (int shard = 0; shard < shardCount; shard++) {
+            int target = shard;
+            futures.add(CompletableFuture.supplyAsync(() -> inShard(target, true, () -> perShard.apply(target)),
+                    scatterExecutor));
+        }
+        List<T> results = new ArrayList<>(shardCount);
+        for (CompletableFuture<T> future : futures) {
+            results.add(future.join());
+        }
+        return results;
+    }
+
+    // Each shard returns its first (page + 1) * size rows in the given sort; a k-way merge of those heads gives the
+    // requested global page, and the total is the sum of the shard totals.
+    public <T> Page<T> scatterPage(int page, int size, Sort sort, Comparator<T> order,
+                                   BiFunction<Integer, Pageable, Page<T>> perShard) {
+        if (!isSharded()) {
+            return perShard.apply(0, PageRequest.of(page, size));
+        }
+        Pageable head = PageRequest.of(0, (page + 1) * size, sort);
+        List<Page<T>> pages = scatter(shard -> perShard.apply(shard, head));
+
+        PriorityQueue<int[]> cursors = new PriorityQueue<>((a, b) ->
+                order.compare(pages.get(a[0]).getContent().get(a[1]), pages.get(b[0]).getContent().get(b[1])));
+        long total = 0;
+        for (int shard = 0; shard < pages.size(); shard++) {
+            total += pages.get(shard).getTotalElements();
+            if (pages.get(shard).hasContent()) {
+                cursors.add(new int[]{shard, 0});
+            }
+        }
+        List<T> content = new ArrayList<>(size);
+        long skip = (long) page * size;
+        while (!cursors.isEmpty() && content.size() < size) {
+            int[] cursor = cursors.poll();
+            List<T> rows = pages.get(cursor[0]).getContent();
+            if (skip > 0) {
+                skip--;
+            } else {
+                content.add(rows.get(cursor[1]));
+            }
+            if (++cursor[1] < rows.size()) {
+                cursors.add(cursor);
+            }
+        }
+        return new PageImpl<>(content, PageRequest.of(page, size, sort), total);
+    }
+
+    @PreDestroy
+    public void close() {
+        if (scatterExecutor != null) {
+            scatterExecutor.shutdownNow();
+        }
+    }
+}
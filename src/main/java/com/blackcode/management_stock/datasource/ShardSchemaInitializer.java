@@ -0,0 +1,95 @@
+package com.blackcode.management_stock.datasource;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.hibernate.tool.schema.spi.SchemaManagementToolCoordinator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+// Hibernate only applies spring.jpa.hibernate.ddl-auto to the datasource it boots against (shard 0). This replays
+// the same schema action on every other shard, then moves each shard's id generators into its own id block.
+public class ShardSchemaInitializer implements Integrator, SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardSchemaInitializer.class);
+
+    private static final String[][] IDENTITY_COLUMNS = {
+            {"tb_item", "item_id"},
+            {"tb_inventory", "inventory_id"}
+    };
+
+    private static final String[][] SEQUENCES = {
+            {"tb_stock_reservation", "reservation_id", "tb_stock_reservation_seq"},
+            {"tb_order_line", "order_line_id", "tb_order_line_seq"}
+    };
+
+    private final ObjectProvider<EntityManagerFactory> entityManagerFactory;
+
+    private final ObjectProvider<ShardRouter> shardRouter;
+
+    private final ObjectProvider<DataSource> dataSource;
+
+    private volatile Metadata metadata;
+
+    // Providers because Hibernate needs this integrator before the entity manager factory and router exist.
+    public ShardSchemaInitializer(ObjectProvider<EntityManagerFactory> entityManagerFactory,
+                                  ObjectProvider<ShardRouter> shardRouter, ObjectProvider<DataSource> dataSource) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.shardRouter = shardRouter;
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public void integrate(Metadata metadata, BootstrapContext bootstrapContext, SessionFactoryImplementor sessionFactory) {
+        this.metadata = metadata;
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.getObject().unwrap(SessionFactoryImplementor.class);
+        Map<String, Object> settings = new HashMap<>(sessionFactory.getProperties());
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource.getObject());
+        ShardRouter shardRouter = this.shardRouter.getObject();
+        for (int shard = 1; shard < shardRouter.shardCount(); shard++) {
+            shardRouter.withShard(shard, () -> {
+                SchemaManagementToolCoordinator.process(metadata, sessionFactory.getServiceRegistry(), settings, action -> { });
+                return null;
+            });
+            long blockStart = (long) shard << ShardRouter.SHARD_ID_SHIFT;
+            shardRouter.withShard(shard, () -> {
+                for (String[] column : IDENTITY_COLUMNS) {
+                    if (maxId(jdbcTemplate, column[0], column[1]) < blockStart) {
+                        jdbcTemplate.execute("ALTER TABLE " + column[0] + " ALTER COLUMN " + column[1]
+                                + " RESTART WITH " + (blockStart + 1));
+                    }
+                }
+                for (String[] sequence : SEQUENCES) {
+                    if (maxId(jdbcTemplate, sequence[0], sequence[1]) < blockStart) {
+                        jdbcTemplate.execute("ALTER SEQUENCE " + sequence[2] + " RESTART WITH " + (blockStart + 1));
+                    }
+                }
+                return null;
+            });
+            log.info("Shard {} schema ready. Id block starts at {}", shard, blockStart);
+        }
+    }
+
+    private long maxId(JdbcTemplate jdbcTemplate, String table, String column) {
+        Long max = jdbcTemplate.queryForObject("SELECT MAX(" + column + ") FROM " + table, Long.class);
+        return max == null ? 0 : max;
+    }
+}
@@ -0,0 +1,28 @@
+package com.blackcode.management_stock.dto;
+
+import com.blackcode.management_stock.money.Money;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class CatalogItemReq {
+
+    @NotNull(message = "Item ID tidak boleh kosong")
+    private Long itemId;
+
+    @NotBlank(message = "Item name harus diisi")
+    private String itemName;
+
+    @NotNull(message = "Item price harus diisi")
+    @DecimalMin(value = "1", inclusive = true, message = "Harga harus minimal 1")
+    private Money itemPrice;
+
+}
@@ -0,0 +1,32 @@
+package com.blackcode.management_stock.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class CatalogSyncReport {
+
+    private long durationMillis;
+
+    private long received;
+
+    private long unchanged;
+
+    private long updated;
+
+    private long missing;
+
+    private long rejected;
+
+    private List<Long> missingItemIds;
+
+    private List<Long> rejectedItemIds;
+
+}
@@ -0,0 +1,26 @@
+package com.blackcode.management_stock.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class EndpointQueryStats {
+
+    private String endpoint;
+
+    private long requests;
+
+    private long statements;
+
+    private long maxStatementsPerRequest;
+
+    private long rows;
+
+    private long dbMillis;
+
+}
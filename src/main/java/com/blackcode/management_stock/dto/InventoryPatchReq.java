@@ -0,0 +1,22 @@
+package com.blackcode.management_stock.dto;
+
+import com.blackcode.management_stock.model.InventoryType;
+import jakarta.validation.constraints.Min;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Every field is optional; the ones left out keep their current value.
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class InventoryPatchReq {
+
+    @Min(value = 1, message = "Jumlah inventory harus minimal 1")
+    private Integer inventoryQty;
+
+    private InventoryType inventoryType;
+
+}
@@ -24,4 +24,12 @@ public class InventoryReq {
     @NotNull(message = "Tipe inventory harus diisi")
     private InventoryType inventoryType;
 
+    private Long locationId;
+
+    public InventoryReq(Long itemId, Integer inventoryQty, InventoryType inventoryType) {
+        this.itemId = itemId;
+        this.inventoryQty = inventoryQty;
+        this.inventoryType = inventoryType;
+    }
+
 }
@@ -19,4 +19,13 @@ public class InventoryRes {
 
     private String inventoryType;
 
+    private String locationCode;
+
+    public InventoryRes(Long inventoryId, ItemRes item, int inventoryQty, String inventoryType) {
+        this.inventoryId = inventoryId;
+        this.item = item;
+        this.inventoryQty = inventoryQty;
+        this.inventoryType = inventoryType;
+    }
+
 }
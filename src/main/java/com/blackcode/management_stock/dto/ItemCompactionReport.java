@@ -0,0 +1,28 @@
+package com.blackcode.management_stock.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class ItemCompactionReport {
+
+    private boolean purge;
+
+    private long durationMillis;
+
+    private long tombstones;
+
+    private long purgeable;
+
+    private long purged;
+
+    private List<Long> purgedItemIds;
+
+}
@@ -1,12 +1,11 @@
 package com.blackcode.management_stock.dto;
 
+import com.blackcode.management_stock.money.Money;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
-import java.math.BigDecimal;
-
 @NoArgsConstructor
 @AllArgsConstructor
 @Getter
@@ -17,5 +16,5 @@ public class ItemDto {
 
     private String itemName;
 
-    private BigDecimal itemPrice;
+    private Money itemPrice;
 }
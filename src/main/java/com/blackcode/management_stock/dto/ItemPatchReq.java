@@ -0,0 +1,37 @@
+package com.blackcode.management_stock.dto;
+
+import com.blackcode.management_stock.money.Money;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Every field is optional; the ones left out keep their current value.
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class ItemPatchReq {
+
+    @Pattern(regexp = "(?s).*\\S.*", message = "Item name tidak boleh kosong")
+    private String itemName;
+
+    @DecimalMin(value = "1", inclusive = true, message = "Harga harus minimal 1")
+    private Money itemPrice;
+
+    @Min(value = 1, message = "Stok tidak boleh kurang dari 1")
+    private Integer itemStock;
+
+    // An empty body would still bump the version and both listing stamps without changing anything.
+    @JsonIgnore
+    @AssertTrue(message = "Minimal satu field harus diisi")
+    public boolean isAnyFieldSet() {
+        return itemName != null || itemPrice != null || itemStock != null;
+    }
+
+}
@@ -1,5 +1,6 @@
 package com.blackcode.management_stock.dto;
 
+import com.blackcode.management_stock.money.Money;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
@@ -9,8 +10,6 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
-import java.math.BigDecimal;
-
 @NoArgsConstructor
 @AllArgsConstructor
 @Getter
@@ -22,7 +21,7 @@ public class ItemReq {
 
     @NotNull(message = "Item price harus diisi")
     @DecimalMin(value = "1", inclusive = true, message = "Harga harus minimal 1")
-    private BigDecimal itemPrice;
+    private Money itemPrice;
 
     @NotNull(message = "Item stock harus diisi")
     @Min(value = 1, message = "Stok tidak boleh kurang dari 1")
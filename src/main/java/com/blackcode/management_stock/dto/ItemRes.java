@@ -1,12 +1,11 @@
 package com.blackcode.management_stock.dto;
 
+import com.blackcode.management_stock.money.Money;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
-import java.math.BigDecimal;
-
 @NoArgsConstructor
 @AllArgsConstructor
 @Getter
@@ -17,8 +16,17 @@ public class ItemRes {
 
     private String itemName;
 
-    private BigDecimal itemPrice;
+    private Money itemPrice;
 
     private Integer itemStock;
 
+    private Long version;
+
+    public ItemRes(Long itemId, String itemName, Money itemPrice, Integer itemStock) {
+        this.itemId = itemId;
+        this.itemName = itemName;
+        this.itemPrice = itemPrice;
+        this.itemStock = itemStock;
+    }
+
 }
@@ -0,0 +1,22 @@
+package com.blackcode.management_stock.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class ItemShardReq {
+
+    @NotNull(message = "Jumlah shard harus diisi")
+    @Min(value = 0, message = "Jumlah shard tidak boleh kurang dari 0")
+    @Max(value = 64, message = "Jumlah shard maksimal 64")
+    private Integer shards;
+
+}
@@ -0,0 +1,22 @@
+package com.blackcode.management_stock.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class LocationStockRes {
+
+    private Long locationId;
+
+    private String locationCode;
+
+    private Long itemId;
+
+    private int quantity;
+
+}
@@ -0,0 +1,26 @@
+package com.blackcode.management_stock.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class NPlusOneDetection {
+
+    private String endpoint;
+
+    private String statement;
+
+    private long maxExecutionsPerRequest;
+
+    private long occurrences;
+
+    private LocalDateTime lastSeenAt;
+
+}
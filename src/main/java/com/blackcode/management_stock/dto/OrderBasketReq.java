@@ -0,0 +1,23 @@
+package com.blackcode.management_stock.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class OrderBasketReq {
+
+    @NotEmpty(message = "Order line tidak boleh kosong")
+    @Size(max = 500, message = "Order line maksimal 500")
+    private List<@Valid OrderLineReq> lines;
+
+}
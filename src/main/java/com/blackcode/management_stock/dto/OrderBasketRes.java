@@ -0,0 +1,25 @@
+package com.blackcode.management_stock.dto;
+
+import com.blackcode.management_stock.money.Money;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class OrderBasketRes {
+
+    private String orderNo;
+
+    private int totalQty;
+
+    private Money totalPrice;
+
+    private List<OrderLineRes> lines;
+
+}
@@ -0,0 +1,26 @@
+package com.blackcode.management_stock.dto;
+
+import com.blackcode.management_stock.money.Money;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class OrderLineReq {
+
+    @NotNull(message = "Item ID tidak boleh kosong")
+    private Long itemId;
+
+    @Min(value = 1, message = "Quantity harus lebih dari 0")
+    private int orderQty;
+
+    @NotNull(message = "Price tidak boleh kosong")
+    private Money price;
+
+}
@@ -0,0 +1,32 @@
+package com.blackcode.management_stock.dto;
+
+import com.blackcode.management_stock.money.Money;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class OrderLineRes {
+
+    private int lineNo;
+
+    private ItemDto item;
+
+    private int orderQty;
+
+    private Money price;
+
+    private String locationCode;
+
+    public OrderLineRes(int lineNo, ItemDto item, int orderQty, Money price) {
+        this.lineNo = lineNo;
+        this.item = item;
+        this.orderQty = orderQty;
+        this.price = price;
+    }
+
+}
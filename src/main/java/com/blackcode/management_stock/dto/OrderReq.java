@@ -1,5 +1,6 @@
 package com.blackcode.management_stock.dto;
 
+import com.blackcode.management_stock.money.Money;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
@@ -7,8 +8,6 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
-import java.math.BigDecimal;
-
 @NoArgsConstructor
 @AllArgsConstructor
 @Getter
@@ -22,6 +21,14 @@ public class OrderReq {
     private int orderQty;
 
     @NotNull(message = "Price tidak boleh kosong")
-    private BigDecimal price;
+    private Money price;
+
+    private Long locationId;
+
+    public OrderReq(Long itemId, int orderQty, Money price) {
+        this.itemId = itemId;
+        this.orderQty = orderQty;
+        this.price = price;
+    }
 
 }
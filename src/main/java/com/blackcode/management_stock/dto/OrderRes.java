@@ -1,12 +1,11 @@
 package com.blackcode.management_stock.dto;
 
+import com.blackcode.management_stock.money.Money;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
-import java.math.BigDecimal;
-
 @NoArgsConstructor
 @AllArgsConstructor
 @Getter
@@ -19,6 +18,15 @@ public class OrderRes {
 
     private int orderQty;
 
-    private BigDecimal price;
+    private Money price;
+
+    private String locationCode;
+
+    public OrderRes(String orderNo, ItemDto item, int orderQty, Money price) {
+        this.orderNo = orderNo;
+        this.item = item;
+        this.orderQty = orderQty;
+        this.price = price;
+    }
 
 }
@@ -0,0 +1,33 @@
+package com.blackcode.management_stock.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+
+// List endpoints return this instead of Spring's PageImpl, which also serializes its Pageable, Sort and a handful of
+// derived flags on every call.
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class PageRes<T> {
+
+    private List<T> content;
+
+    private int page;
+
+    private int size;
+
+    private long totalElements;
+
+    private int totalPages;
+
+    public static <T> PageRes<T> of(Page<T> page) {
+        return new PageRes<>(page.getContent(), page.getNumber(), page.getSize(), page.getTotalElements(),
+                page.getTotalPages());
+    }
+}
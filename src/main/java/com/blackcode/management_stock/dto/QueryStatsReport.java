@@ -0,0 +1,30 @@
+package com.blackcode.management_stock.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class QueryStatsReport {
+
+    private long slowThresholdMillis;
+
+    private int repeatThreshold;
+
+    private List<StatementStats> statements;
+
+    private List<StatementStats> hqlQueries;
+
+    private List<SlowQuery> slowQueries;
+
+    private List<NPlusOneDetection> suspectedNPlusOne;
+
+    private List<EndpointQueryStats> endpoints;
+
+}
@@ -0,0 +1,29 @@
+package com.blackcode.management_stock.dto;
+
+import com.blackcode.management_stock.money.Money;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class SalesRollupRes {
+
+    private Long itemId;
+
+    private String granularity;
+
+    private LocalDateTime bucketStart;
+
+    private long orderCount;
+
+    private long totalQty;
+
+    private Money totalRevenue;
+
+}
@@ -0,0 +1,28 @@
+package com.blackcode.management_stock.dto;
+
+import com.blackcode.management_stock.money.Money;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class SalesSummaryRes {
+
+    private Long itemId;
+
+    private long orderCount;
+
+    private long totalQty;
+
+    private Money totalRevenue;
+
+    // For the JPQL summary: SUM over a converted column yields the raw minor units.
+    public SalesSummaryRes(Long itemId, long orderCount, long totalQty, long totalRevenueMinorUnits) {
+        this(itemId, orderCount, totalQty, Money.ofMinor(totalRevenueMinorUnits));
+    }
+
+}
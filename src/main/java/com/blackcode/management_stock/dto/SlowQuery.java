@@ -0,0 +1,24 @@
+package com.blackcode.management_stock.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class SlowQuery {
+
+    private String statement;
+
+    private long millis;
+
+    private String endpoint;
+
+    private LocalDateTime executedAt;
+
+}
@@ -0,0 +1,24 @@
+package com.blackcode.management_stock.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class StatementStats {
+
+    private String statement;
+
+    private long executions;
+
+    private long totalMillis;
+
+    private long maxMillis;
+
+    private long rows;
+
+}
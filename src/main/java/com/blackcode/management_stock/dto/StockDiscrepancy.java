@@ -0,0 +1,22 @@
+package com.blackcode.management_stock.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class StockDiscrepancy {
+
+    private Long itemId;
+
+    private long actualStock;
+
+    private long expectedStock;
+
+    private boolean repaired;
+
+}
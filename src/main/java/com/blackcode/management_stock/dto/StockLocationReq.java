@@ -0,0 +1,27 @@
+package com.blackcode.management_stock.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class StockLocationReq {
+
+    @NotBlank(message = "Location code harus diisi")
+    @Size(max = 32, message = "Location code maksimal 32 karakter")
+    private String locationCode;
+
+    @NotBlank(message = "Location name harus diisi")
+    private String locationName;
+
+    @Min(value = 0, message = "Priority tidak boleh kurang dari 0")
+    private int priority;
+
+}
@@ -0,0 +1,30 @@
+package com.blackcode.management_stock.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class StockReconciliationReport {
+
+    private boolean repair;
+
+    private long durationMillis;
+
+    private long itemsScanned;
+
+    private long itemsWithoutBaseline;
+
+    private long discrepancyCount;
+
+    private long repairedCount;
+
+    private List<StockDiscrepancy> discrepancies;
+
+}
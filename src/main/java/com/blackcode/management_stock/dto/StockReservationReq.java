@@ -0,0 +1,27 @@
+package com.blackcode.management_stock.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class StockReservationReq {
+
+    @NotNull(message = "Item ID tidak boleh kosong")
+    private Long itemId;
+
+    @Min(value = 1, message = "Quantity harus lebih dari 0")
+    private int reservedQty;
+
+    @Min(value = 1, message = "TTL minimal 1 detik")
+    @Max(value = 86400, message = "TTL maksimal 86400 detik")
+    private Integer ttlSeconds;
+
+}
@@ -0,0 +1,40 @@
+package com.blackcode.management_stock.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class StockReservationRes {
+
+    private Long reservationId;
+
+    private ItemDto item;
+
+    private int reservedQty;
+
+    private String status;
+
+    private LocalDateTime expiresAt;
+
+    private String orderNo;
+
+    private String locationCode;
+
+    public StockReservationRes(Long reservationId, ItemDto item, int reservedQty, String status,
+                               LocalDateTime expiresAt, String orderNo) {
+        this.reservationId = reservationId;
+        this.item = item;
+        this.reservedQty = reservedQty;
+        this.status = status;
+        this.expiresAt = expiresAt;
+        this.orderNo = orderNo;
+    }
+
+}
@@ -0,0 +1,13 @@
+package com.blackcode.management_stock.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Published when a hold is confirmed or released, so its expiry timer can be taken off the wheel.
+@AllArgsConstructor
+@Getter
+public class StockReservationClosedEvent {
+
+    private final Long reservationId;
+
+}
@@ -0,0 +1,16 @@
+package com.blackcode.management_stock.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@AllArgsConstructor
+@Getter
+public class StockReservationHeldEvent {
+
+    private final Long reservationId;
+
+    private final LocalDateTime expiresAt;
+
+}
@@ -0,0 +1,24 @@
+package com.blackcode.management_stock.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class AdmissionRejectedException extends RuntimeException{
+
+    private final HttpStatus status;
+
+    private final long retryAfterSeconds;
+
+    public AdmissionRejectedException(String message, HttpStatus status, long retryAfterSeconds) {
+        super(message);
+        this.status = status;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
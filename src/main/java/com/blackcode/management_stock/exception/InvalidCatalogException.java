@@ -0,0 +1,7 @@
+package com.blackcode.management_stock.exception;
+
+public class InvalidCatalogException extends RuntimeException{
+    public InvalidCatalogException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.blackcode.management_stock.exception;
+
+public class InvalidOrderException extends RuntimeException{
+    public InvalidOrderException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.blackcode.management_stock.exception;
+
+public class InvalidReportRangeException extends RuntimeException{
+    public InvalidReportRangeException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.blackcode.management_stock.exception;
+
+public class ReservationClosedException extends RuntimeException{
+    public ReservationClosedException(String message) {
+        super(message);
+    }
+}
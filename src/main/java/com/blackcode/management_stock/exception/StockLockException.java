@@ -0,0 +1,7 @@
+package com.blackcode.management_stock.exception;
+
+public class StockLockException extends RuntimeException{
+    public StockLockException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,150 @@
+package com.blackcode.management_stock.job;
+
+import com.blackcode.management_stock.dto.ItemReq;
+import com.blackcode.management_stock.dto.ItemRes;
+import com.blackcode.management_stock.dto.OrderReq;
+import com.blackcode.management_stock.dto.OrderRes;
+import com.blackcode.management_stock.money.Money;
+import com.blackcode.management_stock.service.ItemService;
+import com.blackcode.management_stock.service.OrderService;
+import com.blackcode.management_stock.utils.ApiResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.crac.CheckpointException;
+import org.crac.Core;
+import org.crac.RestoreException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.RestClient;
+
+import java.util.List;
+
+// Drives the hot paths before a CRaC checkpoint so the image holds loaded classes, initialised Hibernate and Jackson
+// state and JIT-compiled code instead of a cold application. Reads go over HTTP through the whole MVC stack; writes
+// run in-process in transactions that are rolled back, so nothing the warm-up creates ends up in the database.
+@Component
+@ConditionalOnProperty(prefix = "stock.checkpoint.warmup", name = "enabled", havingValue = "true")
+public class CheckpointWarmup {
+
+    private static final Logger log = LoggerFactory.getLogger(CheckpointWarmup.class);
+
+    private static final List<String> READ_PATHS = List.of(
+            "/api/items?page=0&size=20",
+            "/api/inventory?page=0&size=20",
+            "/api/orders?page=0&size=20",
+            "/api/orders?page=0&size=500");
+
+    private final ItemService itemService;
+
+    private final OrderService orderService;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ObjectMapper objectMapper;
+
+    private final Environment environment;
+
+    private final int iterations;
+
+    private final boolean checkpointAfterWarmup;
+
+    private final String lockProvider;
+
+    public CheckpointWarmup(ItemService itemService, OrderService orderService,
+                            PlatformTransactionManager transactionManager, ObjectMapper objectMapper,
+                            Environment environment,
+                            @Value("${stock.checkpoint.warmup.iterations:200}") int iterations,
+                            @Value("${stock.checkpoint.after-warmup:false}") boolean checkpointAfterWarmup,
+                            @Value("${stock.lock.provider:striped}") String lockProvider) {
+        this.itemService = itemService;
+        this.orderService = orderService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.environment = environment;
+        this.iterations = iterations;
+        this.checkpointAfterWarmup = checkpointAfterWarmup;
+        this.lockProvider = lockProvider;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        long start = System.currentTimeMillis();
+        int writes = warmUpWrites();
+        int reads = warmUpReads();
+        log.info("Warm-up finished in {} ms. Orders: {}, requests: {}", System.currentTimeMillis() - start, writes, reads);
+        if (checkpointAfterWarmup) {
+            checkpoint();
+        }
+    }
+
+    // Lease locks are taken in transactions of their own and would survive the rollback, so with that provider the
+    // write path is left cold.
+    public int warmUpWrites() {
+        if (!"striped".equals(lockProvider)) {
+            log.info("Skipping write warm-up with stock.lock.provider={}", lockProvider);
+            return 0;
+        }
+        int count = 0;
+        for (int i = 0; i < iterations; i++) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    status.setRollbackOnly();
+                    ItemRes item = itemService.createItem(new ItemReq("warm-up", Money.of(10), 100));
+                    OrderRes order = orderService.createOrder(new OrderReq(item.getItemId(), 1, Money.of(10)));
+                    try {
+                        objectMapper.writeValueAsBytes(ApiResponse.success("Order created successfully", 201, order));
+                    } catch (JsonProcessingException e) {
+                        throw new IllegalStateException(e);
+                    }
+                });
+                count++;
+            } catch (RuntimeException e) {
+                log.warn("Write warm-up stopped after {} orders: {}", count, e.getMessage());
+                break;
+            }
+        }
+        return count;
+    }
+
+    public int warmUpReads() {
+        Integer port = environment.getProperty("local.server.port", Integer.class);
+        if (port == null) {
+            return 0;
+        }
+        RestClient restClient = RestClient.create("http://localhost:" + port);
+        int count = 0;
+        for (int i = 0; i < iterations; i++) {
+            for (String path : READ_PATHS) {
+                try {
+                    restClient.get().uri(path).accept(MediaType.APPLICATION_JSON).retrieve().toBodilessEntity();
+                    count++;
+                } catch (RuntimeException e) {
+                    log.warn("Read warm-up stopped after {} requests at {}: {}", count, path, e.getMessage());
+                    return count;
+                }
+            }
+        }
+        return count;
+    }
+
+    // Blocks until the process is restored. Spring stops its lifecycle beans (web server, pools, timers) before the
+    // checkpoint and starts them again afterwards.
+    private void checkpoint() {
+        try {
+            log.info("Taking checkpoint");
+            Core.checkpointRestore();
+            log.info("Restored from checkpoint");
+        } catch (CheckpointException | RestoreException | UnsupportedOperationException e) {
+            log.error("Checkpoint failed, running without one: {}", e.toString());
+        }
+    }
+}
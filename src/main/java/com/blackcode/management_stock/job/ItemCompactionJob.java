@@ -0,0 +1,176 @@
+package com.blackcode.management_stock.job;
+
+import com.blackcode.management_stock.datasource.ShardRouter;
+import com.blackcode.management_stock.dto.ItemCompactionReport;
+import com.blackcode.management_stock.model.Item;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Purges tombstoned items in batches. An item is only purged once nothing refers to it any more: orders, order lines,
+// inventory and reservations are its history, and until that history is archived away the tombstone stays.
+// Deleting an item never waits for any of this; the request only sets deletedAt.
+@Component
+public class ItemCompactionJob {
+
+    private static final Logger log = LoggerFactory.getLogger(ItemCompactionJob.class);
+
+    private static final String TOMBSTONE_SQL = "SELECT COUNT(*) FROM tb_item WHERE deleted_at IS NOT NULL";
+
+    private static final String NO_HISTORY =
+            "NOT EXISTS (SELECT 1 FROM tb_order o WHERE o.item_id = i.item_id) " +
+            "AND NOT EXISTS (SELECT 1 FROM tb_order_line l WHERE l.item_id = i.item_id) " +
+            "AND NOT EXISTS (SELECT 1 FROM tb_inventory v WHERE v.item_id = i.item_id) " +
+            "AND NOT EXISTS (SELECT 1 FROM tb_stock_reservation r WHERE r.item_id = i.item_id)";
+
+    // Keyset paging on item_id, so a tombstone that still has history is passed over once per run, not once per batch.
+    private static final String CANDIDATE_SQL =
+            "SELECT i.item_id FROM tb_item i WHERE i.deleted_at < ? AND i.item_id > ? AND " + NO_HISTORY +
+            " ORDER BY i.item_id LIMIT ?";
+
+    private static final String DELETE_LOCATION_STOCK_SQL = "DELETE FROM tb_location_stock WHERE item_id IN (%s)";
+
+    private static final String DELETE_STOCK_SLOT_SQL = "DELETE FROM tb_item_stock_slot WHERE item_id IN (%s)";
+
+    // History is checked again here in case a row referring to the item was committed after the candidates were read.
+    private static final String DELETE_ITEM_SQL =
+            "DELETE FROM tb_item i WHERE i.deleted_at IS NOT NULL AND i.item_id IN (%s) AND " + NO_HISTORY;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ShardRouter shardRouter;
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final long retentionSeconds;
+
+    private final int batchSize;
+
+    private final int maxReported;
+
+    private final ReentrantLock running = new ReentrantLock();
+
+    private final ScheduledExecutorService executor;
+
+    public ItemCompactionJob(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                             ShardRouter shardRouter, EntityManagerFactory entityManagerFactory,
+                             @Value("${stock.item-compaction.interval-seconds:3600}") long intervalSeconds,
+                             @Value("${stock.item-compaction.retention-seconds:86400}") long retentionSeconds,
+                             @Value("${stock.item-compaction.batch-size:500}") int batchSize,
+                             @Value("${stock.item-compaction.max-reported:100}") int maxReported) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.shardRouter = shardRouter;
+        this.entityManagerFactory = entityManagerFactory;
+        this.retentionSeconds = retentionSeconds;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxReported = maxReported;
+        if (intervalSeconds > 0) {
+            this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "item-compaction");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.executor.scheduleWithFixedDelay(this::runScheduled, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+        } else {
+            this.executor = null;
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    public ItemCompactionReport run(boolean purge) {
+        if (!running.tryLock()) {
+            throw new IllegalStateException("Item compaction is already running");
+        }
+        try {
+            long start = System.currentTimeMillis();
+            // Tombstones younger than the retention stay, so clients that still hold the item get a 404, not a miss.
+            Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minusSeconds(retentionSeconds));
+            ItemCompactionReport report = new ItemCompactionReport(purge, 0, 0, 0, 0, new ArrayList<>());
+            for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+                compactShard(shard, cutoff, purge, report);
+            }
+            report.setDurationMillis(System.currentTimeMillis() - start);
+            log.info("Item compaction finished in {} ms. Purge: {}, Tombstones: {}, Purgeable: {}, Purged: {}",
+                    report.getDurationMillis(), purge, report.getTombstones(), report.getPurgeable(), report.getPurged());
+            return report;
+        } finally {
+            running.unlock();
+        }
+    }
+
+    private void runScheduled() {
+        if (running.isLocked()) {
+            return;
+        }
+        try {
+            run(true);
+        } catch (RuntimeException e) {
+            log.warn("Item compaction failed: {}", e.getMessage());
+        }
+    }
+
+    private void compactShard(int shard, Timestamp cutoff, boolean purge, ItemCompactionReport report) {
+        Long tombstones = shardRouter.withShard(shard, () -> jdbcTemplate.queryForObject(TOMBSTONE_SQL, Long.class));
+        report.setTombstones(report.getTombstones() + (tombstones != null ? tombstones : 0));
+        long cursor = 0;
+        while (true) {
+            long after = cursor;
+            List<Long> itemIds = shardRouter.withShard(shard,
+                    () -> jdbcTemplate.queryForList(CANDIDATE_SQL, Long.class, cutoff, after, batchSize));
+            if (itemIds.isEmpty()) {
+                return;
+            }
+            report.setPurgeable(report.getPurgeable() + itemIds.size());
+            if (purge) {
+                // One short transaction per batch, so a large backlog never holds locks for the whole run.
+                Integer purged = shardRouter.withShard(shard,
+                        () -> transactionTemplate.execute(status -> purgeBatch(itemIds)));
+                report.setPurged(report.getPurged() + (purged != null ? purged : 0));
+                for (Long itemId : itemIds) {
+                    entityManagerFactory.getCache().evict(Item.class, itemId);
+                    if (report.getPurgedItemIds().size() < maxReported) {
+                        report.getPurgedItemIds().add(itemId);
+                    }
+                }
+            }
+            if (itemIds.size() < batchSize) {
+                return;
+            }
+            cursor = itemIds.get(itemIds.size() - 1);
+        }
+    }
+
+    // Tombstones are invisible to listings already, so purging them changes no listing and needs no stamp.
+    private int purgeBatch(List<Long> itemIds) {
+        String placeholders = String.join(",", Collections.nCopies(itemIds.size(), "?"));
+        Object[] args = itemIds.toArray();
+        jdbcTemplate.update(String.format(DELETE_LOCATION_STOCK_SQL, placeholders), args);
+        jdbcTemplate.update(String.format(DELETE_STOCK_SLOT_SQL, placeholders), args);
+        return jdbcTemplate.update(String.format(DELETE_ITEM_SQL, placeholders), args);
+    }
+}
@@ -0,0 +1,231 @@
+package com.blackcode.management_stock.job;
+
+import com.blackcode.management_stock.cache.TableStamps;
+import com.blackcode.management_stock.datasource.ShardRouter;
+import com.blackcode.management_stock.dto.StockDiscrepancy;
+import com.blackcode.management_stock.dto.StockReconciliationReport;
+import com.blackcode.management_stock.model.Item;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Component
+public class StockReconciliationJob {
+
+    private static final Logger log = LoggerFactory.getLogger(StockReconciliationJob.class);
+
+    private static final String ITEM_SQL =
+            "SELECT i.item_id, CASE WHEN i.stock_shards > 0 " +
+            "THEN (SELECT COALESCE(SUM(s.quantity), 0) FROM tb_item_stock_slot s WHERE s.item_id = i.item_id) " +
+            "ELSE i.item_stock END, i.opening_stock, COALESCE(i.stock_shards, 0) " +
+            "FROM tb_item i WHERE i.item_id BETWEEN ? AND ?";
+
+    private static final String INVENTORY_SQL =
+            "SELECT item_id, SUM(CASE WHEN inventory_type = 'T' THEN inventory_qty ELSE -inventory_qty END) " +
+            "FROM tb_inventory WHERE item_id BETWEEN ? AND ? GROUP BY item_id";
+
+    private static final String ORDER_SQL =
+            "SELECT item_id, SUM(order_qty) FROM (" +
+            "SELECT item_id, order_qty FROM tb_order WHERE item_id BETWEEN ? AND ? " +
+            "UNION ALL SELECT item_id, order_qty FROM tb_order_line WHERE item_id BETWEEN ? AND ?) m " +
+            "GROUP BY item_id";
+
+    private static final String RESERVATION_SQL =
+            "SELECT item_id, SUM(reserved_qty) FROM tb_stock_reservation " +
+            "WHERE status = 'HELD' AND item_id BETWEEN ? AND ? GROUP BY item_id";
+
+    private static final String REPAIR_SQL =
+            "UPDATE tb_item SET item_stock = ?, version = version + 1 WHERE item_id = ? AND item_stock = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final ShardRouter shardRouter;
+
+    private final TableStamps tableStamps;
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final int partitionSize;
+
+    private final int parallelism;
+
+    private final int maxReported;
+
+    private final ReentrantLock running = new ReentrantLock();
+
+    public StockReconciliationJob(JdbcTemplate jdbcTemplate, ShardRouter shardRouter, TableStamps tableStamps,
+                                  EntityManagerFactory entityManagerFactory,
+                                  @Value("${stock.reconciliation.partition-size:10000}") int partitionSize,
+                                  @Value("${stock.reconciliation.parallelism:0}") int parallelism,
+                                  @Value("${stock.reconciliation.max-reported:100}") int maxReported) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.shardRouter = shardRouter;
+        this.tableStamps = tableStamps;
+        this.entityManagerFactory = entityManagerFactory;
+        this.partitionSize = Math.max(1, partitionSize);
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.maxReported = maxReported;
+    }
+
+    public StockReconciliationReport run(boolean repair) {
+        if (!running.tryLock()) {
+            throw new IllegalStateException("Stock reconciliation is already running");
+        }
+        try {
+            long start = System.currentTimeMillis();
+            PartitionResult result = new PartitionResult();
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                // Every movement of an item lives on the item's shard, so each shard reconciles on its own.
+                for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+                    Map<String, Object> bounds = shardRouter.withShard(shard, () ->
+                            jdbcTemplate.queryForMap("SELECT MIN(item_id) AS lo, MAX(item_id) AS hi FROM tb_item"));
+                    if (bounds.get("lo") != null) {
+                        long lo = ((Number) bounds.get("lo")).longValue();
+                        long hi = ((Number) bounds.get("hi")).longValue();
+                        result.merge(pool.invoke(new PartitionTask(shard, lo, hi, repair)), maxReported);
+                    }
+                }
+            } finally {
+                pool.shutdown();
+            }
+            long duration = System.currentTimeMillis() - start;
+            log.info("Stock reconciliation finished in {} ms. Repair: {}, Items: {}, Discrepancies: {}, Repaired: {}",
+                    duration, repair, result.itemsScanned, result.discrepancyCount, result.repairedCount);
+            return new StockReconciliationReport(repair, duration, result.itemsScanned, result.itemsWithoutBaseline,
+                    result.discrepancyCount, result.repairedCount, result.discrepancies);
+        } finally {
+            running.unlock();
+        }
+    }
+
+    private PartitionResult reconcilePartition(long lo, long hi, boolean repair) {
+        // Item rows are read before the movements so that any stock change committed in between makes the
+        // compare-and-set repair below miss instead of overwriting a newer value.
+        Map<Long, long[]> items = new HashMap<>();
+        PartitionResult result = new PartitionResult();
+        jdbcTemplate.query(ITEM_SQL, rs -> {
+            Object opening = rs.getObject(3);
+            if (opening == null) {
+                result.itemsWithoutBaseline++;
+            } else {
+                items.put(rs.getLong(1), new long[]{rs.getLong(2), ((Number) opening).longValue(), rs.getLong(4)});
+            }
+            result.itemsScanned++;
+        }, lo, hi);
+        if (items.isEmpty()) {
+            return result;
+        }
+        jdbcTemplate.query(INVENTORY_SQL, rs -> {
+            long[] totals = items.get(rs.getLong(1));
+            if (totals != null) {
+                totals[1] += rs.getLong(2);
+            }
+        }, lo, hi);
+        jdbcTemplate.query(ORDER_SQL, rs -> {
+            long[] totals = items.get(rs.getLong(1));
+            if (totals != null) {
+                totals[1] -= rs.getLong(2);
+            }
+        }, lo, hi, lo, hi);
+        jdbcTemplate.query(RESERVATION_SQL, rs -> {
+            long[] totals = items.get(rs.getLong(1));
+            if (totals != null) {
+                totals[1] -= rs.getLong(2);
+            }
+        }, lo, hi);
+
+        for (Map.Entry<Long, long[]> entry : items.entrySet()) {
+            long actual = entry.getValue()[0];
+            long expected = entry.getValue()[1];
+            if (actual == expected) {
+                continue;
+            }
+            // Sharded items have no single stock column to compare-and-set, so they are reported but never repaired.
+            boolean repaired = repair && expected >= 0 && entry.getValue()[2] == 0
+                    && jdbcTemplate.update(REPAIR_SQL, expected, entry.getKey(), actual) == 1;
+            result.discrepancyCount++;
+            if (repaired) {
+                result.repairedCount++;
+                // The repair bypasses Hibernate, so the cached item would keep the old stock.
+                entityManagerFactory.getCache().evict(Item.class, entry.getKey());
+            }
+            if (result.discrepancies.size() < maxReported) {
+                result.discrepancies.add(new StockDiscrepancy(entry.getKey(), actual, expected, repaired));
+            }
+        }
+        if (result.repairedCount > 0) {
+            tableStamps.touch(TableStamps.ITEMS);
+        }
+        return result;
+    }
+
+    private class PartitionTask extends RecursiveTask<PartitionResult> {
+
+        private final int shard;
+
+        private final long lo;
+
+        private final long hi;
+
+        private final boolean repair;
+
+        PartitionTask(int shard, long lo, long hi, boolean repair) {
+            this.shard = shard;
+            this.lo = lo;
+            this.hi = hi;
+            this.repair = repair;
+        }
+
+        @Override
+        protected PartitionResult compute() {
+            if (hi - lo < partitionSize) {
+                return shardRouter.withShard(shard, () -> reconcilePartition(lo, hi, repair));
+            }
+            long mid = lo + (hi - lo) / 2;
+            PartitionTask left = new PartitionTask(shard, lo, mid, repair);
+            PartitionTask right = new PartitionTask(shard, mid + 1, hi, repair);
+            left.fork();
+            PartitionResult rightResult = right.compute();
+            return left.join().merge(rightResult, maxReported);
+        }
+    }
+
+    private static class PartitionResult {
+
+        private long itemsScanned;
+
+        private long itemsWithoutBaseline;
+
+        private long discrepancyCount;
+
+        private long repairedCount;
+
+        private final List<StockDiscrepancy> discrepancies = new ArrayList<>();
+
+        PartitionResult merge(PartitionResult other, int maxReported) {
+            itemsScanned += other.itemsScanned;
+            itemsWithoutBaseline += other.itemsWithoutBaseline;
+            discrepancyCount += other.discrepancyCount;
+            repairedCount += other.repairedCount;
+            for (StockDiscrepancy discrepancy : other.discrepancies) {
+                if (discrepancies.size() >= maxReported) {
+                    break;
+                }
+                discrepancies.add(discrepancy);
+            }
+            return this;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.blackcode.management_stock.job;
+
+import com.blackcode.management_stock.datasource.ShardRouter;
+import com.blackcode.management_stock.event.StockReservationClosedEvent;
+import com.blackcode.management_stock.event.StockReservationHeldEvent;
+import com.blackcode.management_stock.repository.StockReservationRepository;
+import com.blackcode.management_stock.service.StockReservationService;
+import com.blackcode.management_stock.utils.HashedWheelTimer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.Lifecycle;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Component
+public class StockReservationExpiryScheduler implements Lifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(StockReservationExpiryScheduler.class);
+
+    private final StockReservationService stockReservationService;
+
+    private final StockReservationRepository stockReservationRepository;
+
+    private final ShardRouter shardRouter;
+
+    private final HashedWheelTimer timer;
+
+    private final ExecutorService expiryExecutor;
+
+    private final Map<Long, HashedWheelTimer.Timeout> timeouts = new ConcurrentHashMap<>();
+
+    private volatile boolean running = true;
+
+    public StockReservationExpiryScheduler(StockReservationService stockReservationService,
+                                           StockReservationRepository stockReservationRepository,
+                                           ShardRouter shardRouter,
+                                           @Value("${stock.reservation.timer.tick-millis:100}") long tickMillis,
+                                           @Value("${stock.reservation.timer.wheel-size:512}") int wheelSize,
+                                           @Value("${stock.reservation.expiry-threads:2}") int expiryThreads) {
+        this.stockReservationService = stockReservationService;
+        this.stockReservationRepository = stockReservationRepository;
+        this.shardRouter = shardRouter;
+        this.timer = new HashedWheelTimer("reservation-expiry-wheel", tickMillis, wheelSize);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.expiryExecutor = Executors.newFixedThreadPool(Math.max(1, expiryThreads), runnable -> {
+            Thread thread = new Thread(runnable, "reservation-expiry-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationHeld(StockReservationHeldEvent event) {
+        schedule(event.getReservationId(), event.getExpiresAt());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationClosed(StockReservationClosedEvent event) {
+        HashedWheelTimer.Timeout timeout = timeouts.remove(event.getReservationId());
+        if (timeout != null) {
+            timeout.cancel();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void scheduleHeldReservations() {
+        // Timers live in memory only, so holds that were still open when the application stopped are put back on
+        // the wheel at startup; anything already past its deadline expires on the first tick.
+        int count = 0;
+        for (List<Object[]> rows : shardRouter.scatter(shard -> stockReservationRepository.findHeldExpiries())) {
+            for (Object[] row : rows) {
+                schedule((Long) row[0], (LocalDateTime) row[1]);
+                count++;
+            }
+        }
+        log.info("Scheduled expiry for {} held reservations", count);
+    }
+
+    // After a CRaC restore the holds in the database may differ from the ones on the wheel: the image can be restored
+    // long after, or on another node than, the checkpoint. Rescanning is safe because expiry is a conditional update
+    // and a reservation expired twice is a no-op the second time.
+    @Override
+    public void start() {
+        if (!running) {
+            running = true;
+            scheduleHeldReservations();
+        }
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    public void schedule(Long reservationId, LocalDateTime expiresAt) {
+        long delayMillis = Math.max(0, Duration.between(LocalDateTime.now(), expiresAt).toMillis());
+        HashedWheelTimer.Timeout timeout = timer.schedule(() -> {
+            // Only this entry's own timeout is dropped; a rescan may have replaced it with a newer one.
+            timeouts.computeIfPresent(reservationId, (id, current) -> current.isExpired() ? null : current);
+            expiryExecutor.execute(() -> expire(reservationId));
+        }, delayMillis, TimeUnit.MILLISECONDS);
+        // A rescan schedules holds that may already be on the wheel; the older timeout is not needed any more.
+        HashedWheelTimer.Timeout previous = timeouts.put(reservationId, timeout);
+        if (previous != null) {
+            previous.cancel();
+        }
+        // A timeout due at once can fire before it was put in the map.
+        if (timeout.isExpired()) {
+            timeouts.remove(reservationId, timeout);
+        }
+    }
+
+    public int pendingCount() {
+        return timer.pendingCount();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timer.close();
+        expiryExecutor.shutdown();
+    }
+
+    private void expire(Long reservationId) {
+        try {
+            stockReservationService.expireReservation(reservationId);
+        } catch (RuntimeException e) {
+            log.error("Failed to expire reservation [{}]", reservationId, e);
+        }
+    }
+}
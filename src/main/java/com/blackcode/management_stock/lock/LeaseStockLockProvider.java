@@ -0,0 +1,273 @@
+package com.blackcode.management_stock.lock;
+
+import com.blackcode.management_stock.datasource.PoolCheckpointRestoreLifecycle;
+import com.blackcode.management_stock.datasource.ShardRouter;
+import com.blackcode.management_stock.datasource.ShardRoutingDataSource;
+import com.blackcode.management_stock.exception.StockLockException;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.Lifecycle;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// Cross-node locks as rows in tb_stock_lease, one per item, on the item's own database (or shard). A lease is taken
+// and released in short transactions of its own, expires after stock.lock.lease-ttl-millis so a crashed node cannot
+// block an item forever, and bumps the item's token on every grant. Before the caller commits, verify() re-reads the
+// row FOR UPDATE inside the caller's transaction: if the lease expired and was taken over, the token no longer
+// matches and the commit is refused; if it still matches, the row lock keeps anyone from taking over until commit.
+// Those short transactions run on a small pool of their own (stock.lock.lease-pool-size per shard). The caller
+// already holds a connection from the main pool, so waiting there for a second one could exhaust it under load.
+@Component
+@ConditionalOnProperty(prefix = "stock.lock", name = "provider", havingValue = "lease")
+public class LeaseStockLockProvider implements StockLockProvider, Lifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(LeaseStockLockProvider.class);
+
+    private static final String CREATE_SQL =
+            "CREATE TABLE IF NOT EXISTS tb_stock_lease (item_id BIGINT PRIMARY KEY, owner VARCHAR(64), " +
+            "token BIGINT NOT NULL, expires_at BIGINT NOT NULL)";
+
+    private static final String TAKE_SQL =
+            "UPDATE tb_stock_lease SET owner = ?, token = token + 1, expires_at = ? " +
+            "WHERE item_id = ? AND (owner IS NULL OR expires_at < ?)";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO tb_stock_lease (item_id, owner, token, expires_at) VALUES (?, ?, 1, ?)";
+
+    private static final String RELEASE_SQL =
+            "UPDATE tb_stock_lease SET owner = NULL, expires_at = 0 WHERE item_id = ? AND token = ?";
+
+    private static final String VERIFY_SQL =
+            "SELECT token FROM tb_stock_lease WHERE item_id = ? AND owner = ? AND expires_at >= ? FOR UPDATE";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final JdbcTemplate leaseJdbcTemplate;
+
+    private final TransactionTemplate leaseTemplate;
+
+    private final List<? extends DataSource> leasePools;
+
+    private volatile PoolCheckpointRestoreLifecycle leasePoolLifecycle;
+
+    private final ShardRouter shardRouter;
+
+    private volatile String instanceId = UUID.randomUUID().toString();
+
+    private volatile boolean running = true;
+
+    private final AtomicLong acquisitions = new AtomicLong();
+
+    private final long leaseTtlMillis;
+
+    private final long waitMillis;
+
+    @Autowired
+    public LeaseStockLockProvider(DataSource dataSource, DataSourceProperties dataSourceProperties,
+                                  @Value("${stock.sharding.urls:}") List<String> shardUrls,
+                                  @Value("${stock.lock.lease-pool-size:4}") int leasePoolSize,
+                                  ConfigurableApplicationContext applicationContext, ShardRouter shardRouter,
+                                  @Value("${stock.lock.lease-ttl-millis:30000}") long leaseTtlMillis,
+                                  @Value("${stock.lock.wait-millis:5000}") long waitMillis) {
+        this(dataSource, leasePools(dataSourceProperties, shardUrls, leasePoolSize), shardRouter, leaseTtlMillis, waitMillis);
+        this.leasePoolLifecycle = new PoolCheckpointRestoreLifecycle(leasePools, applicationContext);
+    }
+
+    // leasePools holds one datasource per shard, in shard order.
+    public LeaseStockLockProvider(DataSource dataSource, List<? extends DataSource> leasePools, ShardRouter shardRouter,
+                                  long leaseTtlMillis, long waitMillis) {
+        DataSource leaseDataSource = leasePools.size() == 1
+                ? leasePools.get(0)
+                : new ShardRoutingDataSource(List.copyOf(leasePools));
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.leaseJdbcTemplate = new JdbcTemplate(leaseDataSource);
+        this.leaseTemplate = new TransactionTemplate(new DataSourceTransactionManager(leaseDataSource));
+        this.leaseTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.leasePools = leasePools;
+        this.shardRouter = shardRouter;
+        this.leaseTtlMillis = leaseTtlMillis;
+        this.waitMillis = waitMillis;
+        for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+            shardRouter.withShard(shard, () -> {
+                jdbcTemplate.execute(CREATE_SQL);
+                return null;
+            });
+        }
+        log.info("Stock lease locks enabled. Instance: {}, TTL: {} ms", instanceId, leaseTtlMillis);
+    }
+
+    // Lease owners start with the instance id, so instances restored from one CRaC checkpoint must not keep the
+    // checkpointed id: they would pass verify() for each other's leases.
+    private static List<HikariDataSource> leasePools(DataSourceProperties dataSourceProperties, List<String> shardUrls,
+                                                     int poolSize) {
+        List<String> urls = new ArrayList<>();
+        urls.add(dataSourceProperties.determineUrl());
+        shardUrls.stream().filter(url -> !url.isBlank()).map(String::trim).forEach(urls::add);
+        List<HikariDataSource> pools = new ArrayList<>();
+        for (String url : urls) {
+            HikariDataSource pool = DataSourceBuilder.create().type(HikariDataSource.class).url(url)
+                    .driverClassName(dataSourceProperties.determineDriverClassName())
+                    .username(dataSourceProperties.determineUsername())
+                    .password(dataSourceProperties.determinePassword()).build();
+            pool.setPoolName("stock-lease-" + pools.size());
+            pool.setMaximumPoolSize(poolSize);
+            pool.setMinimumIdle(1);
+            pools.add(pool);
+        }
+        return pools;
+    }
+
+    @Override
+    public void start() {
+        if (leasePoolLifecycle != null) {
+            leasePoolLifecycle.start();
+        }
+        if (!running) {
+            instanceId = UUID.randomUUID().toString();
+            log.info("Stock lease locks restored. Instance: {}", instanceId);
+            running = true;
+        }
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (leasePoolLifecycle != null) {
+            leasePoolLifecycle.stop();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        for (DataSource pool : leasePools) {
+            if (pool instanceof HikariDataSource hikariDataSource) {
+                hikariDataSource.close();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    String getInstanceId() {
+        return instanceId;
+    }
+
+    @Override
+    public StockLock acquire(Collection<Long> itemIds) {
+        // Owner is unique per acquisition, so two threads of the same instance exclude each other too.
+        String owner = instanceId + "-" + acquisitions.incrementAndGet();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(waitMillis);
+        Map<Long, Long> tokens = new LinkedHashMap<>();
+        // Release runs after completion, when the transaction's shard binding may already be gone.
+        int shard = shardRouter.currentShard();
+        try {
+            for (Long itemId : new TreeSet<>(itemIds)) {
+                tokens.put(itemId, take(itemId, owner, deadline));
+            }
+        } catch (RuntimeException e) {
+            release(shard, tokens);
+            throw e;
+        }
+        return new StockLock() {
+            @Override
+            public long fencingToken(Long itemId) {
+                return tokens.get(itemId);
+            }
+
+            @Override
+            public void verify() {
+                long now = System.currentTimeMillis();
+                for (Map.Entry<Long, Long> entry : tokens.entrySet()) {
+                    List<Long> current = jdbcTemplate.queryForList(VERIFY_SQL, Long.class, entry.getKey(), owner, now);
+                    if (current.isEmpty() || !current.get(0).equals(entry.getValue())) {
+                        throw new StockLockException("Kunci stok untuk item " + entry.getKey() + " sudah kedaluwarsa");
+                    }
+                }
+            }
+
+            @Override
+            public void close() {
+                release(shard, tokens);
+            }
+        };
+    }
+
+    private long take(Long itemId, String owner, long deadline) {
+        long backoffMillis = 2;
+        while (true) {
+            Long token = tryTake(itemId, owner);
+            if (token != null) {
+                return token;
+            }
+            if (System.nanoTime() >= deadline) {
+                throw new StockLockException("Item sedang diproses, silakan coba lagi");
+            }
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(ThreadLocalRandom.current().nextLong(1, backoffMillis + 1)));
+            backoffMillis = Math.min(backoffMillis * 2, 50);
+        }
+    }
+
+    private Long tryTake(Long itemId, String owner) {
+        try {
+            return leaseTemplate.execute(status -> {
+                long now = System.currentTimeMillis();
+                if (leaseJdbcTemplate.update(TAKE_SQL, owner, now + leaseTtlMillis, itemId, now) == 0
+                        && leaseJdbcTemplate.queryForList("SELECT 1 FROM tb_stock_lease WHERE item_id = ?", itemId).isEmpty()) {
+                    leaseJdbcTemplate.update(INSERT_SQL, itemId, owner, now + leaseTtlMillis);
+                }
+                List<Long> token = leaseJdbcTemplate.queryForList(
+                        "SELECT token FROM tb_stock_lease WHERE item_id = ? AND owner = ? AND expires_at > ?",
+                        Long.class, itemId, owner, now);
+                return token.isEmpty() ? null : token.get(0);
+            });
+        } catch (DuplicateKeyException e) {
+            return null;
+        }
+    }
+
+    private void release(int shard, Map<Long, Long> tokens) {
+        if (tokens.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<Long, Long>> entries = new ArrayList<>(tokens.entrySet());
+        try {
+            shardRouter.withShard(shard, () -> leaseTemplate.execute(status -> {
+                for (int i = entries.size() - 1; i >= 0; i--) {
+                    leaseJdbcTemplate.update(RELEASE_SQL, entries.get(i).getKey(), entries.get(i).getValue());
+                }
+                return null;
+            }));
+        } catch (RuntimeException e) {
+            // The lease simply runs out after its TTL.
+            log.warn("Failed to release stock leases {}: {}", tokens.keySet(), e.getMessage());
+        }
+    }
+}
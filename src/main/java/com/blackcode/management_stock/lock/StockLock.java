@@ -0,0 +1,13 @@
+package com.blackcode.management_stock.lock;
+
+public interface StockLock extends AutoCloseable {
+
+    // Strictly increasing per item across every holder, so a write carrying an older token can be recognised as stale.
+    long fencingToken(Long itemId);
+
+    // Throws StockLockException when the lock can no longer be trusted, e.g. a lease that expired and was taken over.
+    void verify();
+
+    @Override
+    void close();
+}
@@ -0,0 +1,34 @@
+package com.blackcode.management_stock.lock;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+
+// Mutual exclusion per itemId for stock mutations. Implementations take the items in ascending itemId order, so two
+// multi-item operations that share items can never wait on each other in a cycle.
+public interface StockLockProvider {
+
+    // Blocks until every item is locked, or throws StockLockException once stock.lock.wait-millis has passed.
+    StockLock acquire(Collection<Long> itemIds);
+
+    // Locks the items for the rest of the current transaction: the lock is verified just before commit and released
+    // after completion, so nothing else can change the items between our read and our commit.
+    default void lockForTransaction(Collection<Long> itemIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Stock locks require an active transaction");
+        }
+        StockLock lock = acquire(itemIds);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                lock.verify();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                lock.close();
+            }
+        });
+    }
+}
@@ -0,0 +1,86 @@
+package com.blackcode.management_stock.lock;
+
+import com.blackcode.management_stock.exception.StockLockException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+// In-JVM only: items hash onto a fixed set of fair locks. Good for a single instance; it does nothing for other nodes.
+@Component
+@ConditionalOnProperty(prefix = "stock.lock", name = "provider", havingValue = "striped", matchIfMissing = true)
+public class StripedStockLockProvider implements StockLockProvider {
+
+    private final ReentrantLock[] stripes;
+
+    private final long waitMillis;
+
+    private final AtomicLong tokens = new AtomicLong();
+
+    public StripedStockLockProvider(@Value("${stock.lock.stripes:1024}") int stripeCount,
+                                    @Value("${stock.lock.wait-millis:5000}") long waitMillis) {
+        this.stripes = new ReentrantLock[Math.max(1, stripeCount)];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ReentrantLock(true);
+        }
+        this.waitMillis = waitMillis;
+    }
+
+    // Stripes are taken in ascending stripe index rather than itemId: two items may share a stripe, and stripe order
+    // is what has to be consistent for the locks actually held.
+    @Override
+    public StockLock acquire(Collection<Long> itemIds) {
+        TreeSet<Integer> indexes = new TreeSet<>();
+        for (Long itemId : itemIds) {
+            indexes.add(Math.floorMod(Long.hashCode(itemId), stripes.length));
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(waitMillis);
+        List<ReentrantLock> held = new ArrayList<>(indexes.size());
+        try {
+            for (int index : indexes) {
+                ReentrantLock stripe = stripes[index];
+                if (!stripe.tryLock(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                    throw new StockLockException("Item sedang diproses, silakan coba lagi");
+                }
+                held.add(stripe);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            unlock(held);
+            throw new StockLockException("Item sedang diproses, silakan coba lagi");
+        } catch (RuntimeException e) {
+            unlock(held);
+            throw e;
+        }
+        long token = tokens.incrementAndGet();
+        return new StockLock() {
+            @Override
+            public long fencingToken(Long itemId) {
+                return token;
+            }
+
+            @Override
+            public void verify() {
+            }
+
+            @Override
+            public void close() {
+                unlock(held);
+            }
+        };
+    }
+
+    private void unlock(List<ReentrantLock> held) {
+        for (int i = held.size() - 1; i >= 0; i--) {
+            held.get(i).unlock();
+        }
+        held.clear();
+    }
+}
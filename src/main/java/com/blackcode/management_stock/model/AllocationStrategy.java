@@ -0,0 +1,38 @@
+package com.blackcode.management_stock.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+public enum AllocationStrategy {
+    NEAREST {
+        @Override
+        public List<LocationStock> rank(List<LocationStock> candidates, long sequence) {
+            return candidates.stream()
+                    .sorted(Comparator.comparingInt((LocationStock s) -> s.getLocation().getPriority())
+                            .thenComparing(s -> s.getLocation().getLocationId()))
+                    .toList();
+        }
+    },
+    MOST_STOCK {
+        @Override
+        public List<LocationStock> rank(List<LocationStock> candidates, long sequence) {
+            return candidates.stream()
+                    .sorted(Comparator.comparingInt((LocationStock s) -> -s.getQuantity())
+                            .thenComparing(s -> s.getLocation().getLocationId()))
+                    .toList();
+        }
+    },
+    ROUND_ROBIN {
+        @Override
+        public List<LocationStock> rank(List<LocationStock> candidates, long sequence) {
+            List<LocationStock> rotated = new ArrayList<>(candidates);
+            Collections.rotate(rotated, -(int) Math.floorMod(sequence, (long) Math.max(candidates.size(), 1)));
+            return rotated;
+        }
+    };
+
+    // Candidates in the order they should be tried; the first one is the location the strategy prefers.
+    public abstract List<LocationStock> rank(List<LocationStock> candidates, long sequence);
+}
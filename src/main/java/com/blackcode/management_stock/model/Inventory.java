@@ -5,12 +5,14 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.DynamicUpdate;
 
 @NoArgsConstructor
 @AllArgsConstructor
 @Getter
 @Setter
 @Entity
+@DynamicUpdate
 @Table(name = "tb_inventory")
 public class Inventory {
 
@@ -27,4 +29,15 @@ public class Inventory {
     @Enumerated(EnumType.STRING)
     private InventoryType inventoryType;
 
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "locationId")
+    private StockLocation location;
+
+    public Inventory(Long inventoryId, Item item, int inventoryQty, InventoryType inventoryType) {
+        this.inventoryId = inventoryId;
+        this.item = item;
+        this.inventoryQty = inventoryQty;
+        this.inventoryType = inventoryType;
+    }
+
 }
@@ -1,19 +1,28 @@
 package com.blackcode.management_stock.model;
 
+import com.blackcode.management_stock.cache.SecondLevelCacheConfig;
+import com.blackcode.management_stock.money.Money;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 
-import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 @NoArgsConstructor
 @AllArgsConstructor
 @Getter
 @Setter
 @Entity
-@Table(name = "tb_item")
+// Listings filter on deletedAt IS NULL and page by itemId, which this index serves without touching tombstones.
+@Table(name = "tb_item", indexes = @Index(name = "idx_item_deleted_at", columnList = "deletedAt, itemId"))
+@Cacheable
+@DynamicUpdate
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.ITEM_REGION)
 public class Item {
 
     @Id
@@ -24,9 +33,36 @@ public class Item {
     private String itemName;
 
     @Column(nullable = false)
-    private BigDecimal itemPrice;
+    private Money itemPrice;
 
     @Column(nullable = false)
     private Integer itemStock;
 
-}
\ No newline at end of file
+    private Integer openingStock;
+
+    // When set, stock lives in this many tb_item_stock_slot rows and itemStock is not maintained.
+    private Integer stockShards;
+
+    // Bumped by Hibernate on every update; item ETags are derived from it.
+    @Version
+    private Long version;
+
+    // Tombstone: set when the item is deleted. The row stays until ItemCompactionJob finds no history left for it.
+    private LocalDateTime deletedAt;
+
+    public Item(Long itemId, String itemName, Money itemPrice, Integer itemStock) {
+        this.itemId = itemId;
+        this.itemName = itemName;
+        this.itemPrice = itemPrice;
+        this.itemStock = itemStock;
+    }
+
+    public boolean isDeleted() {
+        return deletedAt != null;
+    }
+
+    public boolean isSharded() {
+        return stockShards != null && stockShards > 0;
+    }
+
+}
@@ -0,0 +1,26 @@
+package com.blackcode.management_stock.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Entity
+@IdClass(ItemStockSlotId.class)
+@Table(name = "tb_item_stock_slot")
+public class ItemStockSlot {
+
+    @Id
+    private Long itemId;
+
+    @Id
+    private int slotNo;
+
+    private int quantity;
+
+}
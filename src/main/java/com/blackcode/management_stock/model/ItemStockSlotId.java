@@ -0,0 +1,22 @@
+package com.blackcode.management_stock.model;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@EqualsAndHashCode
+public class ItemStockSlotId implements Serializable {
+
+    private Long itemId;
+
+    private int slotNo;
+
+}
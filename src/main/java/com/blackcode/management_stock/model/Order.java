@@ -1,12 +1,15 @@
 package com.blackcode.management_stock.model;
 
+import com.blackcode.management_stock.money.Money;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
-import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 @NoArgsConstructor
 @AllArgsConstructor
@@ -25,6 +28,23 @@ public class Order {
 
     private int orderQty;
 
-    private BigDecimal price;
+    private Money price;
+
+    private LocalDateTime orderDate;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "locationId")
+    private StockLocation location;
+
+    @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OrderBy("lineNo")
+    private List<OrderLine> lines = new ArrayList<>();
+
+    public Order(String orderNo, Item item, int orderQty, Money price) {
+        this.orderNo = orderNo;
+        this.item = item;
+        this.orderQty = orderQty;
+        this.price = price;
+    }
 
 }
@@ -0,0 +1,51 @@
+package com.blackcode.management_stock.model;
+
+import com.blackcode.management_stock.money.Money;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Entity
+@Table(name = "tb_order_line")
+public class OrderLine {
+
+    // No pooled id block: it would be shared by all shards, while each id must come from the bound shard's sequence.
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_line_seq")
+    @SequenceGenerator(name = "order_line_seq", sequenceName = "tb_order_line_seq", allocationSize = 1)
+    private Long orderLineId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "orderNo")
+    private Order order;
+
+    private int lineNo;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "itemId")
+    private Item item;
+
+    private int orderQty;
+
+    private Money price;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "locationId")
+    private StockLocation location;
+
+    public OrderLine(Long orderLineId, Order order, int lineNo, Item item, int orderQty, Money price) {
+        this.orderLineId = orderLineId;
+        this.order = order;
+        this.lineNo = lineNo;
+        this.item = item;
+        this.orderQty = orderQty;
+        this.price = price;
+    }
+
+}
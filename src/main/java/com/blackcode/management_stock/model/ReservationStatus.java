@@ -0,0 +1,8 @@
+package com.blackcode.management_stock.model;
+
+public enum ReservationStatus {
+    HELD,
+    CONFIRMED,
+    RELEASED,
+    EXPIRED
+}
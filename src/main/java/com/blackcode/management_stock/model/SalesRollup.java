@@ -0,0 +1,41 @@
+package com.blackcode.management_stock.model;
+
+import com.blackcode.management_stock.money.Money;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Entity
+@IdClass(SalesRollupId.class)
+@Table(name = "tb_sales_rollup")
+public class SalesRollup {
+
+    @Id
+    private Long itemId;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 8)
+    private RollupGranularity granularity;
+
+    @Id
+    private LocalDateTime bucketStart;
+
+    @Column(nullable = false)
+    private long orderCount;
+
+    @Column(nullable = false)
+    private long totalQty;
+
+    @Column(nullable = false)
+    private Money totalRevenue;
+
+}
@@ -0,0 +1,25 @@
+package com.blackcode.management_stock.model;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@EqualsAndHashCode
+public class SalesRollupId implements Serializable {
+
+    private Long itemId;
+
+    private RollupGranularity granularity;
+
+    private LocalDateTime bucketStart;
+
+}
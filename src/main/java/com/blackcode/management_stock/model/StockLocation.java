@@ -0,0 +1,30 @@
+package com.blackcode.management_stock.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Entity
+@Table(name = "tb_stock_location")
+public class StockLocation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long locationId;
+
+    @Column(nullable = false, unique = true, length = 32)
+    private String locationCode;
+
+    @Column(nullable = false)
+    private String locationName;
+
+    // Lower value = closer to the fulfilment point; used by the NEAREST allocation strategy.
+    private int priority;
+
+}
@@ -0,0 +1,58 @@
+package com.blackcode.management_stock.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Entity
+@Table(name = "tb_stock_reservation", indexes = @Index(name = "idx_reservation_status_item", columnList = "status, itemId"))
+public class StockReservation {
+
+    // No pooled id block: it would be shared by all shards, while each id must come from the bound shard's sequence.
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stock_reservation_seq")
+    @SequenceGenerator(name = "stock_reservation_seq", sequenceName = "tb_stock_reservation_seq", allocationSize = 1)
+    private Long reservationId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "itemId")
+    private Item item;
+
+    private int reservedQty;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private ReservationStatus status;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    private String orderNo;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "locationId")
+    private StockLocation location;
+
+    public StockReservation(Long reservationId, Item item, int reservedQty, ReservationStatus status,
+                            LocalDateTime createdAt, LocalDateTime expiresAt, String orderNo) {
+        this.reservationId = reservationId;
+        this.item = item;
+        this.reservedQty = reservedQty;
+        this.status = status;
+        this.createdAt = createdAt;
+        this.expiresAt = expiresAt;
+        this.orderNo = orderNo;
+    }
+
+}
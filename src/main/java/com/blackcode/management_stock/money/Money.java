@@ -0,0 +1,168 @@
+package com.blackcode.management_stock.money;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.math.BigDecimal;
+
+// A fixed-point amount: a long count of minor units at SCALE decimal places, so totals and price checks are plain
+// long arithmetic. Every operation that could leave the long range throws ArithmeticException instead of wrapping.
+// Extends Number so the bean validation number constraints (@DecimalMin and friends) apply to it.
+@JsonSerialize(using = MoneyJsonSerializer.class)
+@JsonDeserialize(using = MoneyJsonDeserializer.class)
+public final class Money extends Number implements Comparable<Money> {
+
+    public static final int SCALE = 2;
+
+    private static final long UNIT = 100;
+
+    public static final Money ZERO = new Money(0);
+
+    private final long minorUnits;
+
+    private Money(long minorUnits) {
+        this.minorUnits = minorUnits;
+    }
+
+    public static Money ofMinor(long minorUnits) {
+        return minorUnits == 0 ? ZERO : new Money(minorUnits);
+    }
+
+    public static Money of(long units) {
+        return ofMinor(Math.multiplyExact(units, UNIT));
+    }
+
+    // Only for values coming from outside in decimal form; more fraction digits than SCALE are rejected, not rounded.
+    // The size checks come first: setScale on an exponent like 1e100000000 would build a power of ten that large.
+    public static Money of(BigDecimal amount) {
+        if (amount.precision() - amount.scale() > 19 || amount.scale() < -18
+                || amount.scale() - SCALE > amount.precision()) {
+            throw new ArithmeticException("Amount out of range: " + amount);
+        }
+        return ofMinor(amount.setScale(SCALE).unscaledValue().longValueExact());
+    }
+
+    // Parses plain decimal text ("12500", "-3.5", "0.25") without going through BigDecimal.
+    public static Money parse(CharSequence text) {
+        int length = text.length();
+        int i = 0;
+        boolean negative = false;
+        if (length > 0 && (text.charAt(0) == '-' || text.charAt(0) == '+')) {
+            negative = text.charAt(0) == '-';
+            i++;
+        }
+        long units = 0;
+        int digits = 0;
+        for (; i < length && text.charAt(i) != '.'; i++, digits++) {
+            units = Math.addExact(Math.multiplyExact(units, 10), digit(text, i));
+        }
+        long fraction = 0;
+        int fractionDigits = 0;
+        if (i < length) {
+            for (i++; i < length; i++, fractionDigits++) {
+                int digit = digit(text, i);
+                if (fractionDigits >= SCALE) {
+                    if (digit != 0) {
+                        throw new ArithmeticException("More than " + SCALE + " decimal places: " + text);
+                    }
+                    continue;
+                }
+                fraction = fraction * 10 + digit;
+            }
+        }
+        if (digits == 0 && fractionDigits == 0) {
+            throw new NumberFormatException("Not an amount: \"" + text + "\"");
+        }
+        for (int pad = Math.min(fractionDigits, SCALE); pad < SCALE; pad++) {
+            fraction *= 10;
+        }
+        long minorUnits = Math.addExact(Math.multiplyExact(units, UNIT), fraction);
+        return ofMinor(negative ? -minorUnits : minorUnits);
+    }
+
+    private static int digit(CharSequence text, int index) {
+        char c = text.charAt(index);
+        if (c < '0' || c > '9') {
+            throw new NumberFormatException("Not an amount: \"" + text + "\"");
+        }
+        return c - '0';
+    }
+
+    public long getMinorUnits() {
+        return minorUnits;
+    }
+
+    public Money times(int quantity) {
+        return ofMinor(Math.multiplyExact(minorUnits, quantity));
+    }
+
+    public Money plus(Money other) {
+        return ofMinor(Math.addExact(minorUnits, other.minorUnits));
+    }
+
+    public Money negate() {
+        return ofMinor(Math.negateExact(minorUnits));
+    }
+
+    // Checks this amount against unitPrice x quantity in minor units, without creating the product.
+    public boolean isTotalOf(Money unitPrice, int quantity) {
+        return minorUnits == Math.multiplyExact(unitPrice.minorUnits, quantity);
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    @Override
+    public int intValue() {
+        return (int) longValue();
+    }
+
+    @Override
+    public long longValue() {
+        return minorUnits / UNIT;
+    }
+
+    @Override
+    public float floatValue() {
+        return (float) doubleValue();
+    }
+
+    @Override
+    public double doubleValue() {
+        return (double) minorUnits / UNIT;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof Money money && minorUnits == money.minorUnits;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(minorUnits);
+    }
+
+    // Plain decimal text with exactly SCALE fraction digits, e.g. "12500.00" or "-0.05".
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder(24);
+        if (minorUnits < 0) {
+            text.append('-');
+        }
+        // Minor units are split with unsigned arithmetic on the magnitude so Long.MIN_VALUE prints correctly.
+        long magnitude = Math.abs(minorUnits);
+        long units = Long.divideUnsigned(magnitude, UNIT);
+        long fraction = Long.remainderUnsigned(magnitude, UNIT);
+        text.append(Long.toUnsignedString(units)).append('.');
+        if (fraction < 10) {
+            text.append('0');
+        }
+        return text.append(fraction).toString();
+    }
+}
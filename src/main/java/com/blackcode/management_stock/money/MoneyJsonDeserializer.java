@@ -0,0 +1,43 @@
+package com.blackcode.management_stock.money;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+
+import java.io.IOException;
+
+// Accepts numbers and numeric strings. Integers take the long path; decimals are parsed from their text so a price
+// like 0.1 never passes through a double.
+public class MoneyJsonDeserializer extends StdScalarDeserializer<Money> {
+
+    public MoneyJsonDeserializer() {
+        super(Money.class);
+    }
+
+    @Override
+    public Money deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        JsonToken token = parser.currentToken();
+        try {
+            if (token == JsonToken.VALUE_NUMBER_INT) {
+                JsonParser.NumberType numberType = parser.getNumberType();
+                return numberType == JsonParser.NumberType.INT || numberType == JsonParser.NumberType.LONG
+                        ? Money.of(parser.getLongValue())
+                        : Money.parse(parser.getText());
+            }
+            if (token == JsonToken.VALUE_NUMBER_FLOAT) {
+                String text = parser.getText();
+                return text.indexOf('e') >= 0 || text.indexOf('E') >= 0
+                        ? Money.of(parser.getDecimalValue())
+                        : Money.parse(text);
+            }
+            if (token == JsonToken.VALUE_STRING) {
+                return Money.parse(parser.getText().trim());
+            }
+        } catch (ArithmeticException | NumberFormatException e) {
+            return (Money) context.handleWeirdStringValue(Money.class, parser.getText(),
+                    "not an amount with at most %d decimal places in range: %s", Money.SCALE, e.getMessage());
+        }
+        return (Money) context.handleUnexpectedToken(Money.class, parser);
+    }
+}
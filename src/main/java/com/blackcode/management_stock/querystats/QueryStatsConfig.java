@@ -0,0 +1,47 @@
+package com.blackcode.management_stock.querystats;
+
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+
+// Only the bean named "dataSource" is wrapped: it is the one JPA and the JdbcTemplates use in every setup (plain,
+// replica and sharded), and the pools behind it would otherwise count each statement twice.
+@Configuration
+@ConditionalOnProperty(prefix = "stock.query-stats", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class QueryStatsConfig implements WebMvcConfigurer {
+
+    private final QueryStatsInterceptor queryStatsInterceptor;
+
+    public QueryStatsConfig(QueryStatsInterceptor queryStatsInterceptor) {
+        this.queryStatsInterceptor = queryStatsInterceptor;
+    }
+
+    @Bean
+    public static BeanPostProcessor queryStatsDataSourceProxy(ObjectProvider<QueryStatsRecorder> recorder) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!"dataSource".equals(beanName) || !(bean instanceof DataSource dataSource)) {
+                    return bean;
+                }
+                QueryStatsRecorder queryStatsRecorder = recorder.getObject();
+                return ProxyDataSourceBuilder.create("dataSource", dataSource)
+                        .listener(queryStatsRecorder)
+                        .proxyResultSet(queryStatsRecorder.rowCountingResultSets())
+                        .build();
+            }
+        };
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(queryStatsInterceptor).addPathPatterns("/api/**");
+    }
+}
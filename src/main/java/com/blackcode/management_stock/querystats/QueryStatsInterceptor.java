@@ -0,0 +1,46 @@
+package com.blackcode.management_stock.querystats;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+// Opens a query scope per request, named after the endpoint that handles it, e.g.
+// "GET /api/items/{id} (ItemController#getItemFindById)". Streamed responses are closed when the handler hands off
+// to the async thread; whatever the stream writes afterwards only counts per statement.
+@Component
+public class QueryStatsInterceptor implements AsyncHandlerInterceptor {
+
+    private final QueryStatsRecorder recorder;
+
+    public QueryStatsInterceptor(QueryStatsRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() != DispatcherType.REQUEST) {
+            return true;
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String endpoint = request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI());
+        if (handler instanceof HandlerMethod handlerMethod) {
+            endpoint += " (" + handlerMethod.getBeanType().getSimpleName() + "#" + handlerMethod.getMethod().getName() + ")";
+        }
+        recorder.beginRequest(endpoint);
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        recorder.endRequest();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        recorder.endRequest();
+    }
+}
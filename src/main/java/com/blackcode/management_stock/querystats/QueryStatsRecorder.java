@@ -0,0 +1,283 @@
+package com.blackcode.management_stock.querystats;
+
+import com.blackcode.management_stock.dto.EndpointQueryStats;
+import com.blackcode.management_stock.dto.NPlusOneDetection;
+import com.blackcode.management_stock.dto.QueryStatsReport;
+import com.blackcode.management_stock.dto.SlowQuery;
+import com.blackcode.management_stock.dto.StatementStats;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ResultSetProxyLogic;
+import net.ttddyy.dsproxy.proxy.ResultSetProxyLogicFactory;
+import net.ttddyy.dsproxy.proxy.SimpleResultSetProxyLogicFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+// Fed by the datasource-proxy wrapped around the application's DataSource. Every statement is aggregated by its SQL
+// text (prepared statements keep their placeholders, so repository calls group naturally). Statements run on a
+// request thread are also counted against the request's endpoint, which is what the slow-query log and the N+1
+// check report. Work on other threads (jobs, shard scatter) only shows up in the per-statement figures.
+@Component
+public class QueryStatsRecorder implements QueryExecutionListener {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryStatsRecorder.class);
+
+    private static final String OTHER_STATEMENTS = "(other statements)";
+
+    private static final ThreadLocal<RequestScope> CURRENT_REQUEST = new ThreadLocal<>();
+
+    // Hands the statement that was just executed to the result set proxy created for its results.
+    private static final ThreadLocal<Aggregate> LAST_STATEMENT = new ThreadLocal<>();
+
+    private final long slowThresholdMillis;
+
+    private final int repeatThreshold;
+
+    private final int topN;
+
+    private final int maxStatements;
+
+    private final Map<String, Aggregate> statements = new ConcurrentHashMap<>();
+
+    private final Map<String, EndpointAggregate> endpoints = new ConcurrentHashMap<>();
+
+    private final Map<String, NPlusOneDetection> suspectedNPlusOne = new ConcurrentHashMap<>();
+
+    // Min-heap on duration, so the fastest of the kept slow queries is the one that makes room.
+    private final PriorityQueue<SlowQuery> slowQueries = new PriorityQueue<>(Comparator.comparingLong(SlowQuery::getMillis));
+
+    public QueryStatsRecorder(@Value("${stock.query-stats.slow-threshold-millis:200}") long slowThresholdMillis,
+                              @Value("${stock.query-stats.n-plus-one-threshold:10}") int repeatThreshold,
+                              @Value("${stock.query-stats.top-n:20}") int topN,
+                              @Value("${stock.query-stats.max-statements:1000}") int maxStatements) {
+        this.slowThresholdMillis = slowThresholdMillis;
+        this.repeatThreshold = repeatThreshold;
+        this.topN = topN;
+        this.maxStatements = maxStatements;
+    }
+
+    public void beginRequest(String endpoint) {
+        CURRENT_REQUEST.set(new RequestScope(endpoint));
+    }
+
+    public void endRequest() {
+        RequestScope scope = CURRENT_REQUEST.get();
+        if (scope == null) {
+            return;
+        }
+        CURRENT_REQUEST.remove();
+        LAST_STATEMENT.remove();
+        endpoints.computeIfAbsent(scope.endpoint, key -> new EndpointAggregate()).record(scope);
+        for (Map.Entry<String, Integer> entry : scope.selects.entrySet()) {
+            if (entry.getValue() >= repeatThreshold) {
+                recordNPlusOne(scope.endpoint, entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo executionInfo, List<QueryInfo> queries) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo executionInfo, List<QueryInfo> queries) {
+        String sql = queries.size() == 1 ? queries.get(0).getQuery()
+                : queries.stream().map(QueryInfo::getQuery).collect(Collectors.joining("; "));
+        long millis = executionInfo.getElapsedTime();
+        Aggregate aggregate = statements.get(sql);
+        if (aggregate == null) {
+            aggregate = statements.size() < maxStatements
+                    ? statements.computeIfAbsent(sql, key -> new Aggregate())
+                    : statements.computeIfAbsent(OTHER_STATEMENTS, key -> new Aggregate());
+        }
+        aggregate.record(millis);
+        LAST_STATEMENT.set(aggregate);
+
+        RequestScope scope = CURRENT_REQUEST.get();
+        if (scope != null) {
+            scope.statements++;
+            scope.dbMillis += millis;
+            if (isSelect(sql)) {
+                scope.selects.merge(sql, 1, Integer::sum);
+            }
+        }
+        if (millis >= slowThresholdMillis) {
+            String endpoint = scope != null ? scope.endpoint : Thread.currentThread().getName();
+            log.warn("Slow query ({} ms) in {}: {}", millis, endpoint, sql);
+            recordSlowQuery(new SlowQuery(sql, millis, endpoint, LocalDateTime.now()));
+        }
+    }
+
+    // Counts the rows actually read, against the statement that produced them and the current request. The proxy is
+    // created before afterQuery runs for its statement, so the statement is picked up on the first call instead.
+    public ResultSetProxyLogicFactory rowCountingResultSets() {
+        ResultSetProxyLogicFactory delegate = new SimpleResultSetProxyLogicFactory();
+        return (resultSet, connectionInfo, proxyConfig) -> {
+            ResultSetProxyLogic logic = delegate.create(resultSet, connectionInfo, proxyConfig);
+            RequestScope scope = CURRENT_REQUEST.get();
+            Aggregate[] statement = new Aggregate[1];
+            return (proxy, method, args) -> {
+                if (statement[0] == null) {
+                    statement[0] = LAST_STATEMENT.get();
+                }
+                Object result = logic.invoke(proxy, method, args);
+                if (Boolean.TRUE.equals(result) && "next".equals(method.getName())) {
+                    if (statement[0] != null) {
+                        statement[0].rows.increment();
+                    }
+                    if (scope != null) {
+                        scope.rows++;
+                    }
+                }
+                return result;
+            };
+        };
+    }
+
+    public QueryStatsReport report() {
+        QueryStatsReport report = new QueryStatsReport();
+        report.setSlowThresholdMillis(slowThresholdMillis);
+        report.setRepeatThreshold(repeatThreshold);
+        report.setStatements(statements.entrySet().stream()
+                .map(entry -> entry.getValue().toStats(entry.getKey()))
+                .sorted(Comparator.comparingLong(StatementStats::getTotalMillis).reversed())
+                .limit(topN)
+                .toList());
+        synchronized (slowQueries) {
+            List<SlowQuery> slowest = new ArrayList<>(slowQueries);
+            slowest.sort(Comparator.comparingLong(SlowQuery::getMillis).reversed());
+            report.setSlowQueries(slowest);
+        }
+        report.setSuspectedNPlusOne(suspectedNPlusOne.values().stream()
+                .sorted(Comparator.comparingLong(NPlusOneDetection::getOccurrences).reversed())
+                .limit(topN)
+                .toList());
+        report.setEndpoints(endpoints.entrySet().stream()
+                .map(entry -> entry.getValue().toStats(entry.getKey()))
+                .sorted(Comparator.comparingLong(EndpointQueryStats::getDbMillis).reversed())
+                .limit(topN)
+                .toList());
+        return report;
+    }
+
+    public int getTopN() {
+        return topN;
+    }
+
+    public void reset() {
+        statements.clear();
+        endpoints.clear();
+        suspectedNPlusOne.clear();
+        synchronized (slowQueries) {
+            slowQueries.clear();
+        }
+    }
+
+    private void recordSlowQuery(SlowQuery slowQuery) {
+        synchronized (slowQueries) {
+            slowQueries.add(slowQuery);
+            if (slowQueries.size() > topN) {
+                slowQueries.poll();
+            }
+        }
+    }
+
+    private void recordNPlusOne(String endpoint, String sql, int executions) {
+        NPlusOneDetection detection = suspectedNPlusOne.compute(endpoint + '\n' + sql, (key, existing) -> {
+            if (existing == null) {
+                return new NPlusOneDetection(endpoint, sql, executions, 1, LocalDateTime.now());
+            }
+            existing.setMaxExecutionsPerRequest(Math.max(existing.getMaxExecutionsPerRequest(), executions));
+            existing.setOccurrences(existing.getOccurrences() + 1);
+            existing.setLastSeenAt(LocalDateTime.now());
+            return existing;
+        });
+        if (detection.getOccurrences() == 1) {
+            log.warn("Possible N+1 in {}: the same select ran {} times in one request: {}", endpoint, executions, sql);
+        }
+    }
+
+    private static boolean isSelect(String sql) {
+        return sql.stripLeading().regionMatches(true, 0, "select", 0, 6);
+    }
+
+    private static class Aggregate {
+
+        private final LongAdder executions = new LongAdder();
+
+        private final LongAdder totalMillis = new LongAdder();
+
+        private final AtomicLong maxMillis = new AtomicLong();
+
+        private final LongAdder rows = new LongAdder();
+
+        void record(long millis) {
+            executions.increment();
+            totalMillis.add(millis);
+            maxMillis.accumulateAndGet(millis, Math::max);
+        }
+
+        StatementStats toStats(String sql) {
+            return new StatementStats(sql, executions.sum(), totalMillis.sum(), maxMillis.get(), rows.sum());
+        }
+    }
+
+    private static class EndpointAggregate {
+
+        private final LongAdder requests = new LongAdder();
+
+        private final LongAdder statements = new LongAdder();
+
+        private final AtomicLong maxStatements = new AtomicLong();
+
+        private final LongAdder rows = new LongAdder();
+
+        private final LongAdder dbMillis = new LongAdder();
+
+        void record(RequestScope scope) {
+            requests.increment();
+            statements.add(scope.statements);
+            maxStatements.accumulateAndGet(scope.statements, Math::max);
+            rows.add(scope.rows);
+            dbMillis.add(scope.dbMillis);
+        }
+
+        EndpointQueryStats toStats(String endpoint) {
+            return new EndpointQueryStats(endpoint, requests.sum(), statements.sum(), maxStatements.get(),
+                    rows.sum(), dbMillis.sum());
+        }
+    }
+
+    // Confined to the request thread.
+    private static class RequestScope {
+
+        private final String endpoint;
+
+        private final Map<String, Integer> selects = new HashMap<>();
+
+        private int statements;
+
+        private long rows;
+
+        private long dbMillis;
+
+        RequestScope(String endpoint) {
+            this.endpoint = endpoint;
+        }
+    }
+}
@@ -1,9 +1,30 @@
 package com.blackcode.management_stock.repository;
 
 import com.blackcode.management_stock.model.Inventory;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.stream.Stream;
+
 @Repository
 public interface InventoryRepository extends JpaRepository<Inventory, Long> {
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT i FROM Inventory i JOIN FETCH i.item LEFT JOIN FETCH i.location ORDER BY i.inventoryId")
+    Stream<Inventory> streamAllForExport();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT i FROM Inventory i JOIN FETCH i.item LEFT JOIN FETCH i.location ORDER BY i.inventoryId")
+    Stream<Inventory> streamPage(Pageable pageable);
 }
@@ -1,9 +1,57 @@
 package com.blackcode.management_stock.repository;
 
 import com.blackcode.management_stock.model.Item;
+import com.blackcode.management_stock.money.Money;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Item i WHERE i.itemId IN :itemIds ORDER BY i.itemId")
+    List<Item> findAllByIdForUpdate(@Param("itemIds") Collection<Long> itemIds);
+
+    // findAll(Pageable) through the query cache, page and count alike. The cache key does not name the datasource,
+    // so this is only for a single shard.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT i FROM Item i WHERE i.deletedAt IS NULL")
+    Page<Item> findAllCached(Pageable pageable);
+
+    @Query("SELECT i FROM Item i WHERE i.deletedAt IS NULL")
+    Page<Item> findAllLive(Pageable pageable);
+
+    // Writes name and price without reading the row, and never the stock columns. A null leaves its column as it is.
+    // The version bump keeps ETags and read-modify-write updates of the same item honest.
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("UPDATE Item i SET i.itemName = COALESCE(:itemName, i.itemName), " +
+            "i.itemPrice = COALESCE(:itemPrice, i.itemPrice), i.version = i.version + 1 " +
+            "WHERE i.itemId = :itemId AND i.deletedAt IS NULL")
+    int patchNameAndPrice(@Param("itemId") Long itemId, @Param("itemName") String itemName,
+                          @Param("itemPrice") Money itemPrice);
+
+    // The row as a plain copy for building a response: nothing enters the persistence context or the cache.
+    @Query("SELECT new com.blackcode.management_stock.model.Item(i.itemId, i.itemName, i.itemPrice, i.itemStock, " +
+            "i.openingStock, i.stockShards, i.version, i.deletedAt) FROM Item i WHERE i.itemId = :itemId")
+    Optional<Item> findSnapshot(@Param("itemId") Long itemId);
+
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("UPDATE Item i SET i.deletedAt = :deletedAt, i.version = i.version + 1 " +
+            "WHERE i.itemId = :itemId AND i.deletedAt IS NULL")
+    int markDeleted(@Param("itemId") Long itemId, @Param("deletedAt") LocalDateTime deletedAt);
 }
@@ -0,0 +1,59 @@
+package com.blackcode.management_stock.repository;
+
+import com.blackcode.management_stock.model.ItemStockSlot;
+import com.blackcode.management_stock.model.ItemStockSlotId;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ItemStockSlotRepository extends JpaRepository<ItemStockSlot, ItemStockSlotId> {
+
+    // Locks one slot that can cover the quantity, skipping slots other transactions hold, so it never waits.
+    @Query(value = "SELECT slot_no FROM tb_item_stock_slot WHERE item_id = :itemId AND quantity >= :qty " +
+            "ORDER BY MOD(slot_no + :offset, :shards) FETCH FIRST 1 ROWS ONLY FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Integer> lockFreeSlot(@Param("itemId") Long itemId, @Param("qty") int qty,
+                               @Param("offset") int offset, @Param("shards") int shards);
+
+    // Native writes name the table they touch, or Hibernate would clear every cache region after them.
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "tb_item_stock_slot"))
+    @Query(value = "UPDATE tb_item_stock_slot SET quantity = quantity - :qty " +
+            "WHERE item_id = :itemId AND slot_no = :slotNo AND quantity >= :qty", nativeQuery = true)
+    int tryTake(@Param("itemId") Long itemId, @Param("slotNo") int slotNo, @Param("qty") int qty);
+
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "tb_item_stock_slot"))
+    @Query(value = "UPDATE tb_item_stock_slot SET quantity = quantity + :qty " +
+            "WHERE item_id = :itemId AND slot_no = :slotNo", nativeQuery = true)
+    int give(@Param("itemId") Long itemId, @Param("slotNo") int slotNo, @Param("qty") int qty);
+
+    @Query("SELECT COALESCE(SUM(s.quantity), 0) FROM ItemStockSlot s WHERE s.itemId = :itemId")
+    long sumQuantity(@Param("itemId") Long itemId);
+
+    @Query("SELECT s.itemId, SUM(s.quantity) FROM ItemStockSlot s WHERE s.itemId IN :itemIds GROUP BY s.itemId")
+    List<Object[]> sumQuantities(@Param("itemIds") Collection<Long> itemIds);
+
+    // Native so the quantities come from the locked rows rather than any slot entity already in the session.
+    @Query(value = "SELECT slot_no, quantity FROM tb_item_stock_slot WHERE item_id = :itemId " +
+            "ORDER BY slot_no FOR UPDATE", nativeQuery = true)
+    List<Object[]> lockQuantities(@Param("itemId") Long itemId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM ItemStockSlot s WHERE s.itemId = :itemId ORDER BY s.slotNo")
+    List<ItemStockSlot> findAllByItemIdForUpdate(@Param("itemId") Long itemId);
+
+    @Modifying
+    @Query("DELETE FROM ItemStockSlot s WHERE s.itemId = :itemId")
+    int deleteAllByItemId(@Param("itemId") Long itemId);
+}
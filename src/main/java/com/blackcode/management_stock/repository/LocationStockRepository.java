@@ -0,0 +1,50 @@
+package com.blackcode.management_stock.repository;
+
+import com.blackcode.management_stock.model.LocationStock;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface LocationStockRepository extends JpaRepository<LocationStock, Long> {
+
+    // Unmanaged copies of the rows, so each allocation ranks on what the table holds now rather than on rows an
+    // earlier statement left in the session. Nothing is locked here.
+    @Query("SELECT new com.blackcode.management_stock.model.LocationStock(s.locationStockId, s.item, s.location, s.quantity) " +
+            "FROM LocationStock s WHERE s.item.itemId = :itemId ORDER BY s.location.priority, s.location.locationId")
+    List<LocationStock> findSnapshotsByItemId(@Param("itemId") Long itemId);
+
+    // Locks the row if it can still cover the quantity, skipping it when another transaction holds it.
+    @Query(value = "SELECT location_id FROM tb_location_stock WHERE item_id = :itemId AND location_id = :locationId " +
+            "AND quantity >= :qty FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> lockIfFree(@Param("itemId") Long itemId, @Param("locationId") Long locationId, @Param("qty") int qty);
+
+    // Native writes name the table they touch, or Hibernate would clear every cache region after them.
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "tb_location_stock"))
+    @Query(value = "UPDATE tb_location_stock SET quantity = quantity - :qty " +
+            "WHERE item_id = :itemId AND location_id = :locationId AND quantity >= :qty", nativeQuery = true)
+    int tryTake(@Param("itemId") Long itemId, @Param("locationId") Long locationId, @Param("qty") int qty);
+
+    // One statement whether or not the row exists yet, so two receipts into a new location cannot both insert it.
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "tb_location_stock"))
+    @Query(value = "MERGE INTO tb_location_stock s " +
+            "USING (VALUES (CAST(:itemId AS BIGINT), CAST(:locationId AS BIGINT))) v(item_id, location_id) " +
+            "ON s.item_id = v.item_id AND s.location_id = v.location_id " +
+            "WHEN MATCHED THEN UPDATE SET quantity = s.quantity + :qty " +
+            "WHEN NOT MATCHED THEN INSERT (item_id, location_id, quantity) VALUES (v.item_id, v.location_id, :qty)",
+            nativeQuery = true)
+    int addQuantity(@Param("itemId") Long itemId, @Param("locationId") Long locationId, @Param("qty") int qty);
+
+    @Query("SELECT s FROM LocationStock s JOIN FETCH s.location WHERE s.item.itemId = :itemId " +
+            "ORDER BY s.location.priority, s.location.locationId")
+    List<LocationStock> findAllByItemId(@Param("itemId") Long itemId);
+}
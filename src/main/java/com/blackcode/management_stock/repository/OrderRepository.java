@@ -1,12 +1,36 @@
 package com.blackcode.management_stock.repository;
 
 import com.blackcode.management_stock.model.Order;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
+import java.util.stream.Stream;
+
 @Repository
 public interface OrderRepository extends JpaRepository<Order, String> {
-    @Query(value = "SELECT * FROM tb_order ORDER BY CAST(SUBSTRING(order_no, 2) AS INT) DESC LIMIT 1", nativeQuery = true)
-    Order findLastOrderNative();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT o FROM Order o LEFT JOIN FETCH o.item LEFT JOIN FETCH o.location ORDER BY o.orderNo")
+    Stream<Order> streamAllForExport();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT o FROM Order o LEFT JOIN FETCH o.item LEFT JOIN FETCH o.location ORDER BY o.orderNo")
+    Stream<Order> streamPage(Pageable pageable);
+
+    @Query("SELECT DISTINCT o FROM Order o LEFT JOIN FETCH o.item LEFT JOIN FETCH o.lines l LEFT JOIN FETCH l.item " +
+            "WHERE o.orderNo = :orderNo")
+    Optional<Order> findWithLinesByOrderNo(@Param("orderNo") String orderNo);
 }
@@ -0,0 +1,60 @@
+package com.blackcode.management_stock.repository;
+
+import com.blackcode.management_stock.dto.SalesSummaryRes;
+import com.blackcode.management_stock.model.RollupGranularity;
+import com.blackcode.management_stock.model.SalesRollup;
+import com.blackcode.management_stock.model.SalesRollupId;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface SalesRollupRepository extends JpaRepository<SalesRollup, SalesRollupId> {
+
+    // total_revenue holds Money minor units (see MoneyConverter), so the delta is passed the same way. The declared
+    // space keeps Hibernate from treating the native statement as a write to every table, which would clear the
+    // whole second-level cache on each order.
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "tb_sales_rollup"))
+        @Query(value = "MERGE INTO tb_sales_rollup r " +
+            "USING (VALUES (CAST(:itemId AS BIGINT), CAST(:granularity AS VARCHAR(8)), CAST(:bucketStart AS TIMESTAMP))) " +
+            "s(item_id, granularity, bucket_start) " +
+            "ON r.item_id = s.item_id AND r.granularity = s.granularity AND r.bucket_start = s.bucket_start " +
+            "WHEN MATCHED THEN UPDATE SET order_count = r.order_count + :orderCount, " +
+            "total_qty = r.total_qty + :qty, total_revenue = r.total_revenue + :revenue " +
+            "WHEN NOT MATCHED THEN INSERT (item_id, granularity, bucket_start, order_count, total_qty, total_revenue) " +
+            "VALUES (s.item_id, s.granularity, s.bucket_start, :orderCount, :qty, :revenue)", nativeQuery = true)
+    int applyDelta(@Param("itemId") Long itemId,
+                   @Param("granularity") String granularity,
+                   @Param("bucketStart") LocalDateTime bucketStart,
+                   @Param("orderCount") long orderCount,
+                   @Param("qty") long qty,
+                   @Param("revenue") long revenueMinorUnits);
+
+    @Query("SELECT r FROM SalesRollup r WHERE r.granularity = :granularity " +
+            "AND r.bucketStart >= :from AND r.bucketStart < :to " +
+            "AND (:itemId IS NULL OR r.itemId = :itemId) " +
+            "ORDER BY r.itemId, r.bucketStart")
+    List<SalesRollup> findRollups(@Param("granularity") RollupGranularity granularity,
+                                  @Param("from") LocalDateTime from,
+                                  @Param("to") LocalDateTime to,
+                                  @Param("itemId") Long itemId);
+
+    @Query("SELECT new com.blackcode.management_stock.dto.SalesSummaryRes(" +
+            "r.itemId, SUM(r.orderCount), SUM(r.totalQty), SUM(r.totalRevenue)) " +
+            "FROM SalesRollup r WHERE r.granularity = com.blackcode.management_stock.model.RollupGranularity.DAY " +
+            "AND r.bucketStart >= :from AND r.bucketStart < :to " +
+            "AND (:itemId IS NULL OR r.itemId = :itemId) " +
+            "GROUP BY r.itemId ORDER BY r.itemId")
+    List<SalesSummaryRes> summarize(@Param("from") LocalDateTime from,
+                                    @Param("to") LocalDateTime to,
+                                    @Param("itemId") Long itemId);
+}
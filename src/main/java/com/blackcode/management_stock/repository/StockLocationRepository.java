@@ -0,0 +1,30 @@
+package com.blackcode.management_stock.repository;
+
+import com.blackcode.management_stock.model.StockLocation;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface StockLocationRepository extends JpaRepository<StockLocation, Long> {
+
+    Optional<StockLocation> findByLocationCode(String locationCode);
+
+    // Copies a location to another shard under the id shard 0 gave it, bypassing that shard's identity column.
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "tb_stock_location"))
+    @Query(value = "INSERT INTO tb_stock_location (location_id, location_code, location_name, priority) " +
+            "VALUES (:locationId, :locationCode, :locationName, :priority)", nativeQuery = true)
+    int insertWithId(@Param("locationId") Long locationId, @Param("locationCode") String locationCode,
+                     @Param("locationName") String locationName, @Param("priority") int priority);
+
+    List<StockLocation> findAllByOrderByPriorityAscLocationIdAsc();
+}
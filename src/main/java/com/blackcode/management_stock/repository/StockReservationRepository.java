@@ -0,0 +1,39 @@
+package com.blackcode.management_stock.repository;
+
+import com.blackcode.management_stock.model.ReservationStatus;
+import com.blackcode.management_stock.model.StockReservation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, Long> {
+
+    @Query("SELECT r FROM StockReservation r JOIN FETCH r.item LEFT JOIN FETCH r.location WHERE r.reservationId = :reservationId")
+    Optional<StockReservation> findWithItemById(@Param("reservationId") Long reservationId);
+
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("UPDATE StockReservation r SET r.status = :status " +
+            "WHERE r.reservationId = :reservationId " +
+            "AND r.status = com.blackcode.management_stock.model.ReservationStatus.HELD")
+    int closeHeld(@Param("reservationId") Long reservationId, @Param("status") ReservationStatus status);
+
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("UPDATE StockReservation r SET r.status = com.blackcode.management_stock.model.ReservationStatus.CONFIRMED, " +
+            "r.orderNo = :orderNo " +
+            "WHERE r.reservationId = :reservationId " +
+            "AND r.status = com.blackcode.management_stock.model.ReservationStatus.HELD " +
+            "AND r.expiresAt > :now")
+    int confirmHeld(@Param("reservationId") Long reservationId, @Param("orderNo") String orderNo,
+                    @Param("now") LocalDateTime now);
+
+    @Query("SELECT r.reservationId, r.expiresAt FROM StockReservation r " +
+            "WHERE r.status = com.blackcode.management_stock.model.ReservationStatus.HELD")
+    List<Object[]> findHeldExpiries();
+}
@@ -0,0 +1,10 @@
+package com.blackcode.management_stock.service;
+
+import com.blackcode.management_stock.dto.CatalogSyncReport;
+
+import java.io.InputStream;
+
+public interface CatalogSyncService {
+
+    CatalogSyncReport syncCatalog(InputStream catalog);
+}
@@ -1,9 +1,12 @@
 package com.blackcode.management_stock.service;
 
+import com.blackcode.management_stock.dto.InventoryPatchReq;
 import com.blackcode.management_stock.dto.InventoryReq;
 import com.blackcode.management_stock.dto.InventoryRes;
+import com.blackcode.management_stock.utils.ExportFormat;
 import org.springframework.data.domain.Page;
 
+import java.io.OutputStream;
 import java.util.Map;
 
 public interface InventoryService {
@@ -16,5 +19,11 @@ public interface InventoryService {
 
     InventoryRes updateInventory(Long inventoryId, InventoryReq inventoryReq);
 
+    InventoryRes patchInventory(Long inventoryId, InventoryPatchReq inventoryPatchReq);
+
     Map<String, Object> deleteInventory(Long inventoryId);
+
+    void exportInventory(ExportFormat format, OutputStream outputStream);
+
+    void writeInventoryPage(int page, int size, OutputStream outputStream);
 }
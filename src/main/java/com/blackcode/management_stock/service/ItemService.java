@@ -1,7 +1,9 @@
 package com.blackcode.management_stock.service;
 
+import com.blackcode.management_stock.dto.ItemPatchReq;
 import com.blackcode.management_stock.dto.ItemReq;
 import com.blackcode.management_stock.dto.ItemRes;
+import com.blackcode.management_stock.dto.ItemShardReq;
 import org.springframework.data.domain.Page;
 
 import java.util.Map;
@@ -10,11 +12,17 @@ public interface ItemService {
 
     Page<ItemRes> getAllItems(int page, int size);
 
+    long getItemsVersion();
+
     ItemRes getItemById(Long itemId);
 
     ItemRes createItem(ItemReq itemReq);
 
     ItemRes updateItem(Long itemId, ItemReq itemReq);
 
+    ItemRes patchItem(Long itemId, ItemPatchReq itemPatchReq);
+
     Map<String, Object> deleteItem(Long itemId);
+
+    ItemRes updateStockShards(Long itemId, ItemShardReq itemShardReq);
 }
@@ -1,9 +1,14 @@
 package com.blackcode.management_stock.service;
 
+import com.blackcode.management_stock.dto.OrderBasketReq;
+import com.blackcode.management_stock.dto.OrderBasketRes;
 import com.blackcode.management_stock.dto.OrderReq;
 import com.blackcode.management_stock.dto.OrderRes;
+import com.blackcode.management_stock.dto.ReservationConfirmReq;
+import com.blackcode.management_stock.utils.ExportFormat;
 import org.springframework.data.domain.Page;
 
+import java.io.OutputStream;
 import java.util.Map;
 
 public interface OrderService {
@@ -18,5 +23,14 @@ public interface OrderService {
 
     Map<String, Object> deleteOrder(String orderId);
 
+    OrderBasketRes createBasketOrder(OrderBasketReq orderBasketReq);
+
+    OrderBasketRes getBasketOrderById(String orderId);
+
+    OrderRes confirmReservation(Long reservationId, ReservationConfirmReq reservationConfirmReq);
+
+    void exportOrders(ExportFormat format, OutputStream outputStream);
+
+    void writeOrderPage(int page, int size, OutputStream outputStream);
 
 }
@@ -0,0 +1,21 @@
+package com.blackcode.management_stock.service;
+
+import com.blackcode.management_stock.dto.SalesRollupRes;
+import com.blackcode.management_stock.dto.SalesSummaryRes;
+import com.blackcode.management_stock.model.RollupGranularity;
+import com.blackcode.management_stock.money.Money;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface SalesReportService {
+
+    void recordSale(Long itemId, LocalDateTime orderDate, int qty, Money revenue);
+
+    void reverseSale(Long itemId, LocalDateTime orderDate, int qty, Money revenue);
+
+    List<SalesRollupRes> getSalesRollups(RollupGranularity granularity, LocalDate from, LocalDate to, Long itemId);
+
+    List<SalesSummaryRes> getSalesSummary(LocalDate from, LocalDate to, Long itemId);
+}
@@ -0,0 +1,14 @@
+package com.blackcode.management_stock.service;
+
+import com.blackcode.management_stock.model.Item;
+import com.blackcode.management_stock.model.StockLocation;
+
+public interface StockAllocationService {
+
+    StockLocation allocate(Item item, int qty, Long locationId);
+
+    StockLocation receive(Item item, int qty, Long locationId);
+
+    void release(Item item, StockLocation location, int qty);
+
+}
@@ -0,0 +1,17 @@
+package com.blackcode.management_stock.service;
+
+import com.blackcode.management_stock.dto.LocationStockRes;
+import com.blackcode.management_stock.dto.StockLocationReq;
+import com.blackcode.management_stock.dto.StockLocationRes;
+
+import java.util.List;
+
+public interface StockLocationService {
+
+    List<StockLocationRes> getAllLocations();
+
+    StockLocationRes createLocation(StockLocationReq stockLocationReq);
+
+    List<LocationStockRes> getItemStockByLocation(Long itemId);
+
+}
@@ -0,0 +1,16 @@
+package com.blackcode.management_stock.service;
+
+import com.blackcode.management_stock.dto.StockReservationReq;
+import com.blackcode.management_stock.dto.StockReservationRes;
+
+public interface StockReservationService {
+
+    StockReservationRes holdStock(StockReservationReq stockReservationReq);
+
+    StockReservationRes getReservationById(Long reservationId);
+
+    StockReservationRes releaseReservation(Long reservationId);
+
+    boolean expireReservation(Long reservationId);
+
+}
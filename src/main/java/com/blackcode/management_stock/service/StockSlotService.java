@@ -0,0 +1,24 @@
+package com.blackcode.management_stock.service;
+
+import com.blackcode.management_stock.model.Item;
+
+import java.util.Collection;
+import java.util.Map;
+
+public interface StockSlotService {
+
+    int available(Item item);
+
+    Map<Long, Integer> availableByItem(Collection<Item> items);
+
+    void take(Item item, int qty);
+
+    void give(Item item, int qty);
+
+    void reshard(Item item, int shards);
+
+    void resetStock(Item item, int total);
+
+    void removeSlots(Item item);
+
+}
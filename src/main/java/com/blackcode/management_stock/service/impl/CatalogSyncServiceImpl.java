@@ -0,0 +1,198 @@
+package com.blackcode.management_stock.service.impl;
+
+import com.blackcode.management_stock.cache.TableStamps;
+import com.blackcode.management_stock.datasource.ShardRouter;
+import com.blackcode.management_stock.dto.CatalogItemReq;
+import com.blackcode.management_stock.dto.CatalogSyncReport;
+import com.blackcode.management_stock.exception.InvalidCatalogException;
+import com.blackcode.management_stock.lock.StockLockProvider;
+import com.blackcode.management_stock.model.Item;
+import com.blackcode.management_stock.service.CatalogSyncService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Applies a full catalog (name and price per itemId) as a diff. The catalog is read as a stream, a chunk at a time;
+// each chunk reads the current name and price of its items, and only rows that differ are written, in one JDBC batch
+// per chunk and shard. Stock columns are never part of the update, so concurrent orders keep their stock changes.
+// Items missing from the catalog are left alone, and catalog entries without a live item are only reported.
+@Service
+public class CatalogSyncServiceImpl implements CatalogSyncService {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogSyncServiceImpl.class);
+
+    private static final String SELECT_SQL = "SELECT item_id, item_name, item_price FROM tb_item WHERE deleted_at IS NULL AND item_id IN (%s)";
+
+    // The version bump keeps item ETags and optimistic locking honest about the change. The diff is read before the
+    // lock is held, so an item deleted in between is caught here and reported as missing instead of being revived.
+    private static final String UPDATE_SQL =
+            "UPDATE tb_item SET item_name = ?, item_price = ?, version = version + 1 " +
+            "WHERE item_id = ? AND deleted_at IS NULL";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ShardRouter shardRouter;
+
+    private final TableStamps tableStamps;
+
+    private final StockLockProvider stockLockProvider;
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final ObjectMapper objectMapper;
+
+    private final Validator validator;
+
+    private final int chunkSize;
+
+    private final int maxReported;
+
+    public CatalogSyncServiceImpl(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                  ShardRouter shardRouter, TableStamps tableStamps,
+                                  StockLockProvider stockLockProvider, EntityManagerFactory entityManagerFactory,
+                                  ObjectMapper objectMapper, Validator validator,
+                                  @Value("${stock.catalog-sync.chunk-size:500}") int chunkSize,
+                                  @Value("${stock.catalog-sync.max-reported:100}") int maxReported) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.shardRouter = shardRouter;
+        this.tableStamps = tableStamps;
+        this.stockLockProvider = stockLockProvider;
+        this.entityManagerFactory = entityManagerFactory;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.maxReported = maxReported;
+    }
+
+    // Each chunk commits on its own, so the sync never holds locks for longer than one chunk. A catalog that turns out
+    // malformed halfway leaves the chunks before it applied; running the same catalog again is harmless.
+    @Override
+    public CatalogSyncReport syncCatalog(InputStream catalog) {
+        long start = System.currentTimeMillis();
+        CatalogSyncReport report = new CatalogSyncReport(0, 0, 0, 0, 0, 0, new ArrayList<>(), new ArrayList<>());
+        // A JSON array is read element by element, and so are values one per line (NDJSON).
+        try (MappingIterator<CatalogItemReq> entries = objectMapper.readerFor(CatalogItemReq.class).readValues(catalog)) {
+            Map<Long, CatalogItemReq> chunk = new LinkedHashMap<>();
+            while (entries.hasNextValue()) {
+                CatalogItemReq entry = entries.nextValue();
+                report.setReceived(report.getReceived() + 1);
+                if (!validator.validate(entry).isEmpty()) {
+                    report.setRejected(report.getRejected() + 1);
+                    addCapped(report.getRejectedItemIds(), entry.getItemId());
+                    continue;
+                }
+                // Within a chunk a repeated itemId is applied once, with the last entry.
+                chunk.put(entry.getItemId(), entry);
+                if (chunk.size() >= chunkSize) {
+                    applyChunk(chunk, report);
+                    chunk.clear();
+                }
+            }
+            applyChunk(chunk, report);
+        } catch (JsonProcessingException e) {
+            throw new InvalidCatalogException("Katalog tidak valid setelah " + report.getReceived() + " item: "
+                    + e.getOriginalMessage());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        report.setDurationMillis(System.currentTimeMillis() - start);
+        log.info("Catalog sync finished in {} ms. Received: {}, Updated: {}, Unchanged: {}, Missing: {}, Rejected: {}",
+                report.getDurationMillis(), report.getReceived(), report.getUpdated(), report.getUnchanged(),
+                report.getMissing(), report.getRejected());
+        return report;
+    }
+
+    private void applyChunk(Map<Long, CatalogItemReq> chunk, CatalogSyncReport report) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        Map<Integer, List<CatalogItemReq>> byShard = new HashMap<>();
+        for (CatalogItemReq entry : chunk.values()) {
+            byShard.computeIfAbsent(shardRouter.shardOf(entry.getItemId()), shard -> new ArrayList<>()).add(entry);
+        }
+        for (Map.Entry<Integer, List<CatalogItemReq>> shardEntries : byShard.entrySet()) {
+            ShardResult result = shardRouter.withShard(shardEntries.getKey(),
+                    () -> transactionTemplate.execute(status -> applyOnShard(shardEntries.getValue())));
+            // Evicted after the commit, so no reader can put the old row back into the cache in between.
+            for (Long itemId : result.updated()) {
+                entityManagerFactory.getCache().evict(Item.class, itemId);
+            }
+            // Counted only once the shard transaction has committed, so a failed chunk reports nothing it did not do.
+            report.setUnchanged(report.getUnchanged() + result.unchanged());
+            report.setUpdated(report.getUpdated() + result.updated().size());
+            report.setMissing(report.getMissing() + result.missing().size());
+            result.missing().forEach(itemId -> addCapped(report.getMissingItemIds(), itemId));
+        }
+    }
+
+    private ShardResult applyOnShard(List<CatalogItemReq> entries) {
+        Map<Long, CatalogItemReq> pending = new HashMap<>();
+        for (CatalogItemReq entry : entries) {
+            pending.put(entry.getItemId(), entry);
+        }
+        List<Object[]> changes = new ArrayList<>();
+        List<Long> changedIds = new ArrayList<>();
+        int[] unchanged = {0};
+        jdbcTemplate.query(String.format(SELECT_SQL, String.join(",", Collections.nCopies(entries.size(), "?"))), rs -> {
+            CatalogItemReq entry = pending.remove(rs.getLong(1));
+            if (entry.getItemName().equals(rs.getString(2)) && entry.getItemPrice().getMinorUnits() == rs.getLong(3)) {
+                unchanged[0]++;
+                return;
+            }
+            changes.add(new Object[]{entry.getItemName(), entry.getItemPrice().getMinorUnits(), entry.getItemId()});
+            changedIds.add(entry.getItemId());
+        }, entries.stream().map(CatalogItemReq::getItemId).toArray());
+
+        List<Long> missing = new ArrayList<>(pending.keySet());
+        if (changes.isEmpty()) {
+            return new ShardResult(unchanged[0], List.of(), missing);
+        }
+        // Only the changed items are locked, so orders on the rest of the chunk are never held up by the sync.
+        stockLockProvider.lockForTransaction(changedIds);
+        int[] counts = jdbcTemplate.batchUpdate(UPDATE_SQL, changes);
+        List<Long> updated = new ArrayList<>(changedIds.size());
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                missing.add(changedIds.get(i));
+            } else {
+                updated.add(changedIds.get(i));
+            }
+        }
+        if (!updated.isEmpty()) {
+            tableStamps.touch(TableStamps.ITEMS);
+            tableStamps.touch(TableStamps.ITEM_CATALOG);
+        }
+        return new ShardResult(unchanged[0], updated, missing);
+    }
+
+    private void addCapped(List<Long> itemIds, Long itemId) {
+        if (itemIds.size() < maxReported) {
+            itemIds.add(itemId);
+        }
+    }
+
+    private record ShardResult(int unchanged, List<Long> updated, List<Long> missing) {
+    }
+}
@@ -1,51 +1,101 @@
 package com.blackcode.management_stock.service.impl;
 
+import com.blackcode.management_stock.datasource.ShardRouter;
+import com.blackcode.management_stock.dto.InventoryPatchReq;
 import com.blackcode.management_stock.dto.InventoryReq;
 import com.blackcode.management_stock.dto.InventoryRes;
 import com.blackcode.management_stock.dto.ItemRes;
 import com.blackcode.management_stock.exception.DataNotFoundException;
 import com.blackcode.management_stock.exception.InvalidStockException;
 import com.blackcode.management_stock.exception.NotEnoughStockException;
+import com.blackcode.management_stock.lock.StockLockProvider;
 import com.blackcode.management_stock.model.Inventory;
 import com.blackcode.management_stock.model.InventoryType;
 import com.blackcode.management_stock.model.Item;
+import com.blackcode.management_stock.model.StockLocation;
 import com.blackcode.management_stock.repository.InventoryRepository;
 import com.blackcode.management_stock.repository.ItemRepository;
 import com.blackcode.management_stock.service.InventoryService;
-import jakarta.transaction.Transactional;
+import com.blackcode.management_stock.service.StockAllocationService;
+import com.blackcode.management_stock.service.StockSlotService;
+import com.blackcode.management_stock.utils.ExportFormat;
+import com.blackcode.management_stock.utils.ExportWriter;
+import com.blackcode.management_stock.utils.PageStreamWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class InventoryServiceImpl implements InventoryService {
 
     private static final Logger log = LoggerFactory.getLogger(InventoryServiceImpl.class);
 
+    private static final int CHUNK_SIZE = 500;
+
     private final InventoryRepository inventoryRepository;
 
     private final ItemRepository itemRepository;
 
-    public InventoryServiceImpl(InventoryRepository inventoryRepository, ItemRepository itemRepository) {
+    private final EntityManager entityManager;
+
+    private final ObjectMapper objectMapper;
+
+    private final StockAllocationService stockAllocationService;
+
+    private final StockSlotService stockSlotService;
+
+    private final ShardRouter shardRouter;
+
+    private final StockLockProvider stockLockProvider;
+
+    public InventoryServiceImpl(InventoryRepository inventoryRepository, ItemRepository itemRepository,
+                                EntityManager entityManager, ObjectMapper objectMapper,
+                                StockAllocationService stockAllocationService,
+                                StockSlotService stockSlotService, ShardRouter shardRouter,
+                                StockLockProvider stockLockProvider) {
         this.inventoryRepository = inventoryRepository;
         this.itemRepository = itemRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.stockAllocationService = stockAllocationService;
+        this.stockSlotService = stockSlotService;
+        this.shardRouter = shardRouter;
+        this.stockLockProvider = stockLockProvider;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<InventoryRes> getAllInventory(int page, int size) {
-        Pageable pageable = PageRequest.of(page, size);
-        Page<Inventory> inventoryList = inventoryRepository.findAll(pageable);
-        return inventoryList.map(this::mapToInventoryRes);
+        return shardRouter.scatterPage(page, size, Sort.by("inventoryId"), Comparator.comparing(InventoryRes::getInventoryId),
+                (shard, pageable) -> {
+                    Page<Inventory> inventories = inventoryRepository.findAll(pageable);
+                    Map<Long, Integer> stock = availableStock(inventories.getContent());
+                    return inventories.map(inventory -> mapToInventoryRes(inventory, stock));
+                });
     }
 
     @Override
+    @Transactional(readOnly = true)
     public InventoryRes getInventoryById(Long inventoryId) {
+        shardRouter.bind(shardRouter.shardOf(inventoryId));
         Inventory inventory = inventoryRepository.findById(inventoryId)
                 .orElseThrow(() -> new DataNotFoundException("Inventory not found with id: "+inventoryId));
         return mapToInventoryRes(inventory);
@@ -54,9 +104,14 @@ public class InventoryServiceImpl implements InventoryService {
     @Override
     @Transactional
     public InventoryRes createInventory(InventoryReq inventoryReq) {
+        shardRouter.bindItem(inventoryReq.getItemId());
+        stockLockProvider.lockForTransaction(List.of(inventoryReq.getItemId()));
 
         Item item = itemRepository.findById(inventoryReq.getItemId())
+                .filter(found -> !found.isDeleted())
                 .orElseThrow(() -> new DataNotFoundException("Item not found with id:" +inventoryReq.getItemId()));
+        // findById may answer from the second-level cache; the stock below has to come from the row.
+        entityManager.refresh(item);
 
         Inventory inventory = new Inventory();
         inventory.setItem(item);
@@ -66,16 +121,18 @@ public class InventoryServiceImpl implements InventoryService {
         inventory.setInventoryType(type);
 
         if (inventoryReq.getInventoryType().equals(InventoryType.T)) {
-            item.setItemStock(item.getItemStock() + inventory.getInventoryQty());
+            inventory.setLocation(stockAllocationService.receive(item, inventory.getInventoryQty(), inventoryReq.getLocationId()));
+            adjustStock(item, inventory.getInventoryQty());
         } else if (type == InventoryType.W) {
-            if (item.getItemStock() < inventory.getInventoryQty()) {
+            if (availableStock(item) < inventory.getInventoryQty()) {
                 throw new NotEnoughStockException("Stok tidak mencukupi untuk withdrawal");
             }
-            item.setItemStock(item.getItemStock() - inventory.getInventoryQty());
+            inventory.setLocation(stockAllocationService.allocate(item, inventory.getInventoryQty(), inventoryReq.getLocationId()));
+            adjustStock(item, -inventory.getInventoryQty());
         }
 
         log.info("Stock item [{}] updated. Type: {}, Qty: {}, New Stock: {}",
-                item.getItemName(), type, inventory.getInventoryQty(), item.getItemStock());
+                item.getItemName(), type, inventory.getInventoryQty(), availableStock(item));
 
         itemRepository.save(item);
         Inventory inventory1 = inventoryRepository.save(inventory);
@@ -86,32 +143,112 @@ public class InventoryServiceImpl implements InventoryService {
     @Override
     @Transactional
     public InventoryRes updateInventory(Long inventoryId, InventoryReq inventoryReq) {
+        shardRouter.bind(shardRouter.shardOf(inventoryId));
+        Inventory inventory = inventoryRepository.findById(inventoryId)
+                .orElseThrow(() -> new DataNotFoundException("Inventory with ID " + inventoryId + " Not Found"));
+        return applyChange(inventory, inventoryReq.getInventoryType(), inventoryReq.getInventoryQty());
+    }
+
+    // A field left out keeps its value, and a patch that changes nothing neither locks nor writes the item.
+    @Override
+    @Transactional
+    public InventoryRes patchInventory(Long inventoryId, InventoryPatchReq inventoryPatchReq) {
+        shardRouter.bind(shardRouter.shardOf(inventoryId));
         Inventory inventory = inventoryRepository.findById(inventoryId)
                 .orElseThrow(() -> new DataNotFoundException("Inventory with ID " + inventoryId + " Not Found"));
+        InventoryType newType = inventoryPatchReq.getInventoryType() != null
+                ? inventoryPatchReq.getInventoryType() : inventory.getInventoryType();
+        int newQty = inventoryPatchReq.getInventoryQty() != null
+                ? inventoryPatchReq.getInventoryQty() : inventory.getInventoryQty();
+        if (newType == inventory.getInventoryType() && newQty == inventory.getInventoryQty()) {
+            return mapToInventoryRes(inventory);
+        }
+        return applyChange(inventory, newType, newQty);
+    }
+
+    @Override
+    @Transactional
+    public Map<String, Object> deleteInventory(Long inventoryId) {
+        shardRouter.bind(shardRouter.shardOf(inventoryId));
+        Inventory inventory = inventoryRepository.findById(inventoryId)
+                .orElseThrow(() -> new DataNotFoundException("Inventory with ID "+inventoryId + "Not Found"));
+        inventoryRepository.delete(inventory);
+        Map<String, Object> responseData = new HashMap<>();
+        responseData.put("deletedInventoryId", inventoryId);
+        responseData.put("info", "The inventory was removed from the database.");
+        return responseData;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportInventory(ExportFormat format, OutputStream outputStream) {
+        try (ExportWriter<InventoryRes> writer = new ExportWriter<>(format, outputStream, objectMapper, InventoryRes.class,
+                     inventoryRes -> Arrays.asList(inventoryRes.getInventoryId(), inventoryRes.getItem().getItemId(),
+                             inventoryRes.getItem().getItemName(), inventoryRes.getInventoryQty(),
+                             inventoryRes.getInventoryType()))) {
+            writer.writeHeader(List.of("inventoryId", "itemId", "itemName", "inventoryQty", "inventoryType"));
+            // Shards are streamed one after another, so a sharded export is ordered by id within each shard only.
+            for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+                shardRouter.inShard(shard, true, () -> {
+                    try (Stream<Inventory> inventories = inventoryRepository.streamAllForExport()) {
+                        writeInChunks(inventories, writer::write);
+                    }
+                    return null;
+                });
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void writeInventoryPage(int page, int size, OutputStream outputStream) {
+        // A page across shards has to be merged in memory first; only a single database can stream it.
+        if (shardRouter.shardCount() > 1) {
+            Page<InventoryRes> merged = getAllInventory(page, size);
+            writePage(page, size, merged.getTotalElements(), outputStream, writer -> merged.forEach(writer::write));
+            return;
+        }
+        writePage(page, size, inventoryRepository.count(), outputStream, writer -> {
+            try (Stream<Inventory> inventories = inventoryRepository.streamPage(PageRequest.of(page, size))) {
+                writeInChunks(inventories, writer::write);
+            }
+        });
+    }
 
+    private InventoryRes applyChange(Inventory inventory, InventoryType newType, int newQty) {
         Item item = inventory.getItem();
+        // The item came with the inventory row, read before the lock was held.
+        stockLockProvider.lockForTransaction(List.of(item.getItemId()));
+        entityManager.refresh(item);
         int oldQty = inventory.getInventoryQty();
         InventoryType oldType = inventory.getInventoryType();
-
-        InventoryType newType = inventoryReq.getInventoryType();
-        int newQty = inventoryReq.getInventoryQty();
+        StockLocation location = inventory.getLocation();
+        Long locationId = location != null ? location.getLocationId() : null;
 
         if (oldType == InventoryType.T) {
-            item.setItemStock(item.getItemStock() - oldQty);
+            if (location != null) {
+                stockAllocationService.allocate(item, oldQty, locationId);
+            }
+            adjustStock(item, -oldQty);
         } else if (oldType == InventoryType.W) {
-            item.setItemStock(item.getItemStock() + oldQty);
+            stockAllocationService.release(item, location, oldQty);
+            adjustStock(item, oldQty);
         }
 
         if (newType == InventoryType.T) {
-            item.setItemStock(item.getItemStock() + newQty);
+            stockAllocationService.receive(item, newQty, locationId);
+            adjustStock(item, newQty);
         } else if (newType == InventoryType.W) {
-            if (item.getItemStock() < newQty) {
+            if (availableStock(item) < newQty) {
                 throw new NotEnoughStockException("Stok tidak mencukupi untuk withdrawal");
             }
-            item.setItemStock(item.getItemStock() - newQty);
+            inventory.setLocation(stockAllocationService.allocate(item, newQty, locationId));
+            adjustStock(item, -newQty);
         }
 
-        if (item.getItemStock() < 0) {
+        if (availableStock(item) < 0) {
             throw new InvalidStockException("Stock cannot be negative");
         }
 
@@ -122,33 +259,90 @@ public class InventoryServiceImpl implements InventoryService {
         Inventory updatedInventory = inventoryRepository.save(inventory);
 
         log.info("Stock item [{}] updated via inventory update. OldType: {}, OldQty: {}, NewType: {}, NewQty: {}, New Stock: {}",
-                item.getItemName(), oldType, oldQty, newType, newQty, item.getItemStock());
+                item.getItemName(), oldType, oldQty, newType, newQty, availableStock(item));
 
         return mapToInventoryRes(updatedInventory);
     }
 
-    @Override
-    @Transactional
-    public Map<String, Object> deleteInventory(Long inventoryId) {
-        Inventory inventory = inventoryRepository.findById(inventoryId)
-                .orElseThrow(() -> new DataNotFoundException("Inventory with ID "+inventoryId + "Not Found"));
-        inventoryRepository.delete(inventory);
-        Map<String, Object> responseData = new HashMap<>();
-        responseData.put("deletedInventoryId", inventoryId);
-        responseData.put("info", "The inventory was removed from the database.");
-        return responseData;
+    // Rows are mapped a chunk at a time so the slot totals of a chunk's items come from one query, and then
+    // detached so the session does not grow with the stream.
+    private void writeInChunks(Stream<Inventory> inventories, Consumer<InventoryRes> rows) {
+        List<Inventory> chunk = new ArrayList<>(CHUNK_SIZE);
+        inventories.forEach(inventory -> {
+            chunk.add(inventory);
+            if (chunk.size() == CHUNK_SIZE) {
+                writeChunk(chunk, rows);
+            }
+        });
+        writeChunk(chunk, rows);
+    }
+
+    private void writeChunk(List<Inventory> chunk, Consumer<InventoryRes> rows) {
+        Map<Long, Integer> stock = availableStock(chunk);
+        for (Inventory inventory : chunk) {
+            rows.accept(mapToInventoryRes(inventory, stock));
+            entityManager.detach(inventory.getItem());
+            entityManager.detach(inventory);
+        }
+        chunk.clear();
+    }
+
+    private void writePage(int page, int size, long total, OutputStream outputStream,
+                           Consumer<PageStreamWriter<InventoryRes>> rows) {
+        try (PageStreamWriter<InventoryRes> writer = new PageStreamWriter<>(outputStream, objectMapper,
+                InventoryRes.class, "Inventory retrieved successfully", page, size, total)) {
+            rows.accept(writer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Integer availableStock(Item item) {
+        if (!item.isSharded()) {
+            return item.getItemStock();
+        }
+        return stockSlotService.available(item);
+    }
+
+    private Map<Long, Integer> availableStock(List<Inventory> inventories) {
+        Map<Long, Item> items = new HashMap<>();
+        for (Inventory inventory : inventories) {
+            items.putIfAbsent(inventory.getItem().getItemId(), inventory.getItem());
+        }
+        return stockSlotService.availableByItem(items.values());
+    }
+
+    private void adjustStock(Item item, int delta) {
+        if (!item.isSharded()) {
+            item.setItemStock(item.getItemStock() + delta);
+        } else if (delta > 0) {
+            stockSlotService.give(item, delta);
+        } else if (delta < 0) {
+            stockSlotService.take(item, -delta);
+        }
     }
 
     private InventoryRes mapToInventoryRes(Inventory inventory) {
+        return mapToInventoryRes(inventory, availableStock(inventory.getItem()));
+    }
+
+    private InventoryRes mapToInventoryRes(Inventory inventory, Map<Long, Integer> stock) {
+        return mapToInventoryRes(inventory, stock.get(inventory.getItem().getItemId()));
+    }
+
+    private InventoryRes mapToInventoryRes(Inventory inventory, Integer itemStock) {
         InventoryRes inventoryRes = new InventoryRes();
         ItemRes itemRes = new ItemRes();
         inventoryRes.setInventoryId(inventory.getInventoryId());
         inventoryRes.setInventoryType(inventory.getInventoryType().name());
         inventoryRes.setInventoryQty(inventory.getInventoryQty());
+        if (inventory.getLocation() != null) {
+            inventoryRes.setLocationCode(inventory.getLocation().getLocationCode());
+        }
         itemRes.setItemId(inventory.getItem().getItemId());
         itemRes.setItemName(inventory.getItem().getItemName());
         itemRes.setItemPrice(inventory.getItem().getItemPrice());
-        itemRes.setItemStock(inventory.getItem().getItemStock());
+        itemRes.setItemStock(itemStock);
         inventoryRes.setItem(itemRes);
         return inventoryRes;
     }
@@ -1,18 +1,29 @@
 package com.blackcode.management_stock.service.impl;
 
+import com.blackcode.management_stock.cache.ItemCacheSync;
+import com.blackcode.management_stock.cache.TableStamps;
+import com.blackcode.management_stock.datasource.ShardRouter;
+import com.blackcode.management_stock.dto.ItemPatchReq;
 import com.blackcode.management_stock.dto.ItemReq;
 import com.blackcode.management_stock.dto.ItemRes;
+import com.blackcode.management_stock.dto.ItemShardReq;
 import com.blackcode.management_stock.exception.DataNotFoundException;
+import com.blackcode.management_stock.lock.StockLockProvider;
 import com.blackcode.management_stock.model.Item;
 import com.blackcode.management_stock.repository.ItemRepository;
 import com.blackcode.management_stock.service.ItemService;
-import jakarta.transaction.Transactional;
+import com.blackcode.management_stock.service.StockSlotService;
+import jakarta.persistence.EntityManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -20,20 +31,54 @@ public class ItemServiceImpl implements ItemService {
 
     private final ItemRepository itemRepository;
 
-    public ItemServiceImpl(ItemRepository itemRepository) {
+    private final StockSlotService stockSlotService;
+
+    private final ShardRouter shardRouter;
+
+    private final TableStamps tableStamps;
+
+    private final ItemCacheSync itemCacheSync;
+
+    private final StockLockProvider stockLockProvider;
+
+    private final EntityManager entityManager;
+
+    public ItemServiceImpl(ItemRepository itemRepository, StockSlotService stockSlotService, ShardRouter shardRouter,
+                           TableStamps tableStamps, ItemCacheSync itemCacheSync, StockLockProvider stockLockProvider,
+                           EntityManager entityManager) {
         this.itemRepository = itemRepository;
+        this.stockSlotService = stockSlotService;
+        this.shardRouter = shardRouter;
+        this.tableStamps = tableStamps;
+        this.itemCacheSync = itemCacheSync;
+        this.stockLockProvider = stockLockProvider;
+        this.entityManager = entityManager;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<ItemRes> getAllItems(int page, int size) {
-        Pageable pageable = PageRequest.of(page, size);
-        Page<Item> itemList = itemRepository.findAll(pageable);
-        return itemList.map(this::mapToItemRes);
+        if (!shardRouter.isSharded()) {
+            itemCacheSync.evictIfChanged();
+            return itemRepository.findAllCached(PageRequest.of(page, size)).map(this::mapToItemRes);
+        }
+        return shardRouter.scatterPage(page, size, Sort.by("itemId"), Comparator.comparing(ItemRes::getItemId),
+                (shard, pageable) -> itemRepository.findAllLive(pageable).map(this::mapToItemRes));
+    }
+
+    // Read-only like getAllItems, so it is served by the same database (primary or replica) as the page itself.
+    @Override
+    @Transactional(readOnly = true)
+    public long getItemsVersion() {
+        return tableStamps.read(TableStamps.ITEMS);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public ItemRes getItemById(Long itemId) {
+        shardRouter.bindItem(itemId);
         Item item = itemRepository.findById(itemId)
+                .filter(found -> !found.isDeleted())
                 .orElseThrow(() -> new DataNotFoundException("Item not found with id: "+itemId));
         return mapToItemRes(item);
     }
@@ -41,10 +86,12 @@ public class ItemServiceImpl implements ItemService {
     @Override
     @Transactional
     public ItemRes createItem(ItemReq itemReq) {
+        shardRouter.bind(shardRouter.nextShard());
         Item item = new Item();
         item.setItemName(itemReq.getItemName());
         item.setItemPrice(itemReq.getItemPrice());
         item.setItemStock(itemReq.getItemStock());
+        item.setOpeningStock(itemReq.getItemStock());
         Item savedItem = itemRepository.save(item);
         return mapToItemRes(savedItem);
     }
@@ -52,34 +99,111 @@ public class ItemServiceImpl implements ItemService {
     @Override
     @Transactional
     public ItemRes updateItem(Long itemId, ItemReq itemReq) {
-        Item item = itemRepository.findById(itemId)
-                .orElseThrow(() -> new DataNotFoundException("Item with ID "+itemId + " Not Found"));
+        shardRouter.bindItem(itemId);
+        // PUT replaces the stock, so orders on a single-row item must not be between their read and their save.
+        stockLockProvider.lockForTransaction(List.of(itemId));
+        Item item = findLiveForUpdate(itemId);
 
         item.setItemName(itemReq.getItemName());
         item.setItemPrice(itemReq.getItemPrice());
-        item.setItemStock(itemReq.getItemStock());
+        setStock(item, itemReq.getItemStock());
         Item updatedItem = itemRepository.save(item);
         return mapToItemRes(updatedItem);
     }
 
+    // Name and price go out as one targeted UPDATE and the item is never loaded; only a stock change reads and
+    // writes the item like updateItem.
     @Override
     @Transactional
-    public Map<String, Object> deleteItem(Long itemId) {
-        Item item = itemRepository.findById(itemId)
+    public ItemRes patchItem(Long itemId, ItemPatchReq itemPatchReq) {
+        shardRouter.bindItem(itemId);
+        // Orders read and save the item under this lock, so holding it keeps their version check from failing.
+        stockLockProvider.lockForTransaction(List.of(itemId));
+        if (itemPatchReq.getItemStock() != null) {
+            // The row is read for the stock anyway, so name and price ride along in the same @DynamicUpdate save.
+            Item item = findLiveForUpdate(itemId);
+            setStock(item, itemPatchReq.getItemStock());
+            if (itemPatchReq.getItemName() != null) {
+                item.setItemName(itemPatchReq.getItemName());
+            }
+            if (itemPatchReq.getItemPrice() != null) {
+                item.setItemPrice(itemPatchReq.getItemPrice());
+            }
+            return mapToItemRes(itemRepository.save(item));
+        }
+        if (itemRepository.patchNameAndPrice(itemId, itemPatchReq.getItemName(), itemPatchReq.getItemPrice()) == 0) {
+            throw new DataNotFoundException("Item with ID "+itemId + " Not Found");
+        }
+        // A bulk update raises no entity events, so the listing stamps have to be moved by hand.
+        tableStamps.touch(TableStamps.ITEMS);
+        tableStamps.touch(TableStamps.ITEM_CATALOG);
+        Item patched = itemRepository.findSnapshot(itemId)
                 .orElseThrow(() -> new DataNotFoundException("Item with ID "+itemId + " Not Found"));
-        itemRepository.delete(item);
+        return mapToItemRes(patched);
+    }
+
+    @Override
+    @Transactional
+    public Map<String, Object> deleteItem(Long itemId) {
+        shardRouter.bindItem(itemId);
+        // Same reason as in patchItem: the version bump must not fail an order holding the lock.
+        stockLockProvider.lockForTransaction(List.of(itemId));
+        // Only the tombstone is written here. The row, its stock slots and location stock are purged later by
+        // ItemCompactionJob, once no order, inventory or reservation refers to the item any more.
+        if (itemRepository.markDeleted(itemId, LocalDateTime.now()) == 0) {
+            throw new DataNotFoundException("Item with ID "+itemId + " Not Found");
+        }
+        tableStamps.touch(TableStamps.ITEMS);
+        tableStamps.touch(TableStamps.ITEM_CATALOG);
         Map<String, Object> responseData = new HashMap<>();
         responseData.put("deletedItemId", itemId);
-        responseData.put("info", "The Item was removed from the database.");
+        responseData.put("info", "The Item was marked as deleted.");
         return responseData;
     }
 
+    @Override
+    @Transactional
+    public ItemRes updateStockShards(Long itemId, ItemShardReq itemShardReq) {
+        shardRouter.bindItem(itemId);
+        // Moves the stock between the item row and its slots, so single-row orders must not be halfway through.
+        stockLockProvider.lockForTransaction(List.of(itemId));
+        Item item = itemRepository.findAllByIdForUpdate(List.of(itemId)).stream()
+                .findFirst()
+                .filter(found -> !found.isDeleted())
+                .orElseThrow(() -> new DataNotFoundException("Item with ID "+itemId + " Not Found"));
+        stockSlotService.reshard(item, itemShardReq.getShards());
+        Item updatedItem = itemRepository.save(item);
+        return mapToItemRes(updatedItem);
+    }
+
+    // findById may answer from the second-level cache; the stock being replaced has to come from the row.
+    private Item findLiveForUpdate(Long itemId) {
+        Item item = itemRepository.findById(itemId)
+                .filter(found -> !found.isDeleted())
+                .orElseThrow(() -> new DataNotFoundException("Item with ID "+itemId + " Not Found"));
+        entityManager.refresh(item);
+        return item;
+    }
+
+    private void setStock(Item item, int stock) {
+        int currentStock = item.isSharded() ? stockSlotService.available(item) : item.getItemStock();
+        if (item.getOpeningStock() != null) {
+            item.setOpeningStock(item.getOpeningStock() + stock - currentStock);
+        }
+        if (item.isSharded()) {
+            stockSlotService.resetStock(item, stock);
+        } else {
+            item.setItemStock(stock);
+        }
+    }
+
     private ItemRes mapToItemRes(Item item) {
         ItemRes itemRes = new ItemRes();
         itemRes.setItemId(item.getItemId());
         itemRes.setItemName(item.getItemName());
         itemRes.setItemPrice(item.getItemPrice());
-        itemRes.setItemStock(item.getItemStock());
+        itemRes.setItemStock(item.isSharded() ? stockSlotService.available(item) : item.getItemStock());
+        itemRes.setVersion(item.getVersion());
         return itemRes;
     }
 }
@@ -1,27 +1,49 @@
 package com.blackcode.management_stock.service.impl;
 
-import com.blackcode.management_stock.dto.ItemDto;
-import com.blackcode.management_stock.dto.OrderReq;
-import com.blackcode.management_stock.dto.OrderRes;
+import com.blackcode.management_stock.datasource.ShardRouter;
+import com.blackcode.management_stock.dto.*;
+import com.blackcode.management_stock.event.StockReservationClosedEvent;
 import com.blackcode.management_stock.exception.DataNotFoundException;
+import com.blackcode.management_stock.exception.InvalidOrderException;
 import com.blackcode.management_stock.exception.InvalidPriceException;
 import com.blackcode.management_stock.exception.NotEnoughStockException;
+import com.blackcode.management_stock.exception.ReservationClosedException;
+import com.blackcode.management_stock.lock.StockLockProvider;
 import com.blackcode.management_stock.model.Item;
 import com.blackcode.management_stock.model.Order;
+import com.blackcode.management_stock.model.OrderLine;
+import com.blackcode.management_stock.model.StockLocation;
+import com.blackcode.management_stock.model.StockReservation;
+import com.blackcode.management_stock.money.Money;
 import com.blackcode.management_stock.repository.ItemRepository;
 import com.blackcode.management_stock.repository.OrderRepository;
+import com.blackcode.management_stock.repository.StockReservationRepository;
 import com.blackcode.management_stock.service.OrderService;
-import jakarta.transaction.Transactional;
+import com.blackcode.management_stock.service.SalesReportService;
+import com.blackcode.management_stock.service.StockAllocationService;
+import com.blackcode.management_stock.service.StockSlotService;
+import com.blackcode.management_stock.utils.ExportFormat;
+import com.blackcode.management_stock.utils.ExportWriter;
+import com.blackcode.management_stock.utils.OrderNumberGenerator;
+import com.blackcode.management_stock.utils.PageStreamWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
-import java.util.HashMap;
-import java.util.Map;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class OrderServiceImpl implements OrderService {
@@ -32,20 +54,59 @@ public class OrderServiceImpl implements OrderService {
 
     private final ItemRepository itemRepository;
 
-    public OrderServiceImpl(OrderRepository orderRepository, ItemRepository itemRepository) {
+    private final EntityManager entityManager;
+
+    private final ObjectMapper objectMapper;
+
+    private final SalesReportService salesReportService;
+
+    private final StockReservationRepository stockReservationRepository;
+
+    private final StockAllocationService stockAllocationService;
+
+    private final StockSlotService stockSlotService;
+
+    private final ShardRouter shardRouter;
+
+    private final OrderNumberGenerator orderNumberGenerator;
+
+    private final StockLockProvider stockLockProvider;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public OrderServiceImpl(OrderRepository orderRepository, ItemRepository itemRepository,
+                            EntityManager entityManager, ObjectMapper objectMapper,
+                            SalesReportService salesReportService,
+                            StockReservationRepository stockReservationRepository,
+                            StockAllocationService stockAllocationService,
+                            StockSlotService stockSlotService, ShardRouter shardRouter,
+                            OrderNumberGenerator orderNumberGenerator, StockLockProvider stockLockProvider,
+                            ApplicationEventPublisher eventPublisher) {
         this.orderRepository = orderRepository;
         this.itemRepository = itemRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.salesReportService = salesReportService;
+        this.stockReservationRepository = stockReservationRepository;
+        this.stockAllocationService = stockAllocationService;
+        this.stockSlotService = stockSlotService;
+        this.shardRouter = shardRouter;
+        this.orderNumberGenerator = orderNumberGenerator;
+        this.stockLockProvider = stockLockProvider;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<OrderRes> getAllOrders(int page, int size) {
-        Pageable pageable = PageRequest.of(page, size);
-        Page<Order> orderList = orderRepository.findAll(pageable);
-        return orderList.map(this::mapToOrderRes);
+        return shardRouter.scatterPage(page, size, Sort.by("orderNo"), Comparator.comparing(OrderRes::getOrderNo),
+                (shard, pageable) -> orderRepository.findAll(pageable).map(this::mapToOrderRes));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public OrderRes getOrderById(String orderId) {
+        shardRouter.bind(shardRouter.shardOfOrder(orderId));
         Order category = orderRepository.findById(orderId)
                 .orElseThrow(() -> new DataNotFoundException("Order not found with id: "+orderId));
         return mapToOrderRes(category);
@@ -54,18 +115,19 @@ public class OrderServiceImpl implements OrderService {
     @Override
     @Transactional
     public OrderRes createOrder(OrderReq orderReq) {
-        Order lastOrder = orderRepository.findLastOrderNative();
-        String orderId = generateNextOrderId(lastOrder);
+        shardRouter.bindItem(orderReq.getItemId());
+        String orderId = generateNextOrderId();
 
         Item item = itemRepository.findById(orderReq.getItemId())
                 .orElseThrow(() -> new DataNotFoundException("Item not found"));
-
-        BigDecimal totalPrice = item.getItemPrice().multiply(BigDecimal.valueOf(orderReq.getOrderQty()));
-
-        if (orderReq.getPrice().compareTo(totalPrice) != 0) {
-            throw new InvalidPriceException("Harga tidak valid. Harap jangan memanipulasi harga.");
+        lockStock(List.of(item));
+        if (item.isDeleted()) {
+            throw new DataNotFoundException("Item not found");
         }
 
+        Money totalPrice = checkedTotal(orderReq.getPrice(), item, orderReq.getOrderQty());
+
+        StockLocation location = stockAllocationService.allocate(item, orderReq.getOrderQty(), orderReq.getLocationId());
         reduceStock(item, orderReq.getOrderQty());
 
         Order order = new Order();
@@ -73,44 +135,58 @@ public class OrderServiceImpl implements OrderService {
         order.setOrderQty(orderReq.getOrderQty());
         order.setItem(item);
         order.setPrice(totalPrice);
+        order.setOrderDate(LocalDateTime.now());
+        order.setLocation(location);
         Order savedOrder = orderRepository.save(order);
+
+        salesReportService.recordSale(item.getItemId(), savedOrder.getOrderDate(), savedOrder.getOrderQty(), totalPrice);
         return mapToOrderRes(savedOrder);
     }
 
     @Override
     @Transactional
     public OrderRes updateOrder(String orderId, OrderReq orderReq) {
+        shardRouter.bind(shardRouter.shardOfOrder(orderId));
         Order existingOrder = orderRepository.findById(orderId)
                 .orElseThrow(() -> new DataNotFoundException("Order with ID " + orderId + " Not Found"));
 
+        if (!existingOrder.getLines().isEmpty()) {
+            throw new InvalidOrderException("Order dengan beberapa item tidak dapat diubah per item");
+        }
+
+        if (shardRouter.shardOf(orderReq.getItemId()) != shardRouter.currentShard()) {
+            throw new InvalidOrderException("Item baru harus berada di shard yang sama dengan order");
+        }
+        Item oldItem = existingOrder.getItem();
+        // The old item was read before the lock was held, so it is reloaded once nobody else can change it.
+        stockLockProvider.lockForTransaction(List.of(oldItem.getItemId(), orderReq.getItemId()));
+        entityManager.refresh(oldItem);
         Item newItem = itemRepository.findById(orderReq.getItemId())
+                .filter(found -> !found.isDeleted())
                 .orElseThrow(() -> new DataNotFoundException("Item not found"));
+        entityManager.refresh(newItem);
 
         int oldQty = existingOrder.getOrderQty();
         int newQty = orderReq.getOrderQty();
-        Item oldItem = existingOrder.getItem();
 
-        if (!oldItem.getItemId().equals(newItem.getItemId())) {
-            restoreStock(oldItem, oldQty);
-            reduceStock(newItem, newQty);
-        } else {
-            int diffQty = newQty - oldQty;
-            if (diffQty > 0) {
-                reduceStock(newItem, diffQty);
-            } else if (diffQty < 0) {
-                restoreStock(newItem, -diffQty);
-            }
-        }
+        // The old quantity goes back in full before the new one is allocated, so a location can be re-picked and the
+        // allocator sees the same item total it would see for a fresh order.
+        restoreStock(oldItem, oldQty);
+        stockAllocationService.release(oldItem, existingOrder.getLocation(), oldQty);
+        StockLocation newLocation = stockAllocationService.allocate(newItem, newQty, orderReq.getLocationId());
+        reduceStock(newItem, newQty);
 
-        BigDecimal totalPrice = newItem.getItemPrice().multiply(BigDecimal.valueOf(newQty));
+        Money totalPrice = checkedTotal(orderReq.getPrice(), newItem, newQty);
 
-        if (orderReq.getPrice().compareTo(totalPrice) != 0) {
-            throw new InvalidPriceException("Harga tidak valid. Harap jangan memanipulasi harga.");
+        if (existingOrder.getOrderDate() != null) {
+            salesReportService.reverseSale(oldItem.getItemId(), existingOrder.getOrderDate(), oldQty, existingOrder.getPrice());
+            salesReportService.recordSale(newItem.getItemId(), existingOrder.getOrderDate(), newQty, totalPrice);
         }
 
         existingOrder.setOrderQty(newQty);
         existingOrder.setItem(newItem);
         existingOrder.setPrice(totalPrice);
+        existingOrder.setLocation(newLocation);
 
         Order updatedOrder = orderRepository.save(existingOrder);
         return mapToOrderRes(updatedOrder);
@@ -119,18 +195,46 @@ public class OrderServiceImpl implements OrderService {
     @Override
     @Transactional
     public Map<String, Object> deleteOrder(String orderId) {
+        shardRouter.bind(shardRouter.shardOfOrder(orderId));
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new DataNotFoundException("Order with ID " + orderId + " Not Found"));
 
         Item item = order.getItem();
+        Set<Long> lockedItemIds = new TreeSet<>();
+        if (item != null) {
+            lockedItemIds.add(item.getItemId());
+        }
+        for (OrderLine line : order.getLines()) {
+            lockedItemIds.add(line.getItem().getItemId());
+        }
+        stockLockProvider.lockForTransaction(lockedItemIds);
         if (item != null) {
+            entityManager.refresh(item);
             restoreStock(item, order.getOrderQty());
+            stockAllocationService.release(item, order.getLocation(), order.getOrderQty());
+            if (order.getOrderDate() != null) {
+                salesReportService.reverseSale(item.getItemId(), order.getOrderDate(), order.getOrderQty(), order.getPrice());
+            }
+            log.info("Order [{}] deleted. Item: {}, Qty: {}, Stock restored to: {}",
+                    orderId, item.getItemName(), order.getOrderQty(), item.getItemStock());
         }
 
-        orderRepository.delete(order);
+        if (!order.getLines().isEmpty()) {
+            Map<Long, Integer> qtyByItem = new TreeMap<>();
+            for (OrderLine line : order.getLines()) {
+                qtyByItem.merge(line.getItem().getItemId(), line.getOrderQty(), OrderServiceImpl::addQty);
+                stockAllocationService.release(line.getItem(), line.getLocation(), line.getOrderQty());
+                if (order.getOrderDate() != null) {
+                    salesReportService.reverseSale(line.getItem().getItemId(), order.getOrderDate(), line.getOrderQty(), line.getPrice());
+                }
+            }
+            for (Item lineItem : itemRepository.findAllByIdForUpdate(qtyByItem.keySet())) {
+                restoreStock(lineItem, qtyByItem.get(lineItem.getItemId()));
+            }
+            log.info("Order [{}] deleted. Lines: {}, Qty: {}", orderId, order.getLines().size(), order.getOrderQty());
+        }
 
-        log.info("Order [{}] deleted. Item: {}, Qty: {}, Stock restored to: {}",
-                orderId, item.getItemName(), order.getOrderQty(), item.getItemStock());
+        orderRepository.delete(order);
 
         Map<String, Object> responseData = new HashMap<>();
         responseData.put("deletedOrderId", orderId);
@@ -138,21 +242,238 @@ public class OrderServiceImpl implements OrderService {
         return responseData;
     }
 
-    private String generateNextOrderId(Order lastOrder) {
-        int newOrderNumber = 1;
-        if (lastOrder != null) {
-            String lastOrderNo = lastOrder.getOrderNo();
-            String numberPart = lastOrderNo.substring(1);
-            try {
-                newOrderNumber = Integer.parseInt(numberPart) + 1;
-            } catch (NumberFormatException e) {
-                newOrderNumber = 1;
+    @Override
+    @Transactional
+    public OrderBasketRes createBasketOrder(OrderBasketReq orderBasketReq) {
+        Map<Long, Integer> qtyByItem = new TreeMap<>();
+        for (OrderLineReq lineReq : orderBasketReq.getLines()) {
+            qtyByItem.merge(lineReq.getItemId(), lineReq.getOrderQty(), OrderServiceImpl::addQty);
+        }
+        // A basket is one local transaction, so every item in it has to live on the same shard.
+        int shard = shardRouter.shardOf(qtyByItem.keySet().iterator().next());
+        for (Long itemId : qtyByItem.keySet()) {
+            if (shardRouter.shardOf(itemId) != shard) {
+                throw new InvalidOrderException("Semua item dalam satu keranjang harus berada di shard yang sama");
             }
         }
-        return String.format("O%03d", newOrderNumber);
+        shardRouter.bind(shard);
+
+        String orderId = generateNextOrderId();
+
+        Map<Long, Item> items = new HashMap<>();
+        for (Item item : itemRepository.findAllById(qtyByItem.keySet())) {
+            items.put(item.getItemId(), item);
+        }
+        lockStock(items.values());
+        for (Long itemId : qtyByItem.keySet()) {
+            if (!items.containsKey(itemId) || items.get(itemId).isDeleted()) {
+                throw new DataNotFoundException("Item not found with id: " + itemId);
+            }
+        }
+
+        Order order = new Order();
+        order.setOrderNo(orderId);
+        order.setOrderDate(LocalDateTime.now());
+        int totalQty = 0;
+        long totalMinorUnits = 0;
+        int lineNo = 1;
+        for (OrderLineReq lineReq : orderBasketReq.getLines()) {
+            Item item = items.get(lineReq.getItemId());
+            Money linePrice = checkedTotal(lineReq.getPrice(), item, lineReq.getOrderQty());
+            order.getLines().add(new OrderLine(null, order, lineNo++, item, lineReq.getOrderQty(), linePrice));
+            totalQty = addQty(totalQty, lineReq.getOrderQty());
+            totalMinorUnits = sum(totalMinorUnits, linePrice);
+        }
+
+        for (Map.Entry<Long, Integer> entry : qtyByItem.entrySet()) {
+            if (availableStock(items.get(entry.getKey())) < entry.getValue()) {
+                throw new NotEnoughStockException("Stok tidak mencukupi untuk item " + entry.getKey());
+            }
+        }
+        // Each item is allocated as a whole so all of its lines ship from one location.
+        Map<Long, StockLocation> locations = new HashMap<>();
+        for (Map.Entry<Long, Integer> entry : qtyByItem.entrySet()) {
+            Item item = items.get(entry.getKey());
+            locations.put(entry.getKey(), stockAllocationService.allocate(item, entry.getValue(), null));
+            reduceStock(item, entry.getValue());
+        }
+        for (OrderLine line : order.getLines()) {
+            line.setLocation(locations.get(line.getItem().getItemId()));
+        }
+
+        order.setOrderQty(totalQty);
+        Money totalPrice = Money.ofMinor(totalMinorUnits);
+        order.setPrice(totalPrice);
+        Order savedOrder = orderRepository.save(order);
+
+        for (OrderLine line : savedOrder.getLines()) {
+            salesReportService.recordSale(line.getItem().getItemId(), savedOrder.getOrderDate(), line.getOrderQty(), line.getPrice());
+        }
+
+        log.info("Basket order [{}] created. Lines: {}, Qty: {}, Total: {}",
+                orderId, savedOrder.getLines().size(), totalQty, totalPrice);
+        return mapToOrderBasketRes(savedOrder);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public OrderBasketRes getBasketOrderById(String orderId) {
+        shardRouter.bind(shardRouter.shardOfOrder(orderId));
+        Order order = orderRepository.findWithLinesByOrderNo(orderId)
+                .orElseThrow(() -> new DataNotFoundException("Order not found with id: "+orderId));
+        return mapToOrderBasketRes(order);
+    }
+
+    @Override
+    @Transactional
+    public OrderRes confirmReservation(Long reservationId, ReservationConfirmReq reservationConfirmReq) {
+        shardRouter.bind(shardRouter.shardOf(reservationId));
+        StockReservation reservation = stockReservationRepository.findWithItemById(reservationId)
+                .orElseThrow(() -> new DataNotFoundException("Reservation not found with id: " + reservationId));
+
+        Item item = reservation.getItem();
+        Money totalPrice = checkedTotal(reservationConfirmReq.getPrice(), item, reservation.getReservedQty());
+
+        String orderId = generateNextOrderId();
+        LocalDateTime now = LocalDateTime.now();
+
+        // Stock was already taken off when the hold was placed; confirming only flips the reservation and books the order.
+        if (stockReservationRepository.confirmHeld(reservationId, orderId, now) == 0) {
+            throw new ReservationClosedException("Reservasi sudah tidak aktif");
+        }
+        eventPublisher.publishEvent(new StockReservationClosedEvent(reservationId));
+
+        Order order = new Order();
+        order.setOrderNo(orderId);
+        order.setOrderQty(reservation.getReservedQty());
+        order.setItem(item);
+        order.setPrice(totalPrice);
+        order.setOrderDate(now);
+        order.setLocation(reservation.getLocation());
+        Order savedOrder = orderRepository.save(order);
+
+        salesReportService.recordSale(item.getItemId(), savedOrder.getOrderDate(), savedOrder.getOrderQty(), totalPrice);
+        log.info("Reservation [{}] confirmed into order [{}]. Item: {}, Qty: {}",
+                reservationId, orderId, item.getItemName(), savedOrder.getOrderQty());
+        return mapToOrderRes(savedOrder);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportOrders(ExportFormat format, OutputStream outputStream) {
+        try (ExportWriter<OrderRes> writer = new ExportWriter<>(format, outputStream, objectMapper, OrderRes.class,
+                     orderRes -> orderRes.getItem() == null
+                             ? Arrays.asList(orderRes.getOrderNo(), null, null, null, orderRes.getOrderQty(), orderRes.getPrice())
+                             : Arrays.asList(orderRes.getOrderNo(), orderRes.getItem().getItemId(),
+                             orderRes.getItem().getItemName(), orderRes.getItem().getItemPrice(),
+                             orderRes.getOrderQty(), orderRes.getPrice()))) {
+            writer.writeHeader(List.of("orderNo", "itemId", "itemName", "itemPrice", "orderQty", "price"));
+            for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+                shardRouter.inShard(shard, true, () -> {
+                    try (Stream<Order> orders = orderRepository.streamAllForExport()) {
+                        orders.forEach(order -> {
+                            writer.write(mapToOrderRes(order));
+                            if (order.getItem() != null) {
+                                entityManager.detach(order.getItem());
+                            }
+                            entityManager.detach(order);
+                        });
+                    }
+                    return null;
+                });
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void writeOrderPage(int page, int size, OutputStream outputStream) {
+        if (shardRouter.shardCount() > 1) {
+            Page<OrderRes> merged = getAllOrders(page, size);
+            writePage(page, size, merged.getTotalElements(), outputStream, writer -> merged.forEach(writer::write));
+            return;
+        }
+        writePage(page, size, orderRepository.count(), outputStream, writer -> {
+            try (Stream<Order> orders = orderRepository.streamPage(PageRequest.of(page, size))) {
+                orders.forEach(order -> {
+                    writer.write(mapToOrderRes(order));
+                    if (order.getItem() != null) {
+                        entityManager.detach(order.getItem());
+                    }
+                    entityManager.detach(order);
+                });
+            }
+        });
+    }
+
+    private void writePage(int page, int size, long total, OutputStream outputStream,
+                           Consumer<PageStreamWriter<OrderRes>> rows) {
+        try (PageStreamWriter<OrderRes> writer = new PageStreamWriter<>(outputStream, objectMapper,
+                OrderRes.class, "Order retrieved successfully", page, size, total)) {
+            rows.accept(writer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // The submitted total is checked against price x qty in minor units and, when it matches, kept as the order's
+    // total, so a valid request allocates nothing for it. A product past the long range is refused, not wrapped.
+    private Money checkedTotal(Money submitted, Item item, int qty) {
+        try {
+            if (!submitted.isTotalOf(item.getItemPrice(), qty)) {
+                throw new InvalidPriceException("Harga tidak valid. Harap jangan memanipulasi harga.");
+            }
+        } catch (ArithmeticException e) {
+            throw new InvalidPriceException("Total harga melebihi batas yang didukung");
+        }
+        return submitted;
+    }
+
+    private long sum(long totalMinorUnits, Money linePrice) {
+        try {
+            return Math.addExact(totalMinorUnits, linePrice.getMinorUnits());
+        } catch (ArithmeticException e) {
+            throw new InvalidPriceException("Total harga melebihi batas yang didukung");
+        }
+    }
+
+    // Each line quantity is only checked on its own, so several large lines could add up past the int range.
+    private static int addQty(int totalQty, int qty) {
+        try {
+            return Math.addExact(totalQty, qty);
+        } catch (ArithmeticException e) {
+            throw new InvalidOrderException("Jumlah item melebihi batas yang didukung");
+        }
+    }
+
+    private String generateNextOrderId() {
+        // The "-<shard>" suffix tells getOrderById which shard holds the order.
+        String orderNo = orderNumberGenerator.next();
+        return shardRouter.isSharded() ? orderNo + "-" + shardRouter.currentShard() : orderNo;
+    }
+
+    // Items with stock slots are left to the slot row locks, so orders on a hot item still run side by side. The
+    // others take the provider lock, and as they were read before it, they are reloaded under it.
+    private void lockStock(Collection<Item> items) {
+        List<Item> singleRow = items.stream().filter(item -> !item.isSharded()).toList();
+        if (singleRow.isEmpty()) {
+            return;
+        }
+        stockLockProvider.lockForTransaction(singleRow.stream().map(Item::getItemId).toList());
+        singleRow.forEach(entityManager::refresh);
+    }
+
+    private int availableStock(Item item) {
+        return item.isSharded() ? stockSlotService.available(item) : item.getItemStock();
     }
 
     private void reduceStock(Item item, int qty) {
+        if (item.isSharded()) {
+            stockSlotService.take(item, qty);
+            return;
+        }
         if (item.getItemStock() < qty) {
             throw new NotEnoughStockException("Stok tidak mencukupi");
         }
@@ -161,6 +482,10 @@ public class OrderServiceImpl implements OrderService {
     }
 
     private void restoreStock(Item item, int qty) {
+        if (item.isSharded()) {
+            stockSlotService.give(item, qty);
+            return;
+        }
         item.setItemStock(item.getItemStock() + qty);
         itemRepository.save(item);
     }
@@ -170,11 +495,38 @@ public class OrderServiceImpl implements OrderService {
         orderRes.setOrderNo(order.getOrderNo());
         orderRes.setOrderQty(order.getOrderQty());
         orderRes.setPrice(order.getPrice());
-        ItemDto itemDto = new ItemDto();
-        itemDto.setItemId(order.getItem().getItemId());
-        itemDto.setItemName(order.getItem().getItemName());
-        itemDto.setItemPrice(order.getItem().getItemPrice());
-        orderRes.setItem(itemDto);
+        if (order.getItem() != null) {
+            orderRes.setItem(mapToItemDto(order.getItem()));
+        }
+        if (order.getLocation() != null) {
+            orderRes.setLocationCode(order.getLocation().getLocationCode());
+        }
         return orderRes;
     }
+
+    private OrderBasketRes mapToOrderBasketRes(Order order) {
+        OrderBasketRes orderBasketRes = new OrderBasketRes();
+        orderBasketRes.setOrderNo(order.getOrderNo());
+        orderBasketRes.setTotalQty(order.getOrderQty());
+        orderBasketRes.setTotalPrice(order.getPrice());
+        List<OrderLineRes> lines = new ArrayList<>();
+        if (order.getLines().isEmpty() && order.getItem() != null) {
+            lines.add(new OrderLineRes(1, mapToItemDto(order.getItem()), order.getOrderQty(), order.getPrice(),
+                    order.getLocation() != null ? order.getLocation().getLocationCode() : null));
+        }
+        for (OrderLine line : order.getLines()) {
+            lines.add(new OrderLineRes(line.getLineNo(), mapToItemDto(line.getItem()), line.getOrderQty(), line.getPrice(),
+                    line.getLocation() != null ? line.getLocation().getLocationCode() : null));
+        }
+        orderBasketRes.setLines(lines);
+        return orderBasketRes;
+    }
+
+    private ItemDto mapToItemDto(Item item) {
+        ItemDto itemDto = new ItemDto();
+        itemDto.setItemId(item.getItemId());
+        itemDto.setItemName(item.getItemName());
+        itemDto.setItemPrice(item.getItemPrice());
+        return itemDto;
+    }
 }
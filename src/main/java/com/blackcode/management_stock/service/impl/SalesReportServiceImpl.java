@@ -0,0 +1,96 @@
+package com.blackcode.management_stock.service.impl;
+
+import com.blackcode.management_stock.datasource.ShardRouter;
+import com.blackcode.management_stock.dto.SalesRollupRes;
+import com.blackcode.management_stock.dto.SalesSummaryRes;
+import com.blackcode.management_stock.exception.InvalidReportRangeException;
+import com.blackcode.management_stock.model.RollupGranularity;
+import com.blackcode.management_stock.model.SalesRollup;
+import com.blackcode.management_stock.money.Money;
+import com.blackcode.management_stock.repository.SalesRollupRepository;
+import com.blackcode.management_stock.service.SalesReportService;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.IntFunction;
+
+@Service
+public class SalesReportServiceImpl implements SalesReportService {
+
+    private final SalesRollupRepository salesRollupRepository;
+
+    private final ShardRouter shardRouter;
+
+    public SalesReportServiceImpl(SalesRollupRepository salesRollupRepository, ShardRouter shardRouter) {
+        this.salesRollupRepository = salesRollupRepository;
+        this.shardRouter = shardRouter;
+    }
+
+    @Override
+    public void recordSale(Long itemId, LocalDateTime orderDate, int qty, Money revenue) {
+        applyDelta(itemId, orderDate, 1, qty, revenue);
+    }
+
+    @Override
+    public void reverseSale(Long itemId, LocalDateTime orderDate, int qty, Money revenue) {
+        applyDelta(itemId, orderDate, -1, -qty, revenue.negate());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<SalesRollupRes> getSalesRollups(RollupGranularity granularity, LocalDate from, LocalDate to, Long itemId) {
+        validateRange(from, to);
+        return collect(itemId, shard -> salesRollupRepository.findRollups(granularity, from.atStartOfDay(),
+                        to.plusDays(1).atStartOfDay(), itemId).stream().map(this::mapToSalesRollupRes).toList(),
+                Comparator.comparing(SalesRollupRes::getItemId).thenComparing(SalesRollupRes::getBucketStart));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<SalesSummaryRes> getSalesSummary(LocalDate from, LocalDate to, Long itemId) {
+        validateRange(from, to);
+        return collect(itemId, shard -> salesRollupRepository.summarize(from.atStartOfDay(),
+                to.plusDays(1).atStartOfDay(), itemId), Comparator.comparing(SalesSummaryRes::getItemId));
+    }
+
+    // Rollups live on their item's shard, so one item is a local query and the full report is a concat of the
+    // shards; items never span shards, which keeps the per-item sums exact without a second aggregation.
+    private <T> List<T> collect(Long itemId, IntFunction<List<T>> perShard, Comparator<T> order) {
+        if (itemId != null || !shardRouter.isSharded()) {
+            shardRouter.bindItem(itemId);
+            return perShard.apply(shardRouter.currentShard());
+        }
+        return shardRouter.scatter(perShard).stream()
+                .flatMap(List::stream)
+                .sorted(order)
+                .toList();
+    }
+
+    private void applyDelta(Long itemId, LocalDateTime orderDate, long orderCount, long qty, Money revenue) {
+        for (RollupGranularity granularity : RollupGranularity.values()) {
+            salesRollupRepository.applyDelta(itemId, granularity.name(), granularity.bucketOf(orderDate),
+                    orderCount, qty, revenue.getMinorUnits());
+        }
+    }
+
+    private void validateRange(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new InvalidReportRangeException("Tanggal awal tidak boleh setelah tanggal akhir");
+        }
+    }
+
+    private SalesRollupRes mapToSalesRollupRes(SalesRollup salesRollup) {
+        SalesRollupRes salesRollupRes = new SalesRollupRes();
+        salesRollupRes.setItemId(salesRollup.getItemId());
+        salesRollupRes.setGranularity(salesRollup.getGranularity().name());
+        salesRollupRes.setBucketStart(salesRollup.getBucketStart());
+        salesRollupRes.setOrderCount(salesRollup.getOrderCount());
+        salesRollupRes.setTotalQty(salesRollup.getTotalQty());
+        salesRollupRes.setTotalRevenue(salesRollup.getTotalRevenue());
+        return salesRollupRes;
+    }
+}
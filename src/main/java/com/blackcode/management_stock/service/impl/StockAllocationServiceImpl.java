@@ -0,0 +1,106 @@
+package com.blackcode.management_stock.service.impl;
+
+import com.blackcode.management_stock.exception.DataNotFoundException;
+import com.blackcode.management_stock.exception.NotEnoughStockException;
+import com.blackcode.management_stock.model.AllocationStrategy;
+import com.blackcode.management_stock.model.Item;
+import com.blackcode.management_stock.model.LocationStock;
+import com.blackcode.management_stock.model.StockLocation;
+import com.blackcode.management_stock.repository.LocationStockRepository;
+import com.blackcode.management_stock.repository.StockLocationRepository;
+import com.blackcode.management_stock.service.StockAllocationService;
+import com.blackcode.management_stock.service.StockSlotService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+public class StockAllocationServiceImpl implements StockAllocationService {
+
+    private final LocationStockRepository locationStockRepository;
+
+    private final StockLocationRepository stockLocationRepository;
+
+    private final StockSlotService stockSlotService;
+
+    private final AllocationStrategy strategy;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    public StockAllocationServiceImpl(LocationStockRepository locationStockRepository,
+                                      StockLocationRepository stockLocationRepository,
+                                      StockSlotService stockSlotService,
+                                      @Value("${stock.allocation.strategy:NEAREST}") AllocationStrategy strategy) {
+        this.locationStockRepository = locationStockRepository;
+        this.stockLocationRepository = stockLocationRepository;
+        this.stockSlotService = stockSlotService;
+        this.strategy = strategy;
+    }
+
+    @Override
+    public StockLocation allocate(Item item, int qty, Long locationId) {
+        if (locationId != null) {
+            StockLocation location = findLocation(locationId);
+            if (locationStockRepository.tryTake(item.getItemId(), locationId, qty) == 0) {
+                throw new NotEnoughStockException("Stok tidak mencukupi di lokasi " + location.getLocationCode());
+            }
+            return location;
+        }
+
+        List<LocationStock> rows = locationStockRepository.findSnapshotsByItemId(item.getItemId());
+        if (rows.isEmpty()) {
+            return null;
+        }
+        List<LocationStock> ranked = strategy.rank(rows.stream().filter(s -> s.getQuantity() >= qty).toList(),
+                sequence.getAndIncrement());
+        // Only the row that is taken from gets locked. A candidate another order holds is passed over for the next
+        // one, and only when every candidate is busy does the allocation wait on them in turn.
+        for (LocationStock candidate : ranked) {
+            Long candidateId = candidate.getLocation().getLocationId();
+            if (!locationStockRepository.lockIfFree(item.getItemId(), candidateId, qty).isEmpty()
+                    && locationStockRepository.tryTake(item.getItemId(), candidateId, qty) == 1) {
+                return candidate.getLocation();
+            }
+        }
+        for (LocationStock candidate : ranked) {
+            if (locationStockRepository.tryTake(item.getItemId(), candidate.getLocation().getLocationId(), qty) == 1) {
+                return candidate.getLocation();
+            }
+        }
+
+        // Stock that predates the location model (or was received without a location) stays on the item only;
+        // it is whatever the item total holds beyond the per-location rows. Callers must allocate before they
+        // reduce the item total.
+        long located = rows.stream().mapToLong(LocationStock::getQuantity).sum();
+        int itemTotal = item.isSharded() ? stockSlotService.available(item) : item.getItemStock();
+        if (itemTotal - located >= qty) {
+            return null;
+        }
+        throw new NotEnoughStockException("Stok tidak mencukupi di satu lokasi");
+    }
+
+    @Override
+    public StockLocation receive(Item item, int qty, Long locationId) {
+        if (locationId == null) {
+            return null;
+        }
+        StockLocation location = findLocation(locationId);
+        release(item, location, qty);
+        return location;
+    }
+
+    @Override
+    public void release(Item item, StockLocation location, int qty) {
+        if (location == null) {
+            return;
+        }
+        locationStockRepository.addQuantity(item.getItemId(), location.getLocationId(), qty);
+    }
+
+    private StockLocation findLocation(Long locationId) {
+        return stockLocationRepository.findById(locationId)
+                .orElseThrow(() -> new DataNotFoundException("Location not found with id: " + locationId));
+    }
+}
@@ -0,0 +1,112 @@
+package com.blackcode.management_stock.service.impl;
+
+import com.blackcode.management_stock.datasource.ShardRouter;
+import com.blackcode.management_stock.dto.LocationStockRes;
+import com.blackcode.management_stock.dto.StockLocationReq;
+import com.blackcode.management_stock.dto.StockLocationRes;
+import com.blackcode.management_stock.exception.DataNotFoundException;
+import com.blackcode.management_stock.exception.DuplicateResourceException;
+import com.blackcode.management_stock.model.StockLocation;
+import com.blackcode.management_stock.repository.ItemRepository;
+import com.blackcode.management_stock.repository.LocationStockRepository;
+import com.blackcode.management_stock.repository.StockLocationRepository;
+import com.blackcode.management_stock.service.StockLocationService;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+@Service
+public class StockLocationServiceImpl implements StockLocationService {
+
+    private final StockLocationRepository stockLocationRepository;
+
+    private final LocationStockRepository locationStockRepository;
+
+    private final ItemRepository itemRepository;
+
+    private final ShardRouter shardRouter;
+
+    public StockLocationServiceImpl(StockLocationRepository stockLocationRepository,
+                                    LocationStockRepository locationStockRepository,
+                                    ItemRepository itemRepository, ShardRouter shardRouter) {
+        this.stockLocationRepository = stockLocationRepository;
+        this.locationStockRepository = locationStockRepository;
+        this.itemRepository = itemRepository;
+        this.shardRouter = shardRouter;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<StockLocationRes> getAllLocations() {
+        return stockLocationRepository.findAllByOrderByPriorityAscLocationIdAsc().stream()
+                .map(this::mapToStockLocationRes)
+                .toList();
+    }
+
+    // Locations are reference data copied to every shard, so a location id means the same everywhere. Shard 0 hands
+    // out the id and the other shards take it as is. Each shard commits on its own, so a creation that failed partway
+    // leaves the code on some shards only; sending the same request again copies it to the rest under the same id,
+    // and only a code that every shard already has is a duplicate.
+    @Override
+    public StockLocationRes createLocation(StockLocationReq stockLocationReq) {
+        String locationCode = stockLocationReq.getLocationCode();
+        List<StockLocation> existing = new ArrayList<>();
+        for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+            existing.add(shardRouter.inShard(shard, true,
+                    () -> stockLocationRepository.findByLocationCode(locationCode).orElse(null)));
+        }
+        if (!existing.contains(null)) {
+            throw new DuplicateResourceException("Location code already exists: " + locationCode);
+        }
+        StockLocation created = existing.stream().filter(Objects::nonNull).findFirst().orElse(null);
+        for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+            StockLocation location = existing.get(shard);
+            if (location != null) {
+                if (!location.getLocationId().equals(created.getLocationId())) {
+                    throw new IllegalStateException("Location " + locationCode + " has different ids across shards: "
+                            + created.getLocationId() + " vs " + location.getLocationId());
+                }
+            } else if (created == null) {
+                created = shardRouter.inShard(shard, false, () -> stockLocationRepository.save(newLocation(stockLocationReq)));
+            } else {
+                Long locationId = created.getLocationId();
+                shardRouter.inShard(shard, false, () -> stockLocationRepository.insertWithId(locationId, locationCode,
+                        stockLocationReq.getLocationName(), stockLocationReq.getPriority()));
+            }
+        }
+        return mapToStockLocationRes(created);
+    }
+
+    private StockLocation newLocation(StockLocationReq stockLocationReq) {
+        StockLocation location = new StockLocation();
+        location.setLocationCode(stockLocationReq.getLocationCode());
+        location.setLocationName(stockLocationReq.getLocationName());
+        location.setPriority(stockLocationReq.getPriority());
+        return location;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<LocationStockRes> getItemStockByLocation(Long itemId) {
+        shardRouter.bindItem(itemId);
+        if (!itemRepository.existsById(itemId)) {
+            throw new DataNotFoundException("Item not found with id: " + itemId);
+        }
+        return locationStockRepository.findAllByItemId(itemId).stream()
+                .map(s -> new LocationStockRes(s.getLocation().getLocationId(), s.getLocation().getLocationCode(),
+                        itemId, s.getQuantity()))
+                .toList();
+    }
+
+    private StockLocationRes mapToStockLocationRes(StockLocation location) {
+        StockLocationRes stockLocationRes = new StockLocationRes();
+        stockLocationRes.setLocationId(location.getLocationId());
+        stockLocationRes.setLocationCode(location.getLocationCode());
+        stockLocationRes.setLocationName(location.getLocationName());
+        stockLocationRes.setPriority(location.getPriority());
+        return stockLocationRes;
+    }
+}
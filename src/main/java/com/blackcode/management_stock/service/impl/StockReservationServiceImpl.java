@@ -0,0 +1,192 @@
+package com.blackcode.management_stock.service.impl;
+
+import com.blackcode.management_stock.datasource.ShardRouter;
+import com.blackcode.management_stock.dto.ItemDto;
+import com.blackcode.management_stock.dto.StockReservationReq;
+import com.blackcode.management_stock.dto.StockReservationRes;
+import com.blackcode.management_stock.event.StockReservationClosedEvent;
+import com.blackcode.management_stock.event.StockReservationHeldEvent;
+import com.blackcode.management_stock.exception.DataNotFoundException;
+import com.blackcode.management_stock.exception.NotEnoughStockException;
+import com.blackcode.management_stock.exception.ReservationClosedException;
+import com.blackcode.management_stock.lock.StockLockProvider;
+import com.blackcode.management_stock.model.Item;
+import com.blackcode.management_stock.model.ReservationStatus;
+import com.blackcode.management_stock.model.StockLocation;
+import com.blackcode.management_stock.model.StockReservation;
+import com.blackcode.management_stock.repository.ItemRepository;
+import com.blackcode.management_stock.repository.StockReservationRepository;
+import com.blackcode.management_stock.service.StockAllocationService;
+import com.blackcode.management_stock.service.StockReservationService;
+import com.blackcode.management_stock.service.StockSlotService;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Service
+public class StockReservationServiceImpl implements StockReservationService {
+
+    private static final Logger log = LoggerFactory.getLogger(StockReservationServiceImpl.class);
+
+    private final StockReservationRepository stockReservationRepository;
+
+    private final ItemRepository itemRepository;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final StockAllocationService stockAllocationService;
+
+    private final StockSlotService stockSlotService;
+
+    private final ShardRouter shardRouter;
+
+    private final StockLockProvider stockLockProvider;
+
+    private final EntityManager entityManager;
+
+    private final int defaultTtlSeconds;
+
+    public StockReservationServiceImpl(StockReservationRepository stockReservationRepository,
+                                       ItemRepository itemRepository,
+                                       ApplicationEventPublisher eventPublisher,
+                                       StockAllocationService stockAllocationService,
+                                       StockSlotService stockSlotService,
+                                       ShardRouter shardRouter,
+                                       StockLockProvider stockLockProvider,
+                                       EntityManager entityManager,
+                                       @Value("${stock.reservation.default-ttl-seconds:900}") int defaultTtlSeconds) {
+        this.stockReservationRepository = stockReservationRepository;
+        this.itemRepository = itemRepository;
+        this.eventPublisher = eventPublisher;
+        this.stockAllocationService = stockAllocationService;
+        this.stockSlotService = stockSlotService;
+        this.shardRouter = shardRouter;
+        this.stockLockProvider = stockLockProvider;
+        this.entityManager = entityManager;
+        this.defaultTtlSeconds = defaultTtlSeconds;
+    }
+
+    @Override
+    @Transactional
+    public StockReservationRes holdStock(StockReservationReq stockReservationReq) {
+        shardRouter.bindItem(stockReservationReq.getItemId());
+        Item item = itemRepository.findById(stockReservationReq.getItemId())
+                .orElseThrow(() -> new DataNotFoundException("Item not found"));
+        lockStock(item);
+        if (item.isDeleted()) {
+            throw new DataNotFoundException("Item not found");
+        }
+        int available = item.isSharded() ? stockSlotService.available(item) : item.getItemStock();
+        if (available < stockReservationReq.getReservedQty()) {
+            throw new NotEnoughStockException("Stok tidak mencukupi");
+        }
+        StockLocation location = stockAllocationService.allocate(item, stockReservationReq.getReservedQty(), null);
+        if (item.isSharded()) {
+            stockSlotService.take(item, stockReservationReq.getReservedQty());
+        } else {
+            item.setItemStock(item.getItemStock() - stockReservationReq.getReservedQty());
+            itemRepository.save(item);
+        }
+
+        int ttlSeconds = stockReservationReq.getTtlSeconds() != null ? stockReservationReq.getTtlSeconds() : defaultTtlSeconds;
+        LocalDateTime now = LocalDateTime.now();
+        StockReservation reservation = new StockReservation();
+        reservation.setItem(item);
+        reservation.setReservedQty(stockReservationReq.getReservedQty());
+        reservation.setStatus(ReservationStatus.HELD);
+        reservation.setCreatedAt(now);
+        reservation.setExpiresAt(now.plusSeconds(ttlSeconds));
+        reservation.setLocation(location);
+        StockReservation savedReservation = stockReservationRepository.save(reservation);
+
+        eventPublisher.publishEvent(new StockReservationHeldEvent(savedReservation.getReservationId(), savedReservation.getExpiresAt()));
+        log.info("Reservation [{}] held. Item: {}, Qty: {}, Expires at: {}",
+                savedReservation.getReservationId(), item.getItemName(), savedReservation.getReservedQty(), savedReservation.getExpiresAt());
+        return mapToStockReservationRes(savedReservation);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public StockReservationRes getReservationById(Long reservationId) {
+        shardRouter.bind(shardRouter.shardOf(reservationId));
+        StockReservation reservation = stockReservationRepository.findWithItemById(reservationId)
+                .orElseThrow(() -> new DataNotFoundException("Reservation not found with id: " + reservationId));
+        return mapToStockReservationRes(reservation);
+    }
+
+    @Override
+    @Transactional
+    public StockReservationRes releaseReservation(Long reservationId) {
+        shardRouter.bind(shardRouter.shardOf(reservationId));
+        StockReservation reservation = stockReservationRepository.findWithItemById(reservationId)
+                .orElseThrow(() -> new DataNotFoundException("Reservation not found with id: " + reservationId));
+        if (!closeAndRestore(reservation, ReservationStatus.RELEASED)) {
+            throw new ReservationClosedException("Reservasi sudah tidak aktif");
+        }
+        reservation.setStatus(ReservationStatus.RELEASED);
+        eventPublisher.publishEvent(new StockReservationClosedEvent(reservationId));
+        return mapToStockReservationRes(reservation);
+    }
+
+    @Override
+    @Transactional
+    public boolean expireReservation(Long reservationId) {
+        shardRouter.bind(shardRouter.shardOf(reservationId));
+        return stockReservationRepository.findWithItemById(reservationId)
+                .map(reservation -> closeAndRestore(reservation, ReservationStatus.EXPIRED))
+                .orElse(false);
+    }
+
+    private boolean closeAndRestore(StockReservation reservation, ReservationStatus status) {
+        // The HELD -> closed transition is a conditional update, so a confirm racing with release or expiry can
+        // only ever win once and the stock is never given back twice.
+        if (stockReservationRepository.closeHeld(reservation.getReservationId(), status) == 0) {
+            return false;
+        }
+        // closeHeld cleared the persistence context, so the reservation's item is detached by now.
+        Item item = itemRepository.findById(reservation.getItem().getItemId())
+                .orElseThrow(() -> new DataNotFoundException("Item not found"));
+        lockStock(item);
+        if (item.isSharded()) {
+            stockSlotService.give(item, reservation.getReservedQty());
+        } else {
+            item.setItemStock(item.getItemStock() + reservation.getReservedQty());
+            itemRepository.save(item);
+        }
+        stockAllocationService.release(item, reservation.getLocation(), reservation.getReservedQty());
+        log.info("Reservation [{}] {}. Item: {}, Qty: {}, Stock restored to: {}",
+                reservation.getReservationId(), status, item.getItemName(), reservation.getReservedQty(), item.getItemStock());
+        return true;
+    }
+
+    // Holds and restores take the same lock as orders and inventory movements, so they exclude each other whatever
+    // the backend. Items with stock slots are left to the slot row locks, as for orders.
+    private void lockStock(Item item) {
+        if (!item.isSharded()) {
+            stockLockProvider.lockForTransaction(List.of(item.getItemId()));
+            entityManager.refresh(item);
+        }
+    }
+
+    private StockReservationRes mapToStockReservationRes(StockReservation reservation) {
+        StockReservationRes stockReservationRes = new StockReservationRes();
+        stockReservationRes.setReservationId(reservation.getReservationId());
+        stockReservationRes.setReservedQty(reservation.getReservedQty());
+        stockReservationRes.setStatus(reservation.getStatus().name());
+        stockReservationRes.setExpiresAt(reservation.getExpiresAt());
+        stockReservationRes.setOrderNo(reservation.getOrderNo());
+        if (reservation.getLocation() != null) {
+            stockReservationRes.setLocationCode(reservation.getLocation().getLocationCode());
+        }
+        Item item = reservation.getItem();
+        stockReservationRes.setItem(new ItemDto(item.getItemId(), item.getItemName(), item.getItemPrice()));
+        return stockReservationRes;
+    }
+}
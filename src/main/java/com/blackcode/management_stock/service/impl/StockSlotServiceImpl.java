@@ -0,0 +1,161 @@
+package com.blackcode.management_stock.service.impl;
+
+import com.blackcode.management_stock.cache.TableStamps;
+import com.blackcode.management_stock.exception.NotEnoughStockException;
+import com.blackcode.management_stock.model.Item;
+import com.blackcode.management_stock.model.ItemStockSlot;
+import com.blackcode.management_stock.repository.ItemStockSlotRepository;
+import com.blackcode.management_stock.service.StockSlotService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+@Service
+public class StockSlotServiceImpl implements StockSlotService {
+
+    private static final Logger log = LoggerFactory.getLogger(StockSlotServiceImpl.class);
+
+    private final ItemStockSlotRepository itemStockSlotRepository;
+
+    private final TableStamps tableStamps;
+
+    public StockSlotServiceImpl(ItemStockSlotRepository itemStockSlotRepository, TableStamps tableStamps) {
+        this.itemStockSlotRepository = itemStockSlotRepository;
+        this.tableStamps = tableStamps;
+    }
+
+    @Override
+    public int available(Item item) {
+        if (!item.isSharded()) {
+            return item.getItemStock();
+        }
+        return (int) itemStockSlotRepository.sumQuantity(item.getItemId());
+    }
+
+    // One grouped query for all the slotted items, so a page of rows does not sum the slots item by item.
+    @Override
+    public Map<Long, Integer> availableByItem(Collection<Item> items) {
+        Map<Long, Integer> available = new HashMap<>();
+        List<Long> slotted = new ArrayList<>();
+        for (Item item : items) {
+            if (item.isSharded()) {
+                slotted.add(item.getItemId());
+            } else {
+                available.put(item.getItemId(), item.getItemStock());
+            }
+        }
+        if (!slotted.isEmpty()) {
+            for (Long itemId : slotted) {
+                available.put(itemId, 0);
+            }
+            for (Object[] row : itemStockSlotRepository.sumQuantities(slotted)) {
+                available.put((Long) row[0], ((Number) row[1]).intValue());
+            }
+        }
+        return available;
+    }
+
+    @Override
+    public void take(Item item, int qty) {
+        // Slot updates below are native queries, which Hibernate does not report as item changes.
+        tableStamps.touch(TableStamps.ITEMS);
+        // Concurrent orders for the same item each lock a different free slot and decrement it, so they only
+        // queue up once every slot that could cover the quantity is busy. Starting at a random slot spreads them out.
+        // Nothing is locked when this misses, which keeps the ordered drain below free of deadlocks.
+        int shards = item.getStockShards();
+        int offset = ThreadLocalRandom.current().nextInt(shards);
+        List<Integer> free = itemStockSlotRepository.lockFreeSlot(item.getItemId(), qty, offset, shards);
+        if (!free.isEmpty() && itemStockSlotRepository.tryTake(item.getItemId(), free.get(0), qty) == 1) {
+            return;
+        }
+
+        // No free slot can cover the quantity: lock every slot in slot order and drain them.
+        List<Object[]> slots = itemStockSlotRepository.lockQuantities(item.getItemId());
+        long total = slots.stream().mapToLong(row -> ((Number) row[1]).longValue()).sum();
+        if (total < qty) {
+            throw new NotEnoughStockException("Stok tidak mencukupi");
+        }
+        int remaining = qty;
+        for (Object[] slot : slots) {
+            int taken = Math.min(((Number) slot[1]).intValue(), remaining);
+            if (taken > 0) {
+                itemStockSlotRepository.tryTake(item.getItemId(), ((Number) slot[0]).intValue(), taken);
+                remaining -= taken;
+            }
+            if (remaining == 0) {
+                break;
+            }
+        }
+    }
+
+    @Override
+    public void give(Item item, int qty) {
+        tableStamps.touch(TableStamps.ITEMS);
+        int slotNo = ThreadLocalRandom.current().nextInt(item.getStockShards());
+        if (itemStockSlotRepository.give(item.getItemId(), slotNo, qty) == 0) {
+            itemStockSlotRepository.save(new ItemStockSlot(item.getItemId(), slotNo, qty));
+        }
+    }
+
+    @Override
+    public void reshard(Item item, int shards) {
+        List<ItemStockSlot> slots = item.isSharded()
+                ? itemStockSlotRepository.findAllByItemIdForUpdate(item.getItemId())
+                : List.of();
+        int total = item.isSharded() ? sum(slots) : item.getItemStock();
+        writeSlots(item, slots, shards, total);
+        log.info("Item [{}] stock resharded into {} slots. Total stock: {}", item.getItemName(), shards, total);
+    }
+
+    @Override
+    public void resetStock(Item item, int total) {
+        if (!item.isSharded()) {
+            item.setItemStock(total);
+            return;
+        }
+        writeSlots(item, itemStockSlotRepository.findAllByItemIdForUpdate(item.getItemId()), item.getStockShards(), total);
+    }
+
+    @Override
+    public void removeSlots(Item item) {
+        if (item.isSharded()) {
+            itemStockSlotRepository.deleteAllByItemId(item.getItemId());
+        }
+    }
+
+    private int sum(List<ItemStockSlot> slots) {
+        return slots.stream().mapToInt(ItemStockSlot::getQuantity).sum();
+    }
+
+    private void writeSlots(Item item, List<ItemStockSlot> existing, int shards, int total) {
+        Map<Integer, ItemStockSlot> bySlot = new HashMap<>();
+        for (ItemStockSlot slot : existing) {
+            bySlot.put(slot.getSlotNo(), slot);
+        }
+        List<ItemStockSlot> slots = new ArrayList<>(Math.max(0, shards));
+        for (int slotNo = 0; slotNo < shards; slotNo++) {
+            ItemStockSlot slot = bySlot.remove(slotNo);
+            if (slot == null) {
+                slot = new ItemStockSlot(item.getItemId(), slotNo, 0);
+            }
+            slot.setQuantity(total / shards + (slotNo < total % shards ? 1 : 0));
+            slots.add(slot);
+        }
+        itemStockSlotRepository.deleteAll(bySlot.values());
+        itemStockSlotRepository.saveAll(slots);
+        if (shards > 0) {
+            item.setStockShards(shards);
+            item.setItemStock(0);
+        } else {
+            item.setStockShards(null);
+            item.setItemStock(total);
+        }
+    }
+}
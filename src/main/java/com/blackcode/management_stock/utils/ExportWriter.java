@@ -0,0 +1,77 @@
+package com.blackcode.management_stock.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Function;
+
+public class ExportWriter<T> implements Closeable {
+
+    private final ExportFormat format;
+
+    private final Writer writer;
+
+    private final ObjectWriter jsonWriter;
+
+    private final Function<T, List<?>> csvRow;
+
+    public ExportWriter(ExportFormat format, OutputStream outputStream, ObjectMapper objectMapper,
+                        Class<T> rowType, Function<T, List<?>> csvRow) {
+        this.format = format;
+        this.writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), 64 * 1024);
+        this.jsonWriter = objectMapper.writerFor(rowType);
+        this.csvRow = csvRow;
+    }
+
+    public void writeHeader(List<String> columns) {
+        if (format == ExportFormat.CSV) {
+            writeCsvLine(columns);
+        }
+    }
+
+    public void write(T row) {
+        try {
+            if (format == ExportFormat.CSV) {
+                writeCsvLine(csvRow.apply(row));
+            } else {
+                writer.write(jsonWriter.writeValueAsString(row));
+                writer.write('\n');
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeCsvLine(List<?> values) {
+        try {
+            for (int i = 0; i < values.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(escapeCsv(values.get(i)));
+            }
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String escapeCsv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.flush();
+    }
+}
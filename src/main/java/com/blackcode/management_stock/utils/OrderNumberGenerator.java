@@ -0,0 +1,138 @@
+package com.blackcode.management_stock.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.Lifecycle;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Snowflake layout: 41 bits of milliseconds since EPOCH, 10 bits of node id, 12 bits of sequence. The number is
+// written as "O" + 13 Crockford base32 digits, so order numbers sort by creation time as plain strings.
+@Component
+public class OrderNumberGenerator implements Lifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderNumberGenerator.class);
+
+    public static final long EPOCH = Instant.parse("2025-01-01T00:00:00Z").toEpochMilli();
+
+    public static final int NODE_BITS = 10;
+
+    public static final int SEQUENCE_BITS = 12;
+
+    public static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+
+    private static final char[] DIGITS = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+
+    private static final int LENGTH = 13;
+
+    // How far bursts may borrow from future milliseconds before callers wait for the clock. A restarted node starts
+    // from the wall clock again, so this must stay well below the time a restart takes.
+    private static final long MAX_LEAD_MILLIS = 1000;
+
+    static final String NODE_ID_PROPERTY = "stock.order-number.node-id";
+
+    private volatile long nodeBits;
+
+    private volatile boolean running = true;
+
+    // Packed (elapsed millis << SEQUENCE_BITS | sequence) of the last id handed out.
+    private final AtomicLong last = new AtomicLong();
+
+    public OrderNumberGenerator(@Value("${stock.order-number.node-id:-1}") int nodeId) {
+        checkNodeId(nodeId);
+        if (nodeId < 0) {
+            nodeId = deriveNodeId("");
+            log.warn("stock.order-number.node-id is not set, using {} derived from host and pid. "
+                    + "Set it explicitly to rule out collisions between instances", nodeId);
+        }
+        this.nodeBits = (long) nodeId << SEQUENCE_BITS;
+    }
+
+    // Stopped before a CRaC checkpoint and started again after restore. Every instance restored from the same image
+    // would otherwise share the checkpointed node id, so it is taken from -Dstock.order-number.node-id on the
+    // restore command line, or derived again with a random salt when none is given.
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public void start() {
+        if (running) {
+            return;
+        }
+        String configured = System.getProperty(NODE_ID_PROPERTY);
+        int nodeId = configured == null ? -1 : Integer.parseInt(configured.trim());
+        checkNodeId(nodeId);
+        if (nodeId < 0) {
+            nodeId = deriveNodeId(Long.toString(new SecureRandom().nextLong()));
+            log.warn("stock.order-number.node-id was not passed on restore, using {} derived from host, pid and a "
+                    + "random salt. Pass it explicitly to rule out collisions between instances", nodeId);
+        }
+        nodeBits = (long) nodeId << SEQUENCE_BITS;
+        running = true;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    public int getNodeId() {
+        return (int) (nodeBits >>> SEQUENCE_BITS);
+    }
+
+    public String next() {
+        return format(nextId());
+    }
+
+    // Lock-free: the next state is the greater of "last + 1" and "now with sequence 0". A sequence overflow simply
+    // carries into the millisecond field, and a clock that steps back keeps counting from the last state, so ids
+    // stay strictly increasing per node without sleeping unless the lead grows past MAX_LEAD_MILLIS.
+    public long nextId() {
+        long next;
+        while (true) {
+            long now = currentMillis() - EPOCH;
+            long prev = last.get();
+            next = Math.max(prev + 1, now << SEQUENCE_BITS);
+            if ((next >>> SEQUENCE_BITS) - now > MAX_LEAD_MILLIS) {
+                Thread.onSpinWait();
+            } else if (last.compareAndSet(prev, next)) {
+                break;
+            }
+        }
+        long millis = next >>> SEQUENCE_BITS;
+        long sequence = next & ((1L << SEQUENCE_BITS) - 1);
+        return (millis << (NODE_BITS + SEQUENCE_BITS)) | nodeBits | sequence;
+    }
+
+    public static String format(long id) {
+        char[] chars = new char[LENGTH + 1];
+        chars[0] = 'O';
+        for (int i = LENGTH; i > 0; i--) {
+            chars[i] = DIGITS[(int) (id & 31)];
+            id >>>= 5;
+        }
+        return new String(chars);
+    }
+
+    protected long currentMillis() {
+        return System.currentTimeMillis();
+    }
+
+    private static void checkNodeId(int nodeId) {
+        if (nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("stock.order-number.node-id must be between 0 and " + MAX_NODE_ID);
+        }
+    }
+
+    // The runtime name is "<pid>@<hostname>".
+    private static int deriveNodeId(String salt) {
+        return Math.floorMod((ManagementFactory.getRuntimeMXBean().getName() + salt).hashCode(), MAX_NODE_ID + 1);
+    }
+}
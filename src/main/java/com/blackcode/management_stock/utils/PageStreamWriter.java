@@ -0,0 +1,63 @@
+package com.blackcode.management_stock.utils;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+// Writes the same {status, statusCode, message, data: PageRes} body as ApiResponse.success(..., PageRes.of(page)),
+// one row at a time, so a large page goes out while the rows are still being read instead of after all of them.
+public class PageStreamWriter<T> implements Closeable {
+
+    private final JsonGenerator generator;
+
+    private final ObjectWriter rowWriter;
+
+    private final int page;
+
+    private final int size;
+
+    private final long totalElements;
+
+    public PageStreamWriter(OutputStream outputStream, ObjectMapper objectMapper, Class<T> rowType,
+                            String message, int page, int size, long totalElements) throws IOException {
+        this.generator = objectMapper.getFactory().createGenerator(outputStream);
+        this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // Rows only leave the generator's buffer when it fills up, not one flush per row.
+        this.rowWriter = objectMapper.writerFor(rowType).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.page = page;
+        this.size = size;
+        this.totalElements = totalElements;
+        generator.writeStartObject();
+        generator.writeStringField("status", "success");
+        generator.writeNumberField("statusCode", 200);
+        generator.writeStringField("message", message);
+        generator.writeObjectFieldStart("data");
+        generator.writeArrayFieldStart("content");
+    }
+
+    public void write(T row) {
+        try {
+            rowWriter.writeValue(generator, row);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.writeEndArray();
+        generator.writeNumberField("page", page);
+        generator.writeNumberField("size", size);
+        generator.writeNumberField("totalElements", totalElements);
+        generator.writeNumberField("totalPages", size == 0 ? 1 : (int) Math.ceil((double) totalElements / size));
+        generator.writeEndObject();
+        generator.writeEndObject();
+        generator.close();
+    }
+}
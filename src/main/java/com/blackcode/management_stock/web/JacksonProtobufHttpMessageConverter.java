@@ -0,0 +1,101 @@
+package com.blackcode.management_stock.web;
+
+import com.blackcode.management_stock.money.Money;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.introspect.Annotated;
+import com.fasterxml.jackson.databind.introspect.JacksonAnnotationIntrospector;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+import com.fasterxml.jackson.dataformat.protobuf.ProtobufMapper;
+import com.fasterxml.jackson.dataformat.protobuf.schema.ProtobufSchema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Writes and reads the regular DTOs as protobuf. The message schema is generated from the declared Java type
+// (ApiResponse<Page<ItemRes>> and so on) on first use and cached. Types protobuf cannot describe, such as maps and
+// the ApiResponse<Object> error bodies, are not offered in this format and negotiate to JSON or 406 instead.
+public class JacksonProtobufHttpMessageConverter extends AbstractJackson2HttpMessageConverter {
+
+    private static final Logger log = LoggerFactory.getLogger(JacksonProtobufHttpMessageConverter.class);
+
+    private final Map<JavaType, Optional<ProtobufSchema>> schemas = new ConcurrentHashMap<>();
+
+    public JacksonProtobufHttpMessageConverter() {
+        super(protobufMapper(), WireFormat.PROTOBUF.mediaType());
+    }
+
+    private static ProtobufMapper protobufMapper() {
+        ProtobufMapper mapper = new ProtobufMapper();
+        // Protobuf has no decimal type and a double would round amounts, so they travel as their exact text. Money
+        // names its JSON serializer on the class, which wins over module serializers, hence the introspector.
+        mapper.registerModule(new SimpleModule().addSerializer(BigDecimal.class, ToStringSerializer.instance));
+        mapper.setAnnotationIntrospector(new JacksonAnnotationIntrospector() {
+            @Override
+            public Object findSerializer(Annotated annotated) {
+                return annotated.getRawType() == Money.class ? ToStringSerializer.class : super.findSerializer(annotated);
+            }
+        });
+        return mapper;
+    }
+
+    public Optional<ProtobufSchema> schemaFor(Type type) {
+        return schemaFor(getObjectMapper().constructType(type));
+    }
+
+    private Optional<ProtobufSchema> schemaFor(JavaType javaType) {
+        return schemas.computeIfAbsent(javaType, type -> {
+            if (hasObjectParameter(type)) {
+                return Optional.empty();
+            }
+            try {
+                return Optional.of(((ProtobufMapper) getObjectMapper()).generateSchemaFor(type));
+            } catch (JsonMappingException | RuntimeException e) {
+                log.debug("No protobuf schema for {}: {}", type, e.getMessage());
+                return Optional.empty();
+            }
+        });
+    }
+
+    // ApiResponse<Object> (the error responses) would get an empty message for data and fail on anything put there.
+    private boolean hasObjectParameter(JavaType type) {
+        for (JavaType parameter : type.getBindings().getTypeParameters()) {
+            if (parameter.hasRawClass(Object.class) || hasObjectParameter(parameter)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return canRead(mediaType) && super.canRead(type, contextClass, mediaType)
+                && schemaFor(getJavaType(type, contextClass)).isPresent();
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        return canWrite(mediaType) && super.canWrite(type, clazz, mediaType)
+                && schemaFor(getJavaType(type != null ? type : clazz, null)).isPresent();
+    }
+
+    @Override
+    protected ObjectReader customizeReader(ObjectReader reader, JavaType javaType) {
+        return reader.with(schemaFor(javaType).orElseThrow());
+    }
+
+    @Override
+    protected ObjectWriter customizeWriter(ObjectWriter writer, JavaType javaType, MediaType contentType) {
+        return writer.with(schemaFor(javaType).orElseThrow());
+    }
+}
@@ -0,0 +1,61 @@
+package com.blackcode.management_stock.web;
+
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+// Response encodings on offer besides JSON. CBOR is the same document as JSON in a binary encoding; protobuf uses a
+// schema generated from the DTO classes (see /api/schemas).
+public enum WireFormat {
+
+    JSON(MediaType.APPLICATION_JSON, ""),
+    CBOR(MediaType.APPLICATION_CBOR, "cbor"),
+    PROTOBUF(new MediaType("application", "x-protobuf"), "proto");
+
+    private final MediaType mediaType;
+
+    private final String tag;
+
+    WireFormat(MediaType mediaType, String tag) {
+        this.mediaType = mediaType;
+        this.tag = tag;
+    }
+
+    public MediaType mediaType() {
+        return mediaType;
+    }
+
+    // Appended to strong ETags: the same resource in another format is another representation.
+    public String tag() {
+        return tag;
+    }
+
+    // Same outcome as content negotiation for the usual Accept headers: the highest-quality binary type named
+    // explicitly wins, anything else (including */* and no header) is JSON.
+    public static WireFormat negotiate(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return JSON;
+        }
+        List<MediaType> accepted;
+        try {
+            accepted = new ArrayList<>(MediaType.parseMediaTypes(accept));
+        } catch (InvalidMediaTypeException e) {
+            return JSON;
+        }
+        accepted.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+        for (MediaType mediaType : accepted) {
+            for (WireFormat format : values()) {
+                if (format.mediaType.equalsTypeAndSubtype(mediaType)) {
+                    return format;
+                }
+            }
+            if (mediaType.isWildcardType() || mediaType.isWildcardSubtype()) {
+                return JSON;
+            }
+        }
+        return JSON;
+    }
+}
@@ -0,0 +1,35 @@
+package com.blackcode.management_stock.web;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+// Spring MVC already serves application/cbor once jackson-dataformat-cbor is on the classpath. Protobuf is added
+// last so JSON stays the answer for Accept: */* and for clients that send no Accept header at all.
+@Configuration
+public class WireFormatConfig implements WebMvcConfigurer {
+
+    // Blackbird swaps Jackson's reflective getter and setter calls for generated lambdas. As a bean it goes into
+    // Spring Boot's ObjectMapper, which backs the JSON converter and the JSON exports.
+    @Bean
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new JacksonProtobufHttpMessageConverter());
+        // The CBOR and protobuf mappers are built outside Spring Boot and do not pick up module beans.
+        for (HttpMessageConverter<?> converter : converters) {
+            if (converter instanceof AbstractJackson2HttpMessageConverter jackson) {
+                jackson.getObjectMapper().registerModule(new BlackbirdModule());
+            }
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.blackcode.management_stock.admission;
+
+import com.blackcode.management_stock.exception.GlobalExceptionHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+public class AdmissionInterceptorTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private AdaptiveConcurrencyLimiter concurrencyLimiter;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        // A zero-length window makes every completed request close one, so the limit moves deterministically.
+        concurrencyLimiter = new AdaptiveConcurrencyLimiter(2, 1, 10, 2.0, 0.5, 0);
+        AdmissionInterceptor interceptor = new AdmissionInterceptor(new TokenBucketRateLimiter(2, 0.001, 100),
+                concurrencyLimiter, meterRegistry, "X-Client-Id");
+        mockMvc = MockMvcBuilders.standaloneSetup(new StubController())
+                .addMappedInterceptors(new String[]{"/api/orders/**"}, interceptor)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void mutations_overTheBurst_shouldGet429WithRetryAfter_perClient() throws Exception {
+        mockMvc.perform(post("/api/orders").header("X-Client-Id", "erp")).andExpect(status().isOk());
+        mockMvc.perform(post("/api/orders").header("X-Client-Id", "erp")).andExpect(status().isOk());
+
+        mockMvc.perform(post("/api/orders").header("X-Client-Id", "erp"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER))
+                .andExpect(jsonPath("$.status").value("error"))
+                .andExpect(jsonPath("$.statusCode").value(429));
+        mockMvc.perform(post("/api/orders").header("X-Client-Id", "pos")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/orders").header("X-Client-Id", "erp")).andExpect(status().isOk());
+
+        assertEquals(3, meterRegistry.get("stock.admission.requests").tag("outcome", "admitted").counter().count());
+        assertEquals(1, meterRegistry.get("stock.admission.requests").tag("outcome", "rate_limited").counter().count());
+    }
+
+    @Test
+    void mutations_overTheConcurrencyLimit_shouldGet503() throws Exception {
+        assertTrue(concurrencyLimiter.tryAcquire());
+        assertTrue(concurrencyLimiter.tryAcquire());
+
+        mockMvc.perform(post("/api/orders").header("X-Client-Id", "erp"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+                .andExpect(jsonPath("$.statusCode").value(503));
+
+        assertEquals(1, meterRegistry.get("stock.admission.requests").tag("outcome", "shed").counter().count());
+        assertEquals(2, meterRegistry.get("stock.admission.in_flight").gauge().value());
+    }
+
+    @Test
+    void concurrencyLimit_shouldShrinkWhenLatencyRises_andGrowBackWhenItIsReached() {
+        concurrencyLimiter = new AdaptiveConcurrencyLimiter(8, 1, 10, 2.0, 0.5, 0);
+
+        concurrencyLimiter.tryAcquire();
+        concurrencyLimiter.release(TimeUnit.MILLISECONDS.toNanos(5));
+        concurrencyLimiter.tryAcquire();
+        concurrencyLimiter.release(TimeUnit.MILLISECONDS.toNanos(50));
+        assertEquals(4, concurrencyLimiter.getLimit());
+
+        for (int i = 0; i < 4; i++) {
+            assertTrue(concurrencyLimiter.tryAcquire());
+        }
+        assertFalse(concurrencyLimiter.tryAcquire());
+        concurrencyLimiter.release(TimeUnit.MILLISECONDS.toNanos(5));
+        assertEquals(5, concurrencyLimiter.getLimit());
+    }
+
+    @RestController
+    @RequestMapping("/api/orders")
+    static class StubController {
+
+        @GetMapping
+        public String list() {
+            return "ok";
+        }
+
+        @PostMapping
+        public String create() {
+            return "ok";
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.blackcode.management_stock.admission;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TokenBucketRateLimiterTest {
+
+    @Test
+    void tryAcquire_shouldAllowTheBurst_thenAskTheClientToWait() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(3, 1, 100);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("client-a"));
+        }
+        long wait = limiter.tryAcquire("client-a");
+
+        assertTrue(wait > 0 && wait <= TimeUnit.SECONDS.toNanos(1), "wait was " + wait);
+        assertEquals(0, limiter.tryAcquire("client-b"));
+    }
+
+    @Test
+    void tryAcquire_shouldRefillOverTime() throws Exception {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, 50, 100);
+
+        assertEquals(0, limiter.tryAcquire("client-a"));
+        assertTrue(limiter.tryAcquire("client-a") > 0);
+        Thread.sleep(40);
+
+        assertEquals(0, limiter.tryAcquire("client-a"));
+    }
+
+    @Test
+    void tryAcquire_shouldNeverAdmitMoreThanTheBurst_underContention() throws Exception {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(50, 0.001, 100);
+        AtomicInteger admitted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            for (int thread = 0; thread < 8; thread++) {
+                executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 100; i++) {
+                        if (limiter.tryAcquire("client-a") == 0) {
+                            admitted.incrementAndGet();
+                        }
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        }
+
+        assertEquals(50, admitted.get());
+    }
+}
@@ -0,0 +1,150 @@
+package com.blackcode.management_stock.cache;
+
+import com.blackcode.management_stock.dto.ItemReq;
+import com.blackcode.management_stock.dto.ItemRes;
+import com.blackcode.management_stock.dto.ItemShardReq;
+import com.blackcode.management_stock.dto.OrderReq;
+import com.blackcode.management_stock.exception.NotEnoughStockException;
+import com.blackcode.management_stock.money.Money;
+import com.blackcode.management_stock.service.ItemService;
+import com.blackcode.management_stock.service.OrderService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:second-level-cache;DB_CLOSE_DELAY=-1")
+public class SecondLevelCacheTest {
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private TableStamps tableStamps;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void createOrder_shouldRejectOnTheDatabaseStock_whenTheCachedItemStillShowsMore() {
+        ItemRes item = itemService.createItem(new ItemReq("Cached A", Money.of(1000), 10));
+        itemService.getItemById(item.getItemId());
+        changeBehindHibernate(item.getItemId(), 2);
+        assertEquals(10, itemService.getItemById(item.getItemId()).getItemStock());
+        assertTrue(statistics.getSecondLevelCacheHitCount() > 0);
+
+        assertThrows(NotEnoughStockException.class, () ->
+                orderService.createOrder(new OrderReq(item.getItemId(), 5, Money.of(5000))));
+
+        // The write transaction read the row and refreshed the cached copy on the way.
+        assertEquals(2, itemService.getItemById(item.getItemId()).getItemStock());
+    }
+
+    @Test
+    void createOrder_shouldAcceptOnTheDatabaseStock_whenTheCachedItemStillShowsLess() {
+        ItemRes item = itemService.createItem(new ItemReq("Cached B", Money.of(1000), 2));
+        itemService.getItemById(item.getItemId());
+        changeBehindHibernate(item.getItemId(), 10);
+        assertEquals(2, itemService.getItemById(item.getItemId()).getItemStock());
+
+        orderService.createOrder(new OrderReq(item.getItemId(), 5, Money.of(5000)));
+
+        assertEquals(5, itemService.getItemById(item.getItemId()).getItemStock());
+    }
+
+    @Test
+    void createOrder_shouldTakeItemsWithStockSlotsFromTheCache() {
+        ItemRes item = itemService.createItem(new ItemReq("Cached Slots", Money.of(1000), 10));
+        itemService.updateStockShards(item.getItemId(), new ItemShardReq(2));
+        itemService.getItemById(item.getItemId());
+        statistics.clear();
+
+        orderService.createOrder(new OrderReq(item.getItemId(), 3, Money.of(3000)));
+
+        assertTrue(statistics.getSecondLevelCacheHitCount() > 0);
+        assertEquals(7, itemService.getItemById(item.getItemId()).getItemStock());
+    }
+
+    @Test
+    void createOrder_shouldLeaveOtherCachedItemsInTheCache() {
+        ItemRes ordered = itemService.createItem(new ItemReq("Ordered", Money.of(1000), 10));
+        ItemRes slotted = itemService.createItem(new ItemReq("Ordered Slots", Money.of(1000), 10));
+        itemService.updateStockShards(slotted.getItemId(), new ItemShardReq(2));
+        ItemRes bystander = itemService.createItem(new ItemReq("Bystander", Money.of(1000), 10));
+        itemService.getItemById(bystander.getItemId());
+
+        // Both orders write native SQL (the sales rollup, and the stock slots for the second one).
+        orderService.createOrder(new OrderReq(ordered.getItemId(), 1, Money.of(1000)));
+        orderService.createOrder(new OrderReq(slotted.getItemId(), 1, Money.of(1000)));
+
+        statistics.clear();
+        itemService.getItemById(bystander.getItemId());
+        assertEquals(1, statistics.getSecondLevelCacheHitCount());
+        assertEquals(0, statistics.getSecondLevelCacheMissCount());
+    }
+
+    @Test
+    void createOrder_shouldMoveTheListStamp_butNotTheCatalogStamp() {
+        ItemRes item = itemService.createItem(new ItemReq("Stock Only", Money.of(1000), 10));
+        long items = tableStamps.read(TableStamps.ITEMS);
+        long catalog = tableStamps.read(TableStamps.ITEM_CATALOG);
+
+        orderService.createOrder(new OrderReq(item.getItemId(), 1, Money.of(1000)));
+
+        assertTrue(tableStamps.read(TableStamps.ITEMS) > items);
+        assertEquals(catalog, tableStamps.read(TableStamps.ITEM_CATALOG));
+    }
+
+    @Test
+    void getAllItems_shouldServeRepeatedPagesFromTheQueryCache_untilTheCatalogStampMoves() {
+        ItemRes item = itemService.createItem(new ItemReq("Listed", Money.of(1000), 3));
+        ItemRes other = itemService.createItem(new ItemReq("Listed Too", Money.of(1000), 3));
+        itemService.getAllItems(0, 1000);
+        itemService.getAllItems(0, 1000);
+        assertTrue(statistics.getQueryCacheHitCount() > 0);
+        assertFalse(meterRegistry.find("hibernate.cache.query.requests").meters().isEmpty());
+
+        jdbcTemplate.update("UPDATE tb_item SET item_name = ?, version = version + 1 WHERE item_id = ?",
+                "Renamed", item.getItemId());
+        tableStamps.touch(TableStamps.ITEM_CATALOG);
+
+        ItemRes listed = itemService.getAllItems(0, 1000).getContent().stream()
+                .filter(res -> res.getItemId().equals(item.getItemId())).findFirst().orElseThrow();
+        assertEquals("Renamed", listed.getItemName());
+        // The listing reloaded the renamed row into the cache, and the unchanged item was never evicted.
+        statistics.clear();
+        assertEquals("Renamed", itemService.getItemById(item.getItemId()).getItemName());
+        assertEquals("Listed Too", itemService.getItemById(other.getItemId()).getItemName());
+        assertEquals(2, statistics.getSecondLevelCacheHitCount());
+        assertEquals(0, statistics.getSecondLevelCacheMissCount());
+    }
+
+    // What a write from another instance looks like to this one: the row and its version move, the cache does not.
+    private void changeBehindHibernate(Long itemId, int stock) {
+        jdbcTemplate.update("UPDATE tb_item SET item_stock = ?, version = version + 1 WHERE item_id = ?", stock, itemId);
+    }
+}
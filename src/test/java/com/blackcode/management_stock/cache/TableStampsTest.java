@@ -0,0 +1,139 @@
+package com.blackcode.management_stock.cache;
+
+import com.blackcode.management_stock.datasource.ShardRouter;
+import com.blackcode.management_stock.model.Item;
+import com.blackcode.management_stock.money.Money;
+import com.blackcode.management_stock.repository.ItemRepository;
+import com.blackcode.management_stock.repository.ItemStockSlotRepository;
+import com.blackcode.management_stock.service.StockSlotService;
+import com.blackcode.management_stock.service.impl.StockSlotServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import({TableStamps.class, ShardRouter.class, StockSlotServiceImpl.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class TableStampsTest {
+
+    @Autowired
+    private TableStamps tableStamps;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private ItemStockSlotRepository itemStockSlotRepository;
+
+    @Autowired
+    private StockSlotService stockSlotService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        itemStockSlotRepository.deleteAll();
+        itemRepository.deleteAll();
+    }
+
+    @Test
+    void itemWrites_shouldBumpTheStampOncePerTransaction_andBumpTheItemVersion() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        long before = tableStamps.read(TableStamps.ITEMS);
+
+        Item item = tx.execute(status -> {
+            Item a = itemRepository.save(new Item(null, "Item A", Money.of(10000), 10));
+            itemRepository.save(new Item(null, "Item B", Money.of(20000), 5));
+            return a;
+        });
+        assertEquals(before + 1, tableStamps.read(TableStamps.ITEMS));
+        assertEquals(0L, item.getVersion());
+
+        itemRepository.findAll();
+        assertEquals(before + 1, tableStamps.read(TableStamps.ITEMS));
+
+        tx.executeWithoutResult(status -> itemRepository.findById(item.getItemId()).orElseThrow().setItemStock(9));
+        assertEquals(before + 2, tableStamps.read(TableStamps.ITEMS));
+        assertEquals(1L, itemRepository.findById(item.getItemId()).orElseThrow().getVersion());
+    }
+
+    @Test
+    void rolledBackWrites_shouldLeaveTheStampAlone() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        long before = tableStamps.read(TableStamps.ITEMS);
+
+        tx.executeWithoutResult(status -> {
+            itemRepository.save(new Item(null, "Item A", Money.of(10000), 10));
+            status.setRollbackOnly();
+        });
+
+        assertEquals(before, tableStamps.read(TableStamps.ITEMS));
+    }
+
+    @Test
+    void slotDecrements_shouldBumpTheStamp_althoughTheyAreNativeUpdates() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        Item item = tx.execute(status -> {
+            Item saved = itemRepository.save(new Item(null, "Sharded", Money.of(10000), 10));
+            stockSlotService.reshard(saved, 2);
+            return itemRepository.save(saved);
+        });
+        long before = tableStamps.read(TableStamps.ITEMS);
+
+        tx.executeWithoutResult(status -> stockSlotService.take(item, 1));
+
+        assertEquals(before + 1, tableStamps.read(TableStamps.ITEMS));
+        assertEquals(9, itemStockSlotRepository.sumQuantity(item.getItemId()));
+    }
+
+    @Test
+    void stockOnlyUpdates_shouldLeaveTheCatalogStampAlone() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        Item item = tx.execute(status -> itemRepository.save(new Item(null, "Item A", Money.of(10000), 10)));
+        long catalog = tableStamps.read(TableStamps.ITEM_CATALOG);
+
+        tx.executeWithoutResult(status -> itemRepository.findById(item.getItemId()).orElseThrow().setItemStock(9));
+        assertEquals(catalog, tableStamps.read(TableStamps.ITEM_CATALOG));
+
+        tx.executeWithoutResult(status -> itemRepository.findById(item.getItemId()).orElseThrow().setItemName("Item B"));
+        assertEquals(catalog + 1, tableStamps.read(TableStamps.ITEM_CATALOG));
+    }
+
+    @Test
+    void touch_shouldSpreadBumpsOverTheStripes_andReadTheirSum() {
+        long before = tableStamps.read(TableStamps.ITEMS);
+        List<Long> stripesBefore = stripes();
+
+        for (int i = 0; i < 100; i++) {
+            tableStamps.touch(TableStamps.ITEMS);
+        }
+
+        assertEquals(before + 100, tableStamps.read(TableStamps.ITEMS));
+        List<Long> stripesAfter = stripes();
+        assertEquals(TableStamps.STRIPES, stripesAfter.size());
+        long bumpedStripes = IntStream.range(0, TableStamps.STRIPES)
+                .filter(stripe -> stripesAfter.get(stripe) > stripesBefore.get(stripe)).count();
+        assertTrue(bumpedStripes > 1, "all bumps landed on one row");
+    }
+
+    private List<Long> stripes() {
+        return jdbcTemplate.queryForList(
+                "SELECT stamp FROM tb_table_stamp WHERE table_name = ? ORDER BY stripe", Long.class, TableStamps.ITEMS);
+    }
+}
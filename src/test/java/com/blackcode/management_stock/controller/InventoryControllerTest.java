@@ -6,7 +6,9 @@ import com.blackcode.management_stock.dto.ItemRes;
 import com.blackcode.management_stock.exception.DataNotFoundException;
 import com.blackcode.management_stock.exception.GlobalExceptionHandler;
 import com.blackcode.management_stock.model.InventoryType;
+import com.blackcode.management_stock.money.Money;
 import com.blackcode.management_stock.service.InventoryService;
+import com.blackcode.management_stock.utils.ExportFormat;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -15,21 +17,27 @@ import org.mockito.MockitoAnnotations;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
-import java.math.BigDecimal;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 
 import static org.hamcrest.Matchers.nullValue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
-
 public class InventoryControllerTest {
     private MockMvc mockMvc;
 
@@ -43,7 +51,7 @@ public class InventoryControllerTest {
     @BeforeEach
     void setup() {
         MockitoAnnotations.openMocks(this);
-        inventoryController = new InventoryController(inventoryService);
+        inventoryController = new InventoryController(inventoryService, 500);
         mockMvc = MockMvcBuilders.standaloneSetup(inventoryController)
                 .setControllerAdvice(new GlobalExceptionHandler())
                 .build();
@@ -51,8 +59,8 @@ public class InventoryControllerTest {
 
     @Test
     void getInventoryListAll_shouldReturnPagedInventory() throws Exception {
-        ItemRes item1 = new ItemRes(1L, "Item A", new BigDecimal("10000"), 10);
-        ItemRes item2 = new ItemRes(2L, "Item B", new BigDecimal("20000"), 20);
+        ItemRes item1 = new ItemRes(1L, "Item A", Money.of(10000), 10);
+        ItemRes item2 = new ItemRes(2L, "Item B", Money.of(20000), 20);
         InventoryRes inventory1 = new InventoryRes(1L, item1, 10, "T");
         InventoryRes inventory2 = new InventoryRes(2L, item2, 15, "W");
 
@@ -86,7 +94,7 @@ public class InventoryControllerTest {
 
     @Test
     void getInventoryFindById_shouldReturnInventory() throws Exception {
-        ItemRes item = new ItemRes(1L, "Item A", new BigDecimal("10000"), 10);
+        ItemRes item = new ItemRes(1L, "Item A", Money.of(10000), 10);
         InventoryRes inventoryRes = new InventoryRes(1L, item, 15, "T");
         when(inventoryService.getInventoryById(1L)).thenReturn(inventoryRes);
 
@@ -110,7 +118,7 @@ public class InventoryControllerTest {
     void addInventory_shouldCreateAndReturnInventory() throws Exception {
         InventoryReq inventoryReq = new InventoryReq(1L, 20, InventoryType.T);
 
-        ItemRes item = new ItemRes(1L, "Item A", new BigDecimal("10000"), 10);
+        ItemRes item = new ItemRes(1L, "Item A", Money.of(10000), 10);
         InventoryRes inventoryRes = new InventoryRes(1L, item, 20, "T");
 
         when(inventoryService.createInventory(any(InventoryReq.class))).thenReturn(inventoryRes);
@@ -135,7 +143,7 @@ public class InventoryControllerTest {
     void updateInventory_shouldUpdateAndReturnInventory() throws Exception {
         InventoryReq inventoryReq = new InventoryReq(1L, 25, InventoryType.W);
 
-        ItemRes item = new ItemRes(1L, "Item A", new BigDecimal("10000"), 10);
+        ItemRes item = new ItemRes(1L, "Item A", Money.of(10000), 10);
         InventoryRes inventoryRes = new InventoryRes(1L, item, 25, "W");
 
         when(inventoryService.updateInventory(eq(1L), any(InventoryReq.class))).thenReturn(inventoryRes);
@@ -175,7 +183,6 @@ public class InventoryControllerTest {
                 .andExpect(jsonPath("$.data.info").value("The inventory was removed from the database."));
     }
 
-
     @Test
     void getInventoryFindById_shouldReturnNotFound_whenInventoryDoesNotExist() throws Exception {
         when(inventoryService.getInventoryById(999L)).thenThrow(new DataNotFoundException("Inventory not found with id: 999"));
@@ -188,8 +195,6 @@ public class InventoryControllerTest {
                 .andExpect(jsonPath("$.data", nullValue()));
     }
 
-
-
     @Test
     void addInventory_shouldFailValidation_whenFieldsInvalid() throws Exception {
         InventoryReq invalidReq = new InventoryReq(null, -999, null);
@@ -276,4 +281,47 @@ public class InventoryControllerTest {
                 .andExpect(jsonPath("$.data", nullValue()));
 
     }
+
+    @Test
+    void exportInventory_shouldStreamCsvAttachment() throws Exception {
+        doAnswer(invocation -> {
+            OutputStream outputStream = invocation.getArgument(1);
+            outputStream.write("inventoryId,itemId,itemName,inventoryQty,inventoryType\n1,1,Item A,10,T\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(inventoryService).exportInventory(eq(ExportFormat.CSV), any(OutputStream.class));
+
+        MvcResult mvcResult = mockMvc.perform(get("/api/inventory/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv"))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"inventory.csv\""))
+                .andExpect(content().string("inventoryId,itemId,itemName,inventoryQty,inventoryType\n1,1,Item A,10,T\n"));
+    }
+
+    @Test
+    void getInventoryListAll_largeJsonPage_shouldBeStreamedByTheService() throws Exception {
+        doAnswer(invocation -> {
+            OutputStream outputStream = invocation.getArgument(2);
+            outputStream.write("{\"status\":\"success\",\"data\":{\"content\":[]}}".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(inventoryService).writeInventoryPage(eq(0), eq(1000), any(OutputStream.class));
+
+        mockMvc.perform(get("/api/inventory").param("size", "1000"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.status").value("success"));
+
+        verify(inventoryService, never()).getAllInventory(anyInt(), anyInt());
+    }
+
+    @Test
+    void exportInventory_shouldRejectUnknownFormat() throws Exception {
+        mockMvc.perform(get("/api/inventory/export").param("format", "XML"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value("error"))
+                .andExpect(jsonPath("$.statusCode").value(400));
+    }
 }
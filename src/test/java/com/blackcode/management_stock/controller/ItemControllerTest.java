@@ -1,9 +1,14 @@
 package com.blackcode.management_stock.controller;
 
+import com.blackcode.management_stock.dto.CatalogSyncReport;
+import com.blackcode.management_stock.dto.ItemPatchReq;
 import com.blackcode.management_stock.dto.ItemReq;
 import com.blackcode.management_stock.dto.ItemRes;
+import com.blackcode.management_stock.dto.ItemShardReq;
 import com.blackcode.management_stock.exception.DataNotFoundException;
 import com.blackcode.management_stock.exception.GlobalExceptionHandler;
+import com.blackcode.management_stock.money.Money;
+import com.blackcode.management_stock.service.CatalogSyncService;
 import com.blackcode.management_stock.service.ItemService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -17,12 +22,11 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
-import java.math.BigDecimal;
 import java.util.*;
 
 import static org.hamcrest.Matchers.nullValue;
 import static org.mockito.ArgumentMatchers.*;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -33,6 +37,9 @@ public class ItemControllerTest {
     @Mock
     private ItemService itemService;
 
+    @Mock
+    private CatalogSyncService catalogSyncService;
+
     private ObjectMapper objectMapper = new ObjectMapper();
 
     private ItemController itemController;
@@ -40,7 +47,7 @@ public class ItemControllerTest {
     @BeforeEach
     void setup() {
         MockitoAnnotations.openMocks(this);
-        itemController = new ItemController(itemService);
+        itemController = new ItemController(itemService, catalogSyncService);
         mockMvc = MockMvcBuilders.standaloneSetup(itemController)
                 .setControllerAdvice(new GlobalExceptionHandler())
                 .build();
@@ -48,8 +55,8 @@ public class ItemControllerTest {
 
     @Test
     void getItemListAll_shouldReturnPagedItems() throws Exception {
-        ItemRes item1 = new ItemRes(1L, "Item A", new BigDecimal("10000"), 10);
-        ItemRes item2 = new ItemRes(2L, "Item B", new BigDecimal("50000"), 5);
+        ItemRes item1 = new ItemRes(1L, "Item A", Money.of(10000), 10);
+        ItemRes item2 = new ItemRes(2L, "Item B", Money.of(50000), 5);
 
         List<ItemRes> itemResList = Arrays.asList(item1, item2);
         Page<ItemRes> mockPage = new PageImpl<>(itemResList, PageRequest.of(0, 10), 2);
@@ -75,7 +82,7 @@ public class ItemControllerTest {
 
     @Test
     void getItemById_shouldReturnItem() throws Exception {
-        ItemRes mockRes = new ItemRes(1L, "Item A", new BigDecimal("10000"), 10);
+        ItemRes mockRes = new ItemRes(1L, "Item A", Money.of(10000), 10);
 
         when(itemService.getItemById(1L)).thenReturn(mockRes);
 
@@ -91,11 +98,53 @@ public class ItemControllerTest {
                 .andExpect(jsonPath("$.data.itemStock").value(10));
     }
 
+    @Test
+    void getItemListAll_shouldAnswerNotModified_withoutLoadingThePage_whenStampMatches() throws Exception {
+        when(itemService.getItemsVersion()).thenReturn(7L);
+        when(itemService.getAllItems(0, 10)).thenReturn(new PageImpl<>(List.of(), PageRequest.of(0, 10), 0));
+
+        mockMvc.perform(get("/api/items"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"items-7\""));
+
+        mockMvc.perform(get("/api/items").header("If-None-Match", "\"items-7\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"items-7\""))
+                .andExpect(content().string(""));
+        verify(itemService, times(1)).getAllItems(0, 10);
+
+        when(itemService.getItemsVersion()).thenReturn(8L);
+        mockMvc.perform(get("/api/items").header("If-None-Match", "\"items-7\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"items-8\""));
+    }
+
+    @Test
+    void getItemById_shouldAnswerNotModified_whenVersionMatches() throws Exception {
+        ItemRes itemRes = new ItemRes(1L, "Item A", Money.of(10000), 10);
+        itemRes.setVersion(3L);
+        when(itemService.getItemById(1L)).thenReturn(itemRes);
+
+        mockMvc.perform(get("/api/items/{id}", 1L))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1-3-10\""))
+                .andExpect(jsonPath("$.data.version").value(3));
+
+        mockMvc.perform(get("/api/items/{id}", 1L).header("If-None-Match", "\"1-3-10\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        itemRes.setItemStock(9);
+        mockMvc.perform(get("/api/items/{id}", 1L).header("If-None-Match", "\"1-3-10\""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.itemStock").value(9));
+    }
+
     @Test
     void addItem_shouldCreateAndReturnItem() throws Exception {
-        ItemReq itemReq = new ItemReq("Item A", new BigDecimal("10000"), 10);
+        ItemReq itemReq = new ItemReq("Item A", Money.of(10000), 10);
 
-        ItemRes itemRes = new ItemRes(1L, "Item A", new BigDecimal("10000"), 10);
+        ItemRes itemRes = new ItemRes(1L, "Item A", Money.of(10000), 10);
 
         when(itemService.createItem(any(ItemReq.class))).thenReturn(itemRes);
 
@@ -114,8 +163,8 @@ public class ItemControllerTest {
 
     @Test
     void updateItem_shouldUpdateAndReturnItem() throws Exception {
-        ItemReq itemReq = new ItemReq("Item A", new BigDecimal("20000"), 10);
-        ItemRes itemRes = new ItemRes(1L, "Item A", new BigDecimal("20000"), 10);
+        ItemReq itemReq = new ItemReq("Item A", Money.of(20000), 10);
+        ItemRes itemRes = new ItemRes(1L, "Item A", Money.of(20000), 10);
 
         when(itemService.updateItem(eq(1L), any(ItemReq.class))).thenReturn(itemRes);
 
@@ -132,6 +181,57 @@ public class ItemControllerTest {
                 .andExpect(jsonPath("$.data.itemStock").value(10));
     }
 
+    @Test
+    void patchItem_shouldPassOnlyTheGivenFields() throws Exception {
+        ItemRes itemRes = new ItemRes(1L, "Item A", Money.of(12500), 10);
+
+        when(itemService.patchItem(eq(1L), argThat(req -> req.getItemName() == null
+                && Money.of(12500).equals(req.getItemPrice()) && req.getItemStock() == null))).thenReturn(itemRes);
+
+        mockMvc.perform(patch("/api/items/{id}", 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"itemPrice\": 12500}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Item updated successfully"))
+                .andExpect(jsonPath("$.data.itemPrice").value(12500))
+                .andExpect(jsonPath("$.data.itemStock").value(10));
+    }
+
+    @Test
+    void patchItem_shouldRejectABlankName() throws Exception {
+        mockMvc.perform(patch("/api/items/{id}", 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"itemName\": \"  \"}"))
+                .andExpect(status().isBadRequest());
+
+        verify(itemService, never()).patchItem(any(), any(ItemPatchReq.class));
+    }
+
+    @Test
+    void patchItem_shouldRejectAnEmptyPatch() throws Exception {
+        mockMvc.perform(patch("/api/items/{id}", 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isBadRequest());
+
+        verify(itemService, never()).patchItem(any(), any(ItemPatchReq.class));
+    }
+
+    @Test
+    void syncCatalog_shouldStreamTheBodyAndReturnTheReport() throws Exception {
+        CatalogSyncReport report = new CatalogSyncReport(5, 2, 1, 1, 0, 0, List.of(), List.of());
+
+        when(catalogSyncService.syncCatalog(any())).thenReturn(report);
+
+        mockMvc.perform(put("/api/items/catalog")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"itemId\":1,\"itemName\":\"Item A\",\"itemPrice\":10000}\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Catalog synced successfully"))
+                .andExpect(jsonPath("$.data.received").value(2))
+                .andExpect(jsonPath("$.data.updated").value(1));
+    }
+
     @Test
     void deleteItem_shouldReturnSuccessMessage() throws Exception {
         Map<String, Object> result = new HashMap<>();
@@ -150,7 +250,6 @@ public class ItemControllerTest {
                 .andExpect(jsonPath("$.data.info").value("The Item was removed from the database."));
     }
 
-
     @Test
     void getItemById_shouldReturnNotFound_whenItemDoesNotExist() throws Exception {
         when(itemService.getItemById(999L)).thenThrow(new DataNotFoundException("Item not found with id: 999"));
@@ -165,7 +264,7 @@ public class ItemControllerTest {
 
     @Test
     void addItem_shouldFailValidation_whenAllFieldsInvalid() throws Exception {
-        ItemReq invalidItemReq = new ItemReq("", new BigDecimal("-1000"), 0);
+        ItemReq invalidItemReq = new ItemReq("", Money.of(-1000), 0);
 
         mockMvc.perform(post("/api/items")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -179,9 +278,21 @@ public class ItemControllerTest {
                 .andExpect(jsonPath("$.data.itemStock").value("Stok tidak boleh kurang dari 1"));
     }
 
+    @Test
+    void addItem_shouldRejectAPriceWithAHugeExponent() throws Exception {
+        mockMvc.perform(post("/api/items")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"itemName\": \"Item A\", \"itemPrice\": 1e100000000, \"itemStock\": 10}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.statusCode").value(400))
+                .andExpect(jsonPath("$.message").value("Format request tidak valid"));
+
+        verify(itemService, never()).createItem(any(ItemReq.class));
+    }
+
     @Test
     void addItem_shouldFailValidation_whenItemNameIsBlank() throws Exception {
-        ItemReq invalidItemReq = new ItemReq("", new BigDecimal("10000"), 10);
+        ItemReq invalidItemReq = new ItemReq("", Money.of(10000), 10);
         mockMvc.perform(post("/api/items")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(invalidItemReq)))
@@ -208,7 +319,7 @@ public class ItemControllerTest {
 
     @Test
     void addItem_shouldFailValidation_whenItemStockIsNull() throws Exception {
-        ItemReq invalidItemReq = new ItemReq("Item A", new BigDecimal("10000"), null);
+        ItemReq invalidItemReq = new ItemReq("Item A", Money.of(10000), null);
 
         mockMvc.perform(post("/api/items")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -223,7 +334,7 @@ public class ItemControllerTest {
 
     @Test
     void updateItem_shouldFailValidation_whenFieldsAreInvalid() throws Exception {
-        ItemReq invalidReq = new ItemReq("", new BigDecimal("-5000"), 0);
+        ItemReq invalidReq = new ItemReq("", Money.of(-5000), 0);
 
         mockMvc.perform(put("/api/items/{id}", 1L)
                         .contentType(MediaType.APPLICATION_JSON)
@@ -249,4 +360,25 @@ public class ItemControllerTest {
                 .andExpect(jsonPath("$.data", nullValue()));
     }
 
+    @Test
+    void updateStockShards_shouldReturnItemWithSummedStock() throws Exception {
+        ItemRes itemRes = new ItemRes(1L, "Item A", Money.of(10000), 40);
+        when(itemService.updateStockShards(eq(1L), any(ItemShardReq.class))).thenReturn(itemRes);
+
+        mockMvc.perform(put("/api/items/{id}/shards", 1)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new ItemShardReq(8))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Item stock shards updated successfully"))
+                .andExpect(jsonPath("$.data.itemStock").value(40));
+    }
+
+    @Test
+    void updateStockShards_shouldFailValidation_whenShardsOutOfRange() throws Exception {
+        mockMvc.perform(put("/api/items/{id}/shards", 1)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new ItemShardReq(65))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.data.shards").value("Jumlah shard maksimal 64"));
+    }
 }
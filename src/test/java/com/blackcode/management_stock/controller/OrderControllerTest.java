@@ -1,11 +1,17 @@
 package com.blackcode.management_stock.controller;
 
 import com.blackcode.management_stock.dto.ItemDto;
+import com.blackcode.management_stock.dto.OrderBasketReq;
+import com.blackcode.management_stock.dto.OrderBasketRes;
+import com.blackcode.management_stock.dto.OrderLineReq;
+import com.blackcode.management_stock.dto.OrderLineRes;
 import com.blackcode.management_stock.dto.OrderReq;
 import com.blackcode.management_stock.dto.OrderRes;
 import com.blackcode.management_stock.exception.DataNotFoundException;
 import com.blackcode.management_stock.exception.GlobalExceptionHandler;
+import com.blackcode.management_stock.money.Money;
 import com.blackcode.management_stock.service.OrderService;
+import com.blackcode.management_stock.utils.ExportFormat;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,21 +20,27 @@ import org.mockito.MockitoAnnotations;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
-import java.math.BigDecimal;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 
 import static org.hamcrest.Matchers.nullValue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
-
 public class OrderControllerTest {
 
     private MockMvc mockMvc;
@@ -43,7 +55,7 @@ public class OrderControllerTest {
     @BeforeEach
     void setup() {
         MockitoAnnotations.openMocks(this);
-        orderController = new OrderController(orderService);
+        orderController = new OrderController(orderService, 500);
 
         mockMvc = MockMvcBuilders.standaloneSetup(orderController)
                 .setControllerAdvice(new GlobalExceptionHandler())
@@ -52,11 +64,11 @@ public class OrderControllerTest {
 
     @Test
     void getOrderListAll_shouldReturnPagedItems() throws Exception {
-        ItemDto item1 = new ItemDto(1L, "Item A", new BigDecimal(10000));
-        ItemDto item2 = new ItemDto(2L, "Item B", new BigDecimal(20000));
+        ItemDto item1 = new ItemDto(1L, "Item A", Money.of(10000));
+        ItemDto item2 = new ItemDto(2L, "Item B", Money.of(20000));
 
-        OrderRes order1 = new OrderRes("O001", item1, 2, new BigDecimal(20000));
-        OrderRes order2 = new OrderRes("O002", item2, 2, new BigDecimal(40000));
+        OrderRes order1 = new OrderRes("O001", item1, 2, Money.of(20000));
+        OrderRes order2 = new OrderRes("O002", item2, 2, Money.of(40000));
 
         List<OrderRes> orderResList = Arrays.asList(order1, order2);
         Page<OrderRes> mockPage = new PageImpl<>(orderResList, PageRequest.of(0, 10), 2);
@@ -86,8 +98,8 @@ public class OrderControllerTest {
 
     @Test
     void getOrderById_shouldReturnOrder() throws Exception {
-        ItemDto item = new ItemDto(1L, "Item A", new BigDecimal(10000));
-        OrderRes orderRes = new OrderRes("O001", item, 2, new BigDecimal(20000));
+        ItemDto item = new ItemDto(1L, "Item A", Money.of(10000));
+        OrderRes orderRes = new OrderRes("O001", item, 2, Money.of(20000));
 
         when(orderService.getOrderById("O001")).thenReturn(orderRes);
         mockMvc.perform(get("/api/orders/{id}", "O001")
@@ -106,9 +118,9 @@ public class OrderControllerTest {
 
     @Test
     void addOrder_shouldCreateAndReturnOrder() throws Exception {
-        OrderReq orderReq = new OrderReq(1L, 10, new BigDecimal(10000));
-        ItemDto item = new ItemDto(1L, "Item A", new BigDecimal(10000));
-        OrderRes orderRes = new OrderRes("O001", item, 2, new BigDecimal(20000));
+        OrderReq orderReq = new OrderReq(1L, 10, Money.of(10000));
+        ItemDto item = new ItemDto(1L, "Item A", Money.of(10000));
+        OrderRes orderRes = new OrderRes("O001", item, 2, Money.of(20000));
 
         when(orderService.createOrder(any(OrderReq.class))).thenReturn(orderRes);
 
@@ -129,9 +141,9 @@ public class OrderControllerTest {
 
     @Test
     void updateOrder_shouldUpdateAndReturnOrder() throws Exception {
-        OrderReq orderReq = new OrderReq(1L, 3, new BigDecimal(30000));
-        ItemDto item = new ItemDto(1L, "Item A", new BigDecimal(10000));
-        OrderRes orderRes = new OrderRes("O001", item, 3, new BigDecimal(30000));
+        OrderReq orderReq = new OrderReq(1L, 3, Money.of(30000));
+        ItemDto item = new ItemDto(1L, "Item A", Money.of(10000));
+        OrderRes orderRes = new OrderRes("O001", item, 3, Money.of(30000));
 
         when(orderService.updateOrder(eq("O001"), any(OrderReq.class))).thenReturn(orderRes);
 
@@ -201,7 +213,7 @@ public class OrderControllerTest {
     @Test
     void addOrder_shouldFailValidation_whenItemIdIsNull() throws Exception {
 
-        OrderReq invalidOrderReq = new OrderReq(null, 1, new BigDecimal(10000));
+        OrderReq invalidOrderReq = new OrderReq(null, 1, Money.of(10000));
         mockMvc.perform(post("/api/orders")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(invalidOrderReq)))
@@ -214,7 +226,7 @@ public class OrderControllerTest {
 
     @Test
     void addItem_shouldFailValidation_whenOrderQtyValid() throws Exception {
-        OrderReq invalidOrderReq = new OrderReq(1L, -999, new BigDecimal(10000));
+        OrderReq invalidOrderReq = new OrderReq(1L, -999, Money.of(10000));
 
         mockMvc.perform(post("/api/orders")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -270,4 +282,113 @@ public class OrderControllerTest {
 
     }
 
+    @Test
+    void exportOrder_shouldStreamCsvAttachment() throws Exception {
+        doAnswer(invocation -> {
+            OutputStream outputStream = invocation.getArgument(1);
+            outputStream.write("orderNo,itemId,itemName,itemPrice,orderQty,price\nO001,1,Item A,10000,2,20000\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(orderService).exportOrders(eq(ExportFormat.CSV), any(OutputStream.class));
+
+        MvcResult mvcResult = mockMvc.perform(get("/api/orders/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv"))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"orders.csv\""))
+                .andExpect(content().string("orderNo,itemId,itemName,itemPrice,orderQty,price\nO001,1,Item A,10000,2,20000\n"));
+    }
+
+    @Test
+    void getOrderListAll_largePage_shouldStayBuilt_whenAnotherFormatIsAsked() throws Exception {
+        Page<OrderRes> empty = new PageImpl<>(List.of(), PageRequest.of(0, 1000), 0);
+        when(orderService.getAllOrders(0, 1000)).thenReturn(empty);
+
+        mockMvc.perform(get("/api/orders").param("size", "1000").accept("application/cbor", "application/json;q=0.5"))
+                .andExpect(status().isOk());
+
+        verify(orderService, never()).writeOrderPage(anyInt(), anyInt(), any(OutputStream.class));
+    }
+
+    @Test
+    void getOrderListAll_largeJsonPage_shouldBeStreamedByTheService() throws Exception {
+        doAnswer(invocation -> {
+            OutputStream outputStream = invocation.getArgument(2);
+            outputStream.write("{\"status\":\"success\",\"data\":{\"content\":[]}}".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(orderService).writeOrderPage(eq(0), eq(1000), any(OutputStream.class));
+
+        mockMvc.perform(get("/api/orders").param("size", "1000").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.status").value("success"));
+
+        verify(orderService, never()).getAllOrders(anyInt(), anyInt());
+    }
+
+    @Test
+    void exportOrder_shouldRejectUnknownFormat() throws Exception {
+        mockMvc.perform(get("/api/orders/export").param("format", "XML"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value("error"))
+                .andExpect(jsonPath("$.statusCode").value(400));
+    }
+
+    @Test
+    void addBasketOrder_shouldCreateAndReturnLines() throws Exception {
+        OrderBasketReq req = new OrderBasketReq(List.of(
+                new OrderLineReq(1L, 2, Money.of(20000)),
+                new OrderLineReq(2L, 1, Money.of(5000))));
+        OrderBasketRes res = new OrderBasketRes("O001", 3, Money.of(25000), List.of(
+                new OrderLineRes(1, new ItemDto(1L, "Item A", Money.of(10000)), 2, Money.of(20000)),
+                new OrderLineRes(2, new ItemDto(2L, "Item B", Money.of(5000)), 1, Money.of(5000))));
+
+        when(orderService.createBasketOrder(any(OrderBasketReq.class))).thenReturn(res);
+
+        mockMvc.perform(post("/api/orders/basket")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(req)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.status").value("success"))
+                .andExpect(jsonPath("$.message").value("Order created successfully"))
+                .andExpect(jsonPath("$.statusCode").value(201))
+                .andExpect(jsonPath("$.data.orderNo").value("O001"))
+                .andExpect(jsonPath("$.data.totalQty").value(3))
+                .andExpect(jsonPath("$.data.totalPrice").value(25000))
+                .andExpect(jsonPath("$.data.lines[1].lineNo").value(2))
+                .andExpect(jsonPath("$.data.lines[1].item.itemId").value(2))
+                .andExpect(jsonPath("$.data.lines[1].price").value(5000));
+    }
+
+    @Test
+    void addBasketOrder_shouldFailValidation_whenLinesEmptyOrInvalid() throws Exception {
+        mockMvc.perform(post("/api/orders/basket")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new OrderBasketReq(List.of()))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Validation failed"))
+                .andExpect(jsonPath("$.data.lines").value("Order line tidak boleh kosong"));
+
+        OrderBasketReq invalidLine = new OrderBasketReq(List.of(new OrderLineReq(null, 0, null)));
+        mockMvc.perform(post("/api/orders/basket")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(invalidLine)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.data['lines[0].itemId']").value("Item ID tidak boleh kosong"))
+                .andExpect(jsonPath("$.data['lines[0].orderQty']").value("Quantity harus lebih dari 0"));
+    }
+
+    @Test
+    void getBasketOrderFindById_shouldReturnOrderWithLines() throws Exception {
+        OrderBasketRes res = new OrderBasketRes("O001", 2, Money.of(20000), List.of(
+                new OrderLineRes(1, new ItemDto(1L, "Item A", Money.of(10000)), 2, Money.of(20000))));
+        when(orderService.getBasketOrderById("O001")).thenReturn(res);
+
+        mockMvc.perform(get("/api/orders/basket/{id}", "O001"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Order found"))
+                .andExpect(jsonPath("$.data.lines[0].item.itemName").value("Item A"));
+    }
 }
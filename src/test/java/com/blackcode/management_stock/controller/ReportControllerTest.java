@@ -0,0 +1,98 @@
+package com.blackcode.management_stock.controller;
+
+import com.blackcode.management_stock.dto.SalesRollupRes;
+import com.blackcode.management_stock.dto.SalesSummaryRes;
+import com.blackcode.management_stock.exception.GlobalExceptionHandler;
+import com.blackcode.management_stock.exception.InvalidReportRangeException;
+import com.blackcode.management_stock.model.RollupGranularity;
+import com.blackcode.management_stock.money.Money;
+import com.blackcode.management_stock.service.SalesReportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+public class ReportControllerTest {
+
+    private MockMvc mockMvc;
+
+    @Mock
+    private SalesReportService salesReportService;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        mockMvc = MockMvcBuilders.standaloneSetup(new ReportController(salesReportService))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void getSalesRollups_shouldReturnHourlyBuckets() throws Exception {
+        SalesRollupRes rollup = new SalesRollupRes(1L, "HOUR", LocalDateTime.of(2025, 1, 15, 10, 0), 2, 5, Money.of(50000));
+        when(salesReportService.getSalesRollups(RollupGranularity.HOUR, LocalDate.of(2025, 1, 15),
+                LocalDate.of(2025, 1, 15), 1L)).thenReturn(List.of(rollup));
+
+        mockMvc.perform(get("/api/reports/sales")
+                        .param("from", "2025-01-15")
+                        .param("to", "2025-01-15")
+                        .param("granularity", "HOUR")
+                        .param("itemId", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("success"))
+                .andExpect(jsonPath("$.message").value("Sales report retrieved successfully"))
+                .andExpect(jsonPath("$.data[0].itemId").value(1))
+                .andExpect(jsonPath("$.data[0].granularity").value("HOUR"))
+                .andExpect(jsonPath("$.data[0].orderCount").value(2))
+                .andExpect(jsonPath("$.data[0].totalQty").value(5))
+                .andExpect(jsonPath("$.data[0].totalRevenue").value(50000));
+    }
+
+    @Test
+    void getSalesSummary_shouldReturnPerItemTotals() throws Exception {
+        SalesSummaryRes summary = new SalesSummaryRes(1L, 30, 90, Money.of(900000));
+        when(salesReportService.getSalesSummary(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 31), null))
+                .thenReturn(List.of(summary));
+
+        mockMvc.perform(get("/api/reports/sales/summary")
+                        .param("from", "2025-01-01")
+                        .param("to", "2025-01-31"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Sales summary retrieved successfully"))
+                .andExpect(jsonPath("$.data[0].itemId").value(1))
+                .andExpect(jsonPath("$.data[0].orderCount").value(30))
+                .andExpect(jsonPath("$.data[0].totalQty").value(90))
+                .andExpect(jsonPath("$.data[0].totalRevenue").value(900000));
+    }
+
+    @Test
+    void getSalesSummary_shouldReturnBadRequest_whenRangeInvalid() throws Exception {
+        when(salesReportService.getSalesSummary(LocalDate.of(2025, 2, 1), LocalDate.of(2025, 1, 1), null))
+                .thenThrow(new InvalidReportRangeException("Tanggal awal tidak boleh setelah tanggal akhir"));
+
+        mockMvc.perform(get("/api/reports/sales/summary")
+                        .param("from", "2025-02-01")
+                        .param("to", "2025-01-01"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value("error"))
+                .andExpect(jsonPath("$.message").value("Tanggal awal tidak boleh setelah tanggal akhir"));
+    }
+
+    @Test
+    void getSalesRollups_shouldReturnBadRequest_whenDateMissing() throws Exception {
+        mockMvc.perform(get("/api/reports/sales").param("from", "2025-01-01"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value("error"))
+                .andExpect(jsonPath("$.statusCode").value(400));
+    }
+}
@@ -0,0 +1,90 @@
+package com.blackcode.management_stock.controller;
+
+import com.blackcode.management_stock.dto.LocationStockRes;
+import com.blackcode.management_stock.dto.StockLocationReq;
+import com.blackcode.management_stock.dto.StockLocationRes;
+import com.blackcode.management_stock.exception.DuplicateResourceException;
+import com.blackcode.management_stock.exception.GlobalExceptionHandler;
+import com.blackcode.management_stock.service.StockLocationService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+public class StockLocationControllerTest {
+
+    private MockMvc mockMvc;
+
+    @Mock
+    private StockLocationService stockLocationService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        mockMvc = MockMvcBuilders.standaloneSetup(new StockLocationController(stockLocationService))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void addLocation_shouldReturnCreatedLocation() throws Exception {
+        when(stockLocationService.createLocation(any(StockLocationReq.class)))
+                .thenReturn(new StockLocationRes(1L, "JKT-01", "Jakarta", 0));
+
+        mockMvc.perform(post("/api/locations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new StockLocationReq("JKT-01", "Jakarta", 0))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.message").value("Location created successfully"))
+                .andExpect(jsonPath("$.data.locationId").value(1))
+                .andExpect(jsonPath("$.data.locationCode").value("JKT-01"));
+    }
+
+    @Test
+    void addLocation_shouldReturnConflict_whenCodeExists() throws Exception {
+        when(stockLocationService.createLocation(any(StockLocationReq.class)))
+                .thenThrow(new DuplicateResourceException("Location code already exists: JKT-01"));
+
+        mockMvc.perform(post("/api/locations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new StockLocationReq("JKT-01", "Jakarta", 0))))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value("Location code already exists: JKT-01"));
+    }
+
+    @Test
+    void addLocation_shouldFailValidation_whenCodeBlank() throws Exception {
+        mockMvc.perform(post("/api/locations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new StockLocationReq("", "Jakarta", -1))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.data.locationCode").value("Location code harus diisi"))
+                .andExpect(jsonPath("$.data.priority").value("Priority tidak boleh kurang dari 0"));
+    }
+
+    @Test
+    void getItemStockByLocation_shouldReturnPerLocationQuantities() throws Exception {
+        when(stockLocationService.getItemStockByLocation(1L)).thenReturn(List.of(
+                new LocationStockRes(1L, "JKT-01", 1L, 7),
+                new LocationStockRes(2L, "SBY-01", 1L, 3)));
+
+        mockMvc.perform(get("/api/locations/stock/{itemId}", 1))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].locationCode").value("JKT-01"))
+                .andExpect(jsonPath("$.data[1].quantity").value(3));
+    }
+}
@@ -0,0 +1,115 @@
+package com.blackcode.management_stock.controller;
+
+import com.blackcode.management_stock.dto.ItemDto;
+import com.blackcode.management_stock.dto.OrderRes;
+import com.blackcode.management_stock.dto.ReservationConfirmReq;
+import com.blackcode.management_stock.dto.StockReservationReq;
+import com.blackcode.management_stock.dto.StockReservationRes;
+import com.blackcode.management_stock.exception.GlobalExceptionHandler;
+import com.blackcode.management_stock.exception.ReservationClosedException;
+import com.blackcode.management_stock.money.Money;
+import com.blackcode.management_stock.service.OrderService;
+import com.blackcode.management_stock.service.StockReservationService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.LocalDateTime;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+public class StockReservationControllerTest {
+
+    private MockMvc mockMvc;
+
+    @Mock
+    private StockReservationService stockReservationService;
+
+    @Mock
+    private OrderService orderService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        mockMvc = MockMvcBuilders.standaloneSetup(new StockReservationController(stockReservationService, orderService))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void holdStock_shouldReturnCreatedReservation() throws Exception {
+        StockReservationRes res = new StockReservationRes(7L, new ItemDto(1L, "Item A", Money.of(10000)), 2,
+                "HELD", LocalDateTime.of(2025, 1, 15, 10, 15), null);
+        when(stockReservationService.holdStock(any(StockReservationReq.class))).thenReturn(res);
+
+        mockMvc.perform(post("/api/reservations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new StockReservationReq(1L, 2, 300))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.message").value("Stock reserved successfully"))
+                .andExpect(jsonPath("$.statusCode").value(201))
+                .andExpect(jsonPath("$.data.reservationId").value(7))
+                .andExpect(jsonPath("$.data.status").value("HELD"))
+                .andExpect(jsonPath("$.data.item.itemId").value(1));
+    }
+
+    @Test
+    void holdStock_shouldFailValidation_whenTtlOutOfRange() throws Exception {
+        mockMvc.perform(post("/api/reservations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new StockReservationReq(1L, 0, 0))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Validation failed"))
+                .andExpect(jsonPath("$.data.reservedQty").value("Quantity harus lebih dari 0"))
+                .andExpect(jsonPath("$.data.ttlSeconds").value("TTL minimal 1 detik"));
+    }
+
+    @Test
+    void confirmReservation_shouldReturnCreatedOrder() throws Exception {
+        OrderRes orderRes = new OrderRes("O005", new ItemDto(1L, "Item A", Money.of(10000)), 2, Money.of(20000));
+        when(orderService.confirmReservation(eq(7L), any(ReservationConfirmReq.class))).thenReturn(orderRes);
+
+        mockMvc.perform(post("/api/reservations/{id}/confirm", 7)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new ReservationConfirmReq(Money.of(20000)))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.message").value("Order created successfully"))
+                .andExpect(jsonPath("$.data.orderNo").value("O005"));
+    }
+
+    @Test
+    void confirmReservation_shouldReturnConflict_whenReservationExpired() throws Exception {
+        when(orderService.confirmReservation(eq(7L), any(ReservationConfirmReq.class)))
+                .thenThrow(new ReservationClosedException("Reservasi sudah tidak aktif"));
+
+        mockMvc.perform(post("/api/reservations/{id}/confirm", 7)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new ReservationConfirmReq(Money.of(20000)))))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.status").value("error"))
+                .andExpect(jsonPath("$.message").value("Reservasi sudah tidak aktif"));
+    }
+
+    @Test
+    void releaseReservation_shouldReturnReleasedReservation() throws Exception {
+        StockReservationRes res = new StockReservationRes(7L, new ItemDto(1L, "Item A", Money.of(10000)), 2,
+                "RELEASED", LocalDateTime.of(2025, 1, 15, 10, 15), null);
+        when(stockReservationService.releaseReservation(7L)).thenReturn(res);
+
+        mockMvc.perform(delete("/api/reservations/{id}", 7))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Reservation released successfully"))
+                .andExpect(jsonPath("$.data.status").value("RELEASED"));
+    }
+}
@@ -0,0 +1,120 @@
+package com.blackcode.management_stock.datasource;
+
+import com.blackcode.management_stock.dto.ItemReq;
+import com.blackcode.management_stock.dto.ItemRes;
+import com.blackcode.management_stock.exception.DataNotFoundException;
+import com.blackcode.management_stock.money.Money;
+import com.blackcode.management_stock.service.ItemService;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+        "stock.datasource.replica.url=jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1",
+        "stock.datasource.replica.check-interval-millis=3600000",
+        "stock.datasource.replica.max-lag-millis=500",
+        "stock.datasource.replica.sticky-millis=60000",
+        // The assertions tell the databases apart by what they hold, which a cached item would hide.
+        "stock.cache.second-level.enabled=false"
+})
+public class ReplicaRoutingDataSourceTest {
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private ReplicaLagMonitor replicaLagMonitor;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    private JdbcTemplate primaryJdbcTemplate;
+
+    private JdbcTemplate replicaJdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        // The Spring test listener binds a mock request to the test thread; start each test outside any request.
+        RequestContextHolder.resetRequestAttributes();
+        primaryJdbcTemplate = new JdbcTemplate(primaryDataSource);
+        replicaJdbcTemplate = new JdbcTemplate(replicaDataSource);
+        replicaLagMonitor.check();
+        replicate();
+        replicaLagMonitor.check();
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void readOnlyQueries_shouldGoToReplica_whileWritesGoToPrimary() {
+        assertTrue(replicaLagMonitor.isReplicaUsable());
+        ItemRes created = itemService.createItem(new ItemReq("Item A", Money.of(10000), 5));
+
+        assertThrows(DataNotFoundException.class, () -> itemService.getItemById(created.getItemId()));
+
+        replicate();
+        assertEquals("Item A", itemService.getItemById(created.getItemId()).getItemName());
+    }
+
+    @Test
+    void readAfterWrite_inSameRequest_andWithStickyCookie_shouldReadFromPrimary() {
+        MockHttpServletResponse writeResponse = new MockHttpServletResponse();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest(), writeResponse));
+        ItemRes created = itemService.createItem(new ItemReq("Item B", Money.of(10000), 5));
+
+        assertEquals("Item B", itemService.getItemById(created.getItemId()).getItemName());
+        Cookie cookie = writeResponse.getCookie(ReadYourWritesTracker.COOKIE_NAME);
+        assertNotNull(cookie);
+
+        MockHttpServletRequest nextRequest = new MockHttpServletRequest();
+        nextRequest.setCookies(cookie);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(nextRequest, new MockHttpServletResponse()));
+        assertEquals("Item B", itemService.getItemById(created.getItemId()).getItemName());
+
+        RequestContextHolder.setRequestAttributes(
+                new ServletRequestAttributes(new MockHttpServletRequest(), new MockHttpServletResponse()));
+        assertThrows(DataNotFoundException.class, () -> itemService.getItemById(created.getItemId()));
+    }
+
+    @Test
+    void laggingReplica_shouldFallBackToPrimary() {
+        ItemRes created = itemService.createItem(new ItemReq("Item C", Money.of(10000), 5));
+        replicaJdbcTemplate.update("UPDATE tb_replica_heartbeat SET beat_millis = beat_millis - 10000");
+
+        replicaLagMonitor.check();
+
+        assertFalse(replicaLagMonitor.isReplicaUsable());
+        assertTrue(replicaLagMonitor.getLastLagMillis() >= 10000);
+        assertEquals("Item C", itemService.getItemById(created.getItemId()).getItemName());
+    }
+
+    // Stands in for replication: copies the primary's schema and rows onto the replica database.
+    private void replicate() {
+        replicaJdbcTemplate.execute("DROP ALL OBJECTS");
+        for (String statement : primaryJdbcTemplate.queryForList("SCRIPT", String.class)) {
+            replicaJdbcTemplate.execute(statement);
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.blackcode.management_stock.datasource;
+
+import com.blackcode.management_stock.dto.InventoryReq;
+import com.blackcode.management_stock.dto.ItemReq;
+import com.blackcode.management_stock.dto.ItemRes;
+import com.blackcode.management_stock.dto.OrderBasketReq;
+import com.blackcode.management_stock.dto.OrderLineReq;
+import com.blackcode.management_stock.dto.OrderReq;
+import com.blackcode.management_stock.dto.OrderRes;
+import com.blackcode.management_stock.dto.ReservationConfirmReq;
+import com.blackcode.management_stock.dto.StockLocationReq;
+import com.blackcode.management_stock.dto.StockReservationReq;
+import com.blackcode.management_stock.dto.StockReservationRes;
+import com.blackcode.management_stock.dto.StockReconciliationReport;
+import com.blackcode.management_stock.exception.DuplicateResourceException;
+import com.blackcode.management_stock.exception.InvalidOrderException;
+import com.blackcode.management_stock.job.StockReconciliationJob;
+import com.blackcode.management_stock.model.InventoryType;
+import com.blackcode.management_stock.money.Money;
+import com.blackcode.management_stock.service.InventoryService;
+import com.blackcode.management_stock.service.ItemService;
+import com.blackcode.management_stock.service.OrderService;
+import com.blackcode.management_stock.service.StockLocationService;
+import com.blackcode.management_stock.service.StockReservationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:shard-0;DB_CLOSE_DELAY=-1",
+        "stock.sharding.urls=jdbc:h2:mem:shard-1;DB_CLOSE_DELAY=-1,jdbc:h2:mem:shard-2;DB_CLOSE_DELAY=-1"
+})
+public class ShardRoutingDataSourceTest {
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private StockReservationService stockReservationService;
+
+    @Autowired
+    private StockReconciliationJob stockReconciliationJob;
+
+    @Autowired
+    private StockLocationService stockLocationService;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+            shardRouter.withShard(shard, () -> {
+                jdbcTemplate.update("DELETE FROM tb_stock_reservation");
+                jdbcTemplate.update("DELETE FROM tb_order_line");
+                jdbcTemplate.update("DELETE FROM tb_order");
+                jdbcTemplate.update("DELETE FROM tb_inventory");
+                jdbcTemplate.update("DELETE FROM tb_sales_rollup");
+                jdbcTemplate.update("DELETE FROM tb_item");
+                return null;
+            });
+        }
+    }
+
+    @Test
+    void items_shouldBeSpreadAcrossShards_andFoundByTheirId() {
+        List<ItemRes> items = createItems(6);
+
+        assertEquals(3, shardRouter.shardCount());
+        for (ItemRes item : items) {
+            int shard = shardRouter.shardOf(item.getItemId());
+            assertEquals(1, countOn(shard, "tb_item", "item_id", item.getItemId()));
+            assertEquals(item.getItemName(), itemService.getItemById(item.getItemId()).getItemName());
+        }
+        assertEquals(3, items.stream().map(item -> shardRouter.shardOf(item.getItemId())).distinct().count());
+    }
+
+    @Test
+    void getAllItems_shouldMergeShardsInIdOrder_withGlobalPagination() {
+        List<Long> ids = createItems(7).stream().map(ItemRes::getItemId).sorted().toList();
+
+        Page<ItemRes> first = itemService.getAllItems(0, 3);
+        Page<ItemRes> last = itemService.getAllItems(2, 3);
+
+        assertEquals(7, first.getTotalElements());
+        assertEquals(3, first.getTotalPages());
+        assertEquals(ids.subList(0, 3), first.getContent().stream().map(ItemRes::getItemId).toList());
+        assertEquals(ids.subList(6, 7), last.getContent().stream().map(ItemRes::getItemId).toList());
+    }
+
+    @Test
+    void orders_shouldLiveOnTheItemShard_andCarryTheShardInTheOrderNo() {
+        List<ItemRes> items = createItems(3);
+        List<OrderRes> orders = new ArrayList<>();
+        for (ItemRes item : items) {
+            inventoryService.createInventory(new InventoryReq(item.getItemId(), 5, InventoryType.T));
+            orders.add(orderService.createOrder(new OrderReq(item.getItemId(), 2, Money.of(20000))));
+        }
+
+        for (int i = 0; i < items.size(); i++) {
+            int shard = shardRouter.shardOf(items.get(i).getItemId());
+            assertTrue(orders.get(i).getOrderNo().matches("O[0-9A-Z]{13}-" + shard));
+            assertEquals(shard, shardRouter.shardOfOrder(orders.get(i).getOrderNo()));
+            assertEquals(items.get(i).getItemId(), orderService.getOrderById(orders.get(i).getOrderNo()).getItem().getItemId());
+            assertEquals(13, itemService.getItemById(items.get(i).getItemId()).getItemStock());
+        }
+        assertEquals(3, orderService.getAllOrders(0, 10).getTotalElements());
+
+        StockReconciliationReport report = stockReconciliationJob.run(false);
+        assertEquals(3, report.getItemsScanned());
+        assertEquals(0, report.getDiscrepancyCount());
+    }
+
+    @Test
+    void basketOrder_spanningShards_shouldBeRejected() {
+        List<ItemRes> items = createItems(2);
+        assertNotEquals(shardRouter.shardOf(items.get(0).getItemId()), shardRouter.shardOf(items.get(1).getItemId()));
+
+        OrderBasketReq basket = new OrderBasketReq(List.of(
+                new OrderLineReq(items.get(0).getItemId(), 1, Money.of(10000)),
+                new OrderLineReq(items.get(1).getItemId(), 1, Money.of(10000))));
+
+        assertThrows(InvalidOrderException.class, () -> orderService.createBasketOrder(basket));
+    }
+
+    @Test
+    void createLocation_shouldKeepOneIdOnEveryShard_andFinishAPartialCreationOnRetry() {
+        // A row inserted and deleted again on shard 1 moves its identity column ahead of shard 0's.
+        shardRouter.withShard(1, () -> {
+            jdbcTemplate.update("INSERT INTO tb_stock_location (location_code, location_name, priority) VALUES ('TMP', 'Tmp', 0)");
+            return jdbcTemplate.update("DELETE FROM tb_stock_location WHERE location_code = 'TMP'");
+        });
+        StockLocationReq req = new StockLocationReq("SHD-01", "Shard Test", 3);
+
+        Long locationId = stockLocationService.createLocation(req).getLocationId();
+        assertEquals(List.of(locationId, locationId, locationId), locationIds("SHD-01"));
+
+        // What a creation that failed after shard 1 leaves behind.
+        shardRouter.withShard(2, () -> jdbcTemplate.update("DELETE FROM tb_stock_location WHERE location_code = 'SHD-01'"));
+        assertEquals(locationId, stockLocationService.createLocation(req).getLocationId());
+        assertEquals(List.of(locationId, locationId, locationId), locationIds("SHD-01"));
+
+        assertThrows(DuplicateResourceException.class, () -> stockLocationService.createLocation(req));
+    }
+
+    @Test
+    void reservationsAndBaskets_alternatingShards_shouldTakeIdsFromTheItemShard() {
+        List<ItemRes> items = createItems(4);
+        for (ItemRes item : items) {
+            inventoryService.createInventory(new InventoryReq(item.getItemId(), 1000, InventoryType.T));
+        }
+
+        // Enough rounds to run past the first id block of every sequence on every shard.
+        for (int round = 0; round < 30; round++) {
+            for (ItemRes item : items) {
+                int shard = shardRouter.shardOf(item.getItemId());
+                StockReservationRes held = stockReservationService.holdStock(new StockReservationReq(item.getItemId(), 1, 60));
+                assertEquals(shard, shardRouter.shardOf(held.getReservationId()));
+                if (round % 2 == 0) {
+                    assertEquals("RELEASED", stockReservationService.releaseReservation(held.getReservationId()).getStatus());
+                } else {
+                    orderService.confirmReservation(held.getReservationId(), new ReservationConfirmReq(Money.of(10000)));
+                }
+
+                OrderBasketReq basket = new OrderBasketReq(List.of(
+                        new OrderLineReq(item.getItemId(), 1, Money.of(10000)),
+                        new OrderLineReq(item.getItemId(), 2, Money.of(20000))));
+                assertEquals(2, orderService.createBasketOrder(basket).getLines().size());
+            }
+        }
+
+        for (ItemRes item : items) {
+            // 10 + 1000 in, 15 confirmed reservations and 30 baskets of 3 out.
+            assertEquals(1010 - 15 - 90, itemService.getItemById(item.getItemId()).getItemStock());
+        }
+        assertEquals(0, stockReconciliationJob.run(false).getDiscrepancyCount());
+    }
+
+    private List<ItemRes> createItems(int count) {
+        List<ItemRes> items = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            items.add(itemService.createItem(new ItemReq("Item " + i, Money.of(10000), 10)));
+        }
+        return items;
+    }
+
+    private int countOn(int shard, String table, String column, Long id) {
+        return shardRouter.withShard(shard, () ->
+                jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table + " WHERE " + column + " = ?", Integer.class, id));
+    }
+
+    private List<Long> locationIds(String locationCode) {
+        List<Long> ids = new ArrayList<>();
+        for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+            ids.add(shardRouter.withShard(shard, () -> jdbcTemplate.queryForObject(
+                    "SELECT location_id FROM tb_stock_location WHERE location_code = ?", Long.class, locationCode)));
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,96 @@
+package com.blackcode.management_stock.dto;
+
+import com.blackcode.management_stock.money.Money;
+import com.blackcode.management_stock.utils.ApiResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.sun.management.ThreadMXBean;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PageResTest {
+
+    private static final Logger log = LoggerFactory.getLogger(PageResTest.class);
+
+    @Test
+    void of_shouldKeepOnlyTheContentAndCounts() throws Exception {
+        Page<ItemRes> page = new PageImpl<>(items(3), PageRequest.of(1, 3), 7);
+
+        JsonNode json = new ObjectMapper().valueToTree(PageRes.of(page));
+
+        assertEquals(List.of("content", "page", "size", "totalElements", "totalPages"),
+                iterableToList(json.fieldNames()));
+        assertEquals(1, json.get("page").asInt());
+        assertEquals(3, json.get("size").asInt());
+        assertEquals(7, json.get("totalElements").asLong());
+        assertEquals(3, json.get("totalPages").asInt());
+        assertEquals(3, json.get("content").size());
+    }
+
+    // Run with: mvn -Pbenchmark test
+    @Test
+    @Tag("benchmark")
+    void benchmark_listSerialization() throws Exception {
+        Page<ItemRes> page = new PageImpl<>(items(100), PageRequest.of(0, 100), 1000);
+        ApiResponse<Page<ItemRes>> pageImpl = ApiResponse.success("Item retrieved successfully", 200, page);
+        ApiResponse<PageRes<ItemRes>> pageRes = ApiResponse.success("Item retrieved successfully", 200, PageRes.of(page));
+        ObjectWriter reflective = new ObjectMapper().writer();
+        ObjectWriter blackbird = new ObjectMapper().registerModule(new BlackbirdModule()).writer();
+
+        StringBuilder table = new StringBuilder(String.format("%n%-22s %10s %14s %10s%n",
+                "variant", "bytes/op", "alloc B/op", "ns/op"));
+        measure(table, "PageImpl, reflective", reflective, pageImpl);
+        measure(table, "PageImpl, blackbird", blackbird, pageImpl);
+        measure(table, "PageRes, reflective", reflective, pageRes);
+        measure(table, "PageRes, blackbird", blackbird, pageRes);
+        log.info("Item page serialization:{}", table);
+    }
+
+    private void measure(StringBuilder table, String variant, ObjectWriter writer, Object value) throws Exception {
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        int iterations = 20_000;
+        int bytes = writer.writeValueAsBytes(value).length;
+        for (int i = 0; i < iterations; i++) {
+            writer.writeValueAsBytes(value);
+        }
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            writer.writeValueAsBytes(value);
+        }
+        long nanos = (System.nanoTime() - start) / iterations;
+        long allocated = (threads.getThreadAllocatedBytes(threadId) - allocatedBefore) / iterations;
+        table.append(String.format("%-22s %10d %14d %10d%n", variant, bytes, allocated, nanos));
+    }
+
+    private List<ItemRes> items(int count) {
+        List<ItemRes> items = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ItemRes item = new ItemRes((long) i, "Item " + i, Money.of(10000), 10);
+            item.setVersion(0L);
+            items.add(item);
+        }
+        return items;
+    }
+
+    private List<String> iterableToList(Iterator<String> iterator) {
+        List<String> list = new ArrayList<>();
+        iterator.forEachRemaining(list::add);
+        return list;
+    }
+}
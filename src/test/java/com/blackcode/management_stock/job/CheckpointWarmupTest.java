@@ -0,0 +1,35 @@
+package com.blackcode.management_stock.job;
+
+import com.blackcode.management_stock.repository.ItemRepository;
+import com.blackcode.management_stock.repository.OrderRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:warmup;DB_CLOSE_DELAY=-1",
+        "stock.checkpoint.warmup.enabled=true",
+        "stock.checkpoint.warmup.iterations=3"
+})
+public class CheckpointWarmupTest {
+
+    @Autowired
+    private CheckpointWarmup checkpointWarmup;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Test
+    void warmUp_shouldExerciseReadsAndWrites_withoutLeavingRowsBehind() {
+        assertEquals(3, checkpointWarmup.warmUpWrites());
+        assertEquals(12, checkpointWarmup.warmUpReads());
+
+        assertEquals(0, itemRepository.count());
+        assertEquals(0, orderRepository.count());
+    }
+}
@@ -0,0 +1,100 @@
+package com.blackcode.management_stock.job;
+
+import com.blackcode.management_stock.datasource.ShardRouter;
+import com.blackcode.management_stock.dto.ItemCompactionReport;
+import com.blackcode.management_stock.model.Inventory;
+import com.blackcode.management_stock.model.InventoryType;
+import com.blackcode.management_stock.model.Item;
+import com.blackcode.management_stock.model.ItemStockSlot;
+import com.blackcode.management_stock.model.Order;
+import com.blackcode.management_stock.money.Money;
+import com.blackcode.management_stock.repository.InventoryRepository;
+import com.blackcode.management_stock.repository.ItemRepository;
+import com.blackcode.management_stock.repository.ItemStockSlotRepository;
+import com.blackcode.management_stock.repository.OrderRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import({ItemCompactionJob.class, ShardRouter.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "stock.item-compaction.interval-seconds=0",
+        "stock.item-compaction.retention-seconds=3600",
+        "stock.item-compaction.batch-size=1"
+})
+public class ItemCompactionJobTest {
+
+    @Autowired
+    private ItemCompactionJob itemCompactionJob;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private ItemStockSlotRepository itemStockSlotRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @AfterEach
+    void tearDown() {
+        itemStockSlotRepository.deleteAll();
+        orderRepository.deleteAll();
+        inventoryRepository.deleteAll();
+        itemRepository.deleteAll();
+    }
+
+    @Test
+    void run_shouldPurgeOnlyOldTombstonesWithoutHistory_inBatches() {
+        LocalDateTime longAgo = LocalDateTime.now().minusDays(1);
+        Item live = saveItem("Live", null);
+        Item purgeable = saveItem("Purgeable", longAgo);
+        Item alsoPurgeable = saveItem("Also Purgeable", longAgo);
+        Item ordered = saveItem("Ordered", longAgo);
+        Item stocked = saveItem("Stocked", longAgo);
+        Item recent = saveItem("Recent", LocalDateTime.now());
+        itemStockSlotRepository.save(new ItemStockSlot(purgeable.getItemId(), 0, 5));
+        orderRepository.save(new Order("O001", ordered, 1, Money.of(10000)));
+        inventoryRepository.save(new Inventory(null, stocked, 5, InventoryType.T));
+
+        ItemCompactionReport dryRun = itemCompactionJob.run(false);
+
+        assertEquals(5, dryRun.getTombstones());
+        assertEquals(2, dryRun.getPurgeable());
+        assertEquals(0, dryRun.getPurged());
+        assertEquals(6, itemRepository.count());
+
+        ItemCompactionReport report = itemCompactionJob.run(true);
+
+        assertEquals(2, report.getPurged());
+        assertEquals(List.of(purgeable.getItemId(), alsoPurgeable.getItemId()), report.getPurgedItemIds());
+        assertTrue(itemRepository.findById(live.getItemId()).isPresent());
+        assertTrue(itemRepository.findById(ordered.getItemId()).isPresent());
+        assertTrue(itemRepository.findById(stocked.getItemId()).isPresent());
+        assertTrue(itemRepository.findById(recent.getItemId()).isPresent());
+        assertFalse(itemRepository.findById(purgeable.getItemId()).isPresent());
+        assertEquals(0, itemStockSlotRepository.count());
+        assertEquals(0, itemCompactionJob.run(true).getPurgeable());
+    }
+
+    private Item saveItem(String name, LocalDateTime deletedAt) {
+        Item item = new Item(null, name, Money.of(10000), 10);
+        item.setDeletedAt(deletedAt);
+        return itemRepository.save(item);
+    }
+}
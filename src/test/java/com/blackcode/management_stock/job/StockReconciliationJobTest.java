@@ -0,0 +1,159 @@
+package com.blackcode.management_stock.job;
+
+import com.blackcode.management_stock.cache.TableStamps;
+import com.blackcode.management_stock.datasource.ShardRouter;
+import com.blackcode.management_stock.dto.StockDiscrepancy;
+import com.blackcode.management_stock.dto.StockReconciliationReport;
+import com.blackcode.management_stock.model.Inventory;
+import com.blackcode.management_stock.model.InventoryType;
+import com.blackcode.management_stock.model.Item;
+import com.blackcode.management_stock.model.ItemStockSlot;
+import com.blackcode.management_stock.model.Order;
+import com.blackcode.management_stock.model.OrderLine;
+import com.blackcode.management_stock.model.ReservationStatus;
+import com.blackcode.management_stock.model.StockReservation;
+import com.blackcode.management_stock.money.Money;
+import com.blackcode.management_stock.repository.InventoryRepository;
+import com.blackcode.management_stock.repository.ItemRepository;
+import com.blackcode.management_stock.repository.ItemStockSlotRepository;
+import com.blackcode.management_stock.repository.OrderRepository;
+import com.blackcode.management_stock.repository.StockReservationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import({StockReconciliationJob.class, TableStamps.class, ShardRouter.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "stock.reconciliation.partition-size=2",
+        "stock.reconciliation.parallelism=4"
+})
+public class StockReconciliationJobTest {
+
+    @Autowired
+    private StockReconciliationJob stockReconciliationJob;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private StockReservationRepository stockReservationRepository;
+
+    @Autowired
+    private ItemStockSlotRepository itemStockSlotRepository;
+
+    @AfterEach
+    void tearDown() {
+        stockReservationRepository.deleteAll();
+        itemStockSlotRepository.deleteAll();
+        orderRepository.deleteAll();
+        inventoryRepository.deleteAll();
+        itemRepository.deleteAll();
+    }
+
+    @Test
+    void run_shouldReportOnlyDriftedItemsAcrossPartitions() {
+        Item consistent = saveItem("Item A", 10, 10);
+        inventoryRepository.save(new Inventory(null, consistent, 5, InventoryType.T));
+        orderRepository.save(new Order("O001", consistent, 2, Money.of(20000)));
+        saveReservation(consistent, 3, ReservationStatus.HELD);
+        saveReservation(consistent, 4, ReservationStatus.EXPIRED);
+
+        Item drifted = saveItem("Item B", 20, 25);
+        inventoryRepository.save(new Inventory(null, drifted, 3, InventoryType.W));
+
+        Item basketItem = saveItem("Item C", 10, 6);
+        Order basket = new Order("O002", null, 4, Money.of(40000));
+        basket.getLines().add(new OrderLine(null, basket, 1, basketItem, 4, Money.of(40000)));
+        orderRepository.save(basket);
+
+        for (int i = 0; i < 5; i++) {
+            saveItem("Filler " + i, 7, 7);
+        }
+        Item legacy = saveItem("Legacy", null, 4);
+
+        StockReconciliationReport report = stockReconciliationJob.run(false);
+
+        assertEquals(9, report.getItemsScanned());
+        assertEquals(1, report.getItemsWithoutBaseline());
+        assertEquals(1, report.getDiscrepancyCount());
+        assertEquals(0, report.getRepairedCount());
+        StockDiscrepancy discrepancy = report.getDiscrepancies().get(0);
+        assertEquals(drifted.getItemId(), discrepancy.getItemId());
+        assertEquals(25, discrepancy.getActualStock());
+        assertEquals(17, discrepancy.getExpectedStock());
+        assertFalse(discrepancy.isRepaired());
+        assertEquals(25, itemRepository.findById(drifted.getItemId()).orElseThrow().getItemStock());
+        assertEquals(4, itemRepository.findById(legacy.getItemId()).orElseThrow().getItemStock());
+    }
+
+    @Test
+    void run_withRepair_shouldRewriteDriftedStock() {
+        Item drifted = saveItem("Item B", 20, 25);
+        orderRepository.save(new Order("O001", drifted, 4, Money.of(40000)));
+
+        StockReconciliationReport report = stockReconciliationJob.run(true);
+
+        assertEquals(1, report.getDiscrepancyCount());
+        assertEquals(1, report.getRepairedCount());
+        assertTrue(report.getDiscrepancies().get(0).isRepaired());
+        assertEquals(16, itemRepository.findById(drifted.getItemId()).orElseThrow().getItemStock());
+
+        assertEquals(0, stockReconciliationJob.run(false).getDiscrepancyCount());
+    }
+
+    @Test
+    void run_withRepair_shouldReportShardedItemFromSlotsWithoutRepairing() {
+        Item sharded = saveItem("Item S", 10, 0);
+        sharded.setStockShards(2);
+        itemRepository.save(sharded);
+        itemStockSlotRepository.save(new ItemStockSlot(sharded.getItemId(), 0, 4));
+        itemStockSlotRepository.save(new ItemStockSlot(sharded.getItemId(), 1, 3));
+        orderRepository.save(new Order("O001", sharded, 2, Money.of(20000)));
+
+        StockReconciliationReport report = stockReconciliationJob.run(true);
+
+        assertEquals(1, report.getDiscrepancyCount());
+        assertEquals(0, report.getRepairedCount());
+        StockDiscrepancy discrepancy = report.getDiscrepancies().get(0);
+        assertEquals(7, discrepancy.getActualStock());
+        assertEquals(8, discrepancy.getExpectedStock());
+        assertFalse(discrepancy.isRepaired());
+        assertEquals(0, itemRepository.findById(sharded.getItemId()).orElseThrow().getItemStock());
+    }
+
+    @Test
+    void run_onEmptyCatalog_shouldReturnEmptyReport() {
+        StockReconciliationReport report = stockReconciliationJob.run(false);
+
+        assertEquals(0, report.getItemsScanned());
+        assertTrue(report.getDiscrepancies().isEmpty());
+    }
+
+    private void saveReservation(Item item, int qty, ReservationStatus status) {
+        LocalDateTime now = LocalDateTime.now();
+        stockReservationRepository.save(new StockReservation(null, item, qty, status, now, now.plusMinutes(15), null));
+    }
+
+    private Item saveItem(String name, Integer openingStock, int stock) {
+        Item item = new Item(null, name, Money.of(10000), stock);
+        item.setOpeningStock(openingStock);
+        return itemRepository.save(item);
+    }
+}
@@ -0,0 +1,124 @@
+package com.blackcode.management_stock.job;
+
+import com.blackcode.management_stock.cache.TableStamps;
+import com.blackcode.management_stock.datasource.ShardRouter;
+import com.blackcode.management_stock.dto.StockReservationReq;
+import com.blackcode.management_stock.dto.StockReservationRes;
+import com.blackcode.management_stock.lock.StripedStockLockProvider;
+import com.blackcode.management_stock.model.Item;
+import com.blackcode.management_stock.model.ReservationStatus;
+import com.blackcode.management_stock.model.StockReservation;
+import com.blackcode.management_stock.money.Money;
+import com.blackcode.management_stock.repository.ItemRepository;
+import com.blackcode.management_stock.repository.StockReservationRepository;
+import com.blackcode.management_stock.service.StockReservationService;
+import com.blackcode.management_stock.service.impl.StockAllocationServiceImpl;
+import com.blackcode.management_stock.service.impl.StockReservationServiceImpl;
+import com.blackcode.management_stock.service.impl.StockSlotServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import({StockReservationServiceImpl.class, StockAllocationServiceImpl.class, StockSlotServiceImpl.class,
+        StockReservationExpiryScheduler.class, TableStamps.class, ShardRouter.class, StripedStockLockProvider.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "stock.reservation.timer.tick-millis=20",
+        "stock.reservation.timer.wheel-size=16"
+})
+public class StockReservationExpirySchedulerTest {
+
+    @Autowired
+    private StockReservationService stockReservationService;
+
+    @Autowired
+    private StockReservationExpiryScheduler stockReservationExpiryScheduler;
+
+    @Autowired
+    private StockReservationRepository stockReservationRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @AfterEach
+    void tearDown() {
+        stockReservationRepository.deleteAll();
+        itemRepository.deleteAll();
+    }
+
+    @Test
+    void heldReservation_shouldExpireAndGiveStockBack_afterTtl() throws Exception {
+        Item item = itemRepository.save(new Item(null, "Item A", Money.of(10000), 10));
+
+        StockReservationRes held = stockReservationService.holdStock(new StockReservationReq(item.getItemId(), 4, 1));
+        assertEquals(6, itemRepository.findById(item.getItemId()).orElseThrow().getItemStock());
+
+        awaitStatus(held.getReservationId(), ReservationStatus.EXPIRED);
+        assertEquals(10, itemRepository.findById(item.getItemId()).orElseThrow().getItemStock());
+    }
+
+    @Test
+    void releasedReservation_shouldNotBeRestoredAgain_whenTimerFires() throws Exception {
+        Item item = itemRepository.save(new Item(null, "Item A", Money.of(10000), 10));
+
+        StockReservationRes held = stockReservationService.holdStock(new StockReservationReq(item.getItemId(), 4, 1));
+        stockReservationService.releaseReservation(held.getReservationId());
+        assertEquals(10, itemRepository.findById(item.getItemId()).orElseThrow().getItemStock());
+
+        awaitEmptyWheel();
+        assertEquals(ReservationStatus.RELEASED, stockReservationRepository.findById(held.getReservationId()).orElseThrow().getStatus());
+        assertEquals(10, itemRepository.findById(item.getItemId()).orElseThrow().getItemStock());
+    }
+
+    @Test
+    void releasedReservation_shouldBeTakenOffTheWheel() {
+        Item item = itemRepository.save(new Item(null, "Item A", Money.of(10000), 10));
+        int before = stockReservationExpiryScheduler.pendingCount();
+
+        StockReservationRes held = stockReservationService.holdStock(new StockReservationReq(item.getItemId(), 4, 600));
+        assertEquals(before + 1, stockReservationExpiryScheduler.pendingCount());
+
+        stockReservationService.releaseReservation(held.getReservationId());
+        assertEquals(before, stockReservationExpiryScheduler.pendingCount());
+    }
+
+    @Test
+    void scheduleHeldReservations_shouldExpireHoldsLeftOverFromPreviousRun() throws Exception {
+        Item item = itemRepository.save(new Item(null, "Item A", Money.of(10000), 6));
+        LocalDateTime past = LocalDateTime.now().minusMinutes(1);
+        StockReservation leftOver = stockReservationRepository.save(
+                new StockReservation(null, item, 4, ReservationStatus.HELD, past.minusMinutes(15), past, null));
+
+        stockReservationExpiryScheduler.scheduleHeldReservations();
+
+        awaitStatus(leftOver.getReservationId(), ReservationStatus.EXPIRED);
+        assertEquals(10, itemRepository.findById(item.getItemId()).orElseThrow().getItemStock());
+    }
+
+    private void awaitStatus(Long reservationId, ReservationStatus status) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (stockReservationRepository.findById(reservationId).orElseThrow().getStatus() != status) {
+            assertTrue(System.currentTimeMillis() < deadline, "Reservation did not reach " + status);
+            Thread.sleep(20);
+        }
+    }
+
+    private void awaitEmptyWheel() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (stockReservationExpiryScheduler.pendingCount() > 0) {
+            assertTrue(System.currentTimeMillis() < deadline, "Timer wheel did not drain");
+            Thread.sleep(20);
+        }
+        Thread.sleep(100);
+    }
+}
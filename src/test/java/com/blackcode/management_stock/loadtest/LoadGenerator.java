@@ -0,0 +1,261 @@
+package com.blackcode.management_stock.loadtest;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+// Closed-loop load: every worker picks an operation by weight, sends it and waits for the answer before the next.
+// Latencies are kept per worker and sorted once at the end, so percentiles are exact and recording costs no locking.
+public class LoadGenerator {
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private final List<Operation> operations = new ArrayList<>();
+
+    private int totalWeight;
+
+    public LoadGenerator add(String name, int weight, Function<SplittableRandom, HttpRequest> request) {
+        if (weight > 0) {
+            operations.add(new Operation(name, weight, request));
+            totalWeight += weight;
+        }
+        return this;
+    }
+
+    public Report run(int threads, Duration warmup, Duration duration) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            long warmupEnd = System.nanoTime() + warmup.toNanos();
+            long end = warmupEnd + duration.toNanos();
+            List<Future<Recorder[]>> workers = new ArrayList<>(threads);
+            for (int i = 0; i < threads; i++) {
+                long seed = i;
+                workers.add(pool.submit(() -> work(new SplittableRandom(seed), warmupEnd, end)));
+            }
+            Recorder[] merged = newRecorders();
+            for (Future<Recorder[]> worker : workers) {
+                Recorder[] recorders = worker.get(duration.plus(warmup).toSeconds() + 60, TimeUnit.SECONDS);
+                for (int op = 0; op < merged.length; op++) {
+                    merged[op].merge(recorders[op]);
+                }
+            }
+            Map<String, Stats> stats = new LinkedHashMap<>();
+            Recorder total = new Recorder();
+            for (int op = 0; op < merged.length; op++) {
+                stats.put(operations.get(op).name, merged[op].stats(duration));
+                total.merge(merged[op]);
+            }
+            stats.put("total", total.stats(duration));
+            return new Report(stats);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private Recorder[] work(SplittableRandom random, long warmupEnd, long end) {
+        Recorder[] recorders = newRecorders();
+        long now = System.nanoTime();
+        while (now < end) {
+            int op = pick(random);
+            HttpRequest request = operations.get(op).request.apply(random);
+            boolean ok;
+            try {
+                ok = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() < 400;
+            } catch (Exception e) {
+                ok = false;
+            }
+            long done = System.nanoTime();
+            if (now >= warmupEnd) {
+                recorders[op].record(done - now, ok);
+            }
+            now = done;
+        }
+        return recorders;
+    }
+
+    private int pick(SplittableRandom random) {
+        int ticket = random.nextInt(totalWeight);
+        for (int op = 0; op < operations.size(); op++) {
+            ticket -= operations.get(op).weight;
+            if (ticket < 0) {
+                return op;
+            }
+        }
+        return operations.size() - 1;
+    }
+
+    private Recorder[] newRecorders() {
+        Recorder[] recorders = new Recorder[operations.size()];
+        for (int op = 0; op < recorders.length; op++) {
+            recorders[op] = new Recorder();
+        }
+        return recorders;
+    }
+
+    private static class Operation {
+
+        private final String name;
+
+        private final int weight;
+
+        private final Function<SplittableRandom, HttpRequest> request;
+
+        Operation(String name, int weight, Function<SplittableRandom, HttpRequest> request) {
+            this.name = name;
+            this.weight = weight;
+            this.request = request;
+        }
+    }
+
+    private static class Recorder {
+
+        private long[] latencies = new long[1024];
+
+        private int count;
+
+        private long errors;
+
+        void record(long latencyNanos, boolean ok) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latencyNanos;
+            if (!ok) {
+                errors++;
+            }
+        }
+
+        void merge(Recorder other) {
+            for (int i = 0; i < other.count; i++) {
+                record(other.latencies[i], true);
+            }
+            errors += other.errors;
+        }
+
+        Stats stats(Duration duration) {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            return new Stats(count, count / (duration.toNanos() / 1e9), count == 0 ? 0 : (double) errors / count,
+                    percentile(sorted, 0.50), percentile(sorted, 0.99), percentile(sorted, 0.999));
+        }
+
+        private static double percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(quantile * sorted.length) - 1;
+            return sorted[Math.max(0, index)] / 1e6;
+        }
+    }
+
+    public static class Stats {
+
+        private final long requests;
+
+        private final double throughput;
+
+        private final double errorRate;
+
+        private final double p50Millis;
+
+        private final double p99Millis;
+
+        private final double p999Millis;
+
+        Stats(long requests, double throughput, double errorRate, double p50Millis, double p99Millis, double p999Millis) {
+            this.requests = requests;
+            this.throughput = throughput;
+            this.errorRate = errorRate;
+            this.p50Millis = p50Millis;
+            this.p99Millis = p99Millis;
+            this.p999Millis = p999Millis;
+        }
+
+        public long getRequests() {
+            return requests;
+        }
+
+        public double getErrorRate() {
+            return errorRate;
+        }
+    }
+
+    public static class Report {
+
+        private final Map<String, Stats> stats;
+
+        Report(Map<String, Stats> stats) {
+            this.stats = stats;
+        }
+
+        public Stats get(String operation) {
+            return stats.get(operation);
+        }
+
+        public String toTable() {
+            StringBuilder table = new StringBuilder(String.format("%n%-16s %10s %10s %8s %10s %10s %10s%n",
+                    "operation", "requests", "req/s", "errors", "p50 ms", "p99 ms", "p999 ms"));
+            stats.forEach((name, s) -> table.append(String.format("%-16s %10d %10.0f %7.2f%% %10.2f %10.2f %10.2f%n",
+                    name, s.requests, s.throughput, s.errorRate * 100, s.p50Millis, s.p99Millis, s.p999Millis)));
+            return table.toString();
+        }
+
+        public Properties toProperties() {
+            Properties properties = new Properties();
+            stats.forEach((name, s) -> {
+                properties.setProperty(name + ".throughput", String.format(Locale.ROOT, "%.1f", s.throughput));
+                properties.setProperty(name + ".p50-millis", String.format(Locale.ROOT, "%.2f", s.p50Millis));
+                properties.setProperty(name + ".p99-millis", String.format(Locale.ROOT, "%.2f", s.p99Millis));
+                properties.setProperty(name + ".p999-millis", String.format(Locale.ROOT, "%.2f", s.p999Millis));
+            });
+            return properties;
+        }
+
+        // p999 is reported but not compared: over a run of this length it rests on a handful of requests.
+        public List<String> regressionsAgainst(Properties baseline, double throughputTolerance,
+                                               double latencyTolerance, double maxErrorRate) {
+            List<String> regressions = new ArrayList<>();
+            stats.forEach((name, s) -> {
+                if (s.errorRate > maxErrorRate) {
+                    regressions.add(String.format("%s error rate %.2f%% > %.2f%%", name, s.errorRate * 100, maxErrorRate * 100));
+                }
+                String throughput = baseline.getProperty(name + ".throughput");
+                double required = throughput != null ? Double.parseDouble(throughput) * (1 - throughputTolerance) : 0;
+                if (s.throughput < required) {
+                    regressions.add(String.format("%s throughput %.1f req/s < %.1f (baseline %s)",
+                            name, s.throughput, required, throughput));
+                }
+                for (String key : new String[]{"p50-millis", "p99-millis"}) {
+                    String limit = baseline.getProperty(name + "." + key);
+                    if (limit == null) {
+                        continue;
+                    }
+                    double actual = key.equals("p50-millis") ? s.p50Millis : s.p99Millis;
+                    // At least a millisecond of slack, so sub-millisecond percentiles do not fail on scheduler noise.
+                    double allowed = Math.max(Double.parseDouble(limit) * (1 + latencyTolerance), Double.parseDouble(limit) + 1);
+                    if (actual > allowed) {
+                        regressions.add(String.format("%s %s %.2f > %.2f (baseline %s)", name, key, actual, allowed, limit));
+                    }
+                }
+            });
+            return regressions;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.blackcode.management_stock.loadtest;
+
+import com.blackcode.management_stock.model.Item;
+import com.blackcode.management_stock.money.Money;
+import com.blackcode.management_stock.repository.ItemRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Run with: mvn -Ploadtest test
+// Boots the whole application on a random port and drives item reads, order creates and inventory movements over
+// HTTP, with part of the traffic on a few hot items. -Dloadtest.update-baseline=true stores the run as the baseline.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1",
+        // The capacity of the service is measured here, not the rate limiter in front of it.
+        "stock.admission.enabled=false",
+        // An INFO line per order would make the console the bottleneck.
+        "logging.level.com.blackcode.management_stock=WARN",
+        "logging.level.com.blackcode.management_stock.loadtest=INFO"
+})
+@Tag("loadtest")
+public class OrderMixLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderMixLoadTest.class);
+
+    private static final Path BASELINE = Path.of("src/test/resources/loadtest/baseline.properties");
+
+    private static final Path REPORT = Path.of("target/loadtest/report.properties");
+
+    private static final int STOCK = 100_000_000;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Test
+    void orderMix_shouldNotRegressAgainstTheBaseline() throws Exception {
+        Properties settings = settings();
+        int hotItems = intSetting(settings, "hot-items");
+        int hotShare = intSetting(settings, "hot-share");
+        List<Item> items = seed(intSetting(settings, "items"));
+
+        LoadGenerator generator = new LoadGenerator()
+                .add("item-read", intSetting(settings, "mix.item-reads"),
+                        random -> get("/api/items/" + pick(items, hotItems, hotShare, random).getItemId()))
+                .add("order-create", intSetting(settings, "mix.order-creates"), random -> {
+                    Item item = pick(items, hotItems, hotShare, random);
+                    int qty = 1 + random.nextInt(3);
+                    return post("/api/orders", String.format("{\"itemId\":%d,\"orderQty\":%d,\"price\":%s}",
+                            item.getItemId(), qty, item.getItemPrice().times(qty)));
+                })
+                .add("inventory-move", intSetting(settings, "mix.inventory-movements"), random ->
+                        post("/api/inventory", String.format("{\"itemId\":%d,\"inventoryQty\":%d,\"inventoryType\":\"%s\"}",
+                                pick(items, hotItems, hotShare, random).getItemId(), 1 + random.nextInt(5),
+                                random.nextBoolean() ? "T" : "W")));
+
+        LoadGenerator.Report report = generator.run(intSetting(settings, "threads"),
+                Duration.ofSeconds(intSetting(settings, "warmup-seconds")),
+                Duration.ofSeconds(intSetting(settings, "duration-seconds")));
+        log.info("Order mix load test:{}", report.toTable());
+        store(report.toProperties(), REPORT);
+
+        if (Boolean.parseBoolean(settings.getProperty("update-baseline", "false"))) {
+            store(report.toProperties(), BASELINE);
+            return;
+        }
+        assertTrue(report.get("total").getRequests() > 0, "no request completed");
+        Properties baseline = new Properties();
+        if (Files.exists(BASELINE)) {
+            try (Reader reader = Files.newBufferedReader(BASELINE)) {
+                baseline.load(reader);
+            }
+        }
+        List<String> regressions = report.regressionsAgainst(baseline,
+                Double.parseDouble(settings.getProperty("tolerance.throughput")),
+                Double.parseDouble(settings.getProperty("tolerance.latency")),
+                Double.parseDouble(settings.getProperty("max-error-rate")));
+        assertTrue(regressions.isEmpty(), "Regressions against " + BASELINE + ":\n" + String.join("\n", regressions));
+    }
+
+    private List<Item> seed(int count) {
+        List<Item> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Item item = new Item(null, "Load Item " + i, Money.ofMinor(100_000 + i * 250L), STOCK);
+            item.setOpeningStock(STOCK);
+            items.add(item);
+        }
+        return itemRepository.saveAll(items);
+    }
+
+    private Item pick(List<Item> items, int hotItems, int hotShare, SplittableRandom random) {
+        if (random.nextInt(100) < hotShare) {
+            return items.get(random.nextInt(Math.min(hotItems, items.size())));
+        }
+        return items.get(random.nextInt(items.size()));
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).GET().build();
+    }
+
+    private HttpRequest post(String path, String json) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private Properties settings() throws IOException {
+        Properties settings = new Properties();
+        try (InputStream in = getClass().getResourceAsStream("/loadtest/loadtest.properties")) {
+            settings.load(in);
+        }
+        System.getProperties().stringPropertyNames().stream()
+                .filter(name -> name.startsWith("loadtest."))
+                .forEach(name -> settings.setProperty(name.substring("loadtest.".length()), System.getProperty(name)));
+        return settings;
+    }
+
+    private int intSetting(Properties settings, String key) {
+        return Integer.parseInt(settings.getProperty(key));
+    }
+
+    // Sorted and without a timestamp, so a new baseline shows up in a diff as the numbers that moved.
+    private void store(Properties properties, Path path) throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add("# OrderMixLoadTest results, see src/test/resources/loadtest/loadtest.properties");
+        properties.stringPropertyNames().stream().sorted()
+                .forEach(name -> lines.add(name + "=" + properties.getProperty(name)));
+        Files.createDirectories(path.getParent());
+        Files.write(path, lines);
+    }
+}
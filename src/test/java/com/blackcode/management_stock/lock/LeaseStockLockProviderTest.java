@@ -0,0 +1,154 @@
+package com.blackcode.management_stock.lock;
+
+import com.blackcode.management_stock.datasource.ShardRouter;
+import com.blackcode.management_stock.exception.StockLockException;
+import com.zaxxer.hikari.HikariDataSource;
+import org.h2.tools.Server;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LeaseStockLockProviderTest {
+
+    private DriverManagerDataSource dataSource;
+
+    private DataSourceTransactionManager transactionManager;
+
+    @BeforeEach
+    void setup() {
+        dataSource = new DriverManagerDataSource("jdbc:h2:mem:lease-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        transactionManager = new DataSourceTransactionManager(dataSource);
+    }
+
+    @Test
+    void acquire_shouldExcludeOtherHolders_untilClosed_andBumpTheFencingToken() {
+        LeaseStockLockProvider provider = provider(30_000, 100);
+
+        StockLock first = provider.acquire(List.of(1L, 2L));
+        assertThrows(StockLockException.class, () -> provider.acquire(List.of(2L)));
+        StockLock other = provider.acquire(List.of(3L));
+        other.close();
+        first.close();
+
+        StockLock second = provider.acquire(List.of(2L));
+        assertTrue(second.fencingToken(2L) > first.fencingToken(2L));
+        second.close();
+    }
+
+    @Test
+    void expiredLease_shouldBeTakenOver_andOldHolderMustFailVerify() throws Exception {
+        StockLock stale = provider(50, 2_000).acquire(List.of(1L));
+        Thread.sleep(100);
+        StockLock current = provider(30_000, 2_000).acquire(List.of(1L));
+
+        assertTrue(current.fencingToken(1L) > stale.fencingToken(1L));
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        assertThrows(StockLockException.class, () -> tx.executeWithoutResult(status -> stale.verify()));
+        tx.executeWithoutResult(status -> current.verify());
+
+        stale.close();
+        assertThrows(StockLockException.class, () -> provider(30_000, 50).acquire(List.of(1L)));
+        current.close();
+    }
+
+    @Test
+    void lockForTransaction_shouldReleaseAfterRollback() {
+        LeaseStockLockProvider provider = provider(30_000, 100);
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+        assertThrows(IllegalStateException.class, () -> tx.executeWithoutResult(status -> {
+            provider.lockForTransaction(List.of(1L));
+            throw new IllegalStateException("boom");
+        }));
+
+        provider.acquire(List.of(1L)).close();
+    }
+
+    @Test
+    void lockForTransaction_shouldNotNeedASecondConnectionFromTheCallersPool() {
+        // The caller's pool has a single connection, which its own transaction holds for the whole test.
+        HikariDataSource callerPool = new HikariDataSource();
+        callerPool.setJdbcUrl(dataSource.getUrl());
+        callerPool.setUsername("sa");
+        callerPool.setMaximumPoolSize(1);
+        callerPool.setConnectionTimeout(250);
+        try {
+            LeaseStockLockProvider provider = new LeaseStockLockProvider(callerPool, List.of(dataSource),
+                    ShardRouter.singleShard(), 30_000, 1_000);
+            TransactionTemplate tx = new TransactionTemplate(new DataSourceTransactionManager(callerPool));
+
+            tx.executeWithoutResult(status -> {
+                new JdbcTemplate(callerPool).queryForObject("SELECT 1", Integer.class);
+                provider.lockForTransaction(List.of(1L));
+            });
+
+            provider.acquire(List.of(1L)).close();
+        } finally {
+            callerPool.close();
+        }
+    }
+
+    @Test
+    void restore_shouldTakeANewInstanceId_soClonesDoNotShareLeases() {
+        LeaseStockLockProvider provider = provider(30_000, 100);
+        String checkpointed = provider.getInstanceId();
+
+        provider.stop();
+        provider.start();
+
+        assertNotEquals(checkpointed, provider.getInstanceId());
+        provider.acquire(List.of(1L)).close();
+    }
+
+    @Test
+    void separateProcesses_shouldNeverLoseAnUpdate() throws Exception {
+        // An H2 TCP server stands in for the shared database the instances would all talk to.
+        Server server = Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+        String url = "jdbc:h2:tcp://localhost:" + server.getPort() + "/mem:lease-contention;DB_CLOSE_DELAY=-1";
+        Path logs = Path.of("target", "lease-contention-" + System.nanoTime()).toAbsolutePath();
+        JdbcTemplate shared = new JdbcTemplate(new DriverManagerDataSource(url, "sa", ""));
+        shared.execute("CREATE TABLE tb_lease_counter (item_id BIGINT PRIMARY KEY, counter BIGINT NOT NULL)");
+        shared.update("INSERT INTO tb_lease_counter (item_id, counter) VALUES (42, 0)");
+
+        int processes = 3;
+        int increments = 40;
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        List<Process> workers = new ArrayList<>();
+        for (int i = 0; i < processes; i++) {
+            workers.add(new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                    LeaseStockLockWorker.class.getName(), url, "42", String.valueOf(increments))
+                    .redirectErrorStream(true)
+                    .redirectOutput(new File(logs + "-worker-" + i + ".log"))
+                    .start());
+        }
+        try {
+            for (Process worker : workers) {
+                assertTrue(worker.waitFor(120, TimeUnit.SECONDS));
+                assertEquals(0, worker.exitValue());
+            }
+
+            assertEquals(processes * increments,
+                    shared.queryForObject("SELECT counter FROM tb_lease_counter WHERE item_id = 42", Long.class));
+            assertEquals(processes * increments,
+                    shared.queryForObject("SELECT token FROM tb_stock_lease WHERE item_id = 42", Long.class));
+        } finally {
+            workers.forEach(Process::destroyForcibly);
+            server.stop();
+        }
+    }
+
+    private LeaseStockLockProvider provider(long ttlMillis, long waitMillis) {
+        return new LeaseStockLockProvider(dataSource, List.of(dataSource), ShardRouter.singleShard(), ttlMillis, waitMillis);
+    }
+}
@@ -0,0 +1,34 @@
+package com.blackcode.management_stock.lock;
+
+import com.blackcode.management_stock.datasource.ShardRouter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+// Stand-alone instance for LeaseStockLockProviderTest: args are <jdbcUrl> <itemId> <increments>. Every increment is a
+// read-modify-write of tb_lease_counter under a lease, the same shape as a stock update in the services.
+public class LeaseStockLockWorker {
+
+    public static void main(String[] args) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(args[0], "sa", "");
+        long itemId = Long.parseLong(args[1]);
+        int increments = Integer.parseInt(args[2]);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        LeaseStockLockProvider provider = new LeaseStockLockProvider(dataSource, List.of(dataSource),
+                ShardRouter.singleShard(), 10_000, 60_000);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        for (int i = 0; i < increments; i++) {
+            tx.executeWithoutResult(status -> {
+                provider.lockForTransaction(List.of(itemId));
+                Long value = jdbcTemplate.queryForObject("SELECT counter FROM tb_lease_counter WHERE item_id = ?",
+                        Long.class, itemId);
+                Thread.yield();
+                jdbcTemplate.update("UPDATE tb_lease_counter SET counter = ? WHERE item_id = ?", value + 1, itemId);
+            });
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.blackcode.management_stock.lock;
+
+import com.blackcode.management_stock.exception.StockLockException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StripedStockLockProviderTest {
+
+    @Test
+    void acquire_shouldTimeOut_whileAnotherThreadHoldsTheItem() throws Exception {
+        StripedStockLockProvider provider = new StripedStockLockProvider(64, 50);
+        StockLock held = provider.acquire(List.of(1L));
+
+        CompletableFuture<Void> other = CompletableFuture.runAsync(() -> provider.acquire(List.of(1L)));
+        Exception error = assertThrows(Exception.class, () -> other.get(2, TimeUnit.SECONDS));
+        assertInstanceOf(StockLockException.class, error.getCause());
+
+        held.close();
+        CompletableFuture.runAsync(() -> provider.acquire(List.of(1L)).close()).get(2, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void acquire_shouldNotDeadlock_whenMultiItemRequestsOverlapInOppositeOrder() throws Exception {
+        // Two stripes only, so most item sets collide on both and the acquisition order is what prevents deadlock.
+        StripedStockLockProvider provider = new StripedStockLockProvider(2, 10_000);
+        long[] counter = new long[1];
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 2000; i++) {
+                List<Long> items = i % 2 == 0 ? List.of(1L, 2L, 3L) : List.of(3L, 2L, 1L);
+                futures.add(pool.submit(() -> {
+                    try (StockLock lock = provider.acquire(items)) {
+                        counter[0]++;
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(2000, counter[0]);
+    }
+}
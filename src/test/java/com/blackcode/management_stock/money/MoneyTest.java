@@ -0,0 +1,152 @@
+package com.blackcode.management_stock.money;
+
+import com.blackcode.management_stock.dto.OrderReq;
+import com.blackcode.management_stock.dto.OrderRes;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.function.IntSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MoneyTest {
+
+    private static final Logger log = LoggerFactory.getLogger(MoneyTest.class);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void parse_shouldReadPlainDecimals_andRefuseWhatItCannotHoldExactly() {
+        assertEquals(1_250_050, Money.parse("12500.5").getMinorUnits());
+        assertEquals(-5, Money.parse("-0.05").getMinorUnits());
+        assertEquals(25, Money.parse(".25").getMinorUnits());
+        assertEquals(100, Money.parse("1.000").getMinorUnits());
+        assertEquals(Money.of(new BigDecimal("12500.50")), Money.parse("12500.50"));
+
+        assertThrows(ArithmeticException.class, () -> Money.parse("0.125"));
+        assertThrows(ArithmeticException.class, () -> Money.parse("92233720368547758.08"));
+        assertThrows(NumberFormatException.class, () -> Money.parse("12,50"));
+        assertThrows(NumberFormatException.class, () -> Money.parse("-"));
+    }
+
+    @Test
+    void arithmetic_shouldThrowOnOverflow_insteadOfWrapping() {
+        Money price = Money.of(10000);
+
+        assertEquals(Money.of(30000), price.times(3));
+        assertTrue(Money.of(30000).isTotalOf(price, 3));
+        assertFalse(Money.of(29999).isTotalOf(price, 3));
+        assertThrows(ArithmeticException.class, () -> Money.ZERO.isTotalOf(Money.ofMinor(Long.MAX_VALUE / 2), 3));
+        assertEquals(Money.of(10001), price.plus(Money.of(1)));
+        assertThrows(ArithmeticException.class, () -> Money.ofMinor(Long.MAX_VALUE / 2).times(3));
+        assertThrows(ArithmeticException.class, () -> Money.ofMinor(Long.MAX_VALUE).plus(Money.ofMinor(1)));
+        assertThrows(ArithmeticException.class, () -> Money.ofMinor(Long.MIN_VALUE).negate());
+        assertThrows(ArithmeticException.class, () -> Money.of(Long.MAX_VALUE / 10));
+    }
+
+    @Test
+    void toString_shouldAlwaysCarryTheScale() {
+        assertEquals("12500.00", Money.of(12500).toString());
+        assertEquals("0.05", Money.ofMinor(5).toString());
+        assertEquals("-3.10", Money.ofMinor(-310).toString());
+        assertEquals("-92233720368547758.08", Money.ofMinor(Long.MIN_VALUE).toString());
+        assertEquals(new BigDecimal("-3.10"), Money.ofMinor(-310).toBigDecimal());
+    }
+
+    @Test
+    void json_shouldTravelAsANumberWithTheScale_andReadNumbersOrText() throws Exception {
+        OrderRes orderRes = new OrderRes("O1", null, 2, Money.parse("20001.5"));
+
+        assertTrue(objectMapper.writeValueAsString(orderRes).contains("\"price\":20001.50"));
+        assertEquals(Money.ofMinor(2_000_150), objectMapper.readValue("{\"price\":20001.5}", OrderReq.class).getPrice());
+        assertEquals(Money.of(20000), objectMapper.readValue("{\"price\":20000}", OrderReq.class).getPrice());
+        assertEquals(Money.of(20000), objectMapper.readValue("{\"price\":\"20000.00\"}", OrderReq.class).getPrice());
+        assertEquals(Money.of(20000), objectMapper.readValue("{\"price\":2.0E4}", OrderReq.class).getPrice());
+        assertThrows(JsonMappingException.class, () -> objectMapper.readValue("{\"price\":0.001}", OrderReq.class));
+        assertThrows(JsonMappingException.class, () -> objectMapper.readValue("{\"price\":1e30}", OrderReq.class));
+    }
+
+    @Test
+    void of_shouldRejectHugeExponents_beforeScalingThem() {
+        assertTimeoutPreemptively(Duration.ofSeconds(2), () -> {
+            assertThrows(ArithmeticException.class, () -> Money.of(new BigDecimal("1e100000000")));
+            assertThrows(ArithmeticException.class, () -> Money.of(new BigDecimal("1e-100000000")));
+            assertThrows(ArithmeticException.class, () -> Money.of(new BigDecimal("0e-100000000")));
+            assertThrows(JsonMappingException.class,
+                    () -> objectMapper.readValue("{\"price\":1e100000000}", OrderReq.class));
+        });
+        assertEquals(Money.of(20000), Money.of(new BigDecimal("2.000000E+4")));
+        assertEquals(Money.ofMinor(5), Money.of(new BigDecimal("5e-2")));
+    }
+
+    @Test
+    void converter_shouldStoreMinorUnits() {
+        MoneyConverter converter = new MoneyConverter();
+
+        assertEquals(1_250_050L, converter.convertToDatabaseColumn(Money.parse("12500.50")));
+        assertEquals(Money.parse("12500.50"), converter.convertToEntityAttribute(1_250_050L));
+        assertNull(converter.convertToDatabaseColumn(null));
+        assertNull(converter.convertToEntityAttribute(null));
+    }
+
+    // The price check of createOrder, before and after. Run with: mvn -Pbenchmark test
+    @Test
+    @Tag("benchmark")
+    void benchmark_priceValidation() {
+        BigDecimal decimalPrice = new BigDecimal("12500.50");
+        Money moneyPrice = Money.parse("12500.50");
+        BigDecimal[] decimalSubmitted = new BigDecimal[16];
+        Money[] moneySubmitted = new Money[16];
+        for (int qty = 0; qty < 16; qty++) {
+            decimalSubmitted[qty] = decimalPrice.multiply(BigDecimal.valueOf(qty));
+            moneySubmitted[qty] = moneyPrice.times(qty);
+        }
+        int iterations = 5_000_000;
+
+        StringBuilder table = new StringBuilder(String.format("%n%-12s %10s %14s%n", "path", "ns/check", "bytes/check"));
+        for (int round = 0; round < 2; round++) {
+            table.setLength(table.indexOf("\n", 1) + 1);
+            measure(table, "BigDecimal", iterations, () -> {
+                int valid = 0;
+                for (int i = 0; i < iterations; i++) {
+                    int qty = i & 15;
+                    BigDecimal total = decimalPrice.multiply(BigDecimal.valueOf(qty));
+                    if (decimalSubmitted[qty].compareTo(total) == 0) {
+                        valid++;
+                    }
+                }
+                return valid;
+            });
+            measure(table, "Money", iterations, () -> {
+                int valid = 0;
+                for (int i = 0; i < iterations; i++) {
+                    int qty = i & 15;
+                    if (moneySubmitted[qty].isTotalOf(moneyPrice, qty)) {
+                        valid++;
+                    }
+                }
+                return valid;
+            });
+        }
+        log.info("Order price check, BigDecimal versus Money:{}", table);
+    }
+
+    private void measure(StringBuilder table, String path, int iterations, IntSupplier loop) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        long allocatedBefore = threads.getThreadAllocatedBytes(thread);
+        long start = System.nanoTime();
+        int valid = loop.getAsInt();
+        long nanos = System.nanoTime() - start;
+        long allocated = threads.getThreadAllocatedBytes(thread) - allocatedBefore;
+        assertEquals(iterations, valid);
+        table.append(String.format("%-12s %10.1f %14.1f%n", path, (double) nanos / iterations, (double) allocated / iterations));
+    }
+}
@@ -0,0 +1,99 @@
+package com.blackcode.management_stock.querystats;
+
+import com.blackcode.management_stock.dto.NPlusOneDetection;
+import com.blackcode.management_stock.dto.QueryStatsReport;
+import com.blackcode.management_stock.dto.StatementStats;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class QueryStatsRecorderTest {
+
+    private static final String SELECT_ITEM = "select i1_0.item_id from items i1_0 where i1_0.item_id=?";
+
+    private static final String INSERT_ORDER = "insert into orders (order_no) values (?)";
+
+    @Test
+    void endRequest_shouldFlagASelectRepeatedPastTheThreshold_onceForTheEndpoint() {
+        QueryStatsRecorder recorder = new QueryStatsRecorder(1000, 3, 20, 100);
+
+        for (int request = 0; request < 2; request++) {
+            recorder.beginRequest("GET /api/orders");
+            for (int i = 0; i < 3 + request; i++) {
+                execute(recorder, SELECT_ITEM, 1);
+            }
+            execute(recorder, INSERT_ORDER, 1);
+            execute(recorder, INSERT_ORDER, 1);
+            execute(recorder, INSERT_ORDER, 1);
+            recorder.endRequest();
+        }
+        recorder.beginRequest("GET /api/items/{id}");
+        execute(recorder, SELECT_ITEM, 1);
+        recorder.endRequest();
+
+        QueryStatsReport report = recorder.report();
+        assertEquals(1, report.getSuspectedNPlusOne().size());
+        NPlusOneDetection detection = report.getSuspectedNPlusOne().get(0);
+        assertEquals("GET /api/orders", detection.getEndpoint());
+        assertEquals(SELECT_ITEM, detection.getStatement());
+        assertEquals(4, detection.getMaxExecutionsPerRequest());
+        assertEquals(2, detection.getOccurrences());
+        assertEquals(8, statement(report, SELECT_ITEM).getExecutions());
+        assertEquals(2, report.getEndpoints().stream()
+                .filter(endpoint -> endpoint.getEndpoint().equals("GET /api/orders"))
+                .findFirst().orElseThrow().getRequests());
+    }
+
+    @Test
+    void afterQuery_shouldKeepOnlyTheSlowestQueries_withTheEndpointOrThreadThatRanThem() {
+        QueryStatsRecorder recorder = new QueryStatsRecorder(10, 10, 2, 100);
+
+        recorder.beginRequest("POST /api/orders");
+        execute(recorder, INSERT_ORDER, 5);
+        execute(recorder, INSERT_ORDER, 30);
+        execute(recorder, SELECT_ITEM, 50);
+        recorder.endRequest();
+        execute(recorder, SELECT_ITEM, 20);
+
+        QueryStatsReport report = recorder.report();
+        assertEquals(List.of(50L, 30L), report.getSlowQueries().stream().map(slow -> slow.getMillis()).toList());
+        assertEquals("POST /api/orders", report.getSlowQueries().get(0).getEndpoint());
+        assertEquals(30, statement(report, INSERT_ORDER).getMaxMillis());
+        assertEquals(35, statement(report, INSERT_ORDER).getTotalMillis());
+        // Statements outside a request still count per statement, but against no endpoint.
+        assertEquals(2, statement(report, SELECT_ITEM).getExecutions());
+        assertEquals(85, report.getEndpoints().get(0).getDbMillis());
+    }
+
+    @Test
+    void afterQuery_shouldFoldNewStatementsIntoOneBucket_onceTheLimitIsReached() {
+        QueryStatsRecorder recorder = new QueryStatsRecorder(1000, 10, 20, 1);
+
+        execute(recorder, SELECT_ITEM, 1);
+        execute(recorder, INSERT_ORDER, 1);
+        execute(recorder, "delete from orders where order_id=?", 1);
+
+        QueryStatsReport report = recorder.report();
+        assertEquals(2, report.getStatements().size());
+        assertEquals(2, statement(report, "(other statements)").getExecutions());
+
+        recorder.reset();
+        assertTrue(recorder.report().getStatements().isEmpty());
+    }
+
+    private static void execute(QueryStatsRecorder recorder, String sql, long millis) {
+        ExecutionInfo executionInfo = new ExecutionInfo();
+        executionInfo.setElapsedTime(millis);
+        recorder.afterQuery(executionInfo, List.of(new QueryInfo(sql)));
+    }
+
+    private static StatementStats statement(QueryStatsReport report, String sql) {
+        return report.getStatements().stream()
+                .filter(stats -> stats.getStatement().equals(sql))
+                .findFirst().orElseThrow();
+    }
+}
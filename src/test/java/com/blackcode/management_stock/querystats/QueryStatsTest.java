@@ -0,0 +1,83 @@
+package com.blackcode.management_stock.querystats;
+
+import com.blackcode.management_stock.actuator.QueryStatsEndpoint;
+import com.blackcode.management_stock.dto.EndpointQueryStats;
+import com.blackcode.management_stock.dto.ItemReq;
+import com.blackcode.management_stock.dto.ItemRes;
+import com.blackcode.management_stock.dto.QueryStatsReport;
+import com.blackcode.management_stock.dto.StatementStats;
+import com.blackcode.management_stock.money.Money;
+import com.blackcode.management_stock.service.ItemService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// The cache is off so every read reaches the database, and every statement counts as slow.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:query-stats;DB_CLOSE_DELAY=-1",
+        "stock.cache.second-level.enabled=false",
+        "stock.query-stats.slow-threshold-millis=0"
+})
+@AutoConfigureMockMvc
+public class QueryStatsTest {
+
+    private static final String ITEM_BY_ID = "GET /api/items/{id} (ItemController#getItemFindById)";
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private QueryStatsEndpoint queryStatsEndpoint;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        queryStatsEndpoint.reset();
+    }
+
+    @Test
+    void report_shouldAttributeStatementsAndRowsToTheEndpoint() throws Exception {
+        ItemRes item = itemService.createItem(new ItemReq("Tracked", Money.of(1000), 5));
+
+        mockMvc.perform(get("/api/items/{id}", item.getItemId())).andExpect(status().isOk());
+        mockMvc.perform(get("/api/items/{id}", item.getItemId())).andExpect(status().isOk());
+        mockMvc.perform(get("/api/items")).andExpect(status().isOk());
+
+        QueryStatsReport report = queryStatsEndpoint.report();
+        EndpointQueryStats byId = report.getEndpoints().stream()
+                .filter(endpoint -> endpoint.getEndpoint().equals(ITEM_BY_ID))
+                .findFirst().orElseThrow();
+        assertEquals(2, byId.getRequests());
+        assertTrue(byId.getStatements() >= 2);
+        assertTrue(byId.getRows() >= 2);
+        assertTrue(report.getSlowQueries().stream().anyMatch(slow -> slow.getEndpoint().equals(ITEM_BY_ID)));
+
+        StatementStats insert = report.getStatements().stream()
+                .filter(stats -> stats.getStatement().startsWith("insert into tb_item"))
+                .findFirst().orElseThrow();
+        assertEquals(1, insert.getExecutions());
+        assertTrue(report.getStatements().stream()
+                .anyMatch(stats -> stats.getStatement().startsWith("select") && stats.getRows() > 0));
+        assertTrue(report.getHqlQueries().stream()
+                .anyMatch(hql -> hql.getStatement().equalsIgnoreCase("select i from Item i where i.deletedAt is null")));
+    }
+
+    @Test
+    void endpoint_shouldBeExposedThroughActuator() throws Exception {
+        mockMvc.perform(get("/api/items")).andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/querystats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.slowThresholdMillis").value(0))
+                .andExpect(jsonPath("$.endpoints[0].endpoint").exists());
+    }
+}
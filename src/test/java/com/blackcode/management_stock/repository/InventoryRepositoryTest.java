@@ -0,0 +1,137 @@
+package com.blackcode.management_stock.repository;
+
+import com.blackcode.management_stock.cache.TableStamps;
+import com.blackcode.management_stock.datasource.ShardRouter;
+import com.blackcode.management_stock.dto.PageRes;
+import com.blackcode.management_stock.lock.StripedStockLockProvider;
+import com.blackcode.management_stock.model.Inventory;
+import com.blackcode.management_stock.model.InventoryType;
+import com.blackcode.management_stock.model.Item;
+import com.blackcode.management_stock.money.Money;
+import com.blackcode.management_stock.service.InventoryService;
+import com.blackcode.management_stock.service.impl.InventoryServiceImpl;
+import com.blackcode.management_stock.service.impl.StockAllocationServiceImpl;
+import com.blackcode.management_stock.service.impl.StockSlotServiceImpl;
+import com.blackcode.management_stock.utils.ApiResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.management.ThreadMXBean;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({InventoryServiceImpl.class, StockAllocationServiceImpl.class, StockSlotServiceImpl.class,
+        StripedStockLockProvider.class, TableStamps.class, ShardRouter.class})
+public class InventoryRepositoryTest {
+
+    private static final Logger log = LoggerFactory.getLogger(InventoryRepositoryTest.class);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void streamPage_shouldReadOnlyTheRequestedPageInIdOrder() {
+        List<Long> ids = persistInventories(7);
+
+        try (Stream<Inventory> page = inventoryRepository.streamPage(PageRequest.of(1, 3))) {
+            assertEquals(ids.subList(3, 6), page.map(Inventory::getInventoryId).toList());
+        }
+    }
+
+    @Test
+    void writeInventoryPage_shouldMatchTheBuiltPage() throws Exception {
+        persistInventories(7);
+        entityManager.clear();
+
+        ByteArrayOutputStream streamed = new ByteArrayOutputStream();
+        inventoryService.writeInventoryPage(1, 3, streamed);
+
+        String built = objectMapper.writeValueAsString(ApiResponse.success("Inventory retrieved successfully", 200,
+                PageRes.of(inventoryService.getAllInventory(1, 3))));
+        assertEquals(objectMapper.readTree(built), objectMapper.readTree(streamed.toByteArray()));
+    }
+
+    // Run with: mvn -Pbenchmark test
+    @Test
+    @Tag("benchmark")
+    void benchmark_builtVersusStreamedPage() throws Exception {
+        persistInventories(1000);
+        entityManager.clear();
+
+        StringBuilder table = new StringBuilder(String.format("%n%-10s %14s %16s %10s%n",
+                "variant", "alloc B/op", "managed at end", "us/op"));
+        measure(table, "built", out -> objectMapper.writeValue(out, ApiResponse.success(
+                "Inventory retrieved successfully", 200, PageRes.of(inventoryService.getAllInventory(0, 1000)))));
+        measure(table, "streamed", out -> inventoryService.writeInventoryPage(0, 1000, out));
+        log.info("Inventory page of 1000 rows, built versus streamed:{}", table);
+    }
+
+    private void measure(StringBuilder table, String variant, PageWrite write) throws IOException {
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        SessionImplementor session = entityManager.getEntityManager().unwrap(SessionImplementor.class);
+        int iterations = 50;
+        for (int i = 0; i < iterations; i++) {
+            write.to(OutputStream.nullOutputStream());
+            entityManager.clear();
+        }
+        write.to(OutputStream.nullOutputStream());
+        // Entities still held by the persistence context when the last row has been written.
+        int managed = session.getPersistenceContext().getNumberOfManagedEntities();
+        entityManager.clear();
+
+        long allocated = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            long before = threads.getThreadAllocatedBytes(threadId);
+            write.to(OutputStream.nullOutputStream());
+            allocated += threads.getThreadAllocatedBytes(threadId) - before;
+            entityManager.clear();
+        }
+        long micros = (System.nanoTime() - start) / iterations / 1000;
+        table.append(String.format("%-10s %14d %16d %10d%n", variant, allocated / iterations, managed, micros));
+    }
+
+    private List<Long> persistInventories(int count) {
+        Item item = entityManager.persist(new Item(null, "Item A", Money.of(10000), 10));
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ids.add(entityManager.persist(new Inventory(null, item, i + 1, InventoryType.T)).getInventoryId());
+        }
+        entityManager.flush();
+        return ids;
+    }
+
+    private interface PageWrite {
+        void to(OutputStream out) throws IOException;
+    }
+}
@@ -0,0 +1,86 @@
+package com.blackcode.management_stock.repository;
+
+import com.blackcode.management_stock.model.Item;
+import com.blackcode.management_stock.money.Money;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+public class ItemRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Test
+    void patchNameAndPrice_shouldWriteOnlyTheGivenColumns_andBumpTheVersion() {
+        Item item = new Item(null, "Item A", Money.of(10000), 10);
+        item.setOpeningStock(10);
+        Long itemId = entityManager.persistAndFlush(item).getItemId();
+        Long version = item.getVersion();
+
+        assertEquals(1, itemRepository.patchNameAndPrice(itemId, null, Money.of(12500)));
+        Item repriced = itemRepository.findById(itemId).orElseThrow();
+        assertEquals("Item A", repriced.getItemName());
+        assertEquals(Money.of(12500), repriced.getItemPrice());
+        assertEquals(10, repriced.getItemStock());
+        assertEquals(10, repriced.getOpeningStock());
+        assertEquals(version + 1, repriced.getVersion());
+
+        assertEquals(1, itemRepository.patchNameAndPrice(itemId, "Item B", null));
+        Item renamed = itemRepository.findById(itemId).orElseThrow();
+        assertEquals("Item B", renamed.getItemName());
+        assertEquals(Money.of(12500), renamed.getItemPrice());
+        assertEquals(version + 2, renamed.getVersion());
+    }
+
+    @Test
+    void markDeleted_shouldHideTheItemFromListings_andOnlyOnce() {
+        Long liveId = entityManager.persistAndFlush(new Item(null, "Item A", Money.of(10000), 10)).getItemId();
+        Long deletedId = entityManager.persistAndFlush(new Item(null, "Item B", Money.of(10000), 10)).getItemId();
+
+        assertEquals(1, itemRepository.markDeleted(deletedId, LocalDateTime.now()));
+        assertEquals(0, itemRepository.markDeleted(deletedId, LocalDateTime.now()));
+        assertEquals(0, itemRepository.patchNameAndPrice(deletedId, "Item C", null));
+
+        Page<Item> cached = itemRepository.findAllCached(PageRequest.of(0, 10));
+        Page<Item> live = itemRepository.findAllLive(PageRequest.of(0, 10));
+        assertEquals(List.of(liveId), cached.map(Item::getItemId).getContent());
+        assertEquals(1, cached.getTotalElements());
+        assertEquals(List.of(liveId), live.map(Item::getItemId).getContent());
+        assertTrue(itemRepository.findById(deletedId).orElseThrow().isDeleted());
+    }
+
+    @Test
+    void patchNameAndPrice_shouldReturnZero_whenTheItemDoesNotExist() {
+        assertEquals(0, itemRepository.patchNameAndPrice(999999L, "Item A", Money.of(1)));
+    }
+
+    @Test
+    void findSnapshot_shouldReturnTheRow_withoutManagingIt() {
+        Item item = new Item(null, "Item A", Money.of(10000), 10);
+        item.setStockShards(4);
+        Long itemId = entityManager.persistAndFlush(item).getItemId();
+        entityManager.clear();
+
+        Item snapshot = itemRepository.findSnapshot(itemId).orElseThrow();
+
+        assertEquals("Item A", snapshot.getItemName());
+        assertEquals(Money.of(10000), snapshot.getItemPrice());
+        assertEquals(4, snapshot.getStockShards());
+        assertEquals(item.getVersion(), snapshot.getVersion());
+        assertFalse(entityManager.getEntityManager().contains(snapshot));
+        assertTrue(itemRepository.findSnapshot(999999L).isEmpty());
+    }
+}
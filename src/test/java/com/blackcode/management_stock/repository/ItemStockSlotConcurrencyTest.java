@@ -0,0 +1,93 @@
+package com.blackcode.management_stock.repository;
+
+import com.blackcode.management_stock.cache.TableStamps;
+import com.blackcode.management_stock.datasource.ShardRouter;
+import com.blackcode.management_stock.exception.NotEnoughStockException;
+import com.blackcode.management_stock.model.Item;
+import com.blackcode.management_stock.money.Money;
+import com.blackcode.management_stock.service.StockSlotService;
+import com.blackcode.management_stock.service.impl.StockSlotServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import({StockSlotServiceImpl.class, TableStamps.class, ShardRouter.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ItemStockSlotConcurrencyTest {
+
+    private static final int THREADS = 8;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private ItemStockSlotRepository itemStockSlotRepository;
+
+    @Autowired
+    private StockSlotService stockSlotService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        itemStockSlotRepository.deleteAll();
+        itemRepository.deleteAll();
+    }
+
+    @Test
+    void take_fromManyThreads_shouldNeverOversellOrLoseUpdates() throws Exception {
+        Item item = shardedItem(100, 4);
+        AtomicInteger sold = new AtomicInteger();
+
+        runConcurrently(200, () -> {
+            try {
+                stockSlotService.take(item, 1);
+                sold.incrementAndGet();
+            } catch (NotEnoughStockException ignored) {
+            }
+        });
+
+        assertEquals(100, sold.get());
+        assertEquals(0, itemStockSlotRepository.sumQuantity(item.getItemId()));
+    }
+
+    private Item shardedItem(int stock, int shards) {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        return tx.execute(status -> {
+            Item item = itemRepository.save(new Item(null, "Item " + shards, Money.of(10000), stock));
+            stockSlotService.reshard(item, shards);
+            return itemRepository.save(item);
+        });
+    }
+
+    private void runConcurrently(int tasks, Runnable body) throws Exception {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>(tasks);
+            for (int i = 0; i < tasks; i++) {
+                futures.add(pool.submit(() -> tx.executeWithoutResult(status -> body.run())));
+            }
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.blackcode.management_stock.repository;
+
+import com.blackcode.management_stock.cache.TableStamps;
+import com.blackcode.management_stock.datasource.ShardRouter;
+import com.blackcode.management_stock.exception.NotEnoughStockException;
+import com.blackcode.management_stock.model.Item;
+import com.blackcode.management_stock.model.ItemStockSlot;
+import com.blackcode.management_stock.money.Money;
+import com.blackcode.management_stock.service.StockSlotService;
+import com.blackcode.management_stock.service.impl.StockSlotServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import({StockSlotServiceImpl.class, TableStamps.class, ShardRouter.class})
+public class ItemStockSlotRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ItemStockSlotRepository itemStockSlotRepository;
+
+    @Autowired
+    private StockSlotService stockSlotService;
+
+    @Test
+    void reshard_shouldSpreadStockEvenlyAcrossSlots() {
+        Item item = entityManager.persist(new Item(null, "Item A", Money.of(10000), 10));
+
+        stockSlotService.reshard(item, 4);
+        entityManager.flush();
+
+        List<ItemStockSlot> slots = itemStockSlotRepository.findAllByItemIdForUpdate(item.getItemId());
+        assertEquals(List.of(3, 3, 2, 2), slots.stream().map(ItemStockSlot::getQuantity).toList());
+        assertEquals(0, item.getItemStock());
+        assertEquals(4, item.getStockShards());
+        assertEquals(10, stockSlotService.available(item));
+    }
+
+    @Test
+    void availableByItem_shouldSumTheSlots_andReadPlainItemsFromTheRow() {
+        Item slotted = entityManager.persist(new Item(null, "Item A", Money.of(10000), 10));
+        Item plain = entityManager.persist(new Item(null, "Item B", Money.of(10000), 6));
+        stockSlotService.reshard(slotted, 3);
+        entityManager.flush();
+
+        assertEquals(Map.of(slotted.getItemId(), 10, plain.getItemId(), 6),
+                stockSlotService.availableByItem(List.of(slotted, plain)));
+    }
+
+    @Test
+    void take_shouldDrainAcrossSlots_whenNoSingleSlotCoversQuantity() {
+        Item item = entityManager.persist(new Item(null, "Item A", Money.of(10000), 10));
+        stockSlotService.reshard(item, 4);
+        entityManager.flush();
+
+        stockSlotService.take(item, 2);
+        stockSlotService.take(item, 7);
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals(1, stockSlotService.available(item));
+        assertThrows(NotEnoughStockException.class, () -> stockSlotService.take(item, 2));
+    }
+
+    @Test
+    void give_thenUnshard_shouldCollapseSlotsBackIntoItemStock() {
+        Item item = entityManager.persist(new Item(null, "Item A", Money.of(10000), 10));
+        stockSlotService.reshard(item, 3);
+        entityManager.flush();
+
+        stockSlotService.give(item, 5);
+        entityManager.flush();
+        entityManager.clear();
+        assertEquals(15, stockSlotService.available(item));
+
+        stockSlotService.reshard(item, 0);
+        entityManager.flush();
+
+        assertFalse(item.isSharded());
+        assertEquals(15, item.getItemStock());
+        assertEquals(0, itemStockSlotRepository.sumQuantity(item.getItemId()));
+    }
+}
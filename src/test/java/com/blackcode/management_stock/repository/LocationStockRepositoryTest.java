@@ -0,0 +1,84 @@
+package com.blackcode.management_stock.repository;
+
+import com.blackcode.management_stock.cache.TableStamps;
+import com.blackcode.management_stock.datasource.ShardRouter;
+import com.blackcode.management_stock.exception.NotEnoughStockException;
+import com.blackcode.management_stock.model.Item;
+import com.blackcode.management_stock.model.LocationStock;
+import com.blackcode.management_stock.model.StockLocation;
+import com.blackcode.management_stock.money.Money;
+import com.blackcode.management_stock.service.StockAllocationService;
+import com.blackcode.management_stock.service.impl.StockAllocationServiceImpl;
+import com.blackcode.management_stock.service.impl.StockSlotServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import({StockAllocationServiceImpl.class, StockSlotServiceImpl.class, TableStamps.class, ShardRouter.class})
+@TestPropertySource(properties = "stock.allocation.strategy=MOST_STOCK")
+public class LocationStockRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private LocationStockRepository locationStockRepository;
+
+    @Autowired
+    private StockAllocationService stockAllocationService;
+
+    @Test
+    void allocateAndReceive_shouldMoveQuantitiesBetweenLocationRows() {
+        Item item = entityManager.persist(new Item(null, "Item A", Money.of(10000), 12));
+        StockLocation jakarta = entityManager.persist(new StockLocation(null, "JKT-01", "Jakarta", 0));
+        StockLocation surabaya = entityManager.persist(new StockLocation(null, "SBY-01", "Surabaya", 1));
+        entityManager.persist(new LocationStock(null, item, jakarta, 3));
+        entityManager.persist(new LocationStock(null, item, surabaya, 7));
+        entityManager.flush();
+
+        assertEquals(surabaya.getLocationId(), stockAllocationService.allocate(item, 5, null).getLocationId());
+        assertEquals(jakarta.getLocationId(), stockAllocationService.receive(item, 4, jakarta.getLocationId()).getLocationId());
+        entityManager.flush();
+        entityManager.clear();
+
+        List<LocationStock> rows = locationStockRepository.findAllByItemId(item.getItemId());
+        assertEquals(2, rows.size());
+        assertEquals("JKT-01", rows.get(0).getLocation().getLocationCode());
+        assertEquals(7, rows.get(0).getQuantity());
+        assertEquals(2, rows.get(1).getQuantity());
+    }
+
+    @Test
+    void allocate_shouldUseUnassignedStock_onlyBeyondLocatedQuantity() {
+        Item item = entityManager.persist(new Item(null, "Item A", Money.of(10000), 12));
+        StockLocation jakarta = entityManager.persist(new StockLocation(null, "JKT-01", "Jakarta", 0));
+        entityManager.persist(new LocationStock(null, item, jakarta, 3));
+        entityManager.flush();
+
+        assertNull(stockAllocationService.allocate(item, 9, null));
+        assertThrows(NotEnoughStockException.class, () -> stockAllocationService.allocate(item, 10, null));
+    }
+
+    @Test
+    void receive_shouldCreateTheLocationRowOnce_andAddToItAfterwards() {
+        Item item = entityManager.persist(new Item(null, "Item A", Money.of(10000), 12));
+        StockLocation jakarta = entityManager.persist(new StockLocation(null, "JKT-01", "Jakarta", 0));
+        entityManager.flush();
+
+        stockAllocationService.receive(item, 4, jakarta.getLocationId());
+        stockAllocationService.receive(item, 3, jakarta.getLocationId());
+        entityManager.clear();
+
+        List<LocationStock> rows = locationStockRepository.findAllByItemId(item.getItemId());
+        assertEquals(1, rows.size());
+        assertEquals(7, rows.get(0).getQuantity());
+    }
+}
@@ -0,0 +1,56 @@
+package com.blackcode.management_stock.repository;
+
+import com.blackcode.management_stock.dto.SalesSummaryRes;
+import com.blackcode.management_stock.model.RollupGranularity;
+import com.blackcode.management_stock.model.SalesRollup;
+import com.blackcode.management_stock.money.Money;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+public class SalesRollupRepositoryTest {
+
+    @Autowired
+    private SalesRollupRepository salesRollupRepository;
+
+    @Test
+    void applyDelta_shouldInsertThenAccumulate() {
+        LocalDateTime bucket = LocalDateTime.of(2025, 1, 15, 0, 0);
+
+        salesRollupRepository.applyDelta(1L, "DAY", bucket, 1, 2, Money.of(20000).getMinorUnits());
+        salesRollupRepository.applyDelta(1L, "DAY", bucket, 1, 3, Money.of(30000).getMinorUnits());
+        salesRollupRepository.applyDelta(1L, "DAY", bucket, -1, -2, Money.of(-20000).getMinorUnits());
+
+        List<SalesRollup> rollups = salesRollupRepository.findRollups(RollupGranularity.DAY,
+                bucket, bucket.plusDays(1), 1L);
+        assertEquals(1, rollups.size());
+        assertEquals(1, rollups.get(0).getOrderCount());
+        assertEquals(3, rollups.get(0).getTotalQty());
+        assertEquals(0, Money.of(30000).compareTo(rollups.get(0).getTotalRevenue()));
+    }
+
+    @Test
+    void summarize_shouldSumDailyBucketsPerItemWithinRange() {
+        salesRollupRepository.applyDelta(1L, "DAY", LocalDateTime.of(2025, 1, 1, 0, 0), 1, 2, Money.of(20000).getMinorUnits());
+        salesRollupRepository.applyDelta(1L, "DAY", LocalDateTime.of(2025, 1, 31, 0, 0), 2, 4, Money.of(40000).getMinorUnits());
+        salesRollupRepository.applyDelta(1L, "DAY", LocalDateTime.of(2025, 2, 1, 0, 0), 1, 9, Money.of(90000).getMinorUnits());
+        salesRollupRepository.applyDelta(2L, "DAY", LocalDateTime.of(2025, 1, 10, 0, 0), 1, 1, Money.of(5000).getMinorUnits());
+        salesRollupRepository.applyDelta(1L, "HOUR", LocalDateTime.of(2025, 1, 1, 10, 0), 1, 2, Money.of(20000).getMinorUnits());
+
+        List<SalesSummaryRes> summary = salesRollupRepository.summarize(LocalDateTime.of(2025, 1, 1, 0, 0),
+                LocalDateTime.of(2025, 2, 1, 0, 0), null);
+
+        assertEquals(2, summary.size());
+        assertEquals(1L, summary.get(0).getItemId());
+        assertEquals(3, summary.get(0).getOrderCount());
+        assertEquals(6, summary.get(0).getTotalQty());
+        assertEquals(0, Money.of(60000).compareTo(summary.get(0).getTotalRevenue()));
+        assertEquals(2L, summary.get(1).getItemId());
+    }
+}
@@ -0,0 +1,144 @@
+package com.blackcode.management_stock.service;
+
+import com.blackcode.management_stock.cache.TableStamps;
+import com.blackcode.management_stock.datasource.ShardRouter;
+import com.blackcode.management_stock.dto.CatalogSyncReport;
+import com.blackcode.management_stock.exception.InvalidCatalogException;
+import com.blackcode.management_stock.lock.StockLock;
+import com.blackcode.management_stock.lock.StockLockProvider;
+import com.blackcode.management_stock.lock.StripedStockLockProvider;
+import com.blackcode.management_stock.model.Item;
+import com.blackcode.management_stock.money.Money;
+import com.blackcode.management_stock.repository.ItemRepository;
+import com.blackcode.management_stock.service.impl.CatalogSyncServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import({CatalogSyncServiceImpl.class, StripedStockLockProvider.class, TableStamps.class, ShardRouter.class})
+@ImportAutoConfiguration({JacksonAutoConfiguration.class, ValidationAutoConfiguration.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = "stock.catalog-sync.chunk-size=2")
+public class CatalogSyncServiceTest {
+
+    @Autowired
+    private CatalogSyncService catalogSyncService;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private TableStamps tableStamps;
+
+    @Autowired
+    private StockLockProvider stockLockProvider;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        itemRepository.deleteAll();
+    }
+
+    @Test
+    void syncCatalog_shouldUpdateOnlyChangedItems_andLeaveStockAlone() {
+        Item same = itemRepository.save(new Item(null, "Item A", Money.of(10000), 10));
+        Item renamed = itemRepository.save(new Item(null, "Item B", Money.of(20000), 20));
+        Item repriced = itemRepository.save(new Item(null, "Item C", Money.of(30000), 30));
+        long stamp = tableStamps.read(TableStamps.ITEMS);
+
+        CatalogSyncReport report = catalogSyncService.syncCatalog(json("["
+                + entry(same.getItemId(), "Item A", "10000.00") + ","
+                + entry(renamed.getItemId(), "Item B2", "20000") + ","
+                + entry(repriced.getItemId(), "Item C", "30000.50") + ","
+                + entry(999999L, "Ghost", "1") + ","
+                + entry(null, "No Id", "1") + "]"));
+
+        assertEquals(5, report.getReceived());
+        assertEquals(1, report.getUnchanged());
+        assertEquals(2, report.getUpdated());
+        assertEquals(1, report.getMissing());
+        assertEquals(1, report.getRejected());
+        assertEquals(List.of(999999L), report.getMissingItemIds());
+
+        Item sameAfter = itemRepository.findById(same.getItemId()).orElseThrow();
+        Item renamedAfter = itemRepository.findById(renamed.getItemId()).orElseThrow();
+        Item repricedAfter = itemRepository.findById(repriced.getItemId()).orElseThrow();
+        assertEquals(same.getVersion(), sameAfter.getVersion());
+        assertEquals("Item B2", renamedAfter.getItemName());
+        assertEquals(renamed.getVersion() + 1, renamedAfter.getVersion());
+        assertEquals(Money.of(new BigDecimal("30000.50")), repricedAfter.getItemPrice());
+        assertEquals(20, renamedAfter.getItemStock());
+        assertEquals(30, repricedAfter.getItemStock());
+        assertNotEquals(stamp, tableStamps.read(TableStamps.ITEMS));
+    }
+
+    @Test
+    void syncCatalog_shouldAcceptNdjson_andWriteNothingWhenNothingChanged() {
+        Item item = itemRepository.save(new Item(null, "Item A", Money.of(10000), 10));
+        long stamp = tableStamps.read(TableStamps.ITEMS);
+
+        CatalogSyncReport report = catalogSyncService.syncCatalog(json(
+                entry(item.getItemId(), "Item A", "10000") + "\n" + entry(item.getItemId(), "Item A", "10000") + "\n"));
+
+        assertEquals(2, report.getReceived());
+        assertEquals(1, report.getUnchanged());
+        assertEquals(0, report.getUpdated());
+        assertEquals(stamp, tableStamps.read(TableStamps.ITEMS));
+    }
+
+    @Test
+    void syncCatalog_shouldNotReviveAnItemDeletedWhileTheSyncWaitedForItsLock() throws Exception {
+        Item item = itemRepository.save(new Item(null, "Item A", Money.of(10000), 10));
+        CompletableFuture<CatalogSyncReport> sync;
+        try (StockLock held = stockLockProvider.acquire(List.of(item.getItemId()))) {
+            sync = CompletableFuture.supplyAsync(() ->
+                    catalogSyncService.syncCatalog(json("[" + entry(item.getItemId(), "Item A2", "10000") + "]")));
+            // The sync reads its diff without the lock and then queues behind this one.
+            Thread.sleep(300);
+            jdbcTemplate.update("UPDATE tb_item SET deleted_at = CURRENT_TIMESTAMP WHERE item_id = ?", item.getItemId());
+        }
+        CatalogSyncReport report = sync.get(10, TimeUnit.SECONDS);
+
+        assertEquals(0, report.getUpdated());
+        assertEquals(1, report.getMissing());
+        assertEquals(List.of(item.getItemId()), report.getMissingItemIds());
+        Item after = itemRepository.findById(item.getItemId()).orElseThrow();
+        assertEquals("Item A", after.getItemName());
+        assertTrue(after.isDeleted());
+    }
+
+    @Test
+    void syncCatalog_shouldRejectMalformedCatalog() {
+        assertThrows(InvalidCatalogException.class, () -> catalogSyncService.syncCatalog(json("[{\"itemId\": 1,")));
+    }
+
+    private String entry(Long itemId, String name, String price) {
+        return "{\"itemId\":" + itemId + ",\"itemName\":\"" + name + "\",\"itemPrice\":" + price + "}";
+    }
+
+    private InputStream json(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
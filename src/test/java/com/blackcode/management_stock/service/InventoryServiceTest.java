@@ -1,23 +1,34 @@
 package com.blackcode.management_stock.service;
 
+import com.blackcode.management_stock.datasource.ShardRouter;
+import com.blackcode.management_stock.dto.InventoryPatchReq;
 import com.blackcode.management_stock.dto.InventoryReq;
 import com.blackcode.management_stock.dto.InventoryRes;
 import com.blackcode.management_stock.exception.DataNotFoundException;
 import com.blackcode.management_stock.exception.InvalidStockException;
 import com.blackcode.management_stock.exception.NotEnoughStockException;
+import com.blackcode.management_stock.lock.StockLockProvider;
 import com.blackcode.management_stock.model.Inventory;
 import com.blackcode.management_stock.model.InventoryType;
 import com.blackcode.management_stock.model.Item;
+import com.blackcode.management_stock.model.StockLocation;
+import com.blackcode.management_stock.money.Money;
 import com.blackcode.management_stock.repository.InventoryRepository;
 import com.blackcode.management_stock.repository.ItemRepository;
 import com.blackcode.management_stock.service.impl.InventoryServiceImpl;
+import com.blackcode.management_stock.utils.ExportFormat;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
 import org.springframework.data.domain.*;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -30,6 +41,24 @@ public class InventoryServiceTest {
     @Mock
     private ItemRepository itemRepository;
 
+    @Mock
+    private EntityManager entityManager;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Mock
+    private StockAllocationService stockAllocationService;
+
+    @Mock
+    private StockSlotService stockSlotService;
+
+    @Mock
+    private StockLockProvider stockLockProvider;
+
+    @Spy
+    private ShardRouter shardRouter = ShardRouter.singleShard();
+
     @InjectMocks
     private InventoryServiceImpl inventoryService;
 
@@ -133,6 +162,37 @@ public class InventoryServiceTest {
         assertThrows(InvalidStockException.class, () -> inventoryService.updateInventory(100L, req));
     }
 
+    @Test
+    void patchInventory_qtyOnly_shouldKeepTheTypeAndAdjustStock() {
+        Item item = new Item(1L, "Item A", null, 10);
+        Inventory inventory = new Inventory(100L, item, 5, InventoryType.T);
+
+        when(inventoryRepository.findById(100L)).thenReturn(Optional.of(inventory));
+        when(inventoryRepository.save(any(Inventory.class))).thenAnswer(i -> i.getArguments()[0]);
+
+        InventoryRes res = inventoryService.patchInventory(100L, new InventoryPatchReq(8, null));
+
+        assertEquals(13, item.getItemStock());
+        assertEquals("T", res.getInventoryType());
+        assertEquals(8, res.getInventoryQty());
+    }
+
+    @Test
+    void patchInventory_withNoChange_shouldNeitherLockNorWrite() {
+        Item item = new Item(1L, "Item A", null, 10);
+        Inventory inventory = new Inventory(100L, item, 5, InventoryType.T);
+
+        when(inventoryRepository.findById(100L)).thenReturn(Optional.of(inventory));
+
+        InventoryRes res = inventoryService.patchInventory(100L, new InventoryPatchReq(5, InventoryType.T));
+
+        assertEquals(5, res.getInventoryQty());
+        assertEquals(10, item.getItemStock());
+        verifyNoInteractions(stockLockProvider);
+        verify(itemRepository, never()).save(any());
+        verify(inventoryRepository, never()).save(any());
+    }
+
     @Test
     void getInventoryById_shouldReturnInventory() {
         Inventory inventory = new Inventory(100L, new Item(), 5, InventoryType.T);
@@ -159,6 +219,26 @@ public class InventoryServiceTest {
         assertEquals("T", result.getContent().get(0).getInventoryType());
     }
 
+    @Test
+    void getAllInventory_shouldSumTheSlotsOfAPageInOneCall() {
+        Item slotted = new Item(1L, "Item A", null, 0);
+        slotted.setStockShards(4);
+        Item other = new Item(2L, "Item B", null, 0);
+        other.setStockShards(4);
+        Pageable pageable = PageRequest.of(0, 10);
+        List<Inventory> inventories = List.of(new Inventory(100L, slotted, 3, InventoryType.T),
+                new Inventory(101L, other, 2, InventoryType.T), new Inventory(102L, slotted, 1, InventoryType.T));
+
+        when(inventoryRepository.findAll(pageable)).thenReturn(new PageImpl<>(inventories, pageable, inventories.size()));
+        when(stockSlotService.availableByItem(any())).thenReturn(Map.of(1L, 7, 2L, 9));
+
+        Page<InventoryRes> result = inventoryService.getAllInventory(0, 10);
+
+        assertEquals(List.of(7, 9, 7), result.getContent().stream().map(res -> res.getItem().getItemStock()).toList());
+        verify(stockSlotService).availableByItem(any());
+        verify(stockSlotService, never()).available(any());
+    }
+
     @Test
     void deleteInventory_shouldDeleteSuccessfully() {
         Inventory inventory = new Inventory(123L, new Item(), 2, InventoryType.T);
@@ -177,4 +257,51 @@ public class InventoryServiceTest {
         assertThrows(DataNotFoundException.class, () -> inventoryService.deleteInventory(999L));
     }
 
+    @Test
+    void exportInventory_csv_shouldQuoteValuesAndDetachEntities() {
+        Item item = new Item(1L, "Item, A", Money.of(10000), 5);
+        Inventory inventory = new Inventory(100L, item, 10, InventoryType.T);
+
+        when(inventoryRepository.streamAllForExport()).thenReturn(Stream.of(inventory));
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        inventoryService.exportInventory(ExportFormat.CSV, outputStream);
+
+        assertEquals("inventoryId,itemId,itemName,inventoryQty,inventoryType\n" +
+                "100,1,\"Item, A\",10,T\n", outputStream.toString(StandardCharsets.UTF_8));
+        verify(entityManager).detach(inventory);
+        verify(entityManager).detach(item);
+    }
+
+    @Test
+    void createInventory_withLocation_shouldReceiveIntoThatLocation() {
+        InventoryReq req = new InventoryReq(1L, 10, InventoryType.T, 3L);
+        Item item = new Item(1L, "Item A", null, 5);
+        StockLocation location = new StockLocation(3L, "JKT-01", "Jakarta", 0);
+
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(stockAllocationService.receive(item, 10, 3L)).thenReturn(location);
+        when(inventoryRepository.save(any(Inventory.class))).thenAnswer(i -> i.getArguments()[0]);
+
+        InventoryRes res = inventoryService.createInventory(req);
+
+        assertEquals(15, item.getItemStock());
+        assertEquals("JKT-01", res.getLocationCode());
+    }
+
+    @Test
+    void createInventory_withdrawal_shouldTakeFromAllocatedLocation() {
+        InventoryReq req = new InventoryReq(1L, 4, InventoryType.W);
+        Item item = new Item(1L, "Item A", null, 10);
+        StockLocation location = new StockLocation(3L, "JKT-01", "Jakarta", 0);
+
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(stockAllocationService.allocate(item, 4, null)).thenReturn(location);
+        when(inventoryRepository.save(any(Inventory.class))).thenAnswer(i -> i.getArguments()[0]);
+
+        InventoryRes res = inventoryService.createInventory(req);
+
+        assertEquals(6, item.getItemStock());
+        assertEquals("JKT-01", res.getLocationCode());
+    }
 }
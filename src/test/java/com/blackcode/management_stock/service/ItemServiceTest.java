@@ -1,18 +1,26 @@
 package com.blackcode.management_stock.service;
 
+import com.blackcode.management_stock.cache.ItemCacheSync;
+import com.blackcode.management_stock.cache.TableStamps;
+import com.blackcode.management_stock.datasource.ShardRouter;
+import com.blackcode.management_stock.dto.ItemPatchReq;
 import com.blackcode.management_stock.dto.ItemReq;
 import com.blackcode.management_stock.dto.ItemRes;
+import com.blackcode.management_stock.dto.ItemShardReq;
 import com.blackcode.management_stock.exception.DataNotFoundException;
+import com.blackcode.management_stock.lock.StockLockProvider;
 import com.blackcode.management_stock.model.Item;
+import com.blackcode.management_stock.money.Money;
 import com.blackcode.management_stock.repository.ItemRepository;
 import com.blackcode.management_stock.service.impl.ItemServiceImpl;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
 import org.springframework.data.domain.*;
 
-import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -23,6 +31,24 @@ public class ItemServiceTest {
     @Mock
     private ItemRepository itemRepository;
 
+    @Mock
+    private StockSlotService stockSlotService;
+
+    @Spy
+    private ShardRouter shardRouter = ShardRouter.singleShard();
+
+    @Mock
+    private TableStamps tableStamps;
+
+    @Mock
+    private ItemCacheSync itemCacheSync;
+
+    @Mock
+    private StockLockProvider stockLockProvider;
+
+    @Mock
+    private EntityManager entityManager;
+
     @InjectMocks
     private ItemServiceImpl itemService;
 
@@ -41,12 +67,12 @@ public class ItemServiceTest {
     @Test
     void getAllItems_shouldReturnPagedItems() {
         // Arrange
-        Item item1 = new Item(1L, "Item A", new BigDecimal("10000"), 10);
-        Item item2 = new Item(2L, "Item B", new BigDecimal("20000"), 5);
+        Item item1 = new Item(1L, "Item A", Money.of(10000), 10);
+        Item item2 = new Item(2L, "Item B", Money.of(20000), 5);
         Pageable pageable = PageRequest.of(0, 10);
         Page<Item> itemPage = new PageImpl<>(List.of(item1, item2));
 
-        when(itemRepository.findAll(pageable)).thenReturn(itemPage);
+        when(itemRepository.findAllCached(pageable)).thenReturn(itemPage);
 
         Page<ItemRes> result = itemService.getAllItems(0, 10);
 
@@ -56,7 +82,7 @@ public class ItemServiceTest {
         assertEquals(item1.getItemId(), result.getContent().get(0).getItemId());
         assertEquals(item2.getItemId(), result.getContent().get(1).getItemId());
 
-        verify(itemRepository).findAll(pageable);
+        verify(itemRepository).findAllCached(pageable);
     }
 
     @Test
@@ -64,18 +90,18 @@ public class ItemServiceTest {
         Pageable pageable = PageRequest.of(0, 10);
         Page<Item> emptyPage = new PageImpl<>(Collections.emptyList());
 
-        when(itemRepository.findAll(pageable)).thenReturn(emptyPage);
+        when(itemRepository.findAllCached(pageable)).thenReturn(emptyPage);
 
         Page<ItemRes> result = itemService.getAllItems(0, 10);
 
         assertNotNull(result);
         assertTrue(result.isEmpty());
-        verify(itemRepository).findAll(pageable);
+        verify(itemRepository).findAllCached(pageable);
     }
 
     @Test
     void getItemById_whenExists_shouldReturnItemRes() {
-        Item item = new Item(1L, "Item A", new BigDecimal("10000"), 10);
+        Item item = new Item(1L, "Item A", Money.of(10000), 10);
         when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
 
         ItemRes result = itemService.getItemById(1L);
@@ -100,8 +126,8 @@ public class ItemServiceTest {
 
     @Test
     void createItem_shouldSaveAndReturnItemRes() {
-        ItemReq itemReq = new ItemReq("Item A", new BigDecimal("10000"), 10);
-        Item savedItem = new Item(1L, "Item A", new BigDecimal("10000"), 10);
+        ItemReq itemReq = new ItemReq("Item A", Money.of(10000), 10);
+        Item savedItem = new Item(1L, "Item A", Money.of(10000), 10);
 
         when(itemRepository.save(any(Item.class))).thenReturn(savedItem);
 
@@ -117,12 +143,13 @@ public class ItemServiceTest {
         assertEquals(itemReq.getItemName(), captured.getItemName());
         assertEquals(itemReq.getItemPrice(), captured.getItemPrice());
         assertEquals(itemReq.getItemStock(), captured.getItemStock());
+        assertEquals(itemReq.getItemStock(), captured.getOpeningStock());
     }
 
     @Test
     void updateItem_whenExists_shouldUpdateAndReturnItemRes() {
-        ItemReq itemReq = new ItemReq("Updated Item", new BigDecimal("15000"), 7);
-        Item existingItem = new Item(1L, "Old Item", new BigDecimal("10000"), 10);
+        ItemReq itemReq = new ItemReq("Updated Item", Money.of(15000), 7);
+        Item existingItem = new Item(1L, "Old Item", Money.of(10000), 10);
 
         when(itemRepository.findById(1L)).thenReturn(Optional.of(existingItem));
         when(itemRepository.save(any(Item.class))).thenReturn(existingItem);
@@ -131,13 +158,25 @@ public class ItemServiceTest {
 
         assertNotNull(result);
         assertEquals(itemReq.getItemName(), result.getItemName());
-        verify(itemRepository).findById(1L);
-        verify(itemRepository).save(existingItem);
+        InOrder inOrder = inOrder(stockLockProvider, itemRepository, entityManager);
+        inOrder.verify(stockLockProvider).lockForTransaction(List.of(1L));
+        inOrder.verify(itemRepository).findById(1L);
+        inOrder.verify(entityManager).refresh(existingItem);
+        inOrder.verify(itemRepository).save(existingItem);
+    }
+
+    @Test
+    void getItemById_whenDeleted_shouldThrowNotFound() {
+        Item item = new Item(1L, "Item A", Money.of(10000), 10);
+        item.setDeletedAt(LocalDateTime.now());
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+
+        assertThrows(DataNotFoundException.class, () -> itemService.getItemById(1L));
     }
 
     @Test
     void updateItem_whenNotFound_shouldThrowException() {
-        ItemReq itemReq = new ItemReq("Item A", new BigDecimal("10000"), 10);
+        ItemReq itemReq = new ItemReq("Item A", Money.of(10000), 10);
         when(itemRepository.findById(999L)).thenReturn(Optional.empty());
 
         DataNotFoundException ex = assertThrows(DataNotFoundException.class, () -> {
@@ -150,21 +189,84 @@ public class ItemServiceTest {
     }
 
     @Test
-    void deleteItem_whenExists_shouldDeleteSuccessfully() {
-        Item item = new Item(1L, "Item A", new BigDecimal("10000"), 10);
+    void patchItem_priceOnly_shouldUpdateInPlace_withoutLoadingTheItem() {
+        Item updatedItem = new Item(1L, "Item A", Money.of(12500), 10);
+
+        when(itemRepository.patchNameAndPrice(1L, null, Money.of(12500))).thenReturn(1);
+        when(itemRepository.findSnapshot(1L)).thenReturn(Optional.of(updatedItem));
+
+        ItemRes result = itemService.patchItem(1L, new ItemPatchReq(null, Money.of(12500), null));
+
+        assertEquals(Money.of(12500), result.getItemPrice());
+        assertEquals(10, result.getItemStock());
+        verify(stockLockProvider).lockForTransaction(List.of(1L));
+        verify(tableStamps).touch(TableStamps.ITEMS);
+        verify(tableStamps).touch(TableStamps.ITEM_CATALOG);
+        verify(itemRepository, never()).findById(any());
+        verify(itemRepository, never()).save(any());
+    }
+
+    @Test
+    void patchItem_stock_shouldAdjustOpeningStockLikeUpdateItem() {
+        Item item = new Item(1L, "Item A", Money.of(10000), 10);
+        item.setOpeningStock(12);
+
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(itemRepository.save(item)).thenReturn(item);
+
+        ItemRes result = itemService.patchItem(1L, new ItemPatchReq(null, null, 15));
+
+        assertEquals(15, result.getItemStock());
+        assertEquals(17, item.getOpeningStock());
+        verify(itemRepository, never()).patchNameAndPrice(any(), any(), any());
+        verify(tableStamps, never()).touch(any());
+    }
+
+    @Test
+    void patchItem_stockAndPrice_shouldGoOutInOneSave() {
+        Item item = new Item(1L, "Item A", Money.of(10000), 10);
+
         when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(itemRepository.save(item)).thenReturn(item);
+
+        ItemRes result = itemService.patchItem(1L, new ItemPatchReq(null, Money.of(12500), 15));
+
+        assertEquals(15, result.getItemStock());
+        assertEquals(Money.of(12500), result.getItemPrice());
+        verify(entityManager).refresh(item);
+        verify(itemRepository).save(item);
+        verify(itemRepository, never()).patchNameAndPrice(any(), any(), any());
+    }
+
+    @Test
+    void patchItem_whenNotFound_shouldThrowException() {
+        when(itemRepository.patchNameAndPrice(999L, "Item A", null)).thenReturn(0);
+
+        DataNotFoundException ex = assertThrows(DataNotFoundException.class,
+                () -> itemService.patchItem(999L, new ItemPatchReq("Item A", null, null)));
+
+        assertEquals("Item with ID 999 Not Found", ex.getMessage());
+        verify(tableStamps, never()).touch(any());
+    }
+
+    @Test
+    void deleteItem_whenExists_shouldOnlyWriteTheTombstone() {
+        when(itemRepository.markDeleted(eq(1L), any(LocalDateTime.class))).thenReturn(1);
 
         Map<String, Object> result = itemService.deleteItem(1L);
 
         assertEquals(1L, result.get("deletedItemId"));
-        assertEquals("The Item was removed from the database.", result.get("info"));
+        assertEquals("The Item was marked as deleted.", result.get("info"));
 
-        verify(itemRepository).delete(item);
+        verify(tableStamps).touch(TableStamps.ITEMS);
+        verify(itemRepository, never()).findById(any());
+        verify(itemRepository, never()).delete(any());
+        verifyNoInteractions(stockSlotService);
     }
 
     @Test
     void deleteItem_whenNotFound_shouldThrowException() {
-        when(itemRepository.findById(404L)).thenReturn(Optional.empty());
+        when(itemRepository.markDeleted(eq(404L), any(LocalDateTime.class))).thenReturn(0);
 
         DataNotFoundException ex = assertThrows(DataNotFoundException.class, () -> {
             itemService.deleteItem(404L);
@@ -172,5 +274,55 @@ public class ItemServiceTest {
 
         assertEquals("Item with ID 404 Not Found", ex.getMessage());
         verify(itemRepository, never()).deleteById(anyLong());
+        verify(tableStamps, never()).touch(any());
+    }
+
+    @Test
+    void updateItem_shouldShiftOpeningStockByManualAdjustment() {
+        ItemReq itemReq = new ItemReq("Item A", Money.of(10000), 15);
+        Item existingItem = new Item(1L, "Item A", Money.of(10000), 8);
+        existingItem.setOpeningStock(10);
+
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(existingItem));
+        when(itemRepository.save(any(Item.class))).thenReturn(existingItem);
+
+        itemService.updateItem(1L, itemReq);
+
+        assertEquals(17, existingItem.getOpeningStock());
+        assertEquals(15, existingItem.getItemStock());
+    }
+
+    @Test
+    void updateStockShards_shouldReshardLockedItemAndReportSummedStock() {
+        Item item = new Item(1L, "Item A", Money.of(10000), 40);
+        when(itemRepository.findAllByIdForUpdate(List.of(1L))).thenReturn(List.of(item));
+        doAnswer(i -> {
+            item.setStockShards(8);
+            item.setItemStock(0);
+            return null;
+        }).when(stockSlotService).reshard(item, 8);
+        when(itemRepository.save(item)).thenReturn(item);
+        when(stockSlotService.available(item)).thenReturn(40);
+
+        ItemRes res = itemService.updateStockShards(1L, new ItemShardReq(8));
+
+        assertEquals(40, res.getItemStock());
+        verify(stockSlotService).reshard(item, 8);
+    }
+
+    @Test
+    void updateItem_onShardedItem_shouldResetSlotsAndShiftOpeningStock() {
+        Item item = new Item(1L, "Item A", Money.of(10000), 0);
+        item.setStockShards(4);
+        item.setOpeningStock(50);
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(stockSlotService.available(item)).thenReturn(30);
+        when(itemRepository.save(item)).thenReturn(item);
+
+        itemService.updateItem(1L, new ItemReq("Item A", Money.of(10000), 35));
+
+        assertEquals(55, item.getOpeningStock());
+        assertEquals(0, item.getItemStock());
+        verify(stockSlotService).resetStock(item, 35);
     }
-}
\ No newline at end of file
+}
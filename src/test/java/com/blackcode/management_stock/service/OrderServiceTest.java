@@ -1,24 +1,47 @@
 package com.blackcode.management_stock.service;
 
+import com.blackcode.management_stock.datasource.ShardRouter;
+import com.blackcode.management_stock.dto.OrderBasketReq;
+import com.blackcode.management_stock.dto.OrderBasketRes;
+import com.blackcode.management_stock.dto.OrderLineReq;
 import com.blackcode.management_stock.dto.OrderReq;
 import com.blackcode.management_stock.dto.OrderRes;
+import com.blackcode.management_stock.dto.ReservationConfirmReq;
+import com.blackcode.management_stock.event.StockReservationClosedEvent;
 import com.blackcode.management_stock.exception.DataNotFoundException;
+import com.blackcode.management_stock.exception.InvalidOrderException;
 import com.blackcode.management_stock.exception.InvalidPriceException;
 import com.blackcode.management_stock.exception.NotEnoughStockException;
+import com.blackcode.management_stock.exception.ReservationClosedException;
+import com.blackcode.management_stock.lock.StockLockProvider;
 import com.blackcode.management_stock.model.Item;
 import com.blackcode.management_stock.model.Order;
+import com.blackcode.management_stock.model.OrderLine;
+import com.blackcode.management_stock.model.ReservationStatus;
+import com.blackcode.management_stock.model.StockLocation;
+import com.blackcode.management_stock.model.StockReservation;
+import com.blackcode.management_stock.money.Money;
 import com.blackcode.management_stock.repository.ItemRepository;
 import com.blackcode.management_stock.repository.OrderRepository;
+import com.blackcode.management_stock.repository.StockReservationRepository;
 import com.blackcode.management_stock.service.impl.OrderServiceImpl;
+import com.blackcode.management_stock.utils.ExportFormat;
+import com.blackcode.management_stock.utils.OrderNumberGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.*;
 
-import java.math.BigDecimal;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.*;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -31,6 +54,39 @@ public class OrderServiceTest {
     @Mock
     private ItemRepository itemRepository;
 
+    @Mock
+    private EntityManager entityManager;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Mock
+    private SalesReportService salesReportService;
+
+    @Mock
+    private StockReservationRepository stockReservationRepository;
+
+    @Mock
+    private StockAllocationService stockAllocationService;
+
+    @Mock
+    private StockSlotService stockSlotService;
+
+    @Mock
+    private StockLockProvider stockLockProvider;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private ShardRouter shardRouter = ShardRouter.singleShard();
+
+    @Spy
+    private OrderNumberGenerator orderNumberGenerator = new OrderNumberGenerator(1);
+
+    @Captor
+    private ArgumentCaptor<Collection<Long>> idsCaptor;
+
     @InjectMocks
     private OrderServiceImpl orderService;
 
@@ -48,7 +104,7 @@ public class OrderServiceTest {
 
     @Test
     void getAllOrders_shouldReturnPagedOrders() {
-        List<Order> orders = Collections.singletonList(new Order("O001", new Item(), 1, BigDecimal.TEN));
+        List<Order> orders = Collections.singletonList(new Order("O001", new Item(), 1, Money.of(10)));
         Pageable pageable = PageRequest.of(0, 10);
         Page<Order> page = new PageImpl<>(orders, pageable, orders.size());
 
@@ -60,7 +116,7 @@ public class OrderServiceTest {
 
     @Test
     void getOrderById_shouldReturnOrder() {
-        Order order = new Order("O001", new Item(), 2, new BigDecimal("20000"));
+        Order order = new Order("O001", new Item(), 2, Money.of(20000));
 
         when(orderRepository.findById("O001")).thenReturn(Optional.of(order));
         OrderRes res = orderService.getOrderById("O001");
@@ -69,58 +125,127 @@ public class OrderServiceTest {
 
     @Test
     void createOrder_shouldCreateSuccessfully() {
-        OrderReq req = new OrderReq(1L, 2, new BigDecimal("20000"));
-        Item item = new Item(1L, "Item A", new BigDecimal("10000"), 10);
-        Order lastOrder = new Order("O001", null, 0, BigDecimal.ZERO);
+        OrderReq req = new OrderReq(1L, 2, Money.of(20000));
+        Item item = new Item(1L, "Item A", Money.of(10000), 10);
 
-        when(orderRepository.findLastOrderNative()).thenReturn(lastOrder);
         when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
         when(orderRepository.save(any(Order.class))).thenAnswer(i -> i.getArguments()[0]);
 
         OrderRes res = orderService.createOrder(req);
 
         assertNotNull(res);
-        assertEquals("O002", res.getOrderNo());
+        assertTrue(res.getOrderNo().matches("O[0-9A-Z]{13}"));
         assertEquals(2, res.getOrderQty());
-        assertEquals(new BigDecimal("20000"), res.getPrice());
+        assertEquals(Money.of(20000), res.getPrice());
         verify(itemRepository).save(any(Item.class));
         verify(orderRepository).save(any(Order.class));
     }
 
+    @Test
+    void createOrder_shouldLockASingleRowItem_andReloadItBeforeChangingStock() {
+        OrderReq req = new OrderReq(1L, 2, Money.of(20000));
+        Item item = new Item(1L, "Item A", Money.of(10000), 10);
+
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(orderRepository.save(any(Order.class))).thenAnswer(i -> i.getArguments()[0]);
+
+        orderService.createOrder(req);
+
+        InOrder inOrder = inOrder(stockLockProvider, entityManager, itemRepository);
+        inOrder.verify(stockLockProvider).lockForTransaction(List.of(1L));
+        inOrder.verify(entityManager).refresh(item);
+        inOrder.verify(itemRepository).save(item);
+    }
+
+    @Test
+    void createOrder_shouldLeaveItemsWithStockSlotsToTheSlotLocks() {
+        OrderReq req = new OrderReq(1L, 2, Money.of(20000));
+        Item item = new Item(1L, "Item A", Money.of(10000), 0);
+        item.setStockShards(4);
+
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(orderRepository.save(any(Order.class))).thenAnswer(i -> i.getArguments()[0]);
+
+        orderService.createOrder(req);
+
+        verify(stockSlotService).take(item, 2);
+        verifyNoInteractions(stockLockProvider);
+        verify(entityManager, never()).refresh(any());
+        verify(itemRepository, never()).save(any());
+    }
+
+    @Test
+    void updateOrder_shouldLockOldAndNewItem_andReloadOldItem() {
+        Item oldItem = new Item(1L, "Item A", Money.of(10000), 10);
+        Item newItem = new Item(2L, "Item B", Money.of(5000), 10);
+        Order existingOrder = new Order("O001", oldItem, 3, Money.of(30000));
+
+        when(orderRepository.findById("O001")).thenReturn(Optional.of(existingOrder));
+        when(itemRepository.findById(2L)).thenReturn(Optional.of(newItem));
+        when(orderRepository.save(any(Order.class))).thenAnswer(i -> i.getArguments()[0]);
+
+        orderService.updateOrder("O001", new OrderReq(2L, 1, Money.of(5000)));
+
+        InOrder inOrder = inOrder(stockLockProvider, entityManager);
+        inOrder.verify(stockLockProvider).lockForTransaction(List.of(1L, 2L));
+        inOrder.verify(entityManager).refresh(oldItem);
+    }
+
     @Test
     void createOrder_shouldThrow_whenItemNotFound() {
-        OrderReq req = new OrderReq(999L, 1, new BigDecimal("10000"));
+        OrderReq req = new OrderReq(999L, 1, Money.of(10000));
 
-        when(orderRepository.findLastOrderNative()).thenReturn(null);
         when(itemRepository.findById(999L)).thenReturn(Optional.empty());
         assertThrows(DataNotFoundException.class, () -> orderService.createOrder(req));
     }
 
+    @Test
+    void createOrder_shouldThrow_whenItemIsDeleted() {
+        OrderReq req = new OrderReq(1L, 1, Money.of(10000));
+        Item item = new Item(1L, "Item A", Money.of(10000), 10);
+        item.setDeletedAt(LocalDateTime.now());
+
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+
+        assertThrows(DataNotFoundException.class, () -> orderService.createOrder(req));
+        assertEquals(10, item.getItemStock());
+        verify(orderRepository, never()).save(any());
+    }
+
     @Test
     void createOrder_shouldThrow_whenStockNotEnough() {
-        OrderReq req = new OrderReq(1L, 100, new BigDecimal("1000000"));
-        Item item = new Item(1L, "Item A", new BigDecimal("10000"), 5);
+        OrderReq req = new OrderReq(1L, 100, Money.of(1000000));
+        Item item = new Item(1L, "Item A", Money.of(10000), 5);
 
-        when(orderRepository.findLastOrderNative()).thenReturn(null);
         when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
         assertThrows(NotEnoughStockException.class, () -> orderService.createOrder(req));
     }
 
     @Test
     void createOrder_shouldThrow_whenPriceManipulated() {
-        OrderReq req = new OrderReq(1L, 2, new BigDecimal("9999"));
-        Item item = new Item(1L, "Item A", new BigDecimal("10000"), 10);
+        OrderReq req = new OrderReq(1L, 2, Money.of(9999));
+        Item item = new Item(1L, "Item A", Money.of(10000), 10);
 
-        when(orderRepository.findLastOrderNative()).thenReturn(null);
         when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
         assertThrows(InvalidPriceException.class, () -> orderService.createOrder(req));
     }
 
+    @Test
+    void createOrder_shouldThrow_whenTheTotalOverflows() {
+        OrderReq req = new OrderReq(1L, 1_000_000, Money.of(1));
+        Item item = new Item(1L, "Item A", Money.ofMinor(Long.MAX_VALUE / 1000), 10);
+
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        InvalidPriceException ex = assertThrows(InvalidPriceException.class, () -> orderService.createOrder(req));
+        assertEquals("Total harga melebihi batas yang didukung", ex.getMessage());
+        verify(orderRepository, never()).save(any(Order.class));
+    }
+
     @Test
     void updateOrder_shouldUpdateAndAdjustStock() {
-        Item item = new Item(1L, "Item A", new BigDecimal("10000"), 10);
-        Order existingOrder = new Order("O001", item, 3, new BigDecimal("30000"));
-        OrderReq req = new OrderReq(1L, 5, new BigDecimal("50000"));
+        Item item = new Item(1L, "Item A", Money.of(10000), 10);
+        Order existingOrder = new Order("O001", item, 3, Money.of(30000));
+        OrderReq req = new OrderReq(1L, 5, Money.of(50000));
 
         when(orderRepository.findById("O001")).thenReturn(Optional.of(existingOrder));
         when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
@@ -130,14 +255,14 @@ public class OrderServiceTest {
 
         assertNotNull(res);
         assertEquals(5, res.getOrderQty());
-        assertEquals(new BigDecimal("50000"), res.getPrice());
+        assertEquals(Money.of(50000), res.getPrice());
         verify(itemRepository, atLeastOnce()).save(any(Item.class));
     }
 
     @Test
     void deleteOrder_shouldRestoreStockAndDelete() {
-        Item item = new Item(1L, "Item A", new BigDecimal("10000"), 5);
-        Order order = new Order("O001", item, 3, new BigDecimal("30000"));
+        Item item = new Item(1L, "Item A", Money.of(10000), 5);
+        Order order = new Order("O001", item, 3, Money.of(30000));
 
         when(orderRepository.findById("O001")).thenReturn(Optional.of(order));
 
@@ -148,4 +273,298 @@ public class OrderServiceTest {
         assertEquals("O001", response.get("deletedOrderId"));
         assertEquals("Order successfully deleted and stock has been restored.", response.get("message"));
     }
+
+    @Test
+    void exportOrders_csv_shouldWriteHeaderAndRowsAndDetachEntities() {
+        Item item = new Item(1L, "Item A", Money.of(10000), 5);
+        Order order1 = new Order("O001", item, 2, Money.of(20000));
+        Order order2 = new Order("O002", item, 1, Money.of(10000));
+
+        when(orderRepository.streamAllForExport()).thenReturn(Stream.of(order1, order2));
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        orderService.exportOrders(ExportFormat.CSV, outputStream);
+
+        assertEquals("orderNo,itemId,itemName,itemPrice,orderQty,price\n" +
+                "O001,1,Item A,10000.00,2,20000.00\n" +
+                "O002,1,Item A,10000.00,1,10000.00\n", outputStream.toString(StandardCharsets.UTF_8));
+        verify(entityManager).detach(order1);
+        verify(entityManager).detach(order2);
+    }
+
+    @Test
+    void exportOrders_ndjson_shouldWriteOneJsonObjectPerLine() throws Exception {
+        Item item = new Item(1L, "Item, \"A\"", Money.of(10000), 5);
+        Order order = new Order("O001", item, 2, Money.of(20000));
+
+        when(orderRepository.streamAllForExport()).thenReturn(Stream.of(order));
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        orderService.exportOrders(ExportFormat.NDJSON, outputStream);
+
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(1, lines.length);
+        OrderRes res = objectMapper.readValue(lines[0], OrderRes.class);
+        assertEquals("O001", res.getOrderNo());
+        assertEquals("Item, \"A\"", res.getItem().getItemName());
+    }
+
+    @Test
+    void createOrder_shouldStampOrderDateAndRecordSale() {
+        OrderReq req = new OrderReq(1L, 2, Money.of(20000));
+        Item item = new Item(1L, "Item A", Money.of(10000), 10);
+
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(orderRepository.save(any(Order.class))).thenAnswer(i -> i.getArguments()[0]);
+
+        orderService.createOrder(req);
+
+        ArgumentCaptor<Order> orderCaptor = ArgumentCaptor.forClass(Order.class);
+        verify(orderRepository).save(orderCaptor.capture());
+        LocalDateTime orderDate = orderCaptor.getValue().getOrderDate();
+        assertNotNull(orderDate);
+        verify(salesReportService).recordSale(1L, orderDate, 2, Money.of(20000));
+    }
+
+    @Test
+    void updateOrder_shouldMoveSaleBetweenItemsInRollups() {
+        LocalDateTime orderDate = LocalDateTime.of(2025, 1, 15, 10, 30);
+        Item oldItem = new Item(1L, "Item A", Money.of(10000), 10);
+        Item newItem = new Item(2L, "Item B", Money.of(5000), 10);
+        Order existingOrder = new Order("O001", oldItem, 3, Money.of(30000));
+        existingOrder.setOrderDate(orderDate);
+        OrderReq req = new OrderReq(2L, 4, Money.of(20000));
+
+        when(orderRepository.findById("O001")).thenReturn(Optional.of(existingOrder));
+        when(itemRepository.findById(2L)).thenReturn(Optional.of(newItem));
+        when(orderRepository.save(any(Order.class))).thenAnswer(i -> i.getArguments()[0]);
+
+        orderService.updateOrder("O001", req);
+
+        verify(salesReportService).reverseSale(1L, orderDate, 3, Money.of(30000));
+        verify(salesReportService).recordSale(2L, orderDate, 4, Money.of(20000));
+    }
+
+    @Test
+    void deleteOrder_shouldSkipRollups_forOrdersWithoutOrderDate() {
+        Item item = new Item(1L, "Item A", Money.of(10000), 5);
+        Order order = new Order("O001", item, 3, Money.of(30000));
+
+        when(orderRepository.findById("O001")).thenReturn(Optional.of(order));
+
+        orderService.deleteOrder("O001");
+
+        verifyNoInteractions(salesReportService);
+    }
+
+    @Test
+    void createBasketOrder_shouldReserveStockForAllLinesAndSaveHeaderWithLines() {
+        Item itemA = new Item(1L, "Item A", Money.of(10000), 10);
+        Item itemB = new Item(2L, "Item B", Money.of(5000), 4);
+        OrderBasketReq req = new OrderBasketReq(List.of(
+                new OrderLineReq(2L, 3, Money.of(15000)),
+                new OrderLineReq(1L, 2, Money.of(20000)),
+                new OrderLineReq(2L, 1, Money.of(5000))));
+
+        when(itemRepository.findAllById(any())).thenReturn(List.of(itemA, itemB));
+        when(orderRepository.save(any(Order.class))).thenAnswer(i -> i.getArguments()[0]);
+
+        OrderBasketRes res = orderService.createBasketOrder(req);
+
+        verify(stockLockProvider).lockForTransaction(idsCaptor.capture());
+        assertEquals(Set.of(1L, 2L), new HashSet<>(idsCaptor.getValue()));
+        verify(entityManager).refresh(itemA);
+        verify(entityManager).refresh(itemB);
+
+        assertTrue(res.getOrderNo().matches("O[0-9A-Z]{13}"));
+        assertEquals(6, res.getTotalQty());
+        assertEquals(Money.of(40000), res.getTotalPrice());
+        assertEquals(3, res.getLines().size());
+        assertEquals(1, res.getLines().get(0).getLineNo());
+        assertEquals(2L, res.getLines().get(0).getItem().getItemId());
+        assertEquals(8, itemA.getItemStock());
+        assertEquals(0, itemB.getItemStock());
+        verify(salesReportService, times(3)).recordSale(anyLong(), any(LocalDateTime.class), anyInt(), any(Money.class));
+    }
+
+    @Test
+    void createBasketOrder_shouldNotTouchStock_whenAnyLineHasNotEnoughStock() {
+        Item itemA = new Item(1L, "Item A", Money.of(10000), 10);
+        Item itemB = new Item(2L, "Item B", Money.of(5000), 2);
+        OrderBasketReq req = new OrderBasketReq(List.of(
+                new OrderLineReq(1L, 2, Money.of(20000)),
+                new OrderLineReq(2L, 3, Money.of(15000))));
+
+        when(itemRepository.findAllById(any())).thenReturn(List.of(itemA, itemB));
+
+        assertThrows(NotEnoughStockException.class, () -> orderService.createBasketOrder(req));
+        assertEquals(10, itemA.getItemStock());
+        assertEquals(2, itemB.getItemStock());
+        verify(orderRepository, never()).save(any());
+    }
+
+    @Test
+    void createBasketOrder_shouldThrow_whenLinePriceManipulated() {
+        Item itemA = new Item(1L, "Item A", Money.of(10000), 10);
+        OrderBasketReq req = new OrderBasketReq(List.of(new OrderLineReq(1L, 2, Money.of(1))));
+
+        when(itemRepository.findAllById(any())).thenReturn(List.of(itemA));
+
+        assertThrows(InvalidPriceException.class, () -> orderService.createBasketOrder(req));
+        assertEquals(10, itemA.getItemStock());
+    }
+
+    @Test
+    void createBasketOrder_shouldReject_whenLineQuantitiesOverflowAnInt() {
+        Item itemA = new Item(1L, "Item A", Money.ofMinor(1), Integer.MAX_VALUE);
+        Item itemB = new Item(2L, "Item B", Money.ofMinor(1), Integer.MAX_VALUE);
+        OrderLineReq maxOfA = new OrderLineReq(1L, Integer.MAX_VALUE, Money.ofMinor(Integer.MAX_VALUE));
+        OrderLineReq oneOfA = new OrderLineReq(1L, 1, Money.ofMinor(1));
+        OrderLineReq maxOfB = new OrderLineReq(2L, Integer.MAX_VALUE, Money.ofMinor(Integer.MAX_VALUE));
+
+        when(itemRepository.findAllById(any())).thenReturn(List.of(itemA, itemB));
+
+        assertThrows(InvalidOrderException.class,
+                () -> orderService.createBasketOrder(new OrderBasketReq(List.of(maxOfA, oneOfA))));
+        assertThrows(InvalidOrderException.class,
+                () -> orderService.createBasketOrder(new OrderBasketReq(List.of(maxOfA, maxOfB))));
+        assertEquals(Integer.MAX_VALUE, itemA.getItemStock());
+        assertEquals(Integer.MAX_VALUE, itemB.getItemStock());
+        verify(orderRepository, never()).save(any());
+    }
+
+    @Test
+    void createBasketOrder_shouldThrow_whenItemMissing() {
+        OrderBasketReq req = new OrderBasketReq(List.of(new OrderLineReq(99L, 1, Money.of(1))));
+
+        when(itemRepository.findAllById(any())).thenReturn(Collections.emptyList());
+
+        assertThrows(DataNotFoundException.class, () -> orderService.createBasketOrder(req));
+    }
+
+    @Test
+    void getBasketOrderById_shouldExposeSingleItemOrderAsOneLine() {
+        Item item = new Item(1L, "Item A", Money.of(10000), 5);
+        when(orderRepository.findWithLinesByOrderNo("O001"))
+                .thenReturn(Optional.of(new Order("O001", item, 2, Money.of(20000))));
+
+        OrderBasketRes res = orderService.getBasketOrderById("O001");
+
+        assertEquals(1, res.getLines().size());
+        assertEquals(1L, res.getLines().get(0).getItem().getItemId());
+        assertEquals(2, res.getLines().get(0).getOrderQty());
+    }
+
+    @Test
+    void deleteOrder_withLines_shouldRestoreStockPerItem() {
+        Item itemA = new Item(1L, "Item A", Money.of(10000), 1);
+        Item itemB = new Item(2L, "Item B", Money.of(5000), 0);
+        Order order = new Order("O001", null, 5, Money.of(35000));
+        order.getLines().add(new OrderLine(1L, order, 1, itemA, 2, Money.of(20000)));
+        order.getLines().add(new OrderLine(2L, order, 2, itemB, 3, Money.of(15000)));
+
+        when(orderRepository.findById("O001")).thenReturn(Optional.of(order));
+        when(itemRepository.findAllByIdForUpdate(any())).thenReturn(List.of(itemA, itemB));
+
+        orderService.deleteOrder("O001");
+
+        assertEquals(3, itemA.getItemStock());
+        assertEquals(3, itemB.getItemStock());
+        verify(orderRepository).delete(order);
+    }
+
+    @Test
+    void updateOrder_shouldReject_ordersWithLines() {
+        Order order = new Order("O001", null, 1, Money.of(10000));
+        order.getLines().add(new OrderLine(1L, order, 1, new Item(1L, "Item A", Money.of(10000), 1), 1, Money.of(10000)));
+
+        when(orderRepository.findById("O001")).thenReturn(Optional.of(order));
+
+        assertThrows(InvalidOrderException.class,
+                () -> orderService.updateOrder("O001", new OrderReq(1L, 2, Money.of(20000))));
+    }
+
+    @Test
+    void confirmReservation_shouldCreateOrderWithoutTouchingStockAgain() {
+        Item item = new Item(1L, "Item A", Money.of(10000), 7);
+        StockReservation reservation = new StockReservation(5L, item, 3, ReservationStatus.HELD,
+                LocalDateTime.now(), LocalDateTime.now().plusMinutes(10), null);
+
+        when(stockReservationRepository.findWithItemById(5L)).thenReturn(Optional.of(reservation));
+        when(stockReservationRepository.confirmHeld(eq(5L), anyString(), any(LocalDateTime.class))).thenReturn(1);
+        when(orderRepository.save(any(Order.class))).thenAnswer(i -> i.getArguments()[0]);
+
+        OrderRes res = orderService.confirmReservation(5L, new ReservationConfirmReq(Money.of(30000)));
+
+        assertTrue(res.getOrderNo().matches("O[0-9A-Z]{13}"));
+        assertEquals(3, res.getOrderQty());
+        assertEquals(Money.of(30000), res.getPrice());
+        assertEquals(7, item.getItemStock());
+        verify(itemRepository, never()).save(any());
+        verify(salesReportService).recordSale(eq(1L), any(LocalDateTime.class), eq(3), eq(Money.of(30000)));
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof StockReservationClosedEvent closed
+                && closed.getReservationId() == 5L));
+    }
+
+    @Test
+    void confirmReservation_shouldThrow_whenReservationNoLongerHeld() {
+        Item item = new Item(1L, "Item A", Money.of(10000), 7);
+        StockReservation reservation = new StockReservation(5L, item, 3, ReservationStatus.EXPIRED,
+                LocalDateTime.now(), LocalDateTime.now(), null);
+
+        when(stockReservationRepository.findWithItemById(5L)).thenReturn(Optional.of(reservation));
+        when(stockReservationRepository.confirmHeld(eq(5L), anyString(), any(LocalDateTime.class))).thenReturn(0);
+
+        assertThrows(ReservationClosedException.class,
+                () -> orderService.confirmReservation(5L, new ReservationConfirmReq(Money.of(30000))));
+        verify(orderRepository, never()).save(any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void confirmReservation_shouldThrow_whenPriceManipulated() {
+        Item item = new Item(1L, "Item A", Money.of(10000), 7);
+        StockReservation reservation = new StockReservation(5L, item, 3, ReservationStatus.HELD,
+                LocalDateTime.now(), LocalDateTime.now().plusMinutes(10), null);
+
+        when(stockReservationRepository.findWithItemById(5L)).thenReturn(Optional.of(reservation));
+
+        assertThrows(InvalidPriceException.class,
+                () -> orderService.confirmReservation(5L, new ReservationConfirmReq(Money.of(1))));
+        verify(stockReservationRepository, never()).confirmHeld(any(), any(), any());
+    }
+
+    @Test
+    void createOrder_shouldAllocateLocationBeforeReducingItemTotal() {
+        OrderReq req = new OrderReq(1L, 2, Money.of(20000), 3L);
+        Item item = new Item(1L, "Item A", Money.of(10000), 10);
+        StockLocation location = new StockLocation(3L, "JKT-01", "Jakarta", 0);
+
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(stockAllocationService.allocate(item, 2, 3L)).thenAnswer(i -> {
+            assertEquals(10, item.getItemStock());
+            return location;
+        });
+        when(orderRepository.save(any(Order.class))).thenAnswer(i -> i.getArguments()[0]);
+
+        OrderRes res = orderService.createOrder(req);
+
+        assertEquals("JKT-01", res.getLocationCode());
+        assertEquals(8, item.getItemStock());
+    }
+
+    @Test
+    void deleteOrder_shouldReleaseStockBackToItsLocation() {
+        Item item = new Item(1L, "Item A", Money.of(10000), 5);
+        StockLocation location = new StockLocation(3L, "JKT-01", "Jakarta", 0);
+        Order order = new Order("O001", item, 3, Money.of(30000));
+        order.setLocation(location);
+
+        when(orderRepository.findById("O001")).thenReturn(Optional.of(order));
+
+        orderService.deleteOrder("O001");
+
+        assertEquals(8, item.getItemStock());
+        verify(stockAllocationService).release(item, location, 3);
+    }
 }
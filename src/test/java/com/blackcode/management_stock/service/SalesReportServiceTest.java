@@ -0,0 +1,87 @@
+package com.blackcode.management_stock.service;
+
+import com.blackcode.management_stock.datasource.ShardRouter;
+import com.blackcode.management_stock.dto.SalesRollupRes;
+import com.blackcode.management_stock.exception.InvalidReportRangeException;
+import com.blackcode.management_stock.model.RollupGranularity;
+import com.blackcode.management_stock.model.SalesRollup;
+import com.blackcode.management_stock.money.Money;
+import com.blackcode.management_stock.repository.SalesRollupRepository;
+import com.blackcode.management_stock.service.impl.SalesReportServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class SalesReportServiceTest {
+
+    @Mock
+    private SalesRollupRepository salesRollupRepository;
+
+    @Spy
+    private ShardRouter shardRouter = ShardRouter.singleShard();
+
+    @InjectMocks
+    private SalesReportServiceImpl salesReportService;
+
+    private AutoCloseable closeable;
+
+    @BeforeEach
+    void setup() {
+        closeable = MockitoAnnotations.openMocks(this);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        closeable.close();
+    }
+
+    @Test
+    void recordSale_shouldUpsertDailyAndHourlyBuckets() {
+        LocalDateTime orderDate = LocalDateTime.of(2025, 1, 15, 10, 30, 45);
+
+        salesReportService.recordSale(1L, orderDate, 2, Money.of(20000));
+
+        verify(salesRollupRepository).applyDelta(1L, "DAY", LocalDateTime.of(2025, 1, 15, 0, 0), 1, 2, Money.of(20000).getMinorUnits());
+        verify(salesRollupRepository).applyDelta(1L, "HOUR", LocalDateTime.of(2025, 1, 15, 10, 0), 1, 2, Money.of(20000).getMinorUnits());
+    }
+
+    @Test
+    void reverseSale_shouldApplyNegativeDelta() {
+        LocalDateTime orderDate = LocalDateTime.of(2025, 1, 15, 10, 30);
+
+        salesReportService.reverseSale(1L, orderDate, 2, Money.of(20000));
+
+        verify(salesRollupRepository).applyDelta(1L, "DAY", LocalDateTime.of(2025, 1, 15, 0, 0), -1, -2, Money.of(-20000).getMinorUnits());
+        verify(salesRollupRepository).applyDelta(1L, "HOUR", LocalDateTime.of(2025, 1, 15, 10, 0), -1, -2, Money.of(-20000).getMinorUnits());
+    }
+
+    @Test
+    void getSalesRollups_shouldQueryInclusiveDateRange() {
+        SalesRollup rollup = new SalesRollup(1L, RollupGranularity.DAY, LocalDateTime.of(2025, 1, 31, 0, 0), 3, 6, Money.of(60000));
+        when(salesRollupRepository.findRollups(RollupGranularity.DAY, LocalDateTime.of(2025, 1, 1, 0, 0),
+                LocalDateTime.of(2025, 2, 1, 0, 0), 1L)).thenReturn(List.of(rollup));
+
+        List<SalesRollupRes> result = salesReportService.getSalesRollups(RollupGranularity.DAY,
+                LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 31), 1L);
+
+        assertEquals(1, result.size());
+        assertEquals("DAY", result.get(0).getGranularity());
+        assertEquals(6, result.get(0).getTotalQty());
+        assertEquals(Money.of(60000), result.get(0).getTotalRevenue());
+    }
+
+    @Test
+    void getSalesSummary_shouldThrow_whenRangeIsInverted() {
+        assertThrows(InvalidReportRangeException.class, () ->
+                salesReportService.getSalesSummary(LocalDate.of(2025, 2, 1), LocalDate.of(2025, 1, 1), null));
+        verifyNoInteractions(salesRollupRepository);
+    }
+}
@@ -0,0 +1,77 @@
+package com.blackcode.management_stock.service;
+
+import com.blackcode.management_stock.dto.ItemReq;
+import com.blackcode.management_stock.dto.ItemRes;
+import com.blackcode.management_stock.dto.ItemShardReq;
+import com.blackcode.management_stock.dto.OrderReq;
+import com.blackcode.management_stock.money.Money;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Concurrent createOrder calls on one item, with its stock in the item row and split over stock slots. Every order
+// goes through the whole service: stock lock, stock check, allocation, sales rollup and the order insert.
+// Run with: mvn -Pbenchmark test
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:single-sku-order-benchmark;DB_CLOSE_DELAY=-1")
+public class SingleSkuOrderBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(SingleSkuOrderBenchmarkTest.class);
+
+    private static final int THREADS = 8;
+
+    private static final int ORDERS = 2000;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Test
+    void benchmark_singleSkuOrders() throws Exception {
+        StringBuilder table = new StringBuilder(String.format("%n%-22s %12s%n", "stock", "orders/s"));
+        for (int shards : new int[]{0, 4, 16}) {
+            ItemRes item = itemService.createItem(new ItemReq("Hot " + shards, Money.of(1000), ORDERS));
+            if (shards > 0) {
+                itemService.updateStockShards(item.getItemId(), new ItemShardReq(shards));
+            }
+            OrderReq order = new OrderReq(item.getItemId(), 1, Money.of(1000));
+
+            long start = System.nanoTime();
+            runConcurrently(ORDERS, () -> orderService.createOrder(order));
+            double rate = ORDERS / ((System.nanoTime() - start) / 1_000_000_000.0);
+
+            table.append(String.format("%-22s %12.0f%n", shards == 0 ? "item row" : shards + " slots", rate));
+            assertEquals(0, itemService.getItemById(item.getItemId()).getItemStock());
+        }
+        log.info("Single-item createOrder throughput ({} threads):{}", THREADS, table);
+    }
+
+    private void runConcurrently(int tasks, Runnable body) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>(tasks);
+            for (int i = 0; i < tasks; i++) {
+                futures.add(pool.submit(body));
+            }
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.blackcode.management_stock.service;
+
+import com.blackcode.management_stock.exception.DataNotFoundException;
+import com.blackcode.management_stock.exception.NotEnoughStockException;
+import com.blackcode.management_stock.model.AllocationStrategy;
+import com.blackcode.management_stock.model.Item;
+import com.blackcode.management_stock.model.LocationStock;
+import com.blackcode.management_stock.model.StockLocation;
+import com.blackcode.management_stock.money.Money;
+import com.blackcode.management_stock.repository.LocationStockRepository;
+import com.blackcode.management_stock.repository.StockLocationRepository;
+import com.blackcode.management_stock.service.impl.StockAllocationServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class StockAllocationServiceTest {
+
+    @Mock
+    private LocationStockRepository locationStockRepository;
+
+    @Mock
+    private StockLocationRepository stockLocationRepository;
+
+    @Mock
+    private StockSlotService stockSlotService;
+
+    private AutoCloseable closeable;
+
+    private final Item item = new Item(1L, "Item A", Money.of(10000), 30);
+
+    private final StockLocation near = new StockLocation(1L, "NEAR", "Near Warehouse", 0);
+
+    private final StockLocation far = new StockLocation(2L, "FAR", "Far Warehouse", 5);
+
+    private final StockLocation mid = new StockLocation(3L, "MID", "Mid Warehouse", 2);
+
+    @BeforeEach
+    void setup() {
+        closeable = MockitoAnnotations.openMocks(this);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        closeable.close();
+    }
+
+    @Test
+    void allocate_nearest_shouldPickLowestPriorityThatCanFillTheOrder() {
+        LocationStock nearStock = new LocationStock(1L, item, near, 2);
+        LocationStock farStock = new LocationStock(2L, item, far, 10);
+        LocationStock midStock = new LocationStock(3L, item, mid, 6);
+        when(locationStockRepository.findSnapshotsByItemId(1L)).thenReturn(List.of(nearStock, farStock, midStock));
+        freeAndTakeable(mid);
+
+        StockLocation location = service(AllocationStrategy.NEAREST).allocate(item, 5, null);
+
+        assertSame(mid, location);
+        verify(locationStockRepository).tryTake(1L, 3L, 5);
+        verify(locationStockRepository, never()).lockIfFree(1L, 1L, 5);
+        verify(locationStockRepository, never()).lockIfFree(1L, 2L, 5);
+    }
+
+    @Test
+    void allocate_mostStock_shouldPickFullestLocation() {
+        LocationStock nearStock = new LocationStock(1L, item, near, 2);
+        LocationStock farStock = new LocationStock(2L, item, far, 10);
+        when(locationStockRepository.findSnapshotsByItemId(1L)).thenReturn(List.of(nearStock, farStock));
+        freeAndTakeable(near);
+        freeAndTakeable(far);
+
+        assertSame(far, service(AllocationStrategy.MOST_STOCK).allocate(item, 1, null));
+        verify(locationStockRepository).tryTake(1L, 2L, 1);
+        verify(locationStockRepository, never()).tryTake(1L, 1L, 1);
+    }
+
+    @Test
+    void allocate_roundRobin_shouldRotateAcrossEligibleLocations() {
+        LocationStock nearStock = new LocationStock(1L, item, near, 10);
+        LocationStock farStock = new LocationStock(2L, item, far, 10);
+        when(locationStockRepository.findSnapshotsByItemId(1L)).thenReturn(List.of(nearStock, farStock));
+        freeAndTakeable(near);
+        freeAndTakeable(far);
+        StockAllocationService roundRobin = service(AllocationStrategy.ROUND_ROBIN);
+
+        assertSame(near, roundRobin.allocate(item, 1, null));
+        assertSame(far, roundRobin.allocate(item, 1, null));
+        assertSame(near, roundRobin.allocate(item, 1, null));
+    }
+
+    @Test
+    void allocate_shouldSkipALockedCandidate_forTheNextOne() {
+        LocationStock nearStock = new LocationStock(1L, item, near, 10);
+        LocationStock farStock = new LocationStock(2L, item, far, 10);
+        when(locationStockRepository.findSnapshotsByItemId(1L)).thenReturn(List.of(nearStock, farStock));
+        when(locationStockRepository.tryTake(1L, 1L, 4)).thenReturn(1);
+        freeAndTakeable(far);
+
+        assertSame(far, service(AllocationStrategy.NEAREST).allocate(item, 4, null));
+        verify(locationStockRepository, never()).tryTake(1L, 1L, 4);
+    }
+
+    @Test
+    void allocate_shouldWaitOnThePreferredCandidate_whenEveryCandidateIsLocked() {
+        LocationStock nearStock = new LocationStock(1L, item, near, 10);
+        LocationStock farStock = new LocationStock(2L, item, far, 10);
+        when(locationStockRepository.findSnapshotsByItemId(1L)).thenReturn(List.of(nearStock, farStock));
+        when(locationStockRepository.tryTake(1L, 1L, 4)).thenReturn(1);
+
+        assertSame(near, service(AllocationStrategy.NEAREST).allocate(item, 4, null));
+        verify(locationStockRepository, never()).tryTake(1L, 2L, 4);
+    }
+
+    @Test
+    void allocate_shouldFallBackToUnassignedStock_whenNoLocationCanFill() {
+        LocationStock nearStock = new LocationStock(1L, item, near, 4);
+        when(locationStockRepository.findSnapshotsByItemId(1L)).thenReturn(List.of(nearStock));
+
+        assertNull(service(AllocationStrategy.NEAREST).allocate(item, 20, null));
+        verify(locationStockRepository, never()).tryTake(anyLong(), anyLong(), anyInt());
+
+        assertThrows(NotEnoughStockException.class, () -> service(AllocationStrategy.NEAREST).allocate(item, 27, null));
+    }
+
+    @Test
+    void allocate_shouldReturnNull_forItemsWithoutLocations() {
+        when(locationStockRepository.findSnapshotsByItemId(1L)).thenReturn(Collections.emptyList());
+
+        assertNull(service(AllocationStrategy.NEAREST).allocate(item, 5, null));
+        verify(locationStockRepository, never()).tryTake(anyLong(), anyLong(), anyInt());
+    }
+
+    @Test
+    void allocate_explicitLocation_shouldRequireStockThere() {
+        when(stockLocationRepository.findById(2L)).thenReturn(Optional.of(far));
+        when(locationStockRepository.tryTake(1L, 2L, 4)).thenReturn(0);
+        when(locationStockRepository.tryTake(1L, 2L, 3)).thenReturn(1);
+
+        assertThrows(NotEnoughStockException.class, () -> service(AllocationStrategy.NEAREST).allocate(item, 4, 2L));
+        assertSame(far, service(AllocationStrategy.NEAREST).allocate(item, 3, 2L));
+    }
+
+    @Test
+    void receive_shouldAddToTheLocationRow() {
+        when(stockLocationRepository.findById(1L)).thenReturn(Optional.of(near));
+
+        assertSame(near, service(AllocationStrategy.NEAREST).receive(item, 7, 1L));
+
+        verify(locationStockRepository).addQuantity(1L, 1L, 7);
+    }
+
+    @Test
+    void receive_shouldThrow_whenLocationUnknown() {
+        when(stockLocationRepository.findById(9L)).thenReturn(Optional.empty());
+
+        assertThrows(DataNotFoundException.class, () -> service(AllocationStrategy.NEAREST).receive(item, 7, 9L));
+        assertNull(service(AllocationStrategy.NEAREST).receive(item, 7, null));
+    }
+
+    private void freeAndTakeable(StockLocation location) {
+        when(locationStockRepository.lockIfFree(eq(1L), eq(location.getLocationId()), anyInt()))
+                .thenReturn(List.of(location.getLocationId()));
+        when(locationStockRepository.tryTake(eq(1L), eq(location.getLocationId()), anyInt())).thenReturn(1);
+    }
+
+    private StockAllocationService service(AllocationStrategy strategy) {
+        return new StockAllocationServiceImpl(locationStockRepository, stockLocationRepository, stockSlotService, strategy);
+    }
+}
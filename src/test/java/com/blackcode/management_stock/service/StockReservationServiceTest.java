@@ -0,0 +1,193 @@
+package com.blackcode.management_stock.service;
+
+import com.blackcode.management_stock.datasource.ShardRouter;
+import com.blackcode.management_stock.dto.StockReservationReq;
+import com.blackcode.management_stock.dto.StockReservationRes;
+import com.blackcode.management_stock.event.StockReservationClosedEvent;
+import com.blackcode.management_stock.event.StockReservationHeldEvent;
+import com.blackcode.management_stock.exception.DataNotFoundException;
+import com.blackcode.management_stock.exception.NotEnoughStockException;
+import com.blackcode.management_stock.exception.ReservationClosedException;
+import com.blackcode.management_stock.lock.StockLockProvider;
+import com.blackcode.management_stock.model.Item;
+import com.blackcode.management_stock.model.ReservationStatus;
+import com.blackcode.management_stock.model.StockReservation;
+import com.blackcode.management_stock.money.Money;
+import com.blackcode.management_stock.repository.ItemRepository;
+import com.blackcode.management_stock.repository.StockReservationRepository;
+import com.blackcode.management_stock.service.impl.StockReservationServiceImpl;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class StockReservationServiceTest {
+
+    @Mock
+    private StockReservationRepository stockReservationRepository;
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private StockAllocationService stockAllocationService;
+
+    @Mock
+    private StockSlotService stockSlotService;
+
+    @Mock
+    private StockLockProvider stockLockProvider;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private StockReservationServiceImpl stockReservationService;
+
+    private AutoCloseable closeable;
+
+    @BeforeEach
+    void setup() {
+        closeable = MockitoAnnotations.openMocks(this);
+        stockReservationService = new StockReservationServiceImpl(stockReservationRepository, itemRepository, eventPublisher,
+                stockAllocationService, stockSlotService, ShardRouter.singleShard(), stockLockProvider, entityManager, 900);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        closeable.close();
+    }
+
+    @Test
+    void holdStock_shouldTakeStockAndScheduleExpiry() {
+        Item item = new Item(1L, "Item A", Money.of(10000), 10);
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(stockReservationRepository.save(any(StockReservation.class))).thenAnswer(i -> {
+            StockReservation reservation = (StockReservation) i.getArguments()[0];
+            reservation.setReservationId(7L);
+            return reservation;
+        });
+
+        LocalDateTime before = LocalDateTime.now();
+        StockReservationRes res = stockReservationService.holdStock(new StockReservationReq(1L, 4, 60));
+
+        assertEquals(7L, res.getReservationId());
+        assertEquals("HELD", res.getStatus());
+        assertEquals(4, res.getReservedQty());
+        assertEquals(6, item.getItemStock());
+        assertFalse(res.getExpiresAt().isBefore(before.plusSeconds(60)));
+        ArgumentCaptor<StockReservationHeldEvent> eventCaptor = ArgumentCaptor.forClass(StockReservationHeldEvent.class);
+        verify(eventPublisher).publishEvent(eventCaptor.capture());
+        assertEquals(7L, eventCaptor.getValue().getReservationId());
+        assertEquals(res.getExpiresAt(), eventCaptor.getValue().getExpiresAt());
+        InOrder inOrder = inOrder(stockLockProvider, entityManager);
+        inOrder.verify(stockLockProvider).lockForTransaction(List.of(1L));
+        inOrder.verify(entityManager).refresh(item);
+    }
+
+    @Test
+    void holdStock_shouldLeaveItemsWithStockSlotsToTheSlotLocks() {
+        Item item = new Item(1L, "Item A", Money.of(10000), 0);
+        item.setStockShards(4);
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(stockSlotService.available(item)).thenReturn(10);
+        when(stockReservationRepository.save(any(StockReservation.class))).thenAnswer(i -> i.getArguments()[0]);
+
+        stockReservationService.holdStock(new StockReservationReq(1L, 4, 60));
+
+        verify(stockSlotService).take(item, 4);
+        verifyNoInteractions(stockLockProvider);
+    }
+
+    @Test
+    void holdStock_shouldUseDefaultTtl_whenNotGiven() {
+        Item item = new Item(1L, "Item A", Money.of(10000), 10);
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(stockReservationRepository.save(any(StockReservation.class))).thenAnswer(i -> i.getArguments()[0]);
+
+        LocalDateTime before = LocalDateTime.now();
+        StockReservationRes res = stockReservationService.holdStock(new StockReservationReq(1L, 1, null));
+
+        assertFalse(res.getExpiresAt().isBefore(before.plusSeconds(900)));
+    }
+
+    @Test
+    void holdStock_shouldThrow_whenNotEnoughStock() {
+        Item item = new Item(1L, "Item A", Money.of(10000), 2);
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+
+        assertThrows(NotEnoughStockException.class, () -> stockReservationService.holdStock(new StockReservationReq(1L, 3, 60)));
+        assertEquals(2, item.getItemStock());
+        verify(stockReservationRepository, never()).save(any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void holdStock_shouldThrow_whenItemMissing() {
+        when(itemRepository.findById(1L)).thenReturn(Optional.empty());
+
+        assertThrows(DataNotFoundException.class, () -> stockReservationService.holdStock(new StockReservationReq(1L, 3, 60)));
+    }
+
+    @Test
+    void releaseReservation_shouldRestoreStock() {
+        Item item = new Item(1L, "Item A", Money.of(10000), 6);
+        StockReservation reservation = heldReservation(item, 4);
+        when(stockReservationRepository.findWithItemById(7L)).thenReturn(Optional.of(reservation));
+        when(stockReservationRepository.closeHeld(7L, ReservationStatus.RELEASED)).thenReturn(1);
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+
+        StockReservationRes res = stockReservationService.releaseReservation(7L);
+
+        assertEquals("RELEASED", res.getStatus());
+        assertEquals(10, item.getItemStock());
+        InOrder inOrder = inOrder(stockLockProvider, entityManager, itemRepository);
+        inOrder.verify(stockLockProvider).lockForTransaction(List.of(1L));
+        inOrder.verify(entityManager).refresh(item);
+        inOrder.verify(itemRepository).save(item);
+        verify(eventPublisher).publishEvent(any(StockReservationClosedEvent.class));
+    }
+
+    @Test
+    void releaseReservation_shouldThrow_whenAlreadyClosed() {
+        Item item = new Item(1L, "Item A", Money.of(10000), 6);
+        when(stockReservationRepository.findWithItemById(7L)).thenReturn(Optional.of(heldReservation(item, 4)));
+        when(stockReservationRepository.closeHeld(7L, ReservationStatus.RELEASED)).thenReturn(0);
+
+        assertThrows(ReservationClosedException.class, () -> stockReservationService.releaseReservation(7L));
+        assertEquals(6, item.getItemStock());
+        verify(itemRepository, never()).save(any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void expireReservation_shouldBeNoOp_whenReservationAlreadyConfirmed() {
+        Item item = new Item(1L, "Item A", Money.of(10000), 6);
+        when(stockReservationRepository.findWithItemById(7L)).thenReturn(Optional.of(heldReservation(item, 4)));
+        when(stockReservationRepository.closeHeld(7L, ReservationStatus.EXPIRED)).thenReturn(0);
+
+        assertFalse(stockReservationService.expireReservation(7L));
+        assertFalse(stockReservationService.expireReservation(8L));
+        assertEquals(6, item.getItemStock());
+        verify(itemRepository, never()).save(any());
+    }
+
+    private StockReservation heldReservation(Item item, int qty) {
+        LocalDateTime now = LocalDateTime.now();
+        return new StockReservation(7L, item, qty, ReservationStatus.HELD, now, now.plusMinutes(15), null);
+    }
+}
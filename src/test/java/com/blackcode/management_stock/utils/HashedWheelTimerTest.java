@@ -0,0 +1,83 @@
+package com.blackcode.management_stock.utils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HashedWheelTimerTest {
+
+    private HashedWheelTimer timer;
+
+    @BeforeEach
+    void setup() {
+        timer = new HashedWheelTimer("test-wheel", 10, 8);
+    }
+
+    @AfterEach
+    void tearDown() {
+        timer.close();
+    }
+
+    @Test
+    void schedule_shouldFireTasksInDeadlineOrder_evenPastOneWheelRotation() throws Exception {
+        List<String> fired = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(3);
+        long start = System.nanoTime();
+
+        timer.schedule(() -> { fired.add("late"); latch.countDown(); }, 250, TimeUnit.MILLISECONDS);
+        timer.schedule(() -> { fired.add("early"); latch.countDown(); }, 20, TimeUnit.MILLISECONDS);
+        timer.schedule(() -> { fired.add("middle"); latch.countDown(); }, 120, TimeUnit.MILLISECONDS);
+
+        assertTrue(latch.await(2, TimeUnit.SECONDS));
+        assertEquals(List.of("early", "middle", "late"), fired);
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 250);
+        assertEquals(0, timer.pendingCount());
+    }
+
+    @Test
+    void cancel_shouldPreventTaskFromRunning() throws Exception {
+        CountDownLatch cancelled = new CountDownLatch(1);
+        CountDownLatch other = new CountDownLatch(1);
+
+        HashedWheelTimer.Timeout timeout = timer.schedule(cancelled::countDown, 30, TimeUnit.MILLISECONDS);
+        timer.schedule(other::countDown, 60, TimeUnit.MILLISECONDS);
+        timeout.cancel();
+
+        assertTrue(other.await(1, TimeUnit.SECONDS));
+        assertFalse(cancelled.await(50, TimeUnit.MILLISECONDS));
+        assertTrue(timeout.isCancelled());
+    }
+
+    @Test
+    void pendingCount_shouldDropOnce_whenATimeoutIsCancelledOrFires() throws Exception {
+        CountDownLatch fired = new CountDownLatch(1);
+
+        HashedWheelTimer.Timeout cancelled = timer.schedule(() -> { }, 1, TimeUnit.MINUTES);
+        HashedWheelTimer.Timeout expiring = timer.schedule(fired::countDown, 20, TimeUnit.MILLISECONDS);
+        assertEquals(2, timer.pendingCount());
+
+        cancelled.cancel();
+        cancelled.cancel();
+        assertEquals(1, timer.pendingCount());
+
+        assertTrue(fired.await(1, TimeUnit.SECONDS));
+        expiring.cancel();
+        assertTrue(expiring.isExpired());
+        assertFalse(expiring.isCancelled());
+        assertEquals(0, timer.pendingCount());
+    }
+
+    @Test
+    void schedule_shouldRejectTasks_afterClose() {
+        timer.close();
+
+        assertThrows(IllegalStateException.class, () -> timer.schedule(() -> { }, 1, TimeUnit.MILLISECONDS));
+    }
+}
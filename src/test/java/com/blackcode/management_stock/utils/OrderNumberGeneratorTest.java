@@ -0,0 +1,172 @@
+package com.blackcode.management_stock.utils;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OrderNumberGeneratorTest {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderNumberGeneratorTest.class);
+
+    @Test
+    void next_shouldBeFixedWidthAndSortInCreationOrder() {
+        OrderNumberGenerator generator = new OrderNumberGenerator(3);
+        List<String> orderNos = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            orderNos.add(generator.next());
+        }
+
+        assertTrue(orderNos.stream().allMatch(orderNo -> orderNo.matches("O[0-9A-Z]{13}")));
+        assertEquals(orderNos, orderNos.stream().sorted().toList());
+        assertEquals(orderNos.size(), new HashSet<>(orderNos).size());
+    }
+
+    @Test
+    void nextId_shouldEmbedTimeAndNode() {
+        FixedClockGenerator generator = new FixedClockGenerator(5, OrderNumberGenerator.EPOCH + 1000);
+
+        long id = generator.nextId();
+
+        assertEquals(1000, id >>> (OrderNumberGenerator.NODE_BITS + OrderNumberGenerator.SEQUENCE_BITS));
+        assertEquals(5, (id >>> OrderNumberGenerator.SEQUENCE_BITS) & OrderNumberGenerator.MAX_NODE_ID);
+        assertEquals(0, id & ((1 << OrderNumberGenerator.SEQUENCE_BITS) - 1));
+    }
+
+    @Test
+    void nextId_shouldStayIncreasing_whenSequenceOverflowsOrClockStepsBack() {
+        FixedClockGenerator generator = new FixedClockGenerator(1, OrderNumberGenerator.EPOCH + 1000);
+        long previous = generator.nextId();
+        for (int i = 0; i < 3 * (1 << OrderNumberGenerator.SEQUENCE_BITS); i++) {
+            long id = generator.nextId();
+            assertTrue(id > previous);
+            previous = id;
+        }
+
+        generator.clock.set(OrderNumberGenerator.EPOCH + 500);
+        assertTrue(generator.nextId() > previous);
+    }
+
+    @Test
+    void nextId_shouldNotCollide_acrossNodesWithTheSameClock() {
+        FixedClockGenerator node1 = new FixedClockGenerator(1, OrderNumberGenerator.EPOCH + 1000);
+        FixedClockGenerator node2 = new FixedClockGenerator(2, OrderNumberGenerator.EPOCH + 1000);
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            ids.add(node1.nextId());
+            ids.add(node2.nextId());
+        }
+        assertEquals(2000, ids.size());
+    }
+
+    @Test
+    void nextId_shouldBeUnique_underConcurrentCalls() throws Exception {
+        OrderNumberGenerator generator = new OrderNumberGenerator(7);
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        runConcurrently(8, 20_000, () -> ids.add(generator.nextId()));
+        assertEquals(8 * 20_000, ids.size());
+    }
+
+    @Test
+    void constructor_shouldRejectNodeIdOutOfRange() {
+        assertThrows(IllegalArgumentException.class, () -> new OrderNumberGenerator(OrderNumberGenerator.MAX_NODE_ID + 1));
+    }
+
+    @Test
+    void restore_shouldTakeTheNodeIdFromTheRestoreCommandLine_andKeepIdsIncreasing() {
+        OrderNumberGenerator generator = new OrderNumberGenerator(3);
+        long beforeCheckpoint = generator.nextId();
+
+        generator.stop();
+        System.setProperty(OrderNumberGenerator.NODE_ID_PROPERTY, "9");
+        try {
+            generator.start();
+        } finally {
+            System.clearProperty(OrderNumberGenerator.NODE_ID_PROPERTY);
+        }
+
+        assertTrue(generator.isRunning());
+        assertEquals(9, generator.getNodeId());
+        long afterRestore = generator.nextId();
+        assertTrue(afterRestore > beforeCheckpoint);
+        assertEquals(9, (afterRestore >>> OrderNumberGenerator.SEQUENCE_BITS) & OrderNumberGenerator.MAX_NODE_ID);
+    }
+
+    @Test
+    void start_shouldKeepTheNodeId_whenTheGeneratorWasNeverStopped() {
+        OrderNumberGenerator generator = new OrderNumberGenerator(3);
+
+        generator.start();
+
+        assertEquals(3, generator.getNodeId());
+    }
+
+    // Run with: mvn -Pbenchmark test
+    @Test
+    @Tag("benchmark")
+    void benchmark_idsPerSecond() throws Exception {
+        OrderNumberGenerator generator = new OrderNumberGenerator(1);
+        int perThread = 2_000_000;
+        StringBuilder table = new StringBuilder(String.format("%n%-10s %14s %14s%n", "threads", "ids/s", "orderNos/s"));
+        for (int threads : new int[]{1, 4, 8}) {
+            long start = System.nanoTime();
+            runConcurrently(threads, perThread, generator::nextId);
+            double ids = rate((long) threads * perThread, start);
+            start = System.nanoTime();
+            runConcurrently(threads, perThread, generator::next);
+            double orderNos = rate((long) threads * perThread, start);
+            table.append(String.format("%-10d %14.0f %14.0f%n", threads, ids, orderNos));
+        }
+        log.info("Order number generation throughput:{}", table);
+    }
+
+    private void runConcurrently(int threads, int perThread, Runnable body) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>(threads);
+            for (int t = 0; t < threads; t++) {
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        body.run();
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private double rate(long count, long startNanos) {
+        return count / ((System.nanoTime() - startNanos) / 1_000_000_000.0);
+    }
+
+    private static class FixedClockGenerator extends OrderNumberGenerator {
+
+        private final AtomicLong clock;
+
+        FixedClockGenerator(int nodeId, long millis) {
+            super(nodeId);
+            this.clock = new AtomicLong(millis);
+        }
+
+        @Override
+        protected long currentMillis() {
+            return clock.get();
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package com.blackcode.management_stock.web;
+
+import com.blackcode.management_stock.controller.ItemController;
+import com.blackcode.management_stock.controller.OrderController;
+import com.blackcode.management_stock.dto.ItemDto;
+import com.blackcode.management_stock.dto.ItemRes;
+import com.blackcode.management_stock.dto.OrderReq;
+import com.blackcode.management_stock.dto.OrderRes;
+import com.blackcode.management_stock.dto.PageRes;
+import com.blackcode.management_stock.exception.GlobalExceptionHandler;
+import com.blackcode.management_stock.money.Money;
+import com.blackcode.management_stock.service.CatalogSyncService;
+import com.blackcode.management_stock.service.ItemService;
+import com.blackcode.management_stock.service.OrderService;
+import com.blackcode.management_stock.utils.ApiResponse;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.protobuf.ProtobufMapper;
+import com.fasterxml.jackson.dataformat.protobuf.schema.ProtobufSchema;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.ResolvableType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+public class WireFormatTest {
+
+    private static final Logger log = LoggerFactory.getLogger(WireFormatTest.class);
+
+    private static final MediaType PROTOBUF = WireFormat.PROTOBUF.mediaType();
+
+    @Mock
+    private ItemService itemService;
+
+    @Mock
+    private OrderService orderService;
+
+    @Mock
+    private CatalogSyncService catalogSyncService;
+
+    private MockMvc mockMvc;
+
+    private final JacksonProtobufHttpMessageConverter protobufConverter = new JacksonProtobufHttpMessageConverter();
+
+    private final ProtobufMapper protobufMapper = (ProtobufMapper) protobufConverter.getObjectMapper();
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        mockMvc = MockMvcBuilders.standaloneSetup(new ItemController(itemService, catalogSyncService), new OrderController(orderService, 500))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .setMessageConverters(new MappingJackson2HttpMessageConverter(),
+                        new MappingJackson2CborHttpMessageConverter(), protobufConverter)
+                .build();
+    }
+
+    @Test
+    void getItem_shouldFollowTheAcceptHeader_andTagEachFormatSeparately() throws Exception {
+        when(itemService.getItemById(1L)).thenReturn(item(1));
+
+        mockMvc.perform(get("/api/items/{id}", 1L).accept(MediaType.ALL))
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(header().string("ETag", "\"1-0-10\""));
+
+        MvcResult cbor = mockMvc.perform(get("/api/items/{id}", 1L).accept(MediaType.APPLICATION_CBOR))
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_CBOR))
+                .andExpect(header().string("ETag", "\"1-0-10.cbor\""))
+                .andExpect(header().string("Vary", "Accept"))
+                .andReturn();
+        Map<?, ?> decoded = new CBORMapper().readValue(cbor.getResponse().getContentAsByteArray(), Map.class);
+        assertEquals("Item 1", ((Map<?, ?>) decoded.get("data")).get("itemName"));
+
+        MvcResult protobuf = mockMvc.perform(get("/api/items/{id}", 1L).accept(PROTOBUF))
+                .andExpect(content().contentTypeCompatibleWith(PROTOBUF))
+                .andExpect(header().string("ETag", "\"1-0-10.proto\""))
+                .andReturn();
+        ApiResponse<ItemRes> response = readProtobuf(protobuf.getResponse().getContentAsByteArray(),
+                ResolvableType.forClassWithGenerics(ApiResponse.class, ItemRes.class).getType());
+        assertEquals(200, response.getStatusCode());
+        assertEquals("Item 1", response.getData().getItemName());
+        assertEquals(Money.parse("10000.50"), response.getData().getItemPrice());
+
+        mockMvc.perform(get("/api/items/{id}", 1L).accept(PROTOBUF).header("If-None-Match", "\"1-0-10\""))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/items/{id}", 1L).accept(PROTOBUF).header("If-None-Match", "\"1-0-10.proto\""))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void pagedItems_shouldRoundTripThroughProtobuf() throws Exception {
+        when(itemService.getAllItems(0, 10)).thenReturn(itemPage(3));
+
+        MvcResult result = mockMvc.perform(get("/api/items").accept(PROTOBUF))
+                .andExpect(status().isOk())
+                .andReturn();
+        ApiResponse<PageRes<ItemRes>> response = readProtobuf(result.getResponse().getContentAsByteArray(),
+                ResolvableType.forClassWithGenerics(ApiResponse.class,
+                        ResolvableType.forClassWithGenerics(PageRes.class, ItemRes.class)).getType());
+
+        assertEquals(3, response.getData().getTotalElements());
+        assertEquals(List.of(0L, 1L, 2L), response.getData().getContent().stream().map(ItemRes::getItemId).toList());
+    }
+
+    @Test
+    void createOrder_shouldAcceptAProtobufBody() throws Exception {
+        when(orderService.createOrder(any(OrderReq.class))).thenAnswer(invocation -> {
+            OrderReq req = invocation.getArgument(0);
+            return new OrderRes("O0000000000001", new ItemDto(req.getItemId(), "Item 1", Money.of(10000)),
+                    req.getOrderQty(), req.getPrice());
+        });
+        ProtobufSchema schema = protobufConverter.schemaFor(OrderReq.class).orElseThrow();
+        byte[] body = protobufMapper.writer(schema).writeValueAsBytes(new OrderReq(1L, 2, Money.of(20000)));
+
+        MvcResult result = mockMvc.perform(post("/api/orders").contentType(PROTOBUF).accept(PROTOBUF).content(body))
+                .andExpect(status().isCreated())
+                .andReturn();
+        ApiResponse<OrderRes> response = readProtobuf(result.getResponse().getContentAsByteArray(),
+                ResolvableType.forClassWithGenerics(ApiResponse.class, OrderRes.class).getType());
+
+        assertEquals(2, response.getData().getOrderQty());
+        assertEquals(Money.of(20000), response.getData().getPrice());
+    }
+
+    @Test
+    void typesWithoutASchema_shouldFallBackToJson() throws Exception {
+        when(itemService.deleteItem(1L)).thenReturn(Map.of("deletedItemId", 1L));
+
+        mockMvc.perform(delete("/api/items/{id}", 1L).accept(PROTOBUF.toString() + ", application/json;q=0.5"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.data.deletedItemId").value(1));
+    }
+
+    @Test
+    void errors_shouldComeBackAsJson_whenTheClientAcceptsIt() throws Exception {
+        ProtobufSchema schema = protobufConverter.schemaFor(OrderReq.class).orElseThrow();
+        byte[] body = protobufMapper.writer(schema).writeValueAsBytes(new OrderReq(1L, 0, Money.of(20000)));
+
+        mockMvc.perform(post("/api/orders").contentType(PROTOBUF)
+                        .accept(PROTOBUF.toString() + ", application/json;q=0.5").content(body))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.data.orderQty").value("Quantity harus lebih dari 0"));
+    }
+
+    @Test
+    void negotiate_shouldPickTheHighestQualityFormat() {
+        assertEquals(WireFormat.JSON, WireFormat.negotiate(null));
+        assertEquals(WireFormat.JSON, WireFormat.negotiate("*/*"));
+        assertEquals(WireFormat.CBOR, WireFormat.negotiate("application/cbor"));
+        assertEquals(WireFormat.PROTOBUF, WireFormat.negotiate("application/json;q=0.5, application/x-protobuf"));
+        assertEquals(WireFormat.JSON, WireFormat.negotiate("application/x-protobuf;q=0.1, */*;q=0.9"));
+    }
+
+    @Test
+    void binaryFormats_shouldBeSmallerThanJson() throws Exception {
+        ApiResponse<PageRes<ItemRes>> page = ApiResponse.success("Item retrieved successfully", 200, PageRes.of(itemPage(100)));
+        Type type = ResolvableType.forClassWithGenerics(ApiResponse.class,
+                ResolvableType.forClassWithGenerics(PageRes.class, ItemRes.class)).getType();
+
+        int json = new ObjectMapper().writeValueAsBytes(page).length;
+        int cbor = new CBORMapper().writeValueAsBytes(page).length;
+        int protobuf = protobufWriter(type).writeValueAsBytes(page).length;
+
+        assertTrue(cbor < json, cbor + " vs " + json);
+        assertTrue(protobuf < cbor, protobuf + " vs " + cbor);
+    }
+
+    // Run with: mvn -Pbenchmark test
+    @Test
+    @Tag("benchmark")
+    void benchmark_serializationCostAndSize() throws Exception {
+        ApiResponse<OrderRes> order = ApiResponse.success("Order created successfully", 201,
+                new OrderRes("O0000000000001", new ItemDto(1L, "Item 1", Money.of(10000)), 2, Money.of(20000)));
+        ApiResponse<PageRes<ItemRes>> page = ApiResponse.success("Item retrieved successfully", 200, PageRes.of(itemPage(100)));
+        Type orderType = ResolvableType.forClassWithGenerics(ApiResponse.class, OrderRes.class).getType();
+        Type pageType = ResolvableType.forClassWithGenerics(ApiResponse.class,
+                ResolvableType.forClassWithGenerics(PageRes.class, ItemRes.class)).getType();
+        ObjectMapper json = new ObjectMapper();
+        ObjectMapper cbor = new CBORMapper();
+
+        StringBuilder table = new StringBuilder(String.format("%n%-10s %-9s %10s %12s%n", "payload", "format", "bytes", "ns/write"));
+        measure(table, "order", "json", json.writerFor(json.constructType(orderType)), order);
+        measure(table, "order", "cbor", cbor.writerFor(cbor.constructType(orderType)), order);
+        measure(table, "order", "protobuf", protobufWriter(orderType), order);
+        measure(table, "item-page", "json", json.writerFor(json.constructType(pageType)), page);
+        measure(table, "item-page", "cbor", cbor.writerFor(cbor.constructType(pageType)), page);
+        measure(table, "item-page", "protobuf", protobufWriter(pageType), page);
+        log.info("Serialization cost and size per wire format:{}", table);
+    }
+
+    private void measure(StringBuilder table, String payload, String format, ObjectWriter writer, Object value)
+            throws Exception {
+        int size = writer.writeValueAsBytes(value).length;
+        int iterations = payload.equals("order") ? 200_000 : 5_000;
+        for (int i = 0; i < iterations; i++) {
+            writer.writeValueAsBytes(value);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            writer.writeValueAsBytes(value);
+        }
+        long nanos = (System.nanoTime() - start) / iterations;
+        table.append(String.format("%-10s %-9s %10d %12d%n", payload, format, size, nanos));
+    }
+
+    private ObjectWriter protobufWriter(Type type) {
+        JavaType javaType = protobufMapper.constructType(type);
+        return protobufMapper.writerFor(javaType).with(protobufConverter.schemaFor(type).orElseThrow());
+    }
+
+    private <T> T readProtobuf(byte[] body, Type type) throws Exception {
+        JavaType javaType = protobufMapper.constructType(type);
+        return protobufMapper.readerFor(javaType).with(protobufConverter.schemaFor(type).orElseThrow()).readValue(body);
+    }
+
+    private ItemRes item(long id) {
+        ItemRes item = new ItemRes(id, "Item " + id, Money.parse("10000.50"), 10);
+        item.setVersion(0L);
+        return item;
+    }
+
+    private Page<ItemRes> itemPage(int size) {
+        List<ItemRes> items = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            items.add(item(i));
+        }
+        return new PageImpl<>(items, PageRequest.of(0, Math.max(size, 10)), size);
+    }
+}